@@ -0,0 +1,332 @@
+/**
+ * Decoder of the compact binary BAM track format
+ * (see server's com.epam.catgenome.manager.bam.encoders.BinaryBamTrackEncoder for the layout)
+ */
+
+export const BAM_BINARY_MEDIA_TYPE = 'application/x-ngb-bam-track';
+
+const MAGIC = 'NGBB';
+const VERSION = 1;
+
+const FRAME_READS = 1;
+const FRAME_TRACK = 2;
+const FRAME_ERROR = 3;
+
+const CIGAR_OPERATORS = 'MIDNSHP=X';
+const CIGAR_OPERATOR_BITS = 4;
+const CIGAR_NULL = 0;
+const CIGAR_LITERAL = 1;
+const CIGAR_OPS_OFFSET = 2;
+const BASES_PACKED = 0;
+const BASES = 'ACGT';
+
+const READ_COLUMNS = 18;
+const COVERAGE_COLUMNS = 10;
+const JUNCTION_COLUMNS = 4;
+const WIG_COLUMNS = 3;
+
+const textDecoder = new TextDecoder('utf-8');
+
+class Cursor {
+    constructor(view, offset = 0, length = view.byteLength - offset) {
+        this.view = view;
+        this.offset = offset;
+        this.end = offset + length;
+    }
+
+    hasRemaining() {
+        return this.offset < this.end;
+    }
+
+    byte() {
+        return this.view.getUint8(this.offset++);
+    }
+
+    int32() {
+        const value = this.view.getInt32(this.offset);
+        this.offset += 4;
+        return value;
+    }
+
+    varint() {
+        let result = 0;
+        let multiplier = 1;
+        let current;
+        do {
+            current = this.byte();
+            result += (current & 0x7F) * multiplier;
+            multiplier *= 128;
+        } while (current & 0x80);
+        return result;
+    }
+
+    nullableInt() {
+        const value = this.varint();
+        if (value === 0) {
+            return null;
+        }
+        const zigZag = value - 1;
+        return zigZag % 2 === 0 ? zigZag / 2 : -(zigZag + 1) / 2;
+    }
+
+    nullableFloat() {
+        if (this.byte() === 0) {
+            return null;
+        }
+        const value = this.view.getFloat32(this.offset);
+        this.offset += 4;
+        return value;
+    }
+
+    string() {
+        const size = this.varint();
+        if (size === 0) {
+            return null;
+        }
+        const bytes = new Uint8Array(this.view.buffer, this.view.byteOffset + this.offset, size - 1);
+        this.offset += size - 1;
+        return textDecoder.decode(bytes);
+    }
+
+    sequence() {
+        const size = this.varint();
+        if (size === 0) {
+            return null;
+        }
+        const length = size - 1;
+        const sequence = new Array(length);
+        for (let i = 0; i < length; i++) {
+            const packed = this.view.getUint8(this.offset + (i >> 2));
+            sequence[i] = BASES[(packed >> (6 - 2 * (i & 3))) & 3];
+        }
+        this.offset += (length + 3) >> 2;
+        const exceptions = this.varint();
+        let position = 0;
+        for (let i = 0; i < exceptions; i++) {
+            position += this.varint();
+            sequence[position] = String.fromCharCode(this.varint());
+        }
+        return sequence.join('');
+    }
+
+    block() {
+        const length = this.varint();
+        const block = new Cursor(this.view, this.offset, length);
+        this.offset += length;
+        return block;
+    }
+
+    columns(count) {
+        const columns = [];
+        for (let i = 0; i < count; i++) {
+            columns.push(this.block());
+        }
+        return columns;
+    }
+}
+
+function absolute(value, start) {
+    if (value === null) {
+        return null;
+    }
+    return start === null ? value : value + start;
+}
+
+function setValue(target, name, value) {
+    // mirrors server JSON serialization, that skips null and empty values
+    if (value !== null && value !== '') {
+        target[name] = value;
+    }
+}
+
+function readBlockBounds(block, columns, previous) {
+    const startDelta = columns[0].nullableInt();
+    const start = startDelta === null ? null : previous + startDelta;
+    setValue(block, 'startIndex', start);
+    setValue(block, 'endIndex', absolute(columns[1].nullableInt(), start));
+    return start === null ? previous : start;
+}
+
+function readCigar(column) {
+    const header = column.varint();
+    if (header === CIGAR_NULL) {
+        return null;
+    }
+    if (header === CIGAR_LITERAL) {
+        return column.string();
+    }
+    let cigar = '';
+    for (let i = 0; i < header - CIGAR_OPS_OFFSET; i++) {
+        const element = column.varint();
+        cigar += Math.floor(element / (1 << CIGAR_OPERATOR_BITS)) +
+            CIGAR_OPERATORS[element % (1 << CIGAR_OPERATOR_BITS)];
+    }
+    return cigar;
+}
+
+function readDifferentBases(column) {
+    const size = column.varint();
+    if (size === 0) {
+        return null;
+    }
+    const result = [];
+    for (let i = 0; i < size - 1; i++) {
+        const position = {};
+        setValue(position, 'relativePosition', column.nullableInt());
+        result.push(position);
+    }
+    if (column.byte() === BASES_PACKED) {
+        const bases = column.sequence();
+        result.forEach((position, index) => {
+            position.base = bases[index];
+        });
+    } else {
+        result.forEach(position => setValue(position, 'base', column.string()));
+    }
+    return result;
+}
+
+function readDictionaryValue(column, dictionary) {
+    const index = column.varint();
+    return index === 0 ? null : dictionary[index - 1];
+}
+
+function readReads(frame, blocks) {
+    const count = frame.varint();
+    const dictionarySize = frame.varint();
+    const dictionaryBlock = frame.block();
+    const dictionary = [];
+    for (let i = 0; i < dictionarySize; i++) {
+        dictionary.push(dictionaryBlock.string());
+    }
+    const columns = frame.columns(READ_COLUMNS);
+    const [
+        , , flag, mappingQuality, strand, tlen, pnext, name, pairedReadName, rname, rnext, readGroup, cigar,
+        sequence, qualities, head, tail, differentBase
+    ] = columns;
+    let previousStart = 0;
+    for (let i = 0; i < count; i++) {
+        const read = {};
+        previousStart = readBlockBounds(read, columns, previousStart);
+        setValue(read, 'flagMask', flag.nullableInt());
+        setValue(read, 'mappingQuality', mappingQuality.nullableInt());
+        const strandValue = strand.byte();
+        if (strandValue !== 0) {
+            read.stand = strandValue === 2;
+        }
+        setValue(read, 'tlen', tlen.nullableInt());
+        setValue(read, 'pnext', absolute(pnext.nullableInt(), read.startIndex === undefined ? null : read.startIndex));
+        setValue(read, 'name', readDictionaryValue(name, dictionary));
+        setValue(read, 'pairedReadName', readDictionaryValue(pairedReadName, dictionary));
+        setValue(read, 'rname', readDictionaryValue(rname, dictionary));
+        setValue(read, 'rnext', readDictionaryValue(rnext, dictionary));
+        setValue(read, 'readGroup', readDictionaryValue(readGroup, dictionary));
+        setValue(read, 'cigarString', readCigar(cigar));
+        setValue(read, 'sequence', sequence.sequence());
+        setValue(read, 'qualities', qualities.string());
+        setValue(read, 'headSequence', head.sequence());
+        setValue(read, 'tailSequence', tail.sequence());
+        const bases = readDifferentBases(differentBase);
+        if (bases && bases.length) {
+            read.differentBase = bases;
+        }
+        blocks.push(read);
+    }
+}
+
+function readList(frame, columnsCount, readItem) {
+    const size = frame.varint();
+    if (size === 0) {
+        return null;
+    }
+    const columns = frame.columns(columnsCount);
+    const result = [];
+    let previous = 0;
+    for (let i = 0; i < size - 1; i++) {
+        const item = {};
+        previous = readBlockBounds(item, columns, previous);
+        readItem(item, columns);
+        result.push(item);
+    }
+    return result;
+}
+
+function readBaseCoverage(item, columns) {
+    setValue(item, 'value', columns[2].nullableFloat());
+    ['aCov', 'cCov', 'gCov', 'tCov', 'nCov', 'delCov', 'insCov']
+        .forEach((name, index) => setValue(item, name, columns[index + 3].nullableInt()));
+}
+
+function readSpliceJunction(item, columns) {
+    item.start = item.startIndex;
+    item.end = item.endIndex;
+    delete item.startIndex;
+    delete item.endIndex;
+    item.count = columns[2].varint();
+    item.strand = columns[3].byte() === 1;
+}
+
+function readWig(item, columns) {
+    setValue(item, 'value', columns[2].nullableFloat());
+}
+
+function setList(target, name, value) {
+    if (value && value.length) {
+        target[name] = value;
+    }
+}
+
+function readTrack(frame, blocks) {
+    const payload = JSON.parse(frame.string());
+    setList(payload, 'blocks', blocks);
+    setList(payload, 'baseCoverage', readList(frame, COVERAGE_COLUMNS, readBaseCoverage));
+    setList(payload, 'spliceJunctions', readList(frame, JUNCTION_COLUMNS, readSpliceJunction));
+    setList(payload, 'downsampleCoverage', readList(frame, WIG_COLUMNS, readWig));
+    setList(payload, 'regions', readList(frame, WIG_COLUMNS, readWig));
+    return payload;
+}
+
+function hasMagic(view) {
+    if (view.byteLength <= MAGIC.length) {
+        return false;
+    }
+    for (let i = 0; i < MAGIC.length; i++) {
+        if (view.getUint8(i) !== MAGIC.charCodeAt(i)) {
+            return false;
+        }
+    }
+    return view.getUint8(MAGIC.length) === VERSION;
+}
+
+/**
+ * Decodes a BAM track response into the same structure as JSON one: {status, payload, message}.
+ * Responses without binary header (e.g. server errors) are parsed as JSON
+ * @param {ArrayBuffer} buffer
+ * @returns {Object}
+ */
+export function decodeBamTrack(buffer) {
+    const view = new DataView(buffer);
+    if (!hasMagic(view)) {
+        return buffer.byteLength ? JSON.parse(textDecoder.decode(new Uint8Array(buffer))) : null;
+    }
+    const cursor = new Cursor(view, MAGIC.length + 1);
+    const blocks = [];
+    while (cursor.hasRemaining()) {
+        const type = cursor.byte();
+        const length = cursor.int32();
+        const frame = new Cursor(view, cursor.offset, length);
+        cursor.offset += length;
+        switch (type) {
+            case FRAME_READS:
+                readReads(frame, blocks);
+                break;
+            case FRAME_TRACK:
+                return {status: 'OK', payload: readTrack(frame, blocks)};
+            case FRAME_ERROR:
+                return {status: 'ERROR', message: frame.string()};
+            default:
+                throw new Error(`Unexpected BAM track frame type ${type}`);
+        }
+    }
+    return {status: 'ERROR', message: 'Incomplete BAM track response'};
+}
@@ -0,0 +1,26 @@
+/**
+ * Checks the decoder against the responses of the server's BinaryBamTrackEncoder
+ * (fixtures are verified by the server's BamTrackEncodingTest)
+ */
+import assert from 'node:assert/strict';
+import {readFileSync} from 'node:fs';
+import {test} from 'node:test';
+import {decodeBamTrack} from './bam-binary-decoder.js';
+
+function readFixture(name) {
+    const content = readFileSync(new URL(`./fixtures/${name}`, import.meta.url));
+    return content.buffer.slice(content.byteOffset, content.byteOffset + content.byteLength);
+}
+
+test('binary track matches JSON track', () => {
+    const expected = JSON.parse(new TextDecoder().decode(readFixture('bam-track.json')));
+    assert.deepEqual(decodeBamTrack(readFixture('bam-track.bin')), expected);
+});
+
+test('binary error is decoded', () => {
+    assert.deepEqual(decodeBamTrack(readFixture('bam-track-error.bin')), {status: 'ERROR', message: 'Failure'});
+});
+
+test('JSON response is decoded', () => {
+    assert.deepEqual(decodeBamTrack(readFixture('bam-track.json')), decodeBamTrack(readFixture('bam-track.bin')));
+});
@@ -1,4 +1,7 @@
-import {DataService} from '../data-service';
+import {$http, DataService} from '../data-service';
+import {decodeBamTrack} from './bam-binary-decoder';
+
+const AUTH_ERROR_CODE = 401;
 
 class BamDataInit {
     id: number;
@@ -183,7 +186,8 @@ export class BamDataService extends DataService {
                 showClipping,
                 showSpliceJunction: true,
                 trackDirection: 'LEFT',
-                mode: props.mode
+                mode: props.mode,
+                format: 'BINARY'
             },
             scaleFactor: props.scaleFactor,
             startIndex: props.startIndex
@@ -192,7 +196,7 @@ export class BamDataService extends DataService {
         if (props.file && props.index) {
             url = `bam/track/get?fileUrl=${encodeURIComponent(props.file)}&indexUrl=${encodeURIComponent(props.index)}`;
         }
-        return this.post(url, payload);
+        return this.loadTrack(url, payload);
     }
 
     /**
@@ -215,7 +219,8 @@ export class BamDataService extends DataService {
                 showClipping,
                 showSpliceJunction: true,
                 trackDirection: 'MIDDLE',
-                mode: props.mode
+                mode: props.mode,
+                format: 'BINARY'
             },
             scaleFactor: props.scaleFactor,
             startIndex: props.startIndex
@@ -224,7 +229,7 @@ export class BamDataService extends DataService {
         if (props.file && props.index) {
             url = `bam/track/get?fileUrl=${encodeURIComponent(props.file)}&indexUrl=${encodeURIComponent(props.index)}`;
         }
-        return this.post(url, payload);
+        return this.loadTrack(url, payload);
     }
 
     /**
@@ -248,7 +253,8 @@ export class BamDataService extends DataService {
                 showClipping,
                 showSpliceJunction: true,
                 trackDirection: 'RIGHT',
-                mode: props.mode
+                mode: props.mode,
+                format: 'BINARY'
             },
             scaleFactor: props.scaleFactor,
             startIndex: props.startIndex
@@ -257,7 +263,25 @@ export class BamDataService extends DataService {
         if (props.file && props.index) {
             url = `bam/track/get?fileUrl=${encodeURIComponent(props.file)}&indexUrl=${encodeURIComponent(props.index)}`;
         }
-        return this.post(url, payload);
+        return this.loadTrack(url, payload);
+    }
+
+    /**
+     * Requests a bam track in the binary format (option.format = 'BINARY') and decodes it
+     * @returns {promise}
+     */
+    loadTrack(url, payload) {
+        return $http('post', this.getFullUrl(url), payload, {customResponseType: 'arraybuffer'})
+            .then((xhr) => {
+                if (xhr.status === AUTH_ERROR_CODE) {
+                    this.handleAuthenticationError();
+                    return Promise.reject(xhr.response);
+                }
+                const response = decodeBamTrack(xhr.response);
+                return (response && response.status === 'OK')
+                    ? response.payload
+                    : Promise.reject(response);
+            });
     }
 
     /**
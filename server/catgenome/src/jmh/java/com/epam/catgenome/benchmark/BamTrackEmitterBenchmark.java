@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BamTrackFormat;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.manager.bam.BamTrackEmitter;
+import com.epam.catgenome.util.BamUtil;
+import htsjdk.samtools.SAMRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serialization of reads and track metadata by {@link BamTrackEmitter} in both supported formats
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BamTrackEmitterBenchmark {
+
+    @Param
+    public DataSource source;
+
+    @Param
+    public BamTrackFormat format;
+
+    private List<Read> reads;
+    private ReadSet readSet;
+
+    @Setup
+    public void setUp() throws IOException {
+        readSet = ReadSet.load(source);
+        reads = new ArrayList<>(readSet.getRecords().size());
+        for (SAMRecord record : readSet.getRecords()) {
+            reads.add(BamUtil.createReadFromRecord(record, record.getStart(), record.getEnd(),
+                    Collections.emptyList(), null, null));
+        }
+    }
+
+    /**
+     * @return number of serialized bytes
+     */
+    @Benchmark
+    public long writeReads() throws IOException {
+        final DiscardingResponseBodyEmitter responseEmitter = new DiscardingResponseBodyEmitter();
+        final BamTrackEmitter emitter = new BamTrackEmitter(responseEmitter, format);
+        for (Read read : reads) {
+            emitter.writeRecord(read);
+        }
+        final BamTrack<Read> track = new BamTrack<>();
+        track.setStartIndex(readSet.getStartIndex());
+        track.setEndIndex(readSet.getEndIndex());
+        emitter.writeTrackAndFinish(track);
+        return responseEmitter.getBytesSent();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import com.epam.catgenome.controller.vo.registration.FeatureIndexedFileRegistrationRequest;
+import com.epam.catgenome.controller.vo.registration.ReferenceRegistrationRequest;
+import com.epam.catgenome.entity.BiologicalDataItemResourceType;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.helper.EntityHelper;
+import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+import org.apache.commons.io.FileUtils;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+/**
+ * Application context of benchmarks, that need registered files. It is created from the test configuration,
+ * so files are registered in the in-memory database and the test contents directory. Synthetic inputs are
+ * written to a temporary directory, which is removed on {@link #close()}.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    static final String CHROMOSOME_NAME = "A1";
+    static final int CHROMOSOME_SIZE = 239107476;
+
+    private static final String CONTEXT_LOCATION = "classpath:applicationContext-test.xml";
+    private static final String BUNDLED_VCF = "/templates/Felis_catus.vcf";
+    private static final String BUNDLED_FASTA = "/templates/A3.fa";
+    private static final int SYNTHETIC_VARIATIONS = 200000;
+    private static final int SYNTHETIC_REFERENCE_SIZE = 20000000;
+
+    private final ConfigurableApplicationContext context;
+    private final File workDirectory;
+
+    BenchmarkContext() throws IOException {
+        this.context = new ClassPathXmlApplicationContext(CONTEXT_LOCATION);
+        this.workDirectory = Files.createTempDirectory("ngb-benchmark").toFile();
+    }
+
+    <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Creates a reference with a single chromosome {@link #CHROMOSOME_NAME}, that matches the bundled and
+     * synthetic VCF files
+     */
+    Reference createReference() {
+        final ReferenceGenomeManager referenceGenomeManager = getBean(ReferenceGenomeManager.class);
+        final Chromosome chromosome = EntityHelper.createNewChromosome(CHROMOSOME_NAME, CHROMOSOME_SIZE);
+        final Reference reference = EntityHelper.createNewReference(chromosome,
+                referenceGenomeManager.createReferenceId());
+        referenceGenomeManager.create(reference);
+        return reference;
+    }
+
+    VcfFile registerVcf(final DataSource source, final Long referenceId) throws IOException {
+        final File file = source == DataSource.BUNDLED
+                ? BenchmarkData.getResourceFile(BUNDLED_VCF)
+                : BenchmarkData.writeVcf(workDirectory, CHROMOSOME_NAME, CHROMOSOME_SIZE, SYNTHETIC_VARIATIONS,
+                        new Random(BenchmarkData.SEED));
+        final FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+        request.setReferenceId(referenceId);
+        request.setPath(file.getAbsolutePath());
+        return getBean(VcfManager.class).registerVcfFile(request);
+    }
+
+    Reference registerReference(final DataSource source) throws IOException {
+        final File file = source == DataSource.BUNDLED
+                ? BenchmarkData.getResourceFile(BUNDLED_FASTA)
+                : BenchmarkData.writeFasta(workDirectory, CHROMOSOME_NAME, SYNTHETIC_REFERENCE_SIZE,
+                        new Random(BenchmarkData.SEED));
+        final ReferenceRegistrationRequest request = new ReferenceRegistrationRequest();
+        request.setName(source.name() + System.nanoTime());
+        request.setPath(file.getAbsolutePath());
+        request.setType(BiologicalDataItemResourceType.FILE);
+        return getBean(ReferenceManager.class).registerGenome(request);
+    }
+
+    @Override
+    public void close() {
+        try {
+            context.close();
+        } finally {
+            FileUtils.deleteQuietly(workDirectory);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+
+/**
+ * Generates synthetic inputs for benchmarks and loads bundled test resources
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+    static final String BUNDLED_BAM = "/templates/agnX1.09-28.trim.dm606.realign.bam";
+
+    private static final byte[] NUCLEOTIDES = {'A', 'C', 'G', 'T'};
+    private static final String[] GENOTYPES = {"0/0", "0/1", "1/1"};
+    private static final double MISMATCH_RATE = 0.01;
+    private static final byte BASE_QUALITY = 30;
+    private static final int MAPPING_QUALITY = 60;
+    private static final int FASTA_LINE_LENGTH = 60;
+    private static final int MAX_DEPTH = 100;
+
+    private BenchmarkData() {
+        // no-op
+    }
+
+    static byte[] randomSequence(final int length, final Random random) {
+        final byte[] sequence = new byte[length];
+        for (int i = 0; i < length; i++) {
+            sequence[i] = NUCLEOTIDES[random.nextInt(NUCLEOTIDES.length)];
+        }
+        return sequence;
+    }
+
+    /**
+     * Creates coordinate sorted reads, starting every {@code step} bases of the reference and carrying
+     * ~1% of mismatches
+     */
+    static List<SAMRecord> createReads(final String contig, final byte[] reference, final int count,
+                                       final int readLength, final int step, final Random random) {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord(contig, reference.length));
+        final byte[] qualities = new byte[readLength];
+        Arrays.fill(qualities, BASE_QUALITY);
+        final List<SAMRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int start = 1 + i * step;
+            final byte[] bases = Arrays.copyOfRange(reference, start - 1, start - 1 + readLength);
+            for (int j = 0; j < bases.length; j++) {
+                if (random.nextDouble() < MISMATCH_RATE) {
+                    bases[j] = NUCLEOTIDES[random.nextInt(NUCLEOTIDES.length)];
+                }
+            }
+            final SAMRecord record = new SAMRecord(header);
+            record.setReadName("read" + i);
+            record.setReferenceName(contig);
+            record.setAlignmentStart(start);
+            record.setCigarString(readLength + "M");
+            record.setReadBases(bases);
+            record.setBaseQualities(qualities);
+            record.setMappingQuality(MAPPING_QUALITY);
+            record.setReadNegativeStrandFlag(random.nextBoolean());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Loads mapped reads of the reference sequence of the bundled BAM file, that has the most reads
+     */
+    static List<SAMRecord> loadBundledReads() throws IOException {
+        final Map<Integer, List<SAMRecord>> records = new HashMap<>();
+        try (SamReader reader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT)
+                .open(getResourceFile(BUNDLED_BAM)); SAMRecordIterator iterator = reader.iterator()) {
+            while (iterator.hasNext()) {
+                final SAMRecord record = iterator.next();
+                if (!record.getReadUnmappedFlag()) {
+                    records.computeIfAbsent(record.getReferenceIndex(), index -> new ArrayList<>()).add(record);
+                }
+            }
+        }
+        return records.values().stream()
+                .max(Comparator.comparingInt(List::size))
+                .orElseThrow(() -> new IOException("No mapped reads in " + BUNDLED_BAM));
+    }
+
+    static File writeFasta(final File directory, final String contig, final int length,
+                           final Random random) throws IOException {
+        final File file = new File(directory, "synthetic.fa");
+        final byte[] sequence = randomSequence(length, random);
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.US_ASCII.name())) {
+            writer.println('>' + contig);
+            for (int i = 0; i < length; i += FASTA_LINE_LENGTH) {
+                writer.println(new String(sequence, i, Math.min(FASTA_LINE_LENGTH, length - i),
+                        StandardCharsets.US_ASCII));
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Writes a VCF file with single nucleotide variations of two samples, evenly distributed over the contig
+     */
+    static File writeVcf(final File directory, final String contig, final int contigLength, final int count,
+                         final Random random) throws IOException {
+        final File file = new File(directory, "synthetic.vcf");
+        final int step = Math.max(1, contigLength / count);
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.US_ASCII.name())) {
+            writer.println("##fileformat=VCFv4.2");
+            writer.println("##contig=<ID=" + contig + ",length=" + contigLength + '>');
+            writer.println("##INFO=<ID=DP,Number=1,Type=Integer,Description=\"Total Depth\">");
+            writer.println("##FILTER=<ID=q10,Description=\"Quality below 10\">");
+            writer.println("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">");
+            writer.println("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tS1\tS2");
+            for (int i = 0; i < count; i++) {
+                final int ref = random.nextInt(NUCLEOTIDES.length);
+                final int alt = (ref + 1 + random.nextInt(NUCLEOTIDES.length - 1)) % NUCLEOTIDES.length;
+                writer.println(contig + '\t' + (1 + i * step) + "\trs" + i
+                        + '\t' + (char) NUCLEOTIDES[ref] + '\t' + (char) NUCLEOTIDES[alt]
+                        + '\t' + random.nextInt(MAX_DEPTH) + "\tPASS\tDP=" + random.nextInt(MAX_DEPTH)
+                        + "\tGT\t" + GENOTYPES[random.nextInt(GENOTYPES.length)]
+                        + '\t' + GENOTYPES[random.nextInt(GENOTYPES.length)]);
+            }
+        }
+        return file;
+    }
+
+    static File getResourceFile(final String path) throws IOException {
+        final URL resource = BenchmarkData.class.getResource(path);
+        if (resource == null) {
+            throw new IOException("Resource not found: " + path);
+        }
+        try {
+            return new File(resource.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.dao.index.FeatureIndexDao;
+import com.epam.catgenome.entity.index.IndexSearchResult;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.exception.FeatureIndexException;
+import com.epam.catgenome.manager.vcf.VcfManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures search in a feature index of a registered VCF file by {@link FeatureIndexDao#searchFileIndexes}
+ * with a query, matching all entries of the file, and a selective prefix query
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeatureIndexSearchBenchmark {
+
+    @Param
+    public DataSource source;
+
+    @Param({"fileId:%d", "featureId:rs1* AND fileId:%d"})
+    public String query;
+
+    private BenchmarkContext context;
+    private FeatureIndexDao featureIndexDao;
+    private VcfFile vcfFile;
+    private List<VcfFile> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new BenchmarkContext();
+        featureIndexDao = context.getBean(FeatureIndexDao.class);
+        final Reference reference = context.createReference();
+        vcfFile = context.registerVcf(source, reference.getId());
+        files = Collections.singletonList(vcfFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try {
+            context.getBean(VcfManager.class).unregisterVcfFile(vcfFile.getId());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public IndexSearchResult search() throws FeatureIndexException {
+        return featureIndexDao.searchFileIndexes(files, String.format(query, vcfFile.getId()), null);
+    }
+}
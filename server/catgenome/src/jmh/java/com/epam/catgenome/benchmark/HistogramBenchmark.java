@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.entity.wig.Wig;
+import com.epam.catgenome.exception.HistogramWritingException;
+import com.epam.catgenome.util.HistogramUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building of a feature histogram of a chromosome with {@link HistogramUtils}: the chromosome is split
+ * into intervals, portions of intervals are counted in parallel and collected into a single histogram, the same
+ * way as {@code GffManager} builds histograms of gene files. Features are synthetic, so the benchmark measures
+ * histogram assembly rather than file reading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistogramBenchmark {
+
+    @Param({"1000000", "239107476"})
+    public int chromosomeSize;
+
+    @Param({"10000", "1000000"})
+    public int featureCount;
+
+    private int[] featureStarts;
+    private ExecutorService executorService;
+    private int threads;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(BenchmarkData.SEED);
+        featureStarts = new int[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            featureStarts[i] = random.nextInt(chromosomeSize);
+        }
+        Arrays.sort(featureStarts);
+        threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executorService = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Wig> buildHistogram() throws HistogramWritingException {
+        final List<Pair<Integer, Integer>> intervals = HistogramUtils.createIntervals(0, chromosomeSize);
+        final int portionSize = (intervals.size() + threads - 1) / threads;
+        final List<Callable<List<Wig>>> callables = new ArrayList<>(threads);
+        for (int from = 0; from < intervals.size(); from += portionSize) {
+            final List<Pair<Integer, Integer>> portion = intervals.subList(from,
+                    Math.min(from + portionSize, intervals.size()));
+            callables.add(() -> countPortion(portion));
+        }
+        return HistogramUtils.executeHistogramCreation(executorService, callables);
+    }
+
+    private List<Wig> countPortion(final List<Pair<Integer, Integer>> portion) {
+        final List<Wig> wigs = new ArrayList<>(portion.size());
+        for (Pair<Integer, Integer> interval : portion) {
+            final int count = lowerBound(interval.getRight()) - lowerBound(interval.getLeft());
+            HistogramUtils.addToHistogramPortion(wigs, count, interval);
+        }
+        return wigs;
+    }
+
+    private int lowerBound(final int position) {
+        final int index = Arrays.binarySearch(featureStarts, position);
+        if (index < 0) {
+            return -index - 1;
+        }
+        int first = index;
+        while (first > 0 && featureStarts[first - 1] == position) {
+            first--;
+        }
+        return first;
+    }
+}
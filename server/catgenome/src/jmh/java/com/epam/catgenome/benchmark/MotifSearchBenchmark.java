@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.util.motif.MotifSearcher;
+import htsjdk.samtools.reference.FastaSequenceFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MotifSearcher#search} over both strands of a sequence for each kind of supported motifs:
+ * a plain motif, an IUPAC motif and a regular expression
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MotifSearchBenchmark {
+
+    private static final String BUNDLED_FASTA = "/templates/A3.fa";
+    private static final String CONTIG = "A1";
+    private static final int SYNTHETIC_SEQUENCE_LENGTH = 20000000;
+    private static final int RESULT_SIZE_LIMIT = 131072;
+
+    @Param
+    public DataSource source;
+
+    @Param({"tataaa", "tatawawr", "ca[ct]{4,6}g"})
+    public String motif;
+
+    private byte[] sequence;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (source == DataSource.BUNDLED) {
+            try (FastaSequenceFile fasta = new FastaSequenceFile(BenchmarkData.getResourceFile(BUNDLED_FASTA),
+                    true)) {
+                sequence = fasta.nextSequence().getBases();
+            }
+        } else {
+            sequence = BenchmarkData.randomSequence(SYNTHETIC_SEQUENCE_LENGTH, new Random(BenchmarkData.SEED));
+        }
+    }
+
+    /**
+     * @return number of found motifs
+     */
+    @Benchmark
+    public long search() {
+        return MotifSearcher.search(sequence, motif, CONTIG, 1, false,
+                RESULT_SIZE_LIMIT).count();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.manager.reference.io.NibDataReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading of reference sequence windows at random positions from a registered Nib file
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NibDataReaderBenchmark {
+
+    @Param
+    public DataSource source;
+
+    @Param({"100", "10000"})
+    public int windowSize;
+
+    private BenchmarkContext context;
+    private NibDataReader nibDataReader;
+    private Reference reference;
+    private Chromosome chromosome;
+    private Random random;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new BenchmarkContext();
+        nibDataReader = context.getBean(NibDataReader.class);
+        reference = context.registerReference(source);
+        chromosome = reference.getChromosomes().get(0);
+        random = new Random(BenchmarkData.SEED);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try {
+            context.getBean(ReferenceManager.class).unregisterGenome(reference.getId());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String readSequence() throws IOException {
+        final int size = Math.min(windowSize, chromosome.getSize());
+        final int start = 1 + random.nextInt(chromosome.getSize() - size + 1);
+        return nibDataReader.getStringFromNibFile(start, start + size - 1, reference.getId(),
+                chromosome.getName());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.epam.catgenome.constant.Constants;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Reads of a single track window along with a reference sequence, covering the window
+ */
+final class ReadSet {
+
+    static final String CONTIG = "chr1";
+
+    private static final int WINDOW_SIZE = 1000000;
+    private static final int REFERENCE_MARGIN = 10 * Constants.REFERENCE_STEP;
+    private static final int SYNTHETIC_READ_COUNT = 500000;
+    private static final int SYNTHETIC_READ_LENGTH = 100;
+    private static final int SYNTHETIC_READ_STEP = 2;
+
+    private final List<SAMRecord> records;
+    private final int startIndex;
+    private final int endIndex;
+    private final int referenceOffset;
+    private final byte[] reference;
+
+    private ReadSet(final List<SAMRecord> records, final int startIndex, final int referenceOffset,
+                    final byte[] reference) {
+        this.records = records;
+        this.startIndex = startIndex;
+        this.endIndex = startIndex + WINDOW_SIZE - 1;
+        this.referenceOffset = referenceOffset;
+        this.reference = reference;
+    }
+
+    /**
+     * Loads reads of a 1Mbp window. Bundled reads are taken from the beginning of the first sequence of the
+     * bundled BAM file and get a random reference sequence, synthetic ones make up a deep (50x) coverage.
+     */
+    static ReadSet load(final DataSource source) throws IOException {
+        final Random random = new Random(BenchmarkData.SEED);
+        if (source == DataSource.BUNDLED) {
+            final List<SAMRecord> bundled = BenchmarkData.loadBundledReads();
+            final int start = bundled.get(0).getAlignmentStart();
+            final List<SAMRecord> records = bundled.stream()
+                    .filter(record -> record.getAlignmentEnd() < start + WINDOW_SIZE)
+                    .collect(Collectors.toList());
+            final int offset = Math.max(1, start - REFERENCE_MARGIN);
+            final byte[] reference = BenchmarkData.randomSequence(start + WINDOW_SIZE + REFERENCE_MARGIN - offset,
+                    random);
+            return new ReadSet(records, start, offset, reference);
+        }
+        final byte[] reference = BenchmarkData.randomSequence(WINDOW_SIZE + REFERENCE_MARGIN, random);
+        final List<SAMRecord> records = BenchmarkData.createReads(CONTIG, reference, SYNTHETIC_READ_COUNT,
+                SYNTHETIC_READ_LENGTH, SYNTHETIC_READ_STEP, random);
+        return new ReadSet(records, 1, 1, reference);
+    }
+
+    List<SAMRecord> getRecords() {
+        return records;
+    }
+
+    int getStartIndex() {
+        return startIndex;
+    }
+
+    int getEndIndex() {
+        return endIndex;
+    }
+
+    /**
+     * @return reference sequence of the interval [start, end], clipped by the bounds of the generated reference
+     */
+    String getSequence(final int start, final int end) {
+        final int from = Math.max(0, start - referenceOffset);
+        final int to = Math.min(reference.length, end - referenceOffset + 1);
+        return to > from ? new String(reference, from, to - from, StandardCharsets.US_ASCII) : "";
+    }
+}
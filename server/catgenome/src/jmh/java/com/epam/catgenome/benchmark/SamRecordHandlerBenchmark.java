@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.entity.bam.BamQueryOption;
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BamTrackMode;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.entity.bam.TrackDirectionType;
+import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.manager.bam.BamTrackEmitter;
+import com.epam.catgenome.manager.bam.handlers.Handler;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.util.BamUtil;
+import htsjdk.samtools.SAMRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures processing of a 1Mbp window of reads by {@code SAMRecordHandler} in the FULL mode: coverage, mismatches
+ * against the reference and sampling of reads either by {@code FullResultSifter} or by
+ * {@code ConstantMemorySAMRecordSampler}, the same way as {@code BamHelper} fills a BAM track
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SamRecordHandlerBenchmark {
+
+    private static final int DOWNSAMPLING_FRAME = 50;
+    private static final int DOWNSAMPLING_COUNT = 30;
+
+    @Param
+    public DataSource source;
+
+    @Param({"false", "true"})
+    public boolean downsampling;
+
+    private ReadSet reads;
+    private ReferenceManager referenceManager;
+
+    @Setup
+    public void setUp() throws IOException {
+        reads = ReadSet.load(source);
+        referenceManager = new ReadSetReferenceManager(reads);
+    }
+
+    @Benchmark
+    public BamTrack<Read> handleReads() throws IOException {
+        final Track<Read> track = new Track<>();
+        track.setStartIndex(reads.getStartIndex());
+        track.setEndIndex(reads.getEndIndex());
+        track.setScaleFactor(1D);
+
+        final BamQueryOption options = new BamQueryOption();
+        options.setMode(BamTrackMode.FULL);
+        options.setTrackDirection(TrackDirectionType.MIDDLE);
+        options.setShowClipping(false);
+        options.setShowSpliceJunction(true);
+        options.setChromosomeName(ReadSet.CONTIG);
+        options.setRefID(1L);
+        if (downsampling) {
+            options.setFrame(DOWNSAMPLING_FRAME);
+            options.setCount(DOWNSAMPLING_COUNT);
+            options.setDownSampling(true);
+        }
+
+        final BamTrackEmitter emitter = new BamTrackEmitter(new DiscardingResponseBodyEmitter());
+        final Handler<SAMRecord> handler = BamUtil.createSAMRecordHandler(track, options, referenceManager,
+                false, emitter);
+        for (SAMRecord record : reads.getRecords()) {
+            handler.add(record);
+        }
+        handler.getSifter().finish();
+
+        final BamTrack<Read> bamTrack = new BamTrack<>(track);
+        bamTrack.setMinPosition(handler.getMinPosition());
+        bamTrack.setReferenceBuffer(handler.getReferenceBuff());
+        bamTrack.setDownsampleCoverage(handler.getSifter().getDownsampleCoverageResult());
+        bamTrack.setBaseCoverage(handler.getBaseCoverage(bamTrack.getScaleFactor()));
+        bamTrack.setSpliceJunctions(handler.getSpliceJunctions());
+        emitter.writeTrackAndFinish(bamTrack);
+        return bamTrack;
+    }
+
+    /**
+     * Serves reference sequence of the read set instead of registered reference files
+     */
+    private static final class ReadSetReferenceManager extends ReferenceManager {
+
+        private final ReadSet reads;
+
+        private ReadSetReferenceManager(final ReadSet reads) {
+            this.reads = reads;
+        }
+
+        @Override
+        public String getSequenceString(final int startIndex, final int endIndex, final Long referenceId,
+                                        final String chromosomeName) {
+            return reads.getSequence(startIndex, endIndex);
+        }
+    }
+}
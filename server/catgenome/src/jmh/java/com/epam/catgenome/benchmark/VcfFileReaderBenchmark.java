@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.track.Track;
+import com.epam.catgenome.entity.track.TrackType;
+import com.epam.catgenome.entity.vcf.Variation;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.exception.VcfReadingException;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
+import com.epam.catgenome.manager.vcf.VcfManager;
+import com.epam.catgenome.manager.vcf.reader.VcfFileReader;
+import com.epam.catgenome.manager.vcf.reader.VcfReaderPool;
+import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading of a VCF track by {@link VcfFileReader#readVariations}: a detailed 1Mbp window and
+ * a collapsed view of the whole chromosome
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VcfFileReaderBenchmark {
+
+    /**
+     * Width of a track view in pixels, that defines the scale factor of a window
+     */
+    private static final double VIEW_WIDTH = 2000D;
+
+    @Param
+    public DataSource source;
+
+    @Param({"1000000", "239107476"})
+    public int windowSize;
+
+    private BenchmarkContext context;
+    private VcfFileReader reader;
+    private EhCacheBasedIndexCache indexCache;
+    private VcfFile vcfFile;
+    private Chromosome chromosome;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new BenchmarkContext();
+        final Reference reference = context.createReference();
+        chromosome = reference.getChromosomes().get(0);
+        vcfFile = context.registerVcf(source, reference.getId());
+        reader = new VcfFileReader(context.getBean(FileManager.class),
+                context.getBean(ReferenceGenomeManager.class), context.getBean(VcfReaderPool.class));
+        indexCache = context.getBean(EhCacheBasedIndexCache.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try {
+            context.getBean(VcfManager.class).unregisterVcfFile(vcfFile.getId());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Track<Variation> readVariations() throws VcfReadingException {
+        final Track<Variation> track = new Track<>(TrackType.VCF);
+        track.setId(vcfFile.getId());
+        track.setChromosome(chromosome);
+        track.setStartIndex(1);
+        track.setEndIndex(Math.min(windowSize, chromosome.getSize()));
+        track.setScaleFactor(Math.min(1D, VIEW_WIDTH / windowSize));
+        return reader.readVariations(vcfFile, track, chromosome, null, false, true, indexCache);
+    }
+}
@@ -3,6 +3,7 @@ package com.epam.catgenome.app;
 import java.io.PrintStream;
 
 import com.epam.catgenome.util.NgbSeekableStreamFactory;
+import com.epam.catgenome.util.BlockCache;
 import com.epam.catgenome.util.aws.S3Client;
 import com.epam.catgenome.util.azure.AzureBlobClient;
 import com.epam.catgenome.util.azure.AzureCredentialConfiguration;
@@ -84,6 +85,17 @@ public class Application extends SpringBootServletInitializer {
         return S3Client.configure(swsEndpoint, swsRegion, isPathStyleAccess);
     }
 
+    @Bean
+    BlockCache blockCache(@Value("${cloud.block.cache.block.size:262144}") int blockSize,
+                          @Value("${cloud.block.cache.max.bytes:268435456}") long maxBytes,
+                          @Value("${cloud.block.cache.max.request.blocks:16}") int maxRequestBlocks,
+                          @Value("${cloud.block.cache.read.ahead.blocks:2}") int readAheadBlocks,
+                          @Value("${cloud.block.cache.read.ahead.threads:4}") int readAheadThreads,
+                          @Value("${cloud.block.cache.expiration.seconds:600}") int expirationSeconds) {
+        return BlockCache.configure(blockSize, maxBytes, maxRequestBlocks, readAheadBlocks,
+                readAheadThreads, expirationSeconds);
+    }
+
     @Bean
     public AzureBlobClient azureBlobClient(@Value("${azure.storage.account:}")  String storageAccount,
                                            @Value("${azure.storage.key:}") String storageKey,
@@ -292,6 +292,8 @@ public final class MessagesConstants {
     public static final String PATH_IS_REQUIRED = "error.path.is.required";
     public static final String ERROR_INCORRECT_FILE_FORMAT = "error.incorrect.file.format";
     public static final String ERROR_UNSUPPORTED_HEATMAP_FILE_EXTENSION = "error.unsupported.heatmap.file.extension";
+    public static final String ERROR_HEATMAP_VIEWPORT_NOT_NUMERIC = "error.heatmap.viewport.not.numeric";
+    public static final String ERROR_HEATMAP_VIEWPORT_RANGE = "error.heatmap.viewport.range";
 
     //Lineage tree
     public static final String ERROR_LINEAGE_TREE_NOT_FOUND = "error.lineage.tree.not.found";
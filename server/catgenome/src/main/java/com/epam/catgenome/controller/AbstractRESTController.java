@@ -32,6 +32,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -71,6 +72,7 @@ public abstract class AbstractRESTController {
      * documentation automatically.
      */
     protected static final int HTTP_STATUS_OK = 200;
+    private static final int RESPONSE_GZIP_BUFFER_SIZE = 64 * 1024;
 
     /**
      * {@code String} specifies API responses description that explains meaning of different values
@@ -155,4 +157,17 @@ public abstract class AbstractRESTController {
             response.flushBuffer();
         }
     }
+
+    /**
+     * Opens the response output stream for writing data as it is produced, compressing it with gzip
+     * on the fly if requested
+     * @param response to write data
+     * @param gzip whether the data should be compressed
+     * @return a stream to write the response body, should be closed once all data is written
+     */
+    protected OutputStream openResponseStream(final HttpServletResponse response,
+                                              final boolean gzip) throws IOException {
+        final OutputStream outputStream = response.getOutputStream();
+        return gzip ? new GZIPOutputStream(outputStream, RESPONSE_GZIP_BUFFER_SIZE) : outputStream;
+    }
 }
@@ -29,11 +29,16 @@ import static com.epam.catgenome.controller.vo.Query2TrackConverter.convertToTra
 
 import java.io.IOException;
 import com.epam.catgenome.entity.bam.BamFile;
+import com.epam.catgenome.entity.bam.BamIndexCacheStatistics;
+import com.epam.catgenome.entity.bam.BamQueryOption;
+import com.epam.catgenome.entity.bam.BamTrackFormat;
 import com.epam.catgenome.entity.bam.Read;
 import com.epam.catgenome.manager.bam.BamSecurityService;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -51,8 +56,10 @@ import com.wordnik.swagger.annotations.ApiOperation;
 import com.wordnik.swagger.annotations.ApiResponse;
 import com.wordnik.swagger.annotations.ApiResponses;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
@@ -92,6 +99,7 @@ public class BamController extends AbstractRESTController {
             +
             " track (e.g., pixel).";
     public static final long EMITTER_TIMEOUT = 100000L;
+    private static final MediaType BINARY_TRACK_MEDIA_TYPE = MediaType.valueOf(BamTrackFormat.BINARY_MEDIA_TYPE);
 
     @Autowired
     private BamSecurityService bamSecurityService;
@@ -133,9 +141,11 @@ public class BamController extends AbstractRESTController {
                     "5) <b>count</b> - count of read in frame, default is null ;<br/>" +
                     "if frame or count default or incorrect, return track without downsampling<br/>" +
                     "6) <b>mode</b> controls BAM display mode: REGIONS - return only regions of possible read " +
-                    "location; <br/>" +
+                    "location with approximate read counts, estimated from the index; <br/>" +
                     "COVERAGE - return only BAM coverage;<br/>" +
-                    "FULL - return both reads and coverage",
+                    "FULL - return both reads and coverage<br/>" +
+                    "7) <b>format</b> - JSON (default) or BINARY - compact columnar encoding, BINARY is also " +
+                    "selected by 'Accept: " + BamTrackFormat.BINARY_MEDIA_TYPE + "' header",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(
             value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
@@ -143,18 +153,21 @@ public class BamController extends AbstractRESTController {
     public final ResponseEntity<ResponseBodyEmitter> loadTrackStream(
             @RequestBody final TrackQuery query,
             @RequestParam(required = false) final String fileUrl,
-            @RequestParam(required = false) final String indexUrl)
+            @RequestParam(required = false) final String indexUrl,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) final String accept)
             throws IOException {
 
+        final BamQueryOption option = resolveTrackFormat(query.getOption(), accept);
         final ResponseBodyEmitter emitter = new ResponseBodyEmitter(EMITTER_TIMEOUT);
         if (fileUrl == null) {
-            bamSecurityService.sendBamTrackToEmitter(convertToTrack(query), query.getOption(), emitter);
+            bamSecurityService.sendBamTrackToEmitter(convertToTrack(query), option, emitter);
         } else {
-            bamSecurityService.sendBamTrackToEmitterFromUrl(convertToTrack(query), query.getOption(), fileUrl,
+            bamSecurityService.sendBamTrackToEmitterFromUrl(convertToTrack(query), option, fileUrl,
                     indexUrl, emitter);
         }
         HttpHeaders responseHeaders = new HttpHeaders();
-        responseHeaders.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        responseHeaders.setContentType(option != null && option.getFormat() == BamTrackFormat.BINARY
+                ? BINARY_TRACK_MEDIA_TYPE : MediaType.APPLICATION_JSON_UTF8);
         return new ResponseEntity<>(emitter, responseHeaders, HttpStatus.OK);
     }
 
@@ -203,4 +216,41 @@ public class BamController extends AbstractRESTController {
                                  @RequestParam(required = false) final String indexUrl) throws IOException {
         return Result.success(bamSecurityService.loadRead(query, fileUrl, indexUrl));
     }
+
+    @ResponseBody
+    @GetMapping(value = "/bam/index/cache/statistics")
+    @ApiOperation(
+        value = "Returns usage statistics of the BAM index cache",
+        notes = "Returns count and size of cached BAM/CRAM indexes and headers, hits, misses, loads and " +
+                "evictions of the cache. Available for administrators only.",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+        value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+        })
+    public Result<BamIndexCacheStatistics> getIndexCacheStatistics() {
+        return Result.success(bamSecurityService.getIndexCacheStatistics());
+    }
+
+    private BamQueryOption resolveTrackFormat(final BamQueryOption option, final String accept) {
+        if (StringUtils.isBlank(accept) || !acceptsBinaryTrack(accept)) {
+            return option;
+        }
+        final BamQueryOption result = option == null ? new BamQueryOption() : option;
+        result.setFormat(BamTrackFormat.BINARY);
+        return result;
+    }
+
+    /**
+     * Only an explicit binary track media type selects the binary format, wildcards keep the requested one
+     */
+    private static boolean acceptsBinaryTrack(final String accept) {
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> !mediaType.isWildcardType() && !mediaType.isWildcardSubtype()
+                            && BINARY_TRACK_MEDIA_TYPE.getType().equalsIgnoreCase(mediaType.getType())
+                            && BINARY_TRACK_MEDIA_TYPE.getSubtype().equalsIgnoreCase(mediaType.getSubtype()));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
 }
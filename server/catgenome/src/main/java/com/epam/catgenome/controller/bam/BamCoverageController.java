@@ -27,6 +27,7 @@ package com.epam.catgenome.controller.bam;
 import com.epam.catgenome.controller.AbstractRESTController;
 import com.epam.catgenome.controller.Result;
 import com.epam.catgenome.entity.bam.BamCoverage;
+import com.epam.catgenome.entity.bam.CoverageBuildProgress;
 import com.epam.catgenome.entity.bam.CoverageInterval;
 import com.epam.catgenome.entity.bam.CoverageQueryParams;
 import com.epam.catgenome.manager.bam.BamCoverageSecurityService;
@@ -42,6 +43,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -138,4 +140,32 @@ public class BamCoverageController extends AbstractRESTController {
     public Result<List<BamCoverage>> loadAll() throws IOException {
         return Result.success(securityService.loadAll());
     }
+
+    @ResponseBody
+    @GetMapping(value = "/bam/coverage/progress")
+    @ApiOperation(
+        value = "Returns progress of running coverage calculations",
+        notes = "Returns progress of running coverage calculations, optionally filtered by BAM file Id. "
+                + "Progress is reported in processed regions and bases of the reference sequences.",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+        value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+        })
+    public Result<List<CoverageBuildProgress>> loadProgress(@RequestParam(required = false) final Long bamId) {
+        return Result.success(securityService.loadProgress(bamId));
+    }
+
+    @ResponseBody
+    @PutMapping(value = "/bam/coverage/cancel")
+    @ApiOperation(
+        value = "Cancels running coverage calculation by Bam file Id and step",
+        notes = "Cancels running coverage calculation by Bam file Id and step. Returns false if there is no "
+                + "running calculation. Cancelled coverage isn't saved.",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+        value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+        })
+    public Result<Boolean> cancelCoverage(@RequestParam final Long bamId, @RequestParam final Integer step) {
+        return Result.success(securityService.cancelCoverage(bamId, step));
+    }
 }
@@ -25,6 +25,7 @@
 package com.epam.catgenome.controller.filter;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -47,6 +48,7 @@ import com.epam.catgenome.controller.Result;
 import com.epam.catgenome.controller.vo.GeneSearchQuery;
 import com.epam.catgenome.entity.index.Group;
 import com.epam.catgenome.entity.index.IndexSearchResult;
+import com.epam.catgenome.entity.index.IndexSearcherStatistics;
 import com.epam.catgenome.entity.index.VcfIndexEntry;
 import com.epam.catgenome.entity.vcf.VcfFilterForm;
 import com.epam.catgenome.entity.vcf.VcfFilterInfo;
@@ -82,6 +84,19 @@ public class FilterController extends AbstractRESTController {
                 geneQuery.getVcfIdsByProject()));
     }
 
+    @RequestMapping(value = "/filter/searchers/statistics", method = RequestMethod.GET)
+    @ApiOperation(
+        value = "Returns usage statistics of shared feature index searchers",
+        notes = "Returns count of opened searchers, hits, misses, opens, refreshes and evictions of shared " +
+                "feature index searchers pool. Available for administrators only.",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+        value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+        })
+    public Result<IndexSearcherStatistics> getIndexSearcherStatistics() {
+        return Result.success(featureIndexSecurityService.getIndexSearcherStatistics());
+    }
+
     @RequestMapping(value = "/filter/info", method = RequestMethod.POST)
     @ApiOperation(
         value = "Returns information about VCF filter by file IDs.",
@@ -219,10 +234,11 @@ public class FilterController extends AbstractRESTController {
     public void exportVcf(@RequestBody final VcfExportFilterForm filterForm,
                           @RequestParam final FileFormat format,
                           @RequestParam final boolean includeHeader,
+                          @RequestParam(required = false, defaultValue = "false") final boolean gzip,
                           HttpServletResponse response) throws IOException {
-        byte[] bytes = featureIndexSecurityService.exportVariations(filterForm, format, includeHeader);
-        response.getOutputStream().write(bytes);
-        response.flushBuffer();
+        try (OutputStream outputStream = openResponseStream(response, gzip)) {
+            featureIndexSecurityService.exportVariations(filterForm, format, includeHeader, outputStream);
+        }
     }
 
     @RequestMapping(value = "/filter/group", method = RequestMethod.POST)
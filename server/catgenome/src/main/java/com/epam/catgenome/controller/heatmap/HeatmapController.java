@@ -28,8 +28,10 @@ import com.epam.catgenome.controller.AbstractRESTController;
 import com.epam.catgenome.controller.Result;
 import com.epam.catgenome.controller.vo.registration.HeatmapRegistrationRequest;
 import com.epam.catgenome.entity.heatmap.Heatmap;
+import com.epam.catgenome.entity.heatmap.HeatmapAggregationType;
 import com.epam.catgenome.entity.heatmap.HeatmapAnnotationType;
 import com.epam.catgenome.entity.heatmap.HeatmapTree;
+import com.epam.catgenome.entity.heatmap.HeatmapViewport;
 import com.epam.catgenome.manager.heatmap.HeatmapSecurityService;
 import com.wordnik.swagger.annotations.Api;
 import com.wordnik.swagger.annotations.ApiOperation;
@@ -95,6 +97,31 @@ public class HeatmapController extends AbstractRESTController {
         return Result.success(heatmapSecurityService.getContent(heatmapId, projectId));
     }
 
+    @GetMapping(value = "/heatmap/{heatmapId}/viewport")
+    @ApiOperation(
+            value = "Returns numeric values of a part of a heatmap",
+            notes = "Returns numeric values of heatmap rows from startRow (0-based, inclusive) to endRow (exclusive) " +
+                    "and columns from startColumn to endColumn, the whole heatmap is returned by default. " +
+                    "If the requested part is larger than maxRows x maxColumns, neighbouring cells are combined " +
+                    "into bins according to aggregationType (MEAN, MIN or MAX), empty bins are returned as nulls.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<HeatmapViewport> getViewport(
+            @PathVariable final long heatmapId,
+            @RequestParam(required = false) final Long projectId,
+            @RequestParam(required = false) final Integer startRow,
+            @RequestParam(required = false) final Integer endRow,
+            @RequestParam(required = false) final Integer startColumn,
+            @RequestParam(required = false) final Integer endColumn,
+            @RequestParam(required = false) final Integer maxRows,
+            @RequestParam(required = false) final Integer maxColumns,
+            @RequestParam(required = false) final HeatmapAggregationType aggregationType) throws IOException {
+        return Result.success(heatmapSecurityService.getViewport(heatmapId, projectId, startRow, endRow,
+                startColumn, endColumn, maxRows, maxColumns, aggregationType));
+    }
+
     @PutMapping(value = "/heatmap/{heatmapId}/label/annotation")
     @ApiOperation(
             value = "Updates heatmap annotation for labels",
@@ -66,6 +66,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
@@ -109,14 +110,20 @@ public class ProjectController extends AbstractRESTController {
     @ResponseBody
     @ApiOperation(
         value = "Returns all projects in a form of tree hierarchy",
-        notes = "Each project contains all it's nested projects and items",
+        notes = "Each project contains all it's nested projects and items. The tree is returned with an ETag, "
+                + "if it's unchanged since the request with the same tag in If-None-Match header, "
+                + "an empty response with 304 (Not Modified) status is returned",
         produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(
         value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
         })
     public Callable<Result<List<ProjectVO>>> loadProjectsTreeForCurrentUser(
             @RequestParam(required = false) Long parentId,
-            @RequestParam(required = false) String referenceName) {
+            @RequestParam(required = false) String referenceName,
+            final WebRequest request) {
+        if (request.checkNotModified(projectSecurityService.getProjectTreeTag(parentId, referenceName))) {
+            return null;
+        }
         return () -> Result.success(ProjectConverter.convertTo(
                 projectSecurityService.loadProjectTree(parentId, referenceName)));
     }
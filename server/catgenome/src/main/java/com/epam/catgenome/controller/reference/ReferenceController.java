@@ -35,6 +35,7 @@ import com.epam.catgenome.entity.index.FeatureIndexEntry;
 import com.epam.catgenome.entity.index.GeneIndexEntry;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -236,13 +237,15 @@ public class ReferenceController extends AbstractRESTController {
     public void exportFeatureInProjectWithFilter(@PathVariable final Long referenceId,
                                                 @RequestParam final FileFormat format,
                                                 @RequestParam final boolean includeHeader,
+                                                @RequestParam(required = false, defaultValue = "false")
+                                                final boolean gzip,
                                                 @RequestBody final GeneExportFilterForm geneFilterForm,
                                                 final HttpServletResponse response)
             throws IOException {
-        byte[] bytes = featureIndexSecurityService.exportFeaturesByReference(geneFilterForm, referenceId,
-                format, includeHeader);
-        response.getOutputStream().write(bytes);
-        response.flushBuffer();
+        try (OutputStream outputStream = openResponseStream(response, gzip)) {
+            featureIndexSecurityService.exportFeaturesByReference(geneFilterForm, referenceId,
+                    format, includeHeader, outputStream);
+        }
     }
 
     @RequestMapping(value = "/reference/{referenceId}/filter/gene/info", method = RequestMethod.POST)
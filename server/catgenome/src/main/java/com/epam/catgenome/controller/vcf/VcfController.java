@@ -40,6 +40,7 @@ import com.epam.catgenome.entity.vcf.VariationQuery;
 import com.epam.catgenome.entity.vcf.VcfFieldValues;
 import com.epam.catgenome.entity.vcf.VcfFile;
 import com.epam.catgenome.entity.vcf.VcfFilterInfo;
+import com.epam.catgenome.entity.vcf.VcfReaderPoolStatistics;
 import com.epam.catgenome.manager.vcf.VcfSecurityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -273,4 +274,17 @@ public class VcfController extends AbstractRESTController {
             @RequestParam(required = false) final Integer maxSize) throws IOException {
         return Result.success(vcfSecurityService.loadFieldValues(vcfFileId, fieldName, maxSize));
     }
+
+    @GetMapping(value = "/vcf/reader/pool/statistics")
+    @ApiOperation(
+            value = "Returns usage statistics of the pool of open VCF readers",
+            notes = "Returns count and size of idle VCF readers, hits, misses and evictions of the pool, and per " +
+                    "file hit rate and header parse time. Available for administrators only.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<VcfReaderPoolStatistics> getReaderPoolStatistics() {
+        return Result.success(vcfSecurityService.getReaderPoolStatistics());
+    }
 }
@@ -29,6 +29,7 @@ import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.heatmap.Heatmap;
 import com.epam.catgenome.entity.heatmap.HeatmapAnnotationType;
 import com.epam.catgenome.entity.heatmap.HeatmapDataType;
+import com.epam.catgenome.entity.heatmap.HeatmapTile;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -50,9 +51,11 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -83,6 +86,10 @@ public class HeatmapDao extends NamedParameterJdbcDaoSupport {
     private String updateHeatmapColumnTreeQuery;
     private String updateHeatmapPathsQuery;
     private String loadHeatmapColumnTreeQuery;
+    private String insertHeatmapTileQuery;
+    private String deleteHeatmapTilesQuery;
+    private String loadHeatmapTileSummariesQuery;
+    private String loadHeatmapTilesQuery;
 
     /**
      * Persists new Heatmap record.
@@ -109,9 +116,54 @@ public class HeatmapDao extends NamedParameterJdbcDaoSupport {
      */
     @Transactional(propagation = Propagation.MANDATORY)
     public void deleteHeatmap(final Long heatmapId) {
+        getJdbcTemplate().update(deleteHeatmapTilesQuery, heatmapId);
         getJdbcTemplate().update(deleteHeatmapQuery, heatmapId);
     }
 
+    /**
+     * Persists tiles of a numeric heatmap content
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveHeatmapTiles(final Long heatmapId, final List<HeatmapTile> tiles) {
+        final MapSqlParameterSource[] params = new MapSqlParameterSource[tiles.size()];
+        for (int i = 0; i < tiles.size(); i++) {
+            params[i] = HeatmapTileParameters.getParameters(heatmapId, tiles.get(i));
+        }
+        getNamedParameterJdbcTemplate().batchUpdate(insertHeatmapTileQuery, params);
+    }
+
+    /**
+     * Loads summaries of heatmap tiles in a given range of tile rows and columns, tile values aren't loaded
+     */
+    public List<HeatmapTile> loadHeatmapTileSummaries(final Long heatmapId,
+                                                      final int fromTileRow, final int toTileRow,
+                                                      final int fromTileColumn, final int toTileColumn) {
+        final MapSqlParameterSource params = HeatmapTileParameters.getRangeParameters(heatmapId,
+                fromTileRow, toTileRow, fromTileColumn, toTileColumn);
+        return getNamedParameterJdbcTemplate().query(loadHeatmapTileSummariesQuery, params,
+            (rs, rowNum) -> HeatmapTileParameters.parseTile(rs, null));
+    }
+
+    /**
+     * Loads heatmap tiles with values in a given range of tile rows and columns,
+     * which are located in one of the specified tile rows or tile columns
+     */
+    public List<HeatmapTile> loadHeatmapTiles(final Long heatmapId,
+                                              final int fromTileRow, final int toTileRow,
+                                              final int fromTileColumn, final int toTileColumn,
+                                              final List<Integer> tileRows, final List<Integer> tileColumns) {
+        final MapSqlParameterSource params = HeatmapTileParameters.getRangeParameters(heatmapId,
+                fromTileRow, toTileRow, fromTileColumn, toTileColumn);
+        // IN clause can't be empty, -1 doesn't match any tile
+        params.addValue(HeatmapTileParameters.TILE_ROWS.name(),
+                tileRows.isEmpty() ? Collections.singletonList(-1) : tileRows);
+        params.addValue(HeatmapTileParameters.TILE_COLUMNS.name(),
+                tileColumns.isEmpty() ? Collections.singletonList(-1) : tileColumns);
+        return getNamedParameterJdbcTemplate().query(loadHeatmapTilesQuery, params,
+            (rs, rowNum) -> HeatmapTileParameters.parseTile(rs,
+                    HeatmapTileParameters.dataToValues(rs.getBytes(HeatmapTileParameters.CONTENT.name()))));
+    }
+
     /**
      * Loads {@code Heatmap} from a database by id.
      * @param heatmapId {@code long} query parameters
@@ -264,7 +316,8 @@ public class HeatmapDao extends NamedParameterJdbcDaoSupport {
         ROW_ANNOTATION_TYPE,
         COLUMN_ANNOTATION_TYPE,
         ROW_TREE,
-        COLUMN_TREE;
+        COLUMN_TREE,
+        TILE_SIZE;
 
         static MapSqlParameterSource getParameters(final Heatmap heatmap) {
             MapSqlParameterSource params = new MapSqlParameterSource();
@@ -283,6 +336,7 @@ public class HeatmapDao extends NamedParameterJdbcDaoSupport {
             params.addValue(CELL_ANNOTATION_TYPE.name(), heatmap.getCellAnnotationType().name());
             params.addValue(ROW_ANNOTATION_TYPE.name(), heatmap.getRowAnnotationType().name());
             params.addValue(COLUMN_ANNOTATION_TYPE.name(), heatmap.getColumnAnnotationType().name());
+            params.addValue(TILE_SIZE.name(), heatmap.getTileSize());
             return params;
         }
 
@@ -330,6 +384,8 @@ public class HeatmapDao extends NamedParameterJdbcDaoSupport {
                     .rowAnnotationType(HeatmapAnnotationType.valueOf(rs.getString(ROW_ANNOTATION_TYPE.name())))
                     .columnAnnotationType(HeatmapAnnotationType.valueOf(rs.getString(COLUMN_ANNOTATION_TYPE.name())))
                     .build();
+            final int tileSize = rs.getInt(TILE_SIZE.name());
+            heatmap.setTileSize(rs.wasNull() ? null : tileSize);
             heatmap.setBioDataItemId(rs.getLong(BIO_DATA_ITEM_ID.name()));
             heatmap.setName(rs.getString(NAME.name()));
             heatmap.setType(BiologicalDataItemResourceType.getById(rs.getLong(TYPE.name())));
@@ -343,4 +399,81 @@ public class HeatmapDao extends NamedParameterJdbcDaoSupport {
             return heatmap;
         }
     }
+
+    enum HeatmapTileParameters {
+        HEATMAP_ID,
+        TILE_ROW,
+        TILE_COLUMN,
+        ROW_COUNT,
+        COLUMN_COUNT,
+        VALUE_COUNT,
+        MIN_VALUE,
+        MAX_VALUE,
+        SUM_VALUE,
+        CONTENT,
+        FROM_TILE_ROW,
+        TO_TILE_ROW,
+        FROM_TILE_COLUMN,
+        TO_TILE_COLUMN,
+        TILE_ROWS,
+        TILE_COLUMNS;
+
+        static MapSqlParameterSource getParameters(final Long heatmapId, final HeatmapTile tile) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue(HEATMAP_ID.name(), heatmapId);
+            params.addValue(TILE_ROW.name(), tile.getTileRow());
+            params.addValue(TILE_COLUMN.name(), tile.getTileColumn());
+            params.addValue(ROW_COUNT.name(), tile.getRowCount());
+            params.addValue(COLUMN_COUNT.name(), tile.getColumnCount());
+            params.addValue(VALUE_COUNT.name(), tile.getValueCount());
+            params.addValue(MIN_VALUE.name(), tile.getMinValue());
+            params.addValue(MAX_VALUE.name(), tile.getMaxValue());
+            params.addValue(SUM_VALUE.name(), tile.getSumValue());
+            params.addValue(CONTENT.name(), valuesToData(tile.getValues()));
+            return params;
+        }
+
+        static MapSqlParameterSource getRangeParameters(final Long heatmapId,
+                                                        final int fromTileRow, final int toTileRow,
+                                                        final int fromTileColumn, final int toTileColumn) {
+            MapSqlParameterSource params = new MapSqlParameterSource();
+            params.addValue(HEATMAP_ID.name(), heatmapId);
+            params.addValue(FROM_TILE_ROW.name(), fromTileRow);
+            params.addValue(TO_TILE_ROW.name(), toTileRow);
+            params.addValue(FROM_TILE_COLUMN.name(), fromTileColumn);
+            params.addValue(TO_TILE_COLUMN.name(), toTileColumn);
+            return params;
+        }
+
+        static HeatmapTile parseTile(final ResultSet rs, final float[] values) throws SQLException {
+            return HeatmapTile.builder()
+                    .tileRow(rs.getInt(TILE_ROW.name()))
+                    .tileColumn(rs.getInt(TILE_COLUMN.name()))
+                    .rowCount(rs.getInt(ROW_COUNT.name()))
+                    .columnCount(rs.getInt(COLUMN_COUNT.name()))
+                    .valueCount(rs.getInt(VALUE_COUNT.name()))
+                    .minValue(getDouble(rs, MIN_VALUE.name()))
+                    .maxValue(getDouble(rs, MAX_VALUE.name()))
+                    .sumValue(getDouble(rs, SUM_VALUE.name()))
+                    .values(values)
+                    .build();
+        }
+
+        private static Double getDouble(final ResultSet rs, final String column) throws SQLException {
+            final double value = rs.getDouble(column);
+            return rs.wasNull() ? null : value;
+        }
+
+        private static byte[] valuesToData(final float[] values) {
+            final ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES);
+            buffer.asFloatBuffer().put(values);
+            return buffer.array();
+        }
+
+        private static float[] dataToValues(final byte[] data) {
+            final float[] values = new float[data.length / Float.BYTES];
+            ByteBuffer.wrap(data).asFloatBuffer().get(values);
+            return values;
+        }
+    }
 }
@@ -43,6 +43,7 @@ import com.epam.catgenome.entity.index.FeatureType;
 import com.epam.catgenome.entity.index.GeneIndexEntry;
 import com.epam.catgenome.entity.index.Group;
 import com.epam.catgenome.entity.index.IndexSearchResult;
+import com.epam.catgenome.entity.index.IndexSearcherStatistics;
 import com.epam.catgenome.entity.reference.Bookmark;
 import com.epam.catgenome.entity.reference.Chromosome;
 import com.epam.catgenome.entity.vcf.InfoItem;
@@ -61,6 +62,7 @@ import com.epam.catgenome.manager.vcf.VcfManager;
 import htsjdk.variant.vcf.VCFHeaderLineType;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -113,6 +115,7 @@ import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -159,6 +162,9 @@ public class FeatureIndexDao {
     @Autowired
     private GeneActivityService geneActivityService;
 
+    @Autowired
+    private FeatureIndexSearcherRegistry searcherRegistry;
+
     @Value("#{catgenome['lucene.index.max.size.grouping'] ?: 2L * 1024 * 1024 * 1024}")
     private long luceneIndexMaxSizeForGrouping;
 
@@ -257,6 +263,7 @@ public class FeatureIndexDao {
                 writer.addDocument(facetsConfig.build(document));
             }
         }
+        searcherRegistry.refresh(featureFile);
     }
 
     public void writeLuceneIndexForFile(final FeatureFile featureFile,
@@ -274,6 +281,16 @@ public class FeatureIndexDao {
         }
     }
 
+    /**
+     * Makes features, written by a caller's {@code IndexWriter}, visible to searches. Should be called
+     * once the writer is closed, since shared searchers read committed index state only
+     *
+     * @param featureFile a FeatureFile, which index was written
+     */
+    public void refreshLuceneIndexForFile(final FeatureFile featureFile) {
+        searcherRegistry.refresh(featureFile);
+    }
+
     public IndexSearchResult<FeatureIndexEntry> searchFeatures(final String featureId, final FeatureFile featureFile,
             final Integer maxResultsCount) throws IOException {
         return searchFeatures(featureId, Collections.singletonList(featureFile), maxResultsCount);
@@ -328,9 +345,7 @@ public class FeatureIndexDao {
         if (indexedFiles.isEmpty()) {
             return IndexSearchResult.empty();
         }
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(files);
-
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(files)) {
             if (reader.numDocs() == 0) {
                 return IndexSearchResult.empty();
             }
@@ -339,8 +354,6 @@ public class FeatureIndexDao {
                     FeatureType.GENE.getFileValue(), FeatureType.EXON.getFileValue()));
 
             return searchFileIndexes(files, query, null, reader.numDocs(), null);
-        } finally {
-            closeIndices(indexes);
         }
     }
 
@@ -454,25 +467,18 @@ public class FeatureIndexDao {
         final Set<String> availableFields = new HashSet<>();
         final Set<String> mainFields = Arrays.stream(FeatureIndexFields.values())
                 .map(FeatureIndexFields::getFieldName).collect(Collectors.toSet());
-        final SimpleFSDirectory[] indices = fileManager.getIndexesForFiles(files);
-        try {
-            for (SimpleFSDirectory file : indices) {
-                try(DirectoryReader reader = DirectoryReader.open(file)) {
-                    for (LeafReaderContext subReader : reader.leaves()) {
-                        Fields fields = subReader.reader().fields();
-                        for (String field : fields) {
-                            if (!mainFields.contains(field)) {
-                                availableFields.add(field);
-                            }
-                        }
+        try (MultiReader reader = openMultiReader(files)) {
+            for (LeafReaderContext subReader : reader.leaves()) {
+                Fields fields = subReader.reader().fields();
+                for (String field : fields) {
+                    if (!mainFields.contains(field)) {
+                        availableFields.add(field);
                     }
                 }
             }
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to perform index search for files " +
                     files.stream().map(BaseEntity::getName).collect(Collectors.joining(", ")), e);
-        } finally {
-            closeIndices(indices);
         }
         return GeneFilterInfo.builder().availableFilters(availableFields).build();
     }
@@ -481,27 +487,20 @@ public class FeatureIndexDao {
             throws IOException {
         final Set<String> termValues = new HashSet<>();
         int i = 0;
-        final SimpleFSDirectory[] indices = fileManager.getIndexesForFiles(files);
-        try {
-            for (SimpleFSDirectory file : indices) {
-                try(DirectoryReader reader = DirectoryReader.open(file)) {
-                    for (LeafReaderContext subReader : reader.leaves()) {
-                        Terms terms = subReader.reader().terms(fieldName);
-                        TermsEnum termsEnum = terms.iterator();
-                        BytesRef byteRef = termsEnum.next();
-                        while (byteRef != null && i < luceneRequestMaxValues) {
-                            termValues.add(byteRef.utf8ToString().toLowerCase(Locale.ROOT));
-                            byteRef = termsEnum.next();
-                            i++;
-                        }
-                    }
+        try (MultiReader reader = openMultiReader(files)) {
+            for (LeafReaderContext subReader : reader.leaves()) {
+                Terms terms = subReader.reader().terms(fieldName);
+                TermsEnum termsEnum = terms.iterator();
+                BytesRef byteRef = termsEnum.next();
+                while (byteRef != null && i < luceneRequestMaxValues) {
+                    termValues.add(byteRef.utf8ToString().toLowerCase(Locale.ROOT));
+                    byteRef = termsEnum.next();
+                    i++;
                 }
             }
         } catch (IOException e) {
             throw new IllegalArgumentException("Failed to perform index search for files " +
                     files.stream().map(BaseEntity::getName).collect(Collectors.joining(", ")), e);
-        } finally {
-            closeIndices(indices);
         }
         return termValues;
     }
@@ -526,9 +525,7 @@ public class FeatureIndexDao {
 
         final Map<Integer, FeatureIndexEntry> entryMap = new LinkedHashMap<>();
 
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(files);
-
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(files)) {
             if (reader.numDocs() == 0) {
                 return IndexSearchResult.empty();
             }
@@ -548,8 +545,6 @@ public class FeatureIndexDao {
             return new IndexSearchResult<>(new ArrayList<T>((Collection<? extends T>) entryMap.values()),
                                            maxResultsCount != null &&
                                            totalHits > maxResultsCount, totalHits);
-        } finally {
-            closeIndices(indexes);
         }
     }
 
@@ -563,8 +558,7 @@ public class FeatureIndexDao {
      */
     public GeneIndexEntry searchGeneFeatureByUid(final GeneFile featureFile, final String uid) throws IOException {
         final Term uidTerm = new Term(FeatureIndexFields.UID.getFieldName(), uid);
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(Collections.singletonList(featureFile));
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(Collections.singletonList(featureFile))) {
             if (reader.numDocs() == 0) {
                 return null;
             }
@@ -575,8 +569,6 @@ public class FeatureIndexDao {
             final Document document = searcher.doc(docId);
 
             return buildGeneIndexEntry(documentCreator, document);
-        } finally {
-            closeIndices(indexes);
         }
     }
 
@@ -597,7 +589,7 @@ public class FeatureIndexDao {
         final SimpleFSDirectory index = fileManager.createIndexForFile(featureFile);
         final GeneIndexEntry oldEntry;
         try (StandardAnalyzer analyzer = new StandardAnalyzer();
-             MultiReader reader = openMultiReader(new SimpleFSDirectory[] {index});
+             MultiReader reader = openMultiReader(Collections.singletonList(featureFile));
              IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(analyzer)
                      .setOpenMode(IndexWriterConfig.OpenMode.APPEND))) {
             if (reader.numDocs() == 0) {
@@ -625,6 +617,7 @@ public class FeatureIndexDao {
         } finally {
             IOUtils.closeQuietly(index);
         }
+        searcherRegistry.refresh(featureFile);
 
         geneActivityService.saveGeneActivities(newGeneContent, oldEntry);
 
@@ -637,14 +630,12 @@ public class FeatureIndexDao {
             return 0;
         }
 
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(files);
-        final long totalIndexSize = getTotalIndexSize(indexes);
+        final long totalIndexSize = getTotalIndexSize(files);
         if (totalIndexSize > luceneIndexMaxSizeForGrouping) {
-            closeIndices(indexes);
             return 0;
         }
 
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(files)) {
             if (reader.numDocs() == 0) {
                 return 0;
             }
@@ -661,8 +652,6 @@ public class FeatureIndexDao {
             }
 
             return res.childCount;
-        } finally {
-            closeIndices(indexes);
         }
     }
 
@@ -786,14 +775,12 @@ public class FeatureIndexDao {
             return Collections.emptyList();
         }
 
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(files);
-        final long totalIndexSize = getTotalIndexSize(indexes);
+        final long totalIndexSize = getTotalIndexSize(files);
         if (totalIndexSize > luceneIndexMaxSizeForGrouping) {
-            closeIndices(indexes);
             throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_FEATURE_INEDX_TOO_LARGE));
         }
 
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(files)) {
             if (reader.numDocs() == 0) {
                 return Collections.emptyList();
             }
@@ -812,33 +799,22 @@ public class FeatureIndexDao {
                 LabelAndValue lv = result.labelValues[i];
                 res.add(new Group(lv.label, lv.value.intValue()));
             }
-        } finally {
-            closeIndices(indexes);
         }
 
         return res;
     }
 
-    public long getTotalIndexSize(final SimpleFSDirectory[] indexes) throws IOException {
+    public long getTotalIndexSize(final List<? extends FeatureFile> files) {
         long totalIndexSize = 0;
-        for (SimpleFSDirectory index : indexes) {
-            totalIndexSize += getTotalIndexSize(index);
+        for (FeatureFile file : files) {
+            final File indexDir = fileManager.getIndexDirForFile(file);
+            if (indexDir.exists()) {
+                totalIndexSize += FileUtils.sizeOfDirectory(indexDir);
+            }
         }
         return totalIndexSize;
     }
 
-    private long getTotalIndexSize(final Directory index) throws IOException {
-        long totalFileSize = 0L;
-        final String[] files = index.listAll();
-        if (files == null) {
-            return 0;
-        }
-        for (int i = 0; i < files.length; i++) {
-            totalFileSize += index.fileLength(files[i]);
-        }
-        return totalFileSize;
-    }
-
     private String getGroupByField(final List<VcfFile> files, final String groupBy) throws IOException {
         final VcfIndexSortField sortField = VcfIndexSortField.getByName(groupBy);
         if (sortField == null) {
@@ -864,12 +840,29 @@ public class FeatureIndexDao {
         }
     }
 
-    public MultiReader openMultiReader(final SimpleFSDirectory[] indexes) throws IOException {
-        final IndexReader[] readers = new IndexReader[indexes.length];
-        for (int i = 0; i < indexes.length; i++) {
-            readers[i] = DirectoryReader.open(indexes[i]);
-        }
-        return new MultiReader(readers, true);
+    /**
+     * Opens a reader over feature indexes of specified files, backed by shared searchers
+     * of {@link FeatureIndexSearcherRegistry}. Returned reader must be closed after use.
+     *
+     * @param files a {@link List} of {@link FeatureFile}, which indexes to read
+     * @return a {@code MultiReader} over files indexes
+     * @throws IOException if something is wrong in the filesystem
+     */
+    public MultiReader openMultiReader(final List<? extends FeatureFile> files) throws IOException {
+        return searcherRegistry.openReader(files);
+    }
+
+    /**
+     * Closes a shared searcher of a file feature index, should be called before the index is deleted or rebuilt
+     *
+     * @param featureFile a {@link FeatureFile}, which index searcher to close
+     */
+    public void releaseIndexSearcher(final FeatureFile featureFile) {
+        searcherRegistry.evict(featureFile);
+    }
+
+    public IndexSearcherStatistics getIndexSearcherStatistics() {
+        return searcherRegistry.getStatistics();
     }
 
 
@@ -932,9 +925,7 @@ public class FeatureIndexDao {
 
         final List<Long> chromosomeIds = new ArrayList<>();
 
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(files);
-
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(files)) {
             if (reader.numDocs() == 0) {
                 return Collections.emptyList();
             }
@@ -953,8 +944,6 @@ public class FeatureIndexDao {
             for (LabelAndValue labelAndValue : res.labelValues) {
                 chromosomeIds.add(Long.parseLong(labelAndValue.label));
             }
-        } finally {
-            closeIndices(indexes);
         }
 
         return chromosomeIds;
@@ -964,12 +953,6 @@ public class FeatureIndexDao {
         return luceneIndexMaxSizeForGrouping;
     }
 
-    private void closeIndices(final SimpleFSDirectory[] indexes) {
-        for (SimpleFSDirectory index : indexes) {
-            IOUtils.closeQuietly(index);
-        }
-    }
-
     public Set<String> searchGenesInVcfFiles(final String gene, final List<VcfFile> vcfFiles) throws IOException {
         if (CollectionUtils.isEmpty(vcfFiles)) {
             return Collections.emptySet();
@@ -990,9 +973,7 @@ public class FeatureIndexDao {
 
         Set<String> geneIds = new HashSet<>();
 
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(vcfFiles);
-
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(vcfFiles)) {
             if (reader.numDocs() == 0) {
                 return Collections.emptySet();
             }
@@ -1010,8 +991,6 @@ public class FeatureIndexDao {
         } catch (IOException e) {
             LOGGER.error(getMessage(MessagesConstants.ERROR_FEATURE_INDEX_SEARCH_FAILED), e);
             return Collections.emptySet();
-        } finally {
-            closeIndices(indexes);
         }
 
         return geneIds;
@@ -1070,8 +1049,7 @@ public class FeatureIndexDao {
     public IndexSearchResult<GeneIndexEntry> searchGeneFeaturesFully(final GeneFile featureFile, final String chrId,
                                                                      final GeneFilterForm filterForm, final Sort sort)
             throws IOException {
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(Collections.singletonList(featureFile));
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(Collections.singletonList(featureFile))) {
             if (reader.numDocs() == 0) {
                 return IndexSearchResult.empty();
             }
@@ -1094,15 +1072,12 @@ public class FeatureIndexDao {
             final ScoreDoc lastEntry = hits.length == 0 ? null : hits[hits.length-1];
             filterForm.setPointer(Pointer.fromScoreDoc(lastEntry));
             return new IndexSearchResult<>(values, false, totalHits, lastEntry);
-        } finally {
-            closeIndices(indexes);
         }
     }
 
     public int countGenesInInterval(final GeneFile featureFile, final String chrId,
                                     final GeneFilterForm filterForm) throws IOException {
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(Collections.singletonList(featureFile));
-        try (MultiReader reader = openMultiReader(indexes)) {
+        try (MultiReader reader = openMultiReader(Collections.singletonList(featureFile))) {
             if (reader.numDocs() == 0) {
                 return 0;
             }
@@ -1111,8 +1086,6 @@ public class FeatureIndexDao {
             final Query query = IndexQueryUtils.intervalQuery(chrId, filterForm.getStartIndex(),
                     filterForm.getEndIndex(), filterForm.getFeatureTypes());
             return searcher.count(query);
-        } finally {
-            closeIndices(indexes);
         }
     }
 
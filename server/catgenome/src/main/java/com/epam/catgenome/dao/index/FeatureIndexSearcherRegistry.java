@@ -0,0 +1,300 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.dao.index;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.entity.BaseEntity;
+import com.epam.catgenome.entity.FeatureFile;
+import com.epam.catgenome.entity.index.IndexSearcherStatistics;
+import com.epam.catgenome.manager.FileManager;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.SimpleFSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+/**
+ * A registry of shared Lucene searchers over feature file indexes. Keeps one {@link SearcherManager} per
+ * feature index directory, so that index readers are opened once and reused by concurrent requests, instead of
+ * opening a new {@code DirectoryReader} for every search. Readers are reference counted: a reader, acquired by a
+ * request, stays valid until the request closes it, even if the searcher is refreshed or evicted meanwhile: an index
+ * directory is closed only when the searcher is evicted and the last reader, opened over it, is released.
+ * Searchers, that were not used for a configured period of time, are closed by a scheduled job.
+ */
+@Component
+public class FeatureIndexSearcherRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FeatureIndexSearcherRegistry.class);
+
+    @Autowired
+    private FileManager fileManager;
+
+    @Value("${lucene.searcher.pool.max.size:256}")
+    private int maxSize;
+
+    @Value("${lucene.searcher.pool.idle.timeout.sec:600}")
+    private long idleTimeout;
+
+    @Value("${lucene.searcher.pool.mmap:false}")
+    private boolean useMMap;
+
+    private final ConcurrentMap<String, PooledSearcher> searchers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger openedDirectories = new AtomicInteger();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong opens = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Opens a reader over the indexes of specified feature files. Files without an index are skipped.
+     * Returned reader must be closed by the caller, closing it releases the underlying shared readers.
+     *
+     * @param featureFiles files which indexes to read
+     * @return a {@code MultiReader} over the current state of the indexes
+     * @throws IOException if something is wrong with access to file system
+     */
+    public MultiReader openReader(final List<? extends FeatureFile> featureFiles) throws IOException {
+        final List<IndexReader> readers = new ArrayList<>();
+        try {
+            for (FeatureFile featureFile : CollectionUtils.emptyIfNull(featureFiles)) {
+                final File indexDir = fileManager.getIndexDirForFile(featureFile);
+                if (indexDir.exists()) {
+                    readers.add(acquire(indexDir));
+                } else {
+                    evict(indexDir);
+                }
+            }
+            if (readers.isEmpty() && CollectionUtils.isNotEmpty(featureFiles)) {
+                LOGGER.info(getMessage(MessagesConstants.INFO_FEATURE_INDEX_NOT_FOUND,
+                        featureFiles.stream().map(BaseEntity::getName).collect(Collectors.joining(", "))));
+            }
+            // MultiReader increments reference count of each sub reader, since it doesn't own them
+            return new MultiReader(readers.toArray(new IndexReader[readers.size()]), false);
+        } finally {
+            for (IndexReader reader : readers) {
+                reader.decRef();
+            }
+        }
+    }
+
+    /**
+     * Makes changes, committed to the index of a feature file, visible to subsequent searches
+     * @param featureFile a file which index was changed
+     */
+    public void refresh(final FeatureFile featureFile) {
+        final PooledSearcher searcher = searchers.get(getKey(fileManager.getIndexDirForFile(featureFile)));
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcher.manager.maybeRefreshBlocking();
+            refreshes.incrementAndGet();
+        } catch (IOException | AlreadyClosedException e) {
+            LOGGER.debug("Failed to refresh index searcher, it will be reopened", e);
+            evict(featureFile);
+        }
+    }
+
+    /**
+     * Closes a shared searcher of a feature file index, e.g. before the index is deleted or rebuilt
+     * @param featureFile a file which searcher to close
+     */
+    public void evict(final FeatureFile featureFile) {
+        evict(fileManager.getIndexDirForFile(featureFile));
+    }
+
+    @Scheduled(fixedDelayString = "${lucene.searcher.pool.eviction.period:60000}")
+    public void evictIdle() {
+        final long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleTimeout);
+        searchers.forEach((key, searcher) -> {
+            if (searcher.lastAccess < threshold) {
+                evict(key, searcher);
+            }
+        });
+    }
+
+    public IndexSearcherStatistics getStatistics() {
+        return IndexSearcherStatistics.builder()
+                .openedSearchers(searchers.size())
+                .openedDirectories(openedDirectories.get())
+                .hits(hits.get())
+                .misses(misses.get())
+                .opens(opens.get())
+                .refreshes(refreshes.get())
+                .evictions(evictions.get())
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        searchers.forEach(this::evict);
+    }
+
+    private IndexReader acquire(final File indexDir) throws IOException {
+        final String key = getKey(indexDir);
+        while (true) {
+            PooledSearcher searcher = searchers.get(key);
+            if (searcher == null) {
+                misses.incrementAndGet();
+                try {
+                    searcher = searchers.computeIfAbsent(key, k -> open(indexDir));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                evictExcessive();
+            } else {
+                hits.incrementAndGet();
+            }
+            try {
+                return searcher.acquire();
+            } catch (AlreadyClosedException e) {
+                // searcher was evicted concurrently, retry with a new one
+                searchers.remove(key, searcher);
+            }
+        }
+    }
+
+    private PooledSearcher open(final File indexDir) {
+        Directory directory = null;
+        try {
+            directory = useMMap ? new MMapDirectory(indexDir.toPath()) : new SimpleFSDirectory(indexDir.toPath());
+            final PooledSearcher searcher = new PooledSearcher(directory);
+            openedDirectories.incrementAndGet();
+            opens.incrementAndGet();
+            return searcher;
+        } catch (IOException e) {
+            IOUtils.closeQuietly(directory);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void evictExcessive() {
+        final int excess = searchers.size() - maxSize;
+        if (excess <= 0) {
+            return;
+        }
+        searchers.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .limit(excess)
+                .collect(Collectors.toList())
+                .forEach(e -> evict(e.getKey(), e.getValue()));
+    }
+
+    private void evict(final File indexDir) {
+        final String key = getKey(indexDir);
+        final PooledSearcher searcher = searchers.get(key);
+        if (searcher != null) {
+            evict(key, searcher);
+        }
+    }
+
+    private void evict(final String key, final PooledSearcher searcher) {
+        if (searchers.remove(key, searcher)) {
+            evictions.incrementAndGet();
+            searcher.close();
+        }
+    }
+
+    private String getKey(final File indexDir) {
+        return indexDir.getAbsolutePath();
+    }
+
+    private final class PooledSearcher {
+        private final Directory directory;
+        private final SearcherManager manager;
+        // the registry holds one lease, each reader opened by the manager holds another one until it is closed
+        private final AtomicInteger leases = new AtomicInteger(1);
+        private volatile long lastAccess;
+
+        private PooledSearcher(final Directory directory) throws IOException {
+            this.directory = directory;
+            this.manager = new SearcherManager(directory, new SearcherFactory() {
+                @Override
+                public IndexSearcher newSearcher(final IndexReader reader, final IndexReader previousReader)
+                        throws IOException {
+                    leases.incrementAndGet();
+                    reader.addReaderClosedListener(closed -> release());
+                    return super.newSearcher(reader, previousReader);
+                }
+            });
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        private IndexReader acquire() throws IOException {
+            lastAccess = System.currentTimeMillis();
+            final IndexSearcher searcher = manager.acquire();
+            try {
+                final IndexReader reader = searcher.getIndexReader();
+                reader.incRef();
+                return reader;
+            } finally {
+                manager.release(searcher);
+            }
+        }
+
+        private void close() {
+            // readers, acquired by running requests, remain open until they are released
+            IOUtils.closeQuietly(manager);
+            release();
+        }
+
+        private void release() {
+            if (leases.decrementAndGet() == 0) {
+                IOUtils.closeQuietly(directory);
+                openedDirectories.decrementAndGet();
+            }
+        }
+    }
+}
@@ -72,7 +72,7 @@ import static com.epam.catgenome.manager.vcf.reader.VcfFileReader.isEmptyStrain;
 public class BigVcfFeatureIndexBuilder extends VcfFeatureIndexBuilder {
 
     private IndexWriter writer;
-    private StandardAnalyzer analyzer;
+    private boolean ownsWriter;
     private List<GeneFile> geneFiles;
     private AbstractDocumentBuilder creator;
     private FacetsConfig facetsConfig;
@@ -83,17 +83,34 @@ public class BigVcfFeatureIndexBuilder extends VcfFeatureIndexBuilder {
                                      final VcfFile featureFile, final FileManager fileManager,
                                      final List<GeneFile> geneFiles, final Integer indexBufferSize)
             throws IOException {
+        this(filterInfo, vcfHeader, featureIndexManager, featureFile,
+                createIndexWriter(featureFile, fileManager, indexBufferSize), geneFiles);
+        this.ownsWriter = true;
+    }
+
+    /**
+     * Creates a builder, that adds documents to an {@link IndexWriter} shared with other builders of the same file,
+     * e.g. ones indexing other contigs in parallel. The writer isn't closed by {@link #close()} in this case.
+     */
+    public BigVcfFeatureIndexBuilder(final VcfFilterInfo filterInfo, final VCFHeader vcfHeader,
+                                     final FeatureIndexManager featureIndexManager,
+                                     final VcfFile featureFile, final IndexWriter writer,
+                                     final List<GeneFile> geneFiles) {
         super(filterInfo, vcfHeader, featureIndexManager);
-        this.analyzer = new StandardAnalyzer();
-        final Directory index = fileManager.createIndexForFile(featureFile);
-        this.writer = new IndexWriter(index, new IndexWriterConfig(analyzer).setOpenMode(
-                IndexWriterConfig.OpenMode.CREATE_OR_APPEND).setRAMBufferSizeMB(indexBufferSize));
+        this.writer = writer;
         this.geneFiles = geneFiles;
         this.creator = new BigVcfDocumentBuilder();
         this.facetsConfig = creator.createFacetsConfig(filterInfo);
         this.vcfFile = featureFile;
     }
 
+    public static IndexWriter createIndexWriter(final VcfFile featureFile, final FileManager fileManager,
+                                                final Integer indexBufferSize) throws IOException {
+        final Directory index = fileManager.createIndexForFile(featureFile);
+        return new IndexWriter(index, new IndexWriterConfig(new StandardAnalyzer()).setOpenMode(
+                IndexWriterConfig.OpenMode.CREATE_OR_APPEND).setRAMBufferSizeMB(indexBufferSize));
+    }
+
     @Override
     protected List<VcfIndexEntry> simplify(final VcfIndexEntry indexEntry, final Set<GeneInfo> geneIds,
             final String geneIdsString, final String geneNamesString, final Set<VariationType> types) {
@@ -171,6 +188,9 @@ public class BigVcfFeatureIndexBuilder extends VcfFeatureIndexBuilder {
     }
 
     public void close() {
+        if (!ownsWriter) {
+            return;
+        }
         try {
             this.writer.close();
         } catch (IOException e) {
@@ -30,15 +30,16 @@ import com.epam.catgenome.entity.AbstractFilterForm;
 import com.epam.catgenome.entity.FeatureFile;
 import com.epam.catgenome.entity.index.FeatureIndexEntry;
 import com.epam.catgenome.entity.index.IndexSearchResult;
-import com.epam.catgenome.manager.FileManager;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SimpleCollector;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.SimpleFSDirectory;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -48,26 +49,23 @@ import java.util.concurrent.ExecutorService;
 public abstract class AbstractIndexSearcher<T extends FeatureIndexEntry, R extends AbstractFilterForm>
         implements LuceneIndexSearcher<T> {
     private FeatureIndexDao featureIndexDao;
-    private FileManager fileManager;
     private R filterForm;
     private ExecutorService executorService;
 
-    public AbstractIndexSearcher(final FeatureIndexDao featureIndexDao, final FileManager fileManager,
-                                 final R filterForm, final ExecutorService executorService) {
+    public AbstractIndexSearcher(final FeatureIndexDao featureIndexDao, final R filterForm,
+                                 final ExecutorService executorService) {
         this.featureIndexDao = featureIndexDao;
-        this.fileManager = fileManager;
         this.filterForm = filterForm;
         this.executorService = executorService;
     }
 
     public static <T extends FeatureIndexEntry, R extends AbstractFilterForm> LuceneIndexSearcher<T> getIndexSearcher(
-            final R filterForm, final FeatureIndexDao featureIndexDao, final FileManager fileManager,
-            final ExecutorService executorService) {
+            final R filterForm, final FeatureIndexDao featureIndexDao, final ExecutorService executorService) {
 
         if (filterForm.getPointer() != null) {
-            return new NextPageSearcher<T, R>(featureIndexDao, fileManager, filterForm, executorService);
+            return new NextPageSearcher<T, R>(featureIndexDao, filterForm, executorService);
         } else {
-            return new PagingSearcher<T, R>(featureIndexDao, fileManager, filterForm, executorService);
+            return new PagingSearcher<T, R>(featureIndexDao, filterForm, executorService);
         }
     }
 
@@ -78,13 +76,9 @@ public abstract class AbstractIndexSearcher<T extends FeatureIndexEntry, R exten
             return new IndexSearchResult<>(Collections.emptyList(), false, 0);
         }
 
-        final SimpleFSDirectory[] indexes = fileManager.getIndexesForFiles(files);
-        long indexSize = featureIndexDao.getTotalIndexSize(indexes);
-        if (indexSize > featureIndexDao.getLuceneIndexMaxSizeForGrouping() && filterForm.filterEmpty()) {
-            throw new IllegalArgumentException("Variations filter shall be specified");
-        }
+        final long indexSize = checkIndexSize(files);
 
-        try (MultiReader reader = featureIndexDao.openMultiReader(indexes)) {
+        try (MultiReader reader = featureIndexDao.openMultiReader(files)) {
             if (reader.numDocs() == 0) {
                 return new IndexSearchResult<>(Collections.emptyList(), false, 0);
             }
@@ -98,9 +92,29 @@ public abstract class AbstractIndexSearcher<T extends FeatureIndexEntry, R exten
                 searchResults.setTotalResultsCount(0);
             }
             return searchResults;
-        } finally {
-            for (SimpleFSDirectory index : indexes) {
-                IOUtils.closeQuietly(index);
+        }
+    }
+
+    @Override
+    public void streamSearchResults(final List<? extends FeatureFile> files, final Query query, final Sort sort,
+                                    final int batchSize, final IndexEntryConsumer<T> consumer) throws IOException {
+        if (CollectionUtils.isEmpty(files)) {
+            return;
+        }
+        checkIndexSize(files);
+
+        try (MultiReader reader = featureIndexDao.openMultiReader(files)) {
+            if (reader.numDocs() == 0) {
+                return;
+            }
+            final AbstractDocumentBuilder<T> documentCreator = AbstractDocumentBuilder
+                    .createDocumentCreator(files.get(0).getFormat(), filterForm.getAdditionalFields());
+            final Query constantQuery = new ConstantScoreQuery(query);
+            if (sort == null) {
+                streamInIndexOrder(new IndexSearcher(reader), constantQuery, documentCreator, consumer);
+            } else {
+                streamSorted(new IndexSearcher(reader, executorService), constantQuery, sort, batchSize,
+                        documentCreator, consumer);
             }
         }
     }
@@ -110,6 +124,57 @@ public abstract class AbstractIndexSearcher<T extends FeatureIndexEntry, R exten
         return featureIndexDao.performSearch(searcher, query, reader, numDocs, sort);
     }
 
+    private long checkIndexSize(final List<? extends FeatureFile> files) throws IOException {
+        final long indexSize = featureIndexDao.getTotalIndexSize(files);
+        if (indexSize > featureIndexDao.getLuceneIndexMaxSizeForGrouping() && filterForm.filterEmpty()) {
+            throw new IllegalArgumentException("Variations filter shall be specified");
+        }
+        return indexSize;
+    }
+
+    /**
+     * Without sorting hits are returned in index order, so a single pass of a collector is enough
+     */
+    private void streamInIndexOrder(final IndexSearcher searcher, final Query query,
+                                    final AbstractDocumentBuilder<T> documentCreator,
+                                    final IndexEntryConsumer<T> consumer) throws IOException {
+        searcher.search(query, new SimpleCollector() {
+            private int docBase;
+
+            @Override
+            protected void doSetNextReader(final LeafReaderContext context) {
+                docBase = context.docBase;
+            }
+
+            @Override
+            public void collect(final int doc) throws IOException {
+                consumer.accept(documentCreator.buildEntry(searcher, docBase + doc));
+            }
+
+            @Override
+            public boolean needsScores() {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Sorted hits are fetched in batches, each batch starts after the last hit of the previous one
+     */
+    private void streamSorted(final IndexSearcher searcher, final Query query, final Sort sort, final int batchSize,
+                              final AbstractDocumentBuilder<T> documentCreator,
+                              final IndexEntryConsumer<T> consumer) throws IOException {
+        ScoreDoc after = null;
+        ScoreDoc[] hits;
+        do {
+            hits = searcher.searchAfter(after, query, batchSize, sort, false, false).scoreDocs;
+            for (ScoreDoc hit : hits) {
+                consumer.accept(documentCreator.buildEntry(searcher, hit.doc));
+            }
+            after = hits.length == 0 ? null : hits[hits.length - 1];
+        } while (hits.length == batchSize);
+    }
+
     protected abstract IndexSearchResult<T> performSearch(IndexSearcher searcher, MultiReader reader, Query query,
                                                           Sort sort, AbstractDocumentBuilder<T> documentCreator)
             throws IOException;
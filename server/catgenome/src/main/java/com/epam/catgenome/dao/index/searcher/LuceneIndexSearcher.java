@@ -37,4 +37,11 @@ import java.util.List;
 public interface LuceneIndexSearcher<T extends FeatureIndexEntry> {
 
     IndexSearchResult<T> getSearchResults(List<? extends FeatureFile> files, Query query, Sort sort) throws IOException;
+
+    /**
+     * Passes all entries matching the query to the consumer in the order defined by sort, walking
+     * the index once instead of loading results page by page
+     */
+    void streamSearchResults(List<? extends FeatureFile> files, Query query, Sort sort, int batchSize,
+                             IndexEntryConsumer<T> consumer) throws IOException;
 }
@@ -46,6 +46,7 @@ public class BamQueryOption {
     private boolean filterVendorQualityFail = false;
     private boolean filterDuplicate = false;
     private boolean filterSupplementaryAlignment = false;
+    private BamTrackFormat format = BamTrackFormat.JSON;
 
     @JsonIgnore
     private Long refID;
@@ -200,4 +201,12 @@ public class BamQueryOption {
     public void setMode(BamTrackMode mode) {
         this.mode = mode;
     }
+
+    public BamTrackFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(BamTrackFormat format) {
+        this.format = format;
+    }
 }
@@ -24,6 +24,9 @@
 
 package com.epam.catgenome.entity.bam;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
  * Source:
  * Created:     7/6/2016
@@ -33,13 +36,14 @@ package com.epam.catgenome.entity.bam;
  */
 public class BamReferenceBuffer {
 
-    private String buffer;
+    private byte[] bases;
+    private int length;
 
     /**
      * @param buffer initial reference sequence
      */
     public BamReferenceBuffer(String buffer) {
-        this.buffer = buffer;
+        setBuffer(buffer);
     }
 
     /**
@@ -47,9 +51,12 @@ public class BamReferenceBuffer {
      * @param tailString string to add to reference
      */
     public void addTail(final String tailString) {
-        final StringBuilder builder = new StringBuilder(buffer);
-        builder.append(tailString);
-        buffer = builder.toString();
+        final int newLength = length + tailString.length();
+        if (newLength > bases.length) {
+            bases = Arrays.copyOf(bases, Math.max(newLength, bases.length * 2));
+        }
+        copyBases(tailString, bases, length);
+        length = newLength;
     }
 
     /**
@@ -57,16 +64,38 @@ public class BamReferenceBuffer {
      * @param headString string to add to reference
      */
     public void addHead(final String headString) {
-        final StringBuilder builder = new StringBuilder(buffer);
-        builder.insert(0, headString);
-        buffer = builder.toString();
+        final byte[] newBases = new byte[Math.max(length + headString.length(), bases.length)];
+        copyBases(headString, newBases, 0);
+        System.arraycopy(bases, 0, newBases, headString.length(), length);
+        bases = newBases;
+        length += headString.length();
+    }
+
+    /**
+     * Returns the backing array of the buffer, only the first {@link #getLength()} bytes are valid
+     * @return reference nucleotides as ASCII bytes
+     */
+    public byte[] getBases() {
+        return bases;
+    }
+
+    public int getLength() {
+        return length;
     }
 
     public String getBuffer() {
-        return buffer;
+        return new String(bases, 0, length, StandardCharsets.US_ASCII);
     }
 
     public void setBuffer(String buffer) {
-        this.buffer = buffer;
+        bases = new byte[buffer.length()];
+        copyBases(buffer, bases, 0);
+        length = buffer.length();
+    }
+
+    private static void copyBases(final String sequence, final byte[] target, final int offset) {
+        for (int i = 0; i < sequence.length(); i++) {
+            target[offset + i] = (byte) sequence.charAt(i);
+        }
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.entity.bam;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A reusable list of read bases that differ from the reference nucleotides. Positions and bases are kept
+ * in primitive arrays, so that {@code BasePosition} objects are created only for reads that are actually
+ * returned to a client, see {@link #copy()}.
+ */
+public class BasePositionBuffer extends AbstractList<BasePosition> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private byte[] bases = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param position of a base in the read
+     * @param base nucleotide at specified position
+     */
+    public void add(final int position, final byte base) {
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            bases = Arrays.copyOf(bases, size * 2);
+        }
+        positions[size] = position;
+        bases[size] = base;
+        size++;
+    }
+
+    @Override
+    public BasePosition get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return new BasePosition(positions[index], bases[index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return a detached copy of the buffer content, that isn't affected by the buffer reuse
+     */
+    public List<BasePosition> copy() {
+        final List<BasePosition> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new BasePosition(positions[i], bases[i]));
+        }
+        return result;
+    }
+}
@@ -51,6 +51,7 @@ public class Heatmap extends BiologicalDataItem {
     private Double minCellValue;
     private List<List<String>> columnLabels;
     private List<List<String>> rowLabels;
+    private Integer tileSize;
 
     @Override
     public AclClass getAclClass() {
@@ -36,6 +36,7 @@ import java.util.stream.Collectors;
 import com.epam.catgenome.entity.BiologicalDataItemFormat;
 import com.epam.catgenome.entity.project.Project;
 import com.epam.catgenome.manager.project.ProjectManager;
+import com.epam.catgenome.manager.project.ProjectTreeSnapshot;
 import com.epam.catgenome.util.Utils;
 import com.epam.catgenome.util.db.PagingInfo;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -81,6 +82,9 @@ public class BiologicalDataItemManager {
     @Autowired
     private AuthManager authManager;
 
+    @Autowired
+    private ProjectTreeSnapshot projectTreeSnapshot;
+
     private static final String URL_PATTERN = "/#/${REFERENCE_NAME}${CHROMOSOME_NAME}${INDEXES}?tracks=${TRACKS}";
     private static final String INDEXES_PATTERN = "/${START_INDEX}/${END_INDEX}";
 
@@ -97,6 +101,7 @@ public class BiologicalDataItemManager {
     @Transactional(propagation = Propagation.REQUIRED)
     public void updateBiologicalDataItems(final List<BiologicalDataItem> items) {
         biologicalDataItemDao.updateBiologicalDataItems(items);
+        items.forEach(projectTreeSnapshot::invalidate);
     }
 
     /**
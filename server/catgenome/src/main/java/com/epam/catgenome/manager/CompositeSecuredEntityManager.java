@@ -38,11 +38,15 @@ import com.epam.catgenome.component.MessageHelper;
 import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.entity.security.AbstractSecuredEntity;
 import com.epam.catgenome.entity.security.AclClass;
+import com.epam.catgenome.manager.project.ProjectTreeSnapshot;
 
 @Service
 public class CompositeSecuredEntityManager {
     private Map<AclClass, SecuredEntityManager> managers;
 
+    @Autowired
+    private ProjectTreeSnapshot projectTreeSnapshot;
+
     @Autowired
     public void setManagers(List<SecuredEntityManager> managers) {
         if (CollectionUtils.isEmpty(managers)) {
@@ -72,7 +76,9 @@ public class CompositeSecuredEntityManager {
     }
 
     public AbstractSecuredEntity changeOwner(AclClass aclClass, Long id, String owner) {
-        return getEntityManager(aclClass).changeOwner(id, owner);
+        final AbstractSecuredEntity entity = getEntityManager(aclClass).changeOwner(id, owner);
+        projectTreeSnapshot.invalidate(id, aclClass);
+        return entity;
     }
 
 }
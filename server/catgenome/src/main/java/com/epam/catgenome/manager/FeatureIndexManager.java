@@ -29,6 +29,7 @@ import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.controller.vo.ItemsByProject;
 import com.epam.catgenome.dao.index.FeatureIndexDao;
 import com.epam.catgenome.dao.index.indexer.BigVcfFeatureIndexBuilder;
+import com.epam.catgenome.dao.index.searcher.IndexEntryConsumer;
 import com.epam.catgenome.dao.index.searcher.LuceneIndexSearcher;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.BiologicalDataItemFormat;
@@ -45,6 +46,7 @@ import com.epam.catgenome.entity.index.FeatureType;
 import com.epam.catgenome.entity.index.GeneIndexEntry;
 import com.epam.catgenome.entity.index.Group;
 import com.epam.catgenome.entity.index.IndexSearchResult;
+import com.epam.catgenome.entity.index.IndexSearcherStatistics;
 import com.epam.catgenome.entity.index.VcfIndexEntry;
 import com.epam.catgenome.entity.project.Project;
 import com.epam.catgenome.entity.reference.Chromosome;
@@ -163,6 +165,21 @@ public class FeatureIndexManager {
         featureIndexDao.deleteFromIndexByFileId(projectId, fileIds);
     }
 
+    /**
+     * Deletes feature index of a file, releasing a shared searcher opened over it
+     *
+     * @param featureFile a file, which index to delete
+     * @throws IOException if something is wrong with access to file system
+     */
+    public void deleteFileFeatureIndex(final FeatureFile featureFile) throws IOException {
+        featureIndexDao.releaseIndexSearcher(featureFile);
+        fileManager.deleteFileFeatureIndex(featureFile);
+    }
+
+    public IndexSearcherStatistics getIndexSearcherStatistics() {
+        return featureIndexDao.getIndexSearcherStatistics();
+    }
+
     /**
      * Searches gene IDs, affected by variations in specified VCF files in a specified project
      *
@@ -339,6 +356,23 @@ public class FeatureIndexManager {
         return getVcfSearchResult(filterForm, files);
     }
 
+    /**
+     * Passes all variations that satisfy the filter to the consumer, reading the index once
+     *
+     * @param filterForm {@code VcfFilterForm}, setting filter options, paging is ignored
+     * @param batchSize number of hits fetched from the index at once, if results are sorted
+     * @param consumer receives variations in the requested order
+     * @throws IOException if reading the index or consuming entries fails
+     */
+    public void streamVariations(final VcfFilterForm filterForm, final int batchSize,
+                                 final IndexEntryConsumer<VcfIndexEntry> consumer) throws IOException {
+        final List<VcfFile> files = vcfFileManager.loadVcfFiles(filterForm.getVcfFileIds());
+        final LuceneIndexSearcher<VcfIndexEntry> indexSearcher =
+                getIndexSearcher(filterForm, featureIndexDao, taskExecutorService.getSearchExecutor());
+        indexSearcher.streamSearchResults(files, filterForm.computeQuery(FeatureType.VARIATION),
+                featureIndexDao.createVcfSorting(filterForm.getOrderBy(), files), batchSize, consumer);
+    }
+
     /**
      * Loads Gene feature content by 'uid' Lucene document field
      *
@@ -390,7 +424,7 @@ public class FeatureIndexManager {
             final List<VcfFile> vcfFiles) throws IOException {
         if (filterForm.getPage() != null && filterForm.getPageSize() != null) {
             final LuceneIndexSearcher<VcfIndexEntry> indexSearcher =
-                    getIndexSearcher(filterForm, featureIndexDao, fileManager, taskExecutorService.getSearchExecutor());
+                    getIndexSearcher(filterForm, featureIndexDao, taskExecutorService.getSearchExecutor());
             final Sort sort = featureIndexDao.createVcfSorting(filterForm.getOrderBy(), vcfFiles);
             final IndexSearchResult<VcfIndexEntry> res =
                     indexSearcher.getSearchResults(vcfFiles, filterForm.computeQuery(FeatureType.VARIATION), sort);
@@ -410,7 +444,7 @@ public class FeatureIndexManager {
                                                                      final List<? extends FeatureFile> featureFiles)
             throws IOException {
         final LuceneIndexSearcher<GeneIndexEntry> indexSearcher =
-                getIndexSearcher(filterForm, featureIndexDao, fileManager, taskExecutorService.getSearchExecutor());
+                getIndexSearcher(filterForm, featureIndexDao, taskExecutorService.getSearchExecutor());
         final Sort sort = Optional.ofNullable(
                 featureIndexDao.createGeneSorting(filterForm.getOrderBy(), featureFiles))
                 .orElseGet(filterForm::defaultSort);
@@ -421,6 +455,26 @@ public class FeatureIndexManager {
         return res;
     }
 
+    /**
+     * Passes all genes from the files that satisfy the filter to the consumer, reading the index once
+     *
+     * @param filterForm {@code GeneFilterForm}, setting filter options, paging is ignored
+     * @param featureFiles gene files to search
+     * @param batchSize number of hits fetched from the index at once
+     * @param consumer receives genes in the requested order
+     * @throws IOException if reading the index or consuming entries fails
+     */
+    public void streamGenes(final GeneFilterForm filterForm, final List<? extends FeatureFile> featureFiles,
+                            final int batchSize, final IndexEntryConsumer<GeneIndexEntry> consumer)
+            throws IOException {
+        final LuceneIndexSearcher<GeneIndexEntry> indexSearcher =
+                getIndexSearcher(filterForm, featureIndexDao, taskExecutorService.getSearchExecutor());
+        final Sort sort = Optional.ofNullable(
+                featureIndexDao.createGeneSorting(filterForm.getOrderBy(), featureFiles))
+                .orElseGet(filterForm::defaultSort);
+        indexSearcher.streamSearchResults(featureFiles, filterForm.computeQuery(), sort, batchSize, consumer);
+    }
+
     public IndexSearchResult<GeneIndexEntry> getFullGeneSearchResult(final GeneFilterForm filterForm,
                                                                      final GeneFile geneFile) {
         try {
@@ -582,6 +636,15 @@ public class FeatureIndexManager {
         featureIndexDao.writeLuceneIndexForFile(featureFile, entries, vcfFilterInfo, writer);
     }
 
+    /**
+     * Makes index entries, written by a caller's {@link IndexWriter}, visible to feature searches.
+     * Should be called once, after the writer is closed
+     * @param featureFile a {@link FeatureFile}, for which index was written
+     */
+    public void refreshLuceneIndexForFile(final FeatureFile featureFile) {
+        featureIndexDao.refreshLuceneIndexForFile(featureFile);
+    }
+
     public void writeLuceneIndexForFile(final FeatureFile featureFile,
                                         final List<? extends FeatureIndexEntry> entries,
                                         VcfFilterInfo vcfFilterInfo)
@@ -33,6 +33,7 @@ import com.epam.catgenome.entity.index.FeatureIndexEntry;
 import com.epam.catgenome.entity.index.GeneIndexEntry;
 import com.epam.catgenome.entity.index.Group;
 import com.epam.catgenome.entity.index.IndexSearchResult;
+import com.epam.catgenome.entity.index.IndexSearcherStatistics;
 import com.epam.catgenome.entity.index.VcfIndexEntry;
 import com.epam.catgenome.entity.vcf.VcfFilterForm;
 import com.epam.catgenome.entity.vcf.VcfFilterInfo;
@@ -47,6 +48,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -93,10 +95,11 @@ public class FeatureIndexSecurityService {
 
     @AclFilter
     @PreAuthorize(ROLE_USER)
-    public byte[] exportVariations(final VcfExportFilterForm filterForm,
-                                   final FileFormat format,
-                                   final boolean includeHeader) throws IOException {
-        return exportManager.exportVariations(filterForm, format, includeHeader);
+    public void exportVariations(final VcfExportFilterForm filterForm,
+                                 final FileFormat format,
+                                 final boolean includeHeader,
+                                 final OutputStream outputStream) throws IOException {
+        exportManager.exportVariations(filterForm, format, includeHeader, outputStream);
     }
 
     @AclFilter
@@ -145,11 +148,17 @@ public class FeatureIndexSecurityService {
         return featureIndexManager.getAvailableFieldValues(referenceId, fileIdsByProjectId, fieldName);
     }
 
+    @PreAuthorize(ROLE_ADMIN)
+    public IndexSearcherStatistics getIndexSearcherStatistics() {
+        return featureIndexManager.getIndexSearcherStatistics();
+    }
+
     @PreAuthorize(ROLE_USER)
-    public byte[] exportFeaturesByReference(final GeneExportFilterForm geneFilterForm,
-                                            final Long referenceId,
-                                            final FileFormat format,
-                                            final boolean includeHeader) throws IOException {
-        return exportManager.exportGenesByReference(geneFilterForm, referenceId, format, includeHeader);
+    public void exportFeaturesByReference(final GeneExportFilterForm geneFilterForm,
+                                          final Long referenceId,
+                                          final FileFormat format,
+                                          final boolean includeHeader,
+                                          final OutputStream outputStream) throws IOException {
+        exportManager.exportGenesByReference(geneFilterForm, referenceId, format, includeHeader, outputStream);
     }
 }
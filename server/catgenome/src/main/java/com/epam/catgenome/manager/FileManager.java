@@ -36,13 +36,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.DirectoryIteratorException;
@@ -96,7 +93,6 @@ import com.epam.catgenome.manager.reference.io.FastaUtils;
 import com.epam.catgenome.manager.seg.parser.SegCodec;
 import com.epam.catgenome.manager.seg.parser.SegFeature;
 import com.epam.catgenome.manager.wig.reader.BedGraphCodec;
-import com.epam.catgenome.manager.wig.reader.BedGraphFeature;
 import com.epam.catgenome.util.BlockCompressedDataInputStream;
 import com.epam.catgenome.util.BlockCompressedDataOutputStream;
 import com.epam.catgenome.util.IndexUtils;
@@ -131,9 +127,6 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.lucene.store.SimpleFSDirectory;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.bio.CompressionType;
-import org.jetbrains.bio.big.BigWigFile;
-import org.jetbrains.bio.big.WigSection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -167,7 +160,6 @@ public class FileManager {
     private static final TabixFormat BIGMAF_TABIX_FORMAT = new TabixFormat(TabixFormat.UCSC_FLAGS, 6, 7, 8, '#', 0);
     private static final String JSON_FILE_EXTENSION = ".json";
     private static final String EMPTY = "";
-    public static final String BED_GRAPH_FEATURE_TEMPLATE = "%s\t%d\t%d\t%f%n";
 
     private static final String ROOT_DIR_NAME = "42";
     private static final String FILE_SYSTEM_ROOT = "/";
@@ -194,6 +186,8 @@ public class FileManager {
         CHROMOSOME_GC_CONTENT_INDEX_FILE("/references/${DIR_ID}/chromosomes/${CHROMOSOME_NAME}/content.gccont.ind"),
         REF_CHROMOSOME_SEQUENCE_FILE("/references/${DIR_ID}/chromosomes/${CHROMOSOME_NAME}/sequences.nib"),
         REF_CHROMOSOME_SEQUENCE_INDEX_FILE("/references/${DIR_ID}/chromosomes/${CHROMOSOME_NAME}/sequences.nib.ind"),
+        REF_CHROMOSOME_SEQUENCE_UNCOMPRESSED_FILE(
+                "/references/${DIR_ID}/chromosomes/${CHROMOSOME_NAME}/sequences.nib.raw"),
         REF_CHROMOSOME_CYTOBAND_FILE("/references/${DIR_ID}/chromosomes/${CHROMOSOME_NAME}/cytobands.txt"),
         REF_INDEX_FILE("/references/${DIR_ID}/${REF_NAME}.fai"),
 
@@ -219,6 +213,7 @@ public class FileManager {
         GENE_LARGE_SCALE_INDEX("/${ROOT_DIR_NAME}/genes/${DIR_ID}/genes_large_scale.tbi"),
         GENE_TRANSCRIPT_INDEX("/${ROOT_DIR_NAME}/genes/${DIR_ID}/transcript.tbi"),
         GENE_METADATA_FILE("/${ROOT_DIR_NAME}/genes/${DIR_ID}/genes.bounds"),
+        GENE_MODEL_STORE_FILE("/${ROOT_DIR_NAME}/genes/${DIR_ID}/genes.model"),
         GENE_FEATURE_INDEX_FILE("/${ROOT_DIR_NAME}/genes/${DIR_ID}/genes.feature"),
         GENE_HISTOGRAM_DIR("/${ROOT_DIR_NAME}/genes/${DIR_ID}/histogram"),
         GENE_HISTOGRAM_FILE("/${ROOT_DIR_NAME}/genes/${DIR_ID}/histogram/${CHROMOSOME_NAME}.hg"),
@@ -251,6 +246,7 @@ public class FileManager {
 
         WIG_DIR("/${ROOT_DIR_NAME}/wig/${DIR_ID}/downsampled"),
         WIG_FILE("/${ROOT_DIR_NAME}/wig/${DIR_ID}/downsampled/${CHROMOSOME_NAME}.wig"),
+        WIG_ZOOM_FILE("/${ROOT_DIR_NAME}/wig/${DIR_ID}/downsampled/${CHROMOSOME_NAME}.zoom"),
         BED_GRAPH_FILE("/${ROOT_DIR_NAME}/wig/${DIR_ID}/downsampled.bdg"),
 
         VG_DIR("/${ROOT_DIR_NAME}/vg/${DIR_ID}"),
@@ -703,6 +699,21 @@ public class FileManager {
         return new File(toRealPath(substitute(REF_CHROMOSOME_CYTOBAND_FILE, params)));
     }
 
+    /**
+     * Returns a reference on {@code File}, used to store an uncompressed copy of the Nib sequence of a chromosome
+     *
+     * @param referenceId    {@code Long} represents ID of a reference in the system
+     * @param chromosomeName {@code String} represents name of a chromosome
+     * @return {@code File} with packed Nib bases of the chromosome without a header, it may not exist yet
+     */
+    public File makeRefUncompressedFile(final Long referenceId, final String chromosomeName) {
+        Assert.notNull(referenceId, getMessage(MessageCode.NO_SUCH_REFERENCE));
+        final Map<String, Object> params = new HashMap<>();
+        params.put(DIR_ID.name(), referenceId);
+        params.put(CHROMOSOME_NAME.name(), chromosomeName);
+        return new File(toRealPath(substitute(REF_CHROMOSOME_SEQUENCE_UNCOMPRESSED_FILE, params)));
+    }
+
     public String createReferenceIndex(Reference reference) {
         Assert.notNull(reference.getId(), getMessage(MessageCode.NO_SUCH_REFERENCE));
         File fasta = new File(reference.getPath());
@@ -962,6 +973,15 @@ public class FileManager {
      * @throws IOException if something is wrong with access to file system
      */
     public SimpleFSDirectory createIndexForFile(FeatureFile featureFile) throws IOException {
+        return new SimpleFSDirectory(getIndexDirForFile(featureFile).toPath());
+    }
+
+    /**
+     * Returns a location of the Lucene feature index directory for a FeatureFile. Directory may not exist yet.
+     * @param featureFile a file to get index location for
+     * @return a {@code File}, representing feature index directory
+     */
+    public File getIndexDirForFile(final FeatureFile featureFile) {
         final Map<String, Object> params = new HashMap<>();
         params.put(FilePathPlaceholder.ROOT_DIR_NAME.name(), ROOT_DIR_NAME);
         params.put(DIR_ID.name(), featureFile.getId());
@@ -969,9 +989,7 @@ public class FileManager {
         FilePathFormat format = determineFilePathFormat(featureFile);
 
         params.put(FEATURE_FILE_DIR.name(), substitute(format, params));
-        File file = new File(toRealPath(substitute(FEATURE_INDEX_DIR, params)));
-
-        return new SimpleFSDirectory(file.toPath());
+        return new File(toRealPath(substitute(FEATURE_INDEX_DIR, params)));
     }
 
     /**
@@ -1300,6 +1318,19 @@ public class FileManager {
         }
     }
 
+    /**
+     * Returns a file of a compiled gene model store for a registered {@code GeneFile}
+     *
+     * @param geneFile a {@code GeneFile}, for which to get a store file
+     * @return a {@code File} of the store, it may not exist if the store wasn't built
+     */
+    public File makeGeneModelStoreFile(final GeneFile geneFile) {
+        final Map<String, Object> params = new HashMap<>();
+        params.put(DIR_ID.name(), geneFile.getId());
+        params.put(FilePathPlaceholder.ROOT_DIR_NAME.name(), ROOT_DIR_NAME);
+        return new File(toRealPath(substitute(GENE_MODEL_STORE_FILE, params)));
+    }
+
     /**
      * Checks that gene file of specified GeneFileType exists
      *
@@ -1866,28 +1897,6 @@ public class FileManager {
                 new BlockCompressedOutputStream(file), Charset.defaultCharset()));
     }
 
-    /**
-     * Writes list of WigSection objects to a BIGWIG file, specified by WigFile. Used for BIGWIG downsampling
-     *
-     * @param wigFile a WigFile to write into
-     * @param wigSections a List of WigSection objects, representing BIGWIG records to write
-     * @param chromSizes List of Pairs of chromosome sizes
-     * @param chromosomeName a name of a chromosome, for which to write BIGWIG file
-     * @throws IOException
-     */
-    public void writeToBigWigFile(WigFile wigFile, List<WigSection> wigSections, List<kotlin.Pair<String, Integer>>
-            chromSizes, String chromosomeName) throws IOException {
-        final Map<String, Object> params = new HashMap<>();
-        params.put(DIR_ID.name(), wigFile.getId());
-        params.put(FilePathPlaceholder.ROOT_DIR_NAME.name(), ROOT_DIR_NAME);
-        params.put(CHROMOSOME_NAME.name(), chromosomeName);
-
-        File file = new File(toRealPath(substitute(WIG_FILE, params)));
-        Assert.isTrue(file.createNewFile());
-
-        BigWigFile.write(wigSections, chromSizes, file.toPath(), 0, CompressionType.DEFLATE, ByteOrder.nativeOrder());
-    }
-
     /**
      * Gets path to a downsampled BIGWIG file, specified by WigFile and Chromosome
      *
@@ -1909,24 +1918,19 @@ public class FileManager {
         }
     }
 
-    public File writeToBedGraphFile(WigFile wigFile, List<BedGraphFeature> sectionList) throws IOException {
+    /**
+     * Returns a reference on {@code File}, used to store zoom levels of a chromosome for a WIG or BedGraph file
+     *
+     * @param wigFile        a WigFile, for which to get the zoom file
+     * @param chromosomeName a name of a chromosome
+     * @return {@code File} with zoom levels, it may not exist
+     */
+    public File makeWigZoomFile(WigFile wigFile, String chromosomeName) {
         final Map<String, Object> params = new HashMap<>();
         params.put(DIR_ID.name(), wigFile.getId());
         params.put(FilePathPlaceholder.ROOT_DIR_NAME.name(), ROOT_DIR_NAME);
-
-        File file = new File(toRealPath(substitute(BED_GRAPH_FILE, params)));
-        Assert.isTrue(file.createNewFile());
-        try (Writer writer = new BufferedWriter(new FileWriter(file))) {
-            for (BedGraphFeature bedGraphFeature : sectionList) {
-                writer.write(String.format(
-                        BED_GRAPH_FEATURE_TEMPLATE, bedGraphFeature.getChr(),
-                        bedGraphFeature.getStart(),
-                        bedGraphFeature.getEnd(),
-                        bedGraphFeature.getValue())
-                );
-            }
-        }
-        return file;
+        params.put(CHROMOSOME_NAME.name(), chromosomeName);
+        return new File(toRealPath(substitute(WIG_ZOOM_FILE, params)));
     }
 
     public String getDownsampledBedGraphFilePath(WigFile wigFile) {
@@ -29,19 +29,22 @@ import com.epam.catgenome.dao.index.field.SortedStringField;
 import com.epam.catgenome.entity.BaseEntity;
 import com.epam.catgenome.entity.bam.BamCoverage;
 import com.epam.catgenome.entity.bam.BamFile;
+import com.epam.catgenome.entity.bam.CoverageBuildProgress;
 import com.epam.catgenome.entity.bam.CoverageInterval;
 import com.epam.catgenome.entity.bam.CoverageQueryParams;
 import com.epam.catgenome.entity.Interval;
 import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import com.epam.catgenome.util.Utils;
 import com.epam.catgenome.util.db.Page;
 import com.epam.catgenome.util.db.PagingInfo;
 import com.epam.catgenome.util.db.SortInfo;
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.ValidationStringency;
-import htsjdk.samtools.util.SamLocusIterator;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +63,7 @@ import org.apache.lucene.index.IndexNotFoundException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
@@ -83,18 +87,21 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import static com.epam.catgenome.component.MessageHelper.getMessage;
 import static com.epam.catgenome.util.IndexUtils.addFloatIntervalFilter;
 import static com.epam.catgenome.util.IndexUtils.addIntIntervalFilter;
-import static com.epam.catgenome.util.IndexUtils.deleteIndexDocument;
 
 @Service
 @Slf4j
@@ -107,14 +114,25 @@ public class BamCoverageManager {
     @Value("${coverage.top.hits:10000}")
     private int coverageTopHits;
 
-    @Value("${coverage.batch.size:500}")
-    private int batchSize;
+    /**
+     * Number of workers calculating coverage of a single file, {@code 0} means the default task thread count
+     */
+    @Value("${coverage.index.threads:0}")
+    private int indexThreads;
+
+    @Value("${coverage.index.region.size:1000000}")
+    private int regionSize;
 
     private final BamCoverageDao bamCoverageDao;
     private final BamFileManager bamFileManager;
     private final ReferenceGenomeManager referenceGenomeManager;
     private final BamHelper bamHelper;
+    private final TaskExecutorService taskExecutorService;
 
+    private final Map<String, CoverageBuild> runningBuilds = new ConcurrentHashMap<>();
+    private IndexWriter sharedWriter;
+    private Directory writerDirectory;
+    private int writerUsers;
 
     @Transactional(propagation = Propagation.REQUIRED)
     public BamCoverage create(final BamCoverage coverage) throws IOException {
@@ -141,8 +159,7 @@ public class BamCoverageManager {
                     .collect(Collectors.toSet());
             bamCoverageDao.delete(coverageIds);
             for (BamCoverage coverage: coverages) {
-                deleteIndexDocument(IndexField.COVERAGE_ID.getFieldName(),
-                        coverage.getCoverageId(), bamCoverageIndexDirectory);
+                deleteCoverageDocument(coverage.getCoverageId());
             }
         }
     }
@@ -227,90 +244,251 @@ public class BamCoverageManager {
         return new Sort(new SortField(IndexField.COVERAGE.getFieldName(), SortField.Type.INT, true));
     }
 
-    private void write(final List<CoverageInterval> intervals) throws IOException {
-        try (Directory index = new SimpleFSDirectory(Paths.get(bamCoverageIndexDirectory));
-             IndexWriter writer = new IndexWriter(index, new IndexWriterConfig(new StandardAnalyzer())
-                     .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
-            for (CoverageInterval interval: intervals) {
-                Document doc = new Document();
-                doc.add(new StringField(IndexField.COVERAGE_ID.getFieldName(),
-                        String.valueOf(interval.getCoverageId()), Field.Store.YES));
-
-                doc.add(new TextField(IndexField.CHR.getFieldName(), interval.getChr(), Field.Store.YES));
-                doc.add(new SortedStringField(IndexField.CHR.getFieldName(), interval.getChr(), true));
-                doc.add(new StoredField(IndexField.CHR.getFieldName(), interval.getChr()));
-
-                doc.add(new IntPoint(IndexField.START.getFieldName(), interval.getStart()));
-                doc.add(new StoredField(IndexField.START.getFieldName(), interval.getStart()));
-                doc.add(new NumericDocValuesField(IndexField.START.getFieldName(), interval.getStart()));
-
-                doc.add(new IntPoint(IndexField.END.getFieldName(), interval.getEnd()));
-                doc.add(new StoredField(IndexField.END.getFieldName(), interval.getEnd()));
-                doc.add(new NumericDocValuesField(IndexField.END.getFieldName(), interval.getEnd()));
-
-                doc.add(new FloatPoint(IndexField.COVERAGE.getFieldName(), interval.getCoverage()));
-                doc.add(new StoredField(IndexField.COVERAGE.getFieldName(), interval.getCoverage()));
-                doc.add(new FloatDocValuesField(IndexField.COVERAGE.getFieldName(), interval.getCoverage()));
-
-                writer.addDocument(doc);
-            }
+    /**
+     * Returns the state of running coverage calculations
+     * @param bamId optional BAM file ID to filter calculations
+     * @return list of running calculations
+     */
+    public List<CoverageBuildProgress> loadProgress(final Long bamId) {
+        return runningBuilds.values().stream()
+                .filter(build -> bamId == null || bamId.equals(build.getCoverage().getBamId()))
+                .map(CoverageBuild::toProgress)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Requests cancellation of a running coverage calculation. Calculation stops after workers finish
+     * their current regions, all written intervals are removed and coverage isn't saved.
+     * @param bamId BAM file ID
+     * @param step coverage step
+     * @return true if a running calculation was found
+     */
+    public boolean cancel(final Long bamId, final Integer step) {
+        final CoverageBuild build = runningBuilds.get(getBuildKey(bamId, step));
+        if (build == null) {
+            return false;
         }
+        build.cancel();
+        return true;
+    }
+
+    private Document createDocument(final long coverageId, final String chr, final int start, final int end,
+                                    final float coverage) {
+        final Document doc = new Document();
+        doc.add(new StringField(IndexField.COVERAGE_ID.getFieldName(), String.valueOf(coverageId), Field.Store.YES));
+
+        doc.add(new TextField(IndexField.CHR.getFieldName(), chr, Field.Store.YES));
+        doc.add(new SortedStringField(IndexField.CHR.getFieldName(), chr, true));
+        doc.add(new StoredField(IndexField.CHR.getFieldName(), chr));
+
+        doc.add(new IntPoint(IndexField.START.getFieldName(), start));
+        doc.add(new StoredField(IndexField.START.getFieldName(), start));
+        doc.add(new NumericDocValuesField(IndexField.START.getFieldName(), start));
+
+        doc.add(new IntPoint(IndexField.END.getFieldName(), end));
+        doc.add(new StoredField(IndexField.END.getFieldName(), end));
+        doc.add(new NumericDocValuesField(IndexField.END.getFieldName(), end));
+
+        doc.add(new FloatPoint(IndexField.COVERAGE.getFieldName(), coverage));
+        doc.add(new StoredField(IndexField.COVERAGE.getFieldName(), coverage));
+        doc.add(new FloatDocValuesField(IndexField.COVERAGE.getFieldName(), coverage));
+        return doc;
     }
 
+    /**
+     * Calculates coverage intervals in parallel: reference sequences are split into regions, workers take
+     * regions from a shared queue, count depth with {@link RegionDepthCounter} and add interval documents
+     * to a single {@link IndexWriter}, which is committed once all regions are processed.
+     */
     private void writeCoverageIntervals(final BamCoverage bamCoverage,
                                         final BamFile file,
                                         final Map<String, Chromosome> chromosomeMap) throws IOException {
-        List<CoverageInterval> coverageAreas = new ArrayList<>();
-        try (SamReader reader = SamReaderFactory.makeDefault()
-                .validationStringency(ValidationStringency.LENIENT)
-                .referenceSequence(null)
-                .enable(SamReaderFactory.Option.INCLUDE_SOURCE_IN_RECORDS)
-                .open(bamHelper.loadFile(file))) {
-            final SamLocusIterator samLocusIterator = new SamLocusIterator(reader);
-            final Iterator<SamLocusIterator.LocusInfo> iterator = samLocusIterator.iterator();
-            int from = 1;
-            int to = bamCoverage.getStep();
-            float coverage = 0;
-            float totalCoverage = 0;
-            int intervals = 0;
-
-            while (iterator.hasNext()) {
-                SamLocusIterator.LocusInfo locus = iterator.next();
-                coverage = coverage + locus.getRecordAndPositions().size();
-                if (locus.getPosition() >= to) {
-                    final String chrName = Optional.ofNullable(Utils.getFromChromosomeMap(chromosomeMap,
-                            locus.getSequenceName()))
-                            .map(BaseEntity::getName)
-                            .orElse(locus.getSequenceName());
-                    CoverageInterval area = CoverageInterval.builder()
-                            .coverageId(bamCoverage.getCoverageId())
-                            .chr(chrName)
-                            .start(from)
-                            .end(to)
-                            .coverage(coverage / (to - from + 1))
-                            .build();
-                    coverageAreas.add(area);
-                    intervals++;
-                    totalCoverage += coverage / (to - from + 1);
-                    coverage = 0;
-                    if (locus.getPosition() == locus.getSequenceLength()) {
-                        from = 1;
-                        to = bamCoverage.getStep();
-                    } else {
-                        from = locus.getPosition() + 1;
-                        to = Math.min(locus.getPosition() + bamCoverage.getStep(), locus.getSequenceLength());
+        final List<Chromosome> chromosomes = new ArrayList<>(chromosomeMap.values());
+        final CoverageBuild build = new CoverageBuild(bamCoverage,
+                splitIntoRegions(file, chromosomes, bamCoverage.getStep()));
+        final String buildKey = getBuildKey(bamCoverage.getBamId(), bamCoverage.getStep());
+        Assert.isNull(runningBuilds.putIfAbsent(buildKey, build),
+                getMessage(MessagesConstants.ERROR_BAM_COVERAGE_NOT_UNIQUE, bamCoverage.getStep(),
+                        bamCoverage.getBamId()));
+        try {
+            final IndexWriter writer = acquireWriter();
+            boolean committed = false;
+            try {
+                runWorkers(build, file, chromosomes, chromosomeMap, writer);
+                Assert.state(!build.isCancelled(), getMessage("Coverage calculation was cancelled"));
+                writer.commit();
+                committed = true;
+                bamCoverage.setCoverage(build.getAverageCoverage());
+            } finally {
+                try {
+                    if (!committed) {
+                        writer.deleteDocuments(new Term(IndexField.COVERAGE_ID.getFieldName(),
+                                String.valueOf(bamCoverage.getCoverageId())));
+                        writer.commit();
                     }
+                } finally {
+                    releaseWriter();
+                }
+            }
+        } finally {
+            runningBuilds.remove(buildKey);
+        }
+    }
+
+    private void runWorkers(final CoverageBuild build, final BamFile file, final List<Chromosome> chromosomes,
+                            final Map<String, Chromosome> chromosomeMap, final IndexWriter writer)
+            throws IOException {
+        final int workers = Math.max(1, indexThreads > 0 ? indexThreads : taskExecutorService.getTaskNumberOfThreads());
+        final ExecutorService executor = taskExecutorService.getExecutorService();
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            // the calling thread is a worker as well, so the build progresses even if the pool is saturated
+            for (int i = 1; i < workers; i++) {
+                try {
+                    futures.add(executor.submit(() -> {
+                        processRegions(build, file, chromosomes, chromosomeMap, writer);
+                        return null;
+                    }));
+                } catch (RejectedExecutionException e) {
+                    log.debug(e.getMessage(), e);
+                    break;
+                }
+            }
+            processRegions(build, file, chromosomes, chromosomeMap, writer);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            build.cancel();
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            build.cancel();
+            throw new IOException(e.getCause());
+        } catch (IOException | RuntimeException e) {
+            build.cancel();
+            throw e;
+        } finally {
+            waitForWorkers(futures);
+        }
+    }
+
+    private void processRegions(final CoverageBuild build, final BamFile file, final List<Chromosome> chromosomes,
+                                final Map<String, Chromosome> chromosomeMap, final IndexWriter writer)
+            throws IOException {
+        final long coverageId = build.getCoverage().getCoverageId();
+        final int step = build.getCoverage().getStep();
+        final RegionDepthCounter counter = new RegionDepthCounter();
+        final List<Document> documents = new ArrayList<>();
+        try (SamReader reader = bamHelper.makeSamReader(file, chromosomes, file.getReferenceId())) {
+            CoverageRegion region = build.nextRegion();
+            while (region != null) {
+                counter.reset(region);
+                if (!region.isEmpty() && !countDepth(build, reader, region, counter)) {
+                    return;
+                }
+                final String chrName = Optional.ofNullable(Utils.getFromChromosomeMap(chromosomeMap,
+                        region.getSequenceName()))
+                        .map(BaseEntity::getName)
+                        .orElse(region.getSequenceName());
+                documents.clear();
+                counter.collectIntervals(step, (start, end, totalDepth) -> {
+                    final float coverage = (float) totalDepth / (end - start + 1);
+                    build.addInterval(coverage);
+                    documents.add(createDocument(coverageId, chrName, start, end, coverage));
+                });
+                writer.addDocuments(documents);
+                build.regionProcessed(region);
+                region = build.nextRegion();
+            }
+        }
+    }
+
+    /**
+     * @return false if the build was cancelled during counting
+     */
+    private boolean countDepth(final CoverageBuild build, final SamReader reader, final CoverageRegion region,
+                               final RegionDepthCounter counter) {
+        try (SAMRecordIterator records = reader.queryOverlapping(region.getSequenceName(),
+                region.getStart(), region.getEnd())) {
+            while (records.hasNext()) {
+                if (build.isCancelled()) {
+                    return false;
                 }
-                if (coverageAreas.size() == batchSize) {
-                    write(coverageAreas);
-                    coverageAreas = new ArrayList<>();
+                counter.add(records.next());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits reference sequences of the file into regions of {@code regionSize} bases, rounded to a multiple of
+     * the coverage step, so that coverage intervals never cross region bounds. Regions, for which BAM index
+     * has no chunks, are marked as empty and won't be read.
+     */
+    private List<CoverageRegion> splitIntoRegions(final BamFile file, final List<Chromosome> chromosomes,
+                                                  final int step) throws IOException {
+        final int size = (int) Math.min(Integer.MAX_VALUE, Math.max(1, regionSize / step) * (long) step);
+        final List<CoverageRegion> regions = new ArrayList<>();
+        try (SamReader reader = bamHelper.makeSamReader(file, chromosomes, file.getReferenceId())) {
+            final BAMIndex index = reader.hasIndex() ? reader.indexing().getIndex() : null;
+            for (SAMSequenceRecord sequence : reader.getFileHeader().getSequenceDictionary().getSequences()) {
+                final int length = sequence.getSequenceLength();
+                for (long start = 1; start <= length; start += size) {
+                    final int end = (int) Math.min(length, start + size - 1);
+                    final boolean empty = index != null && isEmptySpan(index.getSpanOverlapping(
+                            sequence.getSequenceIndex(), (int) start, end));
+                    regions.add(new CoverageRegion(sequence.getSequenceName(), length, (int) start, end, empty));
                 }
             }
-            write(coverageAreas);
-            bamCoverage.setCoverage(totalCoverage / intervals);
+        }
+        return regions;
+    }
+
+    private static boolean isEmptySpan(final BAMFileSpan span) {
+        return span == null || span.isEmpty();
+    }
+
+    private synchronized IndexWriter acquireWriter() throws IOException {
+        if (sharedWriter == null) {
+            writerDirectory = new SimpleFSDirectory(Paths.get(bamCoverageIndexDirectory));
+            sharedWriter = new IndexWriter(writerDirectory, new IndexWriterConfig(new StandardAnalyzer())
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        }
+        writerUsers++;
+        return sharedWriter;
+    }
+
+    private synchronized void releaseWriter() throws IOException {
+        writerUsers--;
+        if (writerUsers == 0) {
+            try {
+                sharedWriter.close();
+            } finally {
+                writerDirectory.close();
+                sharedWriter = null;
+                writerDirectory = null;
+            }
+        }
+    }
+
+    private static void waitForWorkers(final List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.debug(e.getMessage(), e);
+            }
         }
     }
 
+    private static String getBuildKey(final Long bamId, final Integer step) {
+        return bamId + "_" + step;
+    }
+
     private Query buildCoverageQuery(final CoverageQueryParams params) throws ParseException {
         final StandardAnalyzer analyzer = new StandardAnalyzer();
         final BooleanQuery.Builder builder = new BooleanQuery.Builder();
@@ -333,7 +511,14 @@ public class BamCoverageManager {
     }
 
     public void deleteCoverageDocument(final long coverageId) throws IOException {
-        deleteIndexDocument(IndexField.COVERAGE_ID.getFieldName(), coverageId, bamCoverageIndexDirectory);
+        // while coverage is being calculated the index is locked by the shared writer
+        final IndexWriter indexWriter = acquireWriter();
+        try {
+            indexWriter.deleteDocuments(new Term(IndexField.COVERAGE_ID.getFieldName(), String.valueOf(coverageId)));
+            indexWriter.commit();
+        } finally {
+            releaseWriter();
+        }
     }
 
     private void addChromosomesFilter(final List<String> chromosomes,
@@ -25,6 +25,7 @@
 package com.epam.catgenome.manager.bam;
 
 import com.epam.catgenome.entity.bam.BamCoverage;
+import com.epam.catgenome.entity.bam.CoverageBuildProgress;
 import com.epam.catgenome.entity.bam.CoverageInterval;
 import com.epam.catgenome.entity.bam.CoverageQueryParams;
 import com.epam.catgenome.util.db.Page;
@@ -69,4 +70,14 @@ public class BamCoverageSecurityService {
     public void deleteCoverage(final Long bamId, final Integer step) throws IOException, ParseException {
         coverageManager.delete(bamId, step);
     }
+
+    @PreAuthorize(ROLE_USER)
+    public List<CoverageBuildProgress> loadProgress(final Long bamId) {
+        return coverageManager.loadProgress(bamId);
+    }
+
+    @PreAuthorize(ROLE_ADMIN + OR + ROLE_BAM_MANAGER)
+    public boolean cancelCoverage(final Long bamId, final Integer step) {
+        return coverageManager.cancel(bamId, step);
+    }
 }
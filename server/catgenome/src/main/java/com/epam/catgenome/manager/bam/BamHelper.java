@@ -33,6 +33,7 @@ import static org.apache.commons.lang3.StringUtils.trimToNull;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URL;
@@ -46,6 +47,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.epam.catgenome.entity.bam.BamFile;
 import com.epam.catgenome.entity.bam.BamQueryOption;
@@ -61,16 +64,22 @@ import com.epam.catgenome.util.azure.AzureBlobClient;
 import com.epam.catgenome.util.azure.AzureBlobSeekableStream;
 import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
 import com.epam.catgenome.util.feature.reader.IndexCache;
+import htsjdk.samtools.BAMIndex;
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMFlag;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
 import htsjdk.samtools.SamInputResource;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.ValidationStringency;
+import htsjdk.samtools.cram.CRAIIndex;
+import htsjdk.samtools.seekablestream.SeekableFileStream;
 import htsjdk.samtools.seekablestream.SeekableMemoryStream;
+import htsjdk.samtools.seekablestream.SeekableStream;
+import htsjdk.samtools.seekablestream.SeekableStreamFactory;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -84,6 +93,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
 import com.epam.catgenome.constant.Constants;
 import com.epam.catgenome.constant.MessagesConstants;
@@ -136,6 +146,17 @@ public class BamHelper {
 
     private static final Logger LOG = LoggerFactory.getLogger(BamHelper.class);
 
+    /**
+     * htsjdk has no public API to pass a parsed index to a reader, so a shared index is set to the private
+     * index field of the reader implementation, wrapped by the adapter, that {@link SamReaderFactory} returns.
+     * If these fields are missing in the htsjdk version used, an error is logged once and readers load
+     * their own indexes as usual.
+     */
+    private static final Field ADAPTED_READER_FIELD = findInternalField(
+            SamReader.PrimitiveSamReaderToSamReaderAdapter.class, "p", SamReader.PrimitiveSamReader.class);
+    private static final String READER_INDEX_FIELD = "mIndex";
+    private static final ConcurrentMap<Class<?>, Optional<Field>> READER_INDEX_FIELDS = new ConcurrentHashMap<>();
+
     @Autowired
     private BamFileManager bamFileManager;
 
@@ -151,12 +172,18 @@ public class BamHelper {
     @Value("#{catgenome['bam.regions.count'] ?: 20}")
     private int regionsCount;
 
+    @Value("#{catgenome['bam.regions.histogram.size'] ?: 200}")
+    private int regionsHistogramSize;
+
     @Autowired(required = false)
     private EhCacheBasedIndexCache indexCache;
 
     @Autowired
     private AzureBlobClient azureBlobClient;
 
+    @Autowired
+    private BamIndexCache bamIndexCache;
+
     /**
      * Calculates the consensus sequence from the reads from a {@code BamFile}
      * @param track to load the consensus sequence
@@ -362,6 +389,12 @@ public class BamHelper {
                 sequence = reader.getFileHeader().getSequence(Utils.changeChromosomeName(chromosome.getName()));
             }
 
+            final PreloadedBamIndex index = getPreloadedIndex(bamFile, reader.getFileHeader());
+            if (index != null) {
+                return IndexRegionHistogram.build(index, sequence.getSequenceIndex(), startIndex, endIndex,
+                        regionsHistogramSize);
+            }
+
             int chunkSize = (endIndex - startIndex) / regionsCount;
             List<Wig> result = new ArrayList<>(regionsCount);
             int chunkStartIndex = startIndex;
@@ -370,7 +403,7 @@ public class BamHelper {
                         reader, sequence.getSequenceName(),
                         chunkStartIndex, chunkStartIndex + chunkSize
                 ).ifPresent(result::add);
-                chunkStartIndex = startIndex + i * chunkSize;
+                chunkStartIndex += chunkSize;
             }
 
             checkAreaForReads(
@@ -479,7 +512,141 @@ public class BamHelper {
 
     public SamReader makeSamReader(final BamFile bamFile, List<Chromosome> chromosomes, Long referenceId)
         throws IOException {
-        return openSamReaderResource(loadIndex(loadFile(bamFile), bamFile.getIndex()), chromosomes, referenceId);
+        final SamReader reader = openSamReaderResource(loadIndex(loadFile(bamFile), bamFile.getIndex()),
+                chromosomes, referenceId);
+        if (bamIndexCache.isEnabled()) {
+            setCachedIndex(bamFile, reader);
+        }
+        return reader;
+    }
+
+    /**
+     * Replaces the index, that htsjdk reader parses on the first query, with a shared one from the cache.
+     * The reader keeps its own index if the cached one can't be loaded or set.
+     */
+    private void setCachedIndex(final BamFile bamFile, final SamReader reader) {
+        if (bamFile.getIndex() == null || !reader.hasIndex()) {
+            return;
+        }
+        final Object readerImplementation = getReaderImplementation(reader);
+        final Field indexField = readerImplementation == null ? null : getReaderIndexField(readerImplementation);
+        if (indexField == null) {
+            return;
+        }
+        try {
+            final PreloadedBamIndex index = getCachedIndex(bamFile, reader.getFileHeader()).getIndex();
+            final BAMIndex readerIndex = (BAMIndex) ReflectionUtils.getField(indexField, readerImplementation);
+            ReflectionUtils.setField(indexField, readerImplementation, index);
+            if (reader.indexing().getIndex() != index) {
+                ReflectionUtils.setField(indexField, readerImplementation, readerIndex);
+                throw new IllegalStateException("Reader doesn't use the index set to its field " + indexField);
+            }
+            if (readerIndex != null) {
+                readerIndex.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to use cached index for file " + bamFile.getPath(), e);
+        }
+    }
+
+    /**
+     * Returns the whole parsed index of a file: a shared one, if the cache is enabled, or a newly loaded one
+     * @return index or null, if the file has no index or it can't be loaded
+     */
+    private PreloadedBamIndex getPreloadedIndex(final BamFile bamFile, final SAMFileHeader header) {
+        final BiologicalDataItem indexFile = bamFile.getIndex();
+        if (indexFile == null) {
+            return null;
+        }
+        try {
+            return bamIndexCache.isEnabled() ? getCachedIndex(bamFile, header).getIndex()
+                    : loadCachedIndex(indexFile, header).getIndex();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to load index for file " + bamFile.getPath(), e);
+            return null;
+        }
+    }
+
+    private BamIndexCache.CachedIndex getCachedIndex(final BamFile bamFile, final SAMFileHeader header)
+            throws IOException {
+        final BiologicalDataItem indexFile = bamFile.getIndex();
+        final BamIndexCache.Key key = new BamIndexCache.Key(bamFile.getId(), bamFile.getPath(),
+                indexFile.getPath(), getLastModified(bamFile));
+        final BamIndexCache.CachedIndex cached = bamIndexCache.get(key, () -> loadCachedIndex(indexFile, header));
+        if (cached.getHeader().getSequenceDictionary().equals(header.getSequenceDictionary())) {
+            return cached;
+        }
+        // a remote file was replaced under the same path
+        bamIndexCache.evict(key);
+        return bamIndexCache.get(key, () -> loadCachedIndex(indexFile, header));
+    }
+
+    private BamIndexCache.CachedIndex loadCachedIndex(final BiologicalDataItem indexFile,
+                                                      final SAMFileHeader header) throws IOException {
+        final SAMSequenceDictionary dictionary = header.getSequenceDictionary();
+        final SeekableStream indexStream = openIndexStream(indexFile);
+        final SeekableStream baiStream;
+        if (indexFile.getPath().endsWith(CRAIIndex.CRAI_INDEX_SUFFIX)) {
+            try (SeekableStream craiStream = indexStream) {
+                baiStream = CRAIIndex.openCraiFileAsBaiStream(craiStream, dictionary);
+            }
+        } else {
+            baiStream = indexStream;
+        }
+        return new BamIndexCache.CachedIndex(header, PreloadedBamIndex.load(baiStream, dictionary));
+    }
+
+    private SeekableStream openIndexStream(final BiologicalDataItem indexFile) throws IOException {
+        switch (indexFile.getType()) {
+            case FILE:
+                return new SeekableFileStream(new File(indexFile.getPath()));
+            case URL:
+                return SeekableStreamFactory.getInstance().getStreamFor(indexFile.getPath());
+            case S3:
+                return new SeekableMemoryStream(fetchS3BamIndex(indexFile), indexFile.getPath());
+            case AZ:
+                return new SeekableMemoryStream(fetchAZBamIndex(indexFile), indexFile.getPath());
+            case HDFS:
+                return openHdfsStream(indexFile.getPath());
+            default:
+                throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_INVALID_PARAM));
+        }
+    }
+
+    private static long getLastModified(final BamFile bamFile) {
+        if (bamFile.getType() != BiologicalDataItemResourceType.FILE
+                || bamFile.getIndex().getType() != BiologicalDataItemResourceType.FILE) {
+            return 0;
+        }
+        return Math.max(new File(bamFile.getPath()).lastModified(),
+                new File(bamFile.getIndex().getPath()).lastModified());
+    }
+
+    private static Object getReaderImplementation(final SamReader reader) {
+        if (ADAPTED_READER_FIELD == null) {
+            return null;
+        }
+        if (!(reader instanceof SamReader.PrimitiveSamReaderToSamReaderAdapter)) {
+            getReaderIndexField(reader);
+            return null;
+        }
+        return ReflectionUtils.getField(ADAPTED_READER_FIELD, reader);
+    }
+
+    private static Field getReaderIndexField(final Object readerImplementation) {
+        return READER_INDEX_FIELDS.computeIfAbsent(readerImplementation.getClass(), type -> Optional.ofNullable(
+                findInternalField(type, READER_INDEX_FIELD, BAMIndex.class))).orElse(null);
+    }
+
+    private static Field findInternalField(final Class<?> type, final String name, final Class<?> fieldType) {
+        final Field field = ReflectionUtils.findField(type, name, fieldType);
+        if (field == null) {
+            LOG.error("htsjdk class {} has no field {} of type {}, shared BAM indexes are disabled for it, "
+                    + "readers load their own indexes", type.getName(), name, fieldType.getName());
+            return null;
+        }
+        ReflectionUtils.makeAccessible(field);
+        return field;
     }
 
     public SamInputResource loadFile(final BamFile bamFile)
@@ -532,11 +699,15 @@ public class BamHelper {
 
     private SamInputResource getHDFSIndex(SamInputResource samInputResource,
             BiologicalDataItem indexFile) throws IOException {
-        URI uriIndex = URI.create(indexFile.getPath());
+        return samInputResource.index(openHdfsStream(indexFile.getPath()));
+    }
+
+    private HdfsSeekableInputStream openHdfsStream(final String path) throws IOException {
+        URI uriIndex = URI.create(path);
         Configuration conf = new Configuration();
         FileSystem fileBam = FileSystem.get(uriIndex, conf);
         FSDataInputStream indexStream = fileBam.open(new Path(uriIndex));
-        return samInputResource.index(new HdfsSeekableInputStream(indexStream));
+        return new HdfsSeekableInputStream(indexStream);
     }
 
     private SamInputResource getAzIndex(SamInputResource samInputResource,
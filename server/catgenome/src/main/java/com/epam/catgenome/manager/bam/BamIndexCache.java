@@ -0,0 +1,208 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.bam;
+
+import com.epam.catgenome.entity.bam.BamIndexCacheStatistics;
+import htsjdk.samtools.SAMFileHeader;
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Keeps parsed BAM/CRAM indexes together with file headers, so that readers opened for track requests only seek
+ * into the data file. Capacity is limited by the approximate heap size of the entries, least recently used entries
+ * are evicted first. Concurrent requests for the same missing entry wait for a single load.
+ */
+@Component
+public class BamIndexCache {
+
+    private static final int HEADER_SEQUENCE_BYTES = 128;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    @Value("${bam.index.cache.max.size:268435456}")
+    private long maxSizeInBytes;
+
+    private final Map<Key, CachedIndex> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private final Map<Key, FutureTask<CachedIndex>> loading = new ConcurrentHashMap<>();
+    private long sizeInBytes;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long loadFailures;
+    private long evictions;
+
+    public boolean isEnabled() {
+        return maxSizeInBytes > 0;
+    }
+
+    /**
+     * Returns the cached index for a file or loads it, if the file isn't cached yet
+     * @param key file identity
+     * @param loader loads index and header of the file
+     * @return cached index
+     * @throws IOException if the index can't be loaded
+     */
+    CachedIndex get(final Key key, final IndexLoader loader) throws IOException {
+        synchronized (this) {
+            final CachedIndex cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        final FutureTask<CachedIndex> task = new FutureTask<>(loader::load);
+        final FutureTask<CachedIndex> running = loading.putIfAbsent(key, task);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            task.run();
+            final CachedIndex loaded = await(task);
+            put(key, loaded);
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                loadFailures++;
+            }
+            throw e;
+        } finally {
+            loading.remove(key, task);
+        }
+    }
+
+    /**
+     * Removes all cached indexes of a BAM file
+     * @param bamId BAM file ID
+     */
+    public synchronized void evict(final Long bamId) {
+        final Iterator<Map.Entry<Key, CachedIndex>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Key, CachedIndex> entry = iterator.next();
+            if (Objects.equals(entry.getKey().getBamId(), bamId)) {
+                sizeInBytes -= entry.getValue().getSizeInBytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized void evict(final Key key) {
+        final CachedIndex removed = entries.remove(key);
+        if (removed != null) {
+            sizeInBytes -= removed.getSizeInBytes();
+        }
+    }
+
+    public synchronized BamIndexCacheStatistics getStatistics() {
+        return BamIndexCacheStatistics.builder()
+                .entries(entries.size())
+                .sizeInBytes(sizeInBytes)
+                .maxSizeInBytes(maxSizeInBytes)
+                .hits(hits)
+                .misses(misses)
+                .loads(loads)
+                .loadFailures(loadFailures)
+                .evictions(evictions)
+                .build();
+    }
+
+    private synchronized void put(final Key key, final CachedIndex index) {
+        loads++;
+        if (index.getSizeInBytes() > maxSizeInBytes) {
+            return;
+        }
+        evict(key);
+        final Iterator<CachedIndex> eldest = entries.values().iterator();
+        while (sizeInBytes + index.getSizeInBytes() > maxSizeInBytes && eldest.hasNext()) {
+            sizeInBytes -= eldest.next().getSizeInBytes();
+            eldest.remove();
+            evictions++;
+        }
+        entries.put(key, index);
+        sizeInBytes += index.getSizeInBytes();
+    }
+
+    private CachedIndex await(final FutureTask<CachedIndex> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Identity of an indexed file: modification time makes a changed local file miss the cache
+     */
+    @Data
+    static class Key {
+        private final Long bamId;
+        private final String path;
+        private final String indexPath;
+        private final long lastModified;
+    }
+
+    @Getter
+    static class CachedIndex {
+        private final SAMFileHeader header;
+        private final PreloadedBamIndex index;
+        private final long sizeInBytes;
+
+        CachedIndex(final SAMFileHeader header, final PreloadedBamIndex index) {
+            this.header = header;
+            this.index = index;
+            this.sizeInBytes = index.getSizeInBytes() + estimateSize(header);
+        }
+
+        private static long estimateSize(final SAMFileHeader header) {
+            final String text = header.getTextHeader();
+            return (long) header.getSequenceDictionary().size() * HEADER_SEQUENCE_BYTES
+                    + (text == null ? 0 : (long) text.length() * 2);
+        }
+    }
+
+    @FunctionalInterface
+    interface IndexLoader {
+        CachedIndex load() throws IOException;
+    }
+}
@@ -29,6 +29,7 @@ import com.epam.catgenome.controller.vo.ReadQuery;
 import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
 import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.bam.BamFile;
+import com.epam.catgenome.entity.bam.BamIndexCacheStatistics;
 import com.epam.catgenome.entity.bam.BamQueryOption;
 import com.epam.catgenome.entity.bam.BamTrackMode;
 import com.epam.catgenome.entity.bam.BasePosition;
@@ -106,6 +107,9 @@ public class BamManager {
     @Autowired
     private TaskExecutorService taskExecutorService;
 
+    @Autowired
+    private BamIndexCache bamIndexCache;
+
     @Value("#{catgenome['bam.max.coverage.range'] ?: 1000000}")
     private int maxCoverageRange;
 
@@ -156,9 +160,14 @@ public class BamManager {
         BamFile fileToDelete = bamFileManager.load(bamFileId);
         Assert.notNull(fileToDelete, getMessage(MessagesConstants.ERROR_FILE_NOT_FOUND));
         bamFileManager.delete(fileToDelete);
+        bamIndexCache.evict(bamFileId);
         return fileToDelete;
     }
 
+    public BamIndexCacheStatistics getIndexCacheStatistics() {
+        return bamIndexCache.getStatistics();
+    }
+
     /**
      * Returns {@code Track} filled with BAM data from a specified BAM file in the server's file system
      * @param track input track
@@ -270,7 +279,7 @@ public class BamManager {
 
     private void fillEmitterByBamTrack(final Track<Read> track, final BamQueryOption options,
                                                  ResponseBodyEmitter emitter) throws IOException {
-        final BamTrackEmitter bamTrackEmitter = new BamTrackEmitter(emitter);
+        final BamTrackEmitter bamTrackEmitter = new BamTrackEmitter(emitter, options.getFormat());
 
         // TODO: track.getEndIndex() - track.getStartIndex() > maxCoverageRange
         if (options.getMode() == BamTrackMode.REGIONS) {
@@ -289,7 +298,7 @@ public class BamManager {
     private void fillEmitterByBamTrackFromURL(final Track<Read> track, String bamUrl, String indexUrl,
                                                         final BamQueryOption options, ResponseBodyEmitter emitter)
             throws IOException {
-        final BamTrackEmitter bamTrackEmitter = new BamTrackEmitter(emitter);
+        final BamTrackEmitter bamTrackEmitter = new BamTrackEmitter(emitter, options.getFormat());
 
         if (track.getEndIndex() - track.getStartIndex() > maxCoverageRange) {
             taskExecutorService.executeTrackTask(
@@ -27,6 +27,7 @@ package com.epam.catgenome.manager.bam;
 import com.epam.catgenome.controller.vo.ReadQuery;
 import com.epam.catgenome.controller.vo.registration.IndexedFileRegistrationRequest;
 import com.epam.catgenome.entity.bam.BamFile;
+import com.epam.catgenome.entity.bam.BamIndexCacheStatistics;
 import com.epam.catgenome.entity.bam.BamQueryOption;
 import com.epam.catgenome.entity.bam.Read;
 import com.epam.catgenome.entity.reference.Sequence;
@@ -85,4 +86,9 @@ public class BamSecurityService {
                                              ResponseBodyEmitter emitter) throws IOException {
         bamManager.sendBamTrackToEmitterFromUrl(track, option, fileUrl, indexUrl, emitter);
     }
+
+    @PreAuthorize(ROLE_ADMIN)
+    public BamIndexCacheStatistics getIndexCacheStatistics() {
+        return bamManager.getIndexCacheStatistics();
+    }
 }
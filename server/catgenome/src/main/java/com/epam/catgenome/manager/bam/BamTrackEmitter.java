@@ -24,14 +24,16 @@
 
 package com.epam.catgenome.manager.bam;
 
-import com.epam.catgenome.controller.JsonMapper;
 import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BamTrackFormat;
 import com.epam.catgenome.entity.bam.Read;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.epam.catgenome.manager.bam.encoders.BamTrackEncoder;
+import com.epam.catgenome.manager.bam.encoders.BinaryBamTrackEncoder;
+import com.epam.catgenome.manager.bam.encoders.JsonBamTrackEncoder;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
@@ -41,28 +43,30 @@ import java.io.IOException;
  * will be ignored.
  * In case of any exception during writing to {@link BamTrackEmitter} {@link BamTrackEmitter#finishWithException} should
  * be called.
- * BamTrackEmitter produces buffering.
+ * BamTrackEmitter produces buffering: all the data is serialized by a {@link BamTrackEncoder} of the requested
+ * {@link BamTrackFormat} into a reusable byte buffer, which is sent to the emitter as soon as its size exceeds
+ * {@link #BUFFER_SIZE}.
  */
 public class BamTrackEmitter {
 
     private static final int BUFFER_SIZE = 512 * 1024;
 
-    private JsonMapper jsonMapper;
-
     private final ResponseBodyEmitter emitter;
+    private final ByteArrayOutputStream buffer;
+    private final BamTrackEncoder encoder;
 
-    private boolean firstRecordWasWritten = false;
     private boolean finished = false;
 
-    @SuppressWarnings("PMD.AvoidStringBufferField")
-    private StringBuilder stringBuffer;
-
     public BamTrackEmitter(ResponseBodyEmitter emitter) throws IOException {
-        this.emitter = emitter;
-        this.stringBuffer = new StringBuilder(BUFFER_SIZE);
-        this.jsonMapper = new JsonMapper();
+        this(emitter, BamTrackFormat.JSON);
+    }
 
-        writeHeader();
+    public BamTrackEmitter(ResponseBodyEmitter emitter, BamTrackFormat format) throws IOException {
+        this.emitter = emitter;
+        this.buffer = new ByteArrayOutputStream(BUFFER_SIZE * 2);
+        this.encoder = format == BamTrackFormat.BINARY
+                ? new BinaryBamTrackEncoder(buffer)
+                : new JsonBamTrackEncoder(buffer);
     }
 
     /**
@@ -72,16 +76,8 @@ public class BamTrackEmitter {
      */
     public void writeRecord(Read read) throws IOException {
         checkFinished();
-
-        if (firstRecordWasWritten) {
-            write(",");
-        }
-
-        write(jsonMapper.writeValueAsString(read));
-
-        if (!firstRecordWasWritten) {
-            firstRecordWasWritten = true;
-        }
+        encoder.writeRead(read);
+        sendBufferIfFull();
     }
 
     /**
@@ -92,13 +88,7 @@ public class BamTrackEmitter {
      */
     public void writeTrackAndFinish(BamTrack<Read> bamTrack) throws IOException {
         checkFinished();
-        write("],");
-
-        JsonNode metadata = jsonMapper.convertValue(bamTrack, JsonNode.class);
-        ((ObjectNode) metadata).remove("blocks");
-        write(jsonMapper.writeValueAsString(metadata).substring(1));
-        write(",\"status\":\"OK\"}");
-
+        encoder.writeTrack(bamTrack);
         sendBuffer();
         emitter.complete();
         finished = true;
@@ -113,7 +103,7 @@ public class BamTrackEmitter {
     public void finishWithException(Throwable throwable) {
         checkFinished();
         try {
-            write("]},\"status\":\"ERROR\",\"message\":\"" + throwable.getLocalizedMessage() + "\"}");
+            encoder.writeError(throwable.getLocalizedMessage());
             sendBuffer();
         } catch (IOException e) {
             emitter.completeWithError(e);
@@ -121,21 +111,17 @@ public class BamTrackEmitter {
         emitter.complete();
     }
 
-    private void writeHeader() throws IOException {
-        write("{\"payload\":{\"blocks\":[");
-    }
-
-    private void write(String stringData) throws IOException {
-        stringBuffer.append(stringData);
-
-        if (stringBuffer.length() > BUFFER_SIZE) {
+    private void sendBufferIfFull() throws IOException {
+        if (buffer.size() + encoder.getPendingSize() > BUFFER_SIZE) {
             sendBuffer();
         }
     }
 
     private void sendBuffer() throws IOException {
-        emitter.send(stringBuffer.toString(), MediaType.TEXT_PLAIN);
-        stringBuffer.setLength(0);
+        encoder.flush();
+        // emitter may hold data until it is initialized, so the buffer content is copied
+        emitter.send(buffer.toByteArray(), MediaType.TEXT_PLAIN);
+        buffer.reset();
     }
 
     private void checkFinished() {
@@ -143,5 +129,4 @@ public class BamTrackEmitter {
             throw new IllegalStateException("Already finished");
         }
     }
-
 }
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam;
+
+import com.epam.catgenome.entity.bam.BamCoverage;
+import com.epam.catgenome.entity.bam.CoverageBuildProgress;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * State of a single BAM coverage calculation: regions, that are left to process, progress counters and
+ * cancellation flag. Workers take regions from the shared queue until it is empty or the build is cancelled.
+ */
+class CoverageBuild {
+
+    @Getter
+    private final BamCoverage coverage;
+    private final Queue<CoverageRegion> regions;
+    private final int totalRegions;
+    private final long totalBases;
+    private final AtomicInteger processedRegions = new AtomicInteger();
+    private final AtomicLong processedBases = new AtomicLong();
+    private final DoubleAdder coverageSum = new DoubleAdder();
+    private final AtomicLong intervals = new AtomicLong();
+    private volatile boolean cancelled;
+
+    CoverageBuild(final BamCoverage coverage, final List<CoverageRegion> regions) {
+        this.coverage = coverage;
+        this.regions = new ConcurrentLinkedQueue<>(regions);
+        this.totalRegions = regions.size();
+        this.totalBases = regions.stream().mapToLong(CoverageRegion::size).sum();
+    }
+
+    /**
+     * @return next region to process or {@code null} if there are no regions left or the build is cancelled
+     */
+    CoverageRegion nextRegion() {
+        return cancelled ? null : regions.poll();
+    }
+
+    void addInterval(final float intervalCoverage) {
+        coverageSum.add(intervalCoverage);
+        intervals.incrementAndGet();
+    }
+
+    void regionProcessed(final CoverageRegion region) {
+        processedRegions.incrementAndGet();
+        processedBases.addAndGet(region.size());
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    float getAverageCoverage() {
+        final long count = intervals.get();
+        return count == 0 ? 0 : (float) (coverageSum.sum() / count);
+    }
+
+    CoverageBuildProgress toProgress() {
+        return CoverageBuildProgress.builder()
+                .coverageId(coverage.getCoverageId())
+                .bamId(coverage.getBamId())
+                .step(coverage.getStep())
+                .totalRegions(totalRegions)
+                .processedRegions(processedRegions.get())
+                .totalBases(totalBases)
+                .processedBases(processedBases.get())
+                .cancelled(cancelled)
+                .build();
+    }
+}
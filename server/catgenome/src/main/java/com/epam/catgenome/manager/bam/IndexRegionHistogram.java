@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.bam;
+
+import com.epam.catgenome.entity.wig.Wig;
+import htsjdk.samtools.Bin;
+import htsjdk.samtools.BinningIndexContent;
+import htsjdk.samtools.Chunk;
+import htsjdk.samtools.GenomicIndexUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estimates read density of a genomic range from BAI bins without reading any records. Each bin holds the reads,
+ * that fit in its genomic span. The chunks of the smallest (leaf) bins are spread evenly over their spans. Reads of
+ * coarser bins mostly cross leaf bin borders, so their size is spread in proportion to the leaf bin density and
+ * evenly only if no leaf bin within the span has reads. The sizes collected by the histogram slots are scaled to
+ * the record count of the reference. Chunk sizes are approximated in uncompressed bytes from the BGZF block
+ * addresses and in-block offsets of their virtual file offsets.
+ */
+final class IndexRegionHistogram {
+
+    /**
+     * Smallest bin span of the BAI binning scheme, slots aren't made narrower than a bin
+     */
+    private static final int MIN_SLOT_SIZE = 1 << 14;
+    private static final int BLOCK_OFFSET_BITS = 16;
+    private static final long BLOCK_OFFSET_MASK = 0xFFFF;
+    /**
+     * Approximate BGZF compression ratio of BAM records, converts block distances to uncompressed bytes
+     */
+    private static final int COMPRESSION_RATIO = 3;
+    private static final int LEVEL_SHIFT = 3;
+    private static final int LEAF_LEVEL = GenomicIndexUtil.LEVEL_STARTS.length - 1;
+
+    private IndexRegionHistogram() {
+        // no-op
+    }
+
+    /**
+     * Builds a read density histogram of a range, empty slots are omitted
+     * @param index BAM index
+     * @param reference reference sequence index
+     * @param startIndex range start, 1-based
+     * @param endIndex range end, inclusive
+     * @param slotCount max count of histogram slots
+     * @return slots with approximate (fractional) read counts, or with value 1 for index files without metadata
+     */
+    static List<Wig> build(final PreloadedBamIndex index, final int reference, final int startIndex,
+                           final int endIndex, final int slotCount) {
+        final BinningIndexContent content = index.getContent(reference);
+        if (content == null || endIndex < startIndex || slotCount <= 0) {
+            return Collections.emptyList();
+        }
+        final long length = (long) endIndex - startIndex + 1;
+        final int slots = (int) Math.max(1, Math.min(slotCount, (length + MIN_SLOT_SIZE - 1) / MIN_SLOT_SIZE));
+        final double[] leafSizes = new double[slots];
+        final List<Bin> coarseBins = new ArrayList<>();
+        double totalSize = 0;
+        for (Bin bin : content.getBins()) {
+            final long binSize = getSize(bin);
+            totalSize += binSize;
+            if (binSize == 0) {
+                continue;
+            }
+            if (getLevel(bin.getBinNumber()) == LEAF_LEVEL) {
+                spread(bin, binSize, leafSizes, null, startIndex, length);
+            } else {
+                coarseBins.add(bin);
+            }
+        }
+        final double[] sizes = leafSizes.clone();
+        for (Bin bin : coarseBins) {
+            spread(bin, getSize(bin), sizes, leafSizes, startIndex, length);
+        }
+        final long recordCount = index.getRecordCount(reference);
+        final List<Wig> result = new ArrayList<>();
+        for (int slot = 0; slot < slots; slot++) {
+            if (sizes[slot] <= 0) {
+                continue;
+            }
+            final float value = recordCount < 0 ? 1 : (float) (sizes[slot] / totalSize * recordCount);
+            result.add(new Wig((int) getSlotStart(slot, startIndex, length, slots),
+                    (int) getSlotStart(slot + 1, startIndex, length, slots) - 1, value));
+        }
+        return result;
+    }
+
+    /**
+     * Adds the part of a bin size, that falls in the range, to the overlapped slots
+     * @param weights leaf bin sizes of the slots to spread the size proportionally to, or {@code null} to spread
+     *                it evenly over the bin span; the size is spread evenly, if there are no leaf reads either
+     */
+    private static void spread(final Bin bin, final long binSize, final double[] sizes, final double[] weights,
+                               final int startIndex, final long length) {
+        final int slots = sizes.length;
+        final int level = getLevel(bin.getBinNumber());
+        final long span = GenomicIndexUtil.BIN_GENOMIC_SPAN >> (LEVEL_SHIFT * level);
+        final long binStart = (bin.getBinNumber() - GenomicIndexUtil.LEVEL_STARTS[level]) * span + 1;
+        final long from = Math.max(binStart, startIndex);
+        final long to = Math.min(binStart + span - 1, startIndex + length - 1);
+        if (from > to) {
+            return;
+        }
+        final int first = getSlot(from, startIndex, length, slots);
+        final int last = getSlot(to, startIndex, length, slots);
+        final double[] overlaps = new double[last - first + 1];
+        double totalWeight = 0;
+        for (int slot = first; slot <= last; slot++) {
+            final long slotStart = getSlotStart(slot, startIndex, length, slots);
+            final long slotEnd = getSlotStart(slot + 1, startIndex, length, slots) - 1;
+            overlaps[slot - first] = Math.min(to, slotEnd) - Math.max(from, slotStart) + 1;
+            if (weights != null) {
+                totalWeight += weights[slot] * overlaps[slot - first] / (slotEnd - slotStart + 1);
+            }
+        }
+        final double size = (double) binSize * (to - from + 1) / span;
+        for (int slot = first; slot <= last; slot++) {
+            final double overlap = overlaps[slot - first];
+            if (totalWeight > 0) {
+                final long slotLength = getSlotStart(slot + 1, startIndex, length, slots)
+                        - getSlotStart(slot, startIndex, length, slots);
+                sizes[slot] += size * weights[slot] * overlap / slotLength / totalWeight;
+            } else {
+                sizes[slot] += size * overlap / (to - from + 1);
+            }
+        }
+    }
+
+    private static long getSize(final Bin bin) {
+        long size = 0;
+        for (Chunk chunk : bin.getChunkList()) {
+            final long blocks = (chunk.getChunkEnd() >>> BLOCK_OFFSET_BITS)
+                    - (chunk.getChunkStart() >>> BLOCK_OFFSET_BITS);
+            final long offsets = (chunk.getChunkEnd() & BLOCK_OFFSET_MASK)
+                    - (chunk.getChunkStart() & BLOCK_OFFSET_MASK);
+            size += Math.max(0, blocks * COMPRESSION_RATIO + offsets);
+        }
+        return size;
+    }
+
+    private static int getLevel(final int binNumber) {
+        int level = GenomicIndexUtil.LEVEL_STARTS.length - 1;
+        while (binNumber < GenomicIndexUtil.LEVEL_STARTS[level]) {
+            level--;
+        }
+        return level;
+    }
+
+    private static int getSlot(final long position, final int startIndex, final long length, final int slots) {
+        return (int) ((position - startIndex) * slots / length);
+    }
+
+    private static long getSlotStart(final int slot, final int startIndex, final long length, final int slots) {
+        return startIndex + (length * slot + slots - 1) / slots;
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.bam;
+
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.BAMIndexMetaData;
+import htsjdk.samtools.Bin;
+import htsjdk.samtools.BinningIndexContent;
+import htsjdk.samtools.Chunk;
+import htsjdk.samtools.DiskBasedBAMFileIndex;
+import htsjdk.samtools.GenomicIndexUtil;
+import htsjdk.samtools.LinearIndex;
+import htsjdk.samtools.SAMException;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.seekablestream.SeekableMemoryStream;
+import htsjdk.samtools.seekablestream.SeekableStream;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link BAMIndex} that keeps bins and linear indexes of all references in memory. Unlike htsjdk implementations,
+ * that read bins from the index file on every query and keep only the last queried reference, it never
+ * changes after loading and may be shared between readers of the same file in different threads.
+ */
+final class PreloadedBamIndex implements BAMIndex {
+
+    private static final byte[] BAI_MAGIC = {'B', 'A', 'I', 1};
+    private static final int CHUNK_BYTES = 48;
+    private static final int BIN_BYTES = 64;
+    private static final int LINEAR_INDEX_ENTRY_BYTES = 8;
+
+    private final byte[] content;
+    private final SAMSequenceDictionary dictionary;
+    private final BinningIndexContent[] references;
+    private final long[] recordCounts;
+    private final long startOfLastLinearBin;
+    private final long sizeInBytes;
+
+    private PreloadedBamIndex(final byte[] content, final SAMSequenceDictionary dictionary) {
+        this.content = content;
+        this.dictionary = dictionary;
+        final ByteBuffer buffer = ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN);
+        final byte[] magic = new byte[BAI_MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, BAI_MAGIC)) {
+            throw new SAMException("Invalid BAM index file header");
+        }
+        long size = content.length;
+        long lastLinearBin = -1;
+        this.references = new BinningIndexContent[buffer.getInt()];
+        this.recordCounts = new long[references.length];
+        for (int i = 0; i < references.length; i++) {
+            final List<Bin> bins = readBins(buffer, i, recordCounts);
+            final long[] linearIndex = new long[buffer.getInt()];
+            for (int j = 0; j < linearIndex.length; j++) {
+                linearIndex[j] = buffer.getLong();
+            }
+            if (linearIndex.length > 0) {
+                lastLinearBin = linearIndex[linearIndex.length - 1];
+            }
+            references[i] = createContent(i, bins, linearIndex);
+            size += (long) references[i].getAllChunks().size() * CHUNK_BYTES
+                    + (long) bins.size() * BIN_BYTES
+                    + (long) linearIndex.length * LINEAR_INDEX_ENTRY_BYTES;
+        }
+        this.startOfLastLinearBin = lastLinearBin;
+        this.sizeInBytes = size;
+    }
+
+    /**
+     * Reads the whole BAI index from the stream, the stream is closed afterwards
+     * @param stream BAI index stream
+     * @param dictionary sequence dictionary of the indexed file
+     * @return loaded index
+     * @throws IOException if the stream can't be read
+     */
+    static PreloadedBamIndex load(final SeekableStream stream, final SAMSequenceDictionary dictionary)
+            throws IOException {
+        try (SeekableStream indexStream = stream) {
+            return new PreloadedBamIndex(IOUtils.toByteArray(indexStream), dictionary);
+        }
+    }
+
+    /**
+     * @return approximate heap size of the loaded index
+     */
+    long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * @param referenceIndex reference sequence index
+     * @return bins and linear index of the reference or null, if the reference isn't present in the index
+     */
+    BinningIndexContent getContent(final int referenceIndex) {
+        return referenceIndex < 0 || referenceIndex >= references.length ? null : references[referenceIndex];
+    }
+
+    /**
+     * @param referenceIndex reference sequence index
+     * @return count of mapped and placed unmapped records of the reference or -1, if the index has no metadata
+     */
+    long getRecordCount(final int referenceIndex) {
+        return referenceIndex < 0 || referenceIndex >= references.length ? -1 : recordCounts[referenceIndex];
+    }
+
+    @Override
+    public BAMFileSpan getSpanOverlapping(final int referenceIndex, final int startPos, final int endPos) {
+        if (referenceIndex < 0 || referenceIndex >= references.length) {
+            return null;
+        }
+        // returned chunks are copies, so optimization of the chunk list doesn't affect the index
+        final List<Chunk> chunks = references[referenceIndex].getChunksOverlapping(startPos, endPos);
+        return chunks == null ? null : new BAMFileSpan(chunks);
+    }
+
+    @Override
+    public long getStartOfLastLinearBin() {
+        return startOfLastLinearBin;
+    }
+
+    /**
+     * Metadata isn't used by queries, so it is read from the raw index content on demand
+     */
+    @Override
+    public BAMIndexMetaData getMetaData(final int reference) {
+        final DiskBasedBAMFileIndex index = new DiskBasedBAMFileIndex(
+                new SeekableMemoryStream(content, BAMIndex.BAMIndexSuffix), dictionary);
+        try {
+            return index.getMetaData(reference);
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * Does nothing: the index is shared, while each reader closes its index on close
+     */
+    @Override
+    public void close() {
+        // no resources are held after loading
+    }
+
+    private static List<Bin> readBins(final ByteBuffer buffer, final int reference, final long[] recordCounts) {
+        recordCounts[reference] = -1;
+        final int binCount = buffer.getInt();
+        final List<Bin> bins = new ArrayList<>(binCount);
+        for (int i = 0; i < binCount; i++) {
+            final int binNumber = buffer.getInt();
+            final int chunkCount = buffer.getInt();
+            final List<Chunk> chunks = new ArrayList<>(chunkCount);
+            for (int j = 0; j < chunkCount; j++) {
+                chunks.add(new Chunk(buffer.getLong(), buffer.getLong()));
+            }
+            // metadata pseudo bin doesn't point to alignments, its second chunk holds mapped and unmapped counts
+            if (binNumber == GenomicIndexUtil.MAX_BINS) {
+                if (chunks.size() > 1) {
+                    recordCounts[reference] = chunks.get(1).getChunkStart() + chunks.get(1).getChunkEnd();
+                }
+                continue;
+            }
+            final Bin bin = new Bin(reference, binNumber);
+            bin.setChunkList(chunks);
+            bin.setLastChunk(chunks.isEmpty() ? null : chunks.get(chunks.size() - 1));
+            bins.add(bin);
+        }
+        return bins;
+    }
+
+    private static BinningIndexContent createContent(final int reference, final List<Bin> bins,
+                                                     final long[] linearIndex) {
+        // bins above the array bounds are treated as empty, so the array is sized by the bins present only
+        int maxBinNumber = -1;
+        for (Bin bin : bins) {
+            maxBinNumber = Math.max(maxBinNumber, bin.getBinNumber());
+        }
+        final Bin[] binArray = new Bin[maxBinNumber + 1];
+        for (Bin bin : bins) {
+            binArray[bin.getBinNumber()] = bin;
+        }
+        return new BinningIndexContent(reference, new BinningIndexContent.BinList(binArray, bins.size()),
+                new LinearIndex(reference, 0, linearIndex));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.SAMRecord;
+
+import java.util.Arrays;
+
+/**
+ * Lightweight pileup counter, that calculates read depth over a {@link CoverageRegion}. Aligned blocks of
+ * each record are added to a difference array, so a record costs a pass over its CIGAR elements instead of
+ * a per-locus list of records. Reads are filtered the same way as {@code SamLocusIterator} does by default:
+ * unmapped, secondary and duplicate reads are skipped, only M, = and X operators are counted.
+ * An instance is reused for several regions by a single worker and is not thread-safe.
+ */
+class RegionDepthCounter {
+
+    private int[] delta = new int[0];
+    private CoverageRegion region;
+
+    void reset(final CoverageRegion region) {
+        this.region = region;
+        final int size = region.size() + 1;
+        if (delta.length < size) {
+            delta = new int[size];
+        } else {
+            Arrays.fill(delta, 0, size, 0);
+        }
+    }
+
+    void add(final SAMRecord record) {
+        if (record.getReadUnmappedFlag() || record.getNotPrimaryAlignmentFlag() || record.getDuplicateReadFlag()) {
+            return;
+        }
+        int position = record.getAlignmentStart();
+        for (CigarElement element : record.getCigar().getCigarElements()) {
+            final CigarOperator operator = element.getOperator();
+            if (!operator.consumesReferenceBases()) {
+                continue;
+            }
+            if (operator.consumesReadBases()) {
+                addBlock(position, position + element.getLength() - 1);
+            }
+            position += element.getLength();
+        }
+    }
+
+    /**
+     * Splits the region into intervals of the given step, counted from the sequence start, and passes
+     * total depth of each interval to the consumer
+     */
+    void collectIntervals(final int step, final IntervalConsumer consumer) {
+        long depth = 0;
+        long sum = 0;
+        int intervalStart = region.getStart();
+        for (int position = region.getStart(); position <= region.getEnd(); position++) {
+            depth += delta[position - region.getStart()];
+            sum += depth;
+            if ((position % step) == 0 || position == region.getEnd()) {
+                consumer.accept(intervalStart, position, sum);
+                sum = 0;
+                intervalStart = position + 1;
+            }
+        }
+    }
+
+    private void addBlock(final int start, final int end) {
+        final int from = Math.max(start, region.getStart());
+        final int to = Math.min(end, region.getEnd());
+        if (from <= to) {
+            delta[from - region.getStart()]++;
+            delta[to - region.getStart() + 1]--;
+        }
+    }
+
+    @FunctionalInterface
+    interface IntervalConsumer {
+        void accept(int start, int end, long totalDepth);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam.encoders;
+
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.Read;
+
+import java.io.IOException;
+
+/**
+ * Serializes a streamed BAM track into an output stream. Reads are passed one by one with
+ * {@link #writeRead(Read)}, the response is finished either by {@link #writeTrack(BamTrack)} or by
+ * {@link #writeError(String)}. An encoder may keep some data in its own buffers, use {@link #flush()} to
+ * write them to the underlying stream.
+ */
+public interface BamTrackEncoder {
+
+    void writeRead(Read read) throws IOException;
+
+    /**
+     * Writes track data, {@link BamTrack#getBlocks()} are ignored, since reads are already written
+     * @param track to be written
+     * @throws IOException in case of stream errors
+     */
+    void writeTrack(BamTrack<Read> track) throws IOException;
+
+    void writeError(String message) throws IOException;
+
+    /**
+     * @return number of bytes, kept by the encoder and not yet written to the underlying stream
+     */
+    int getPendingSize();
+
+    void flush() throws IOException;
+}
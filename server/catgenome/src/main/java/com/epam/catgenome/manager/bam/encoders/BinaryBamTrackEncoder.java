@@ -0,0 +1,405 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam.encoders;
+
+import com.epam.catgenome.controller.JsonMapper;
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BaseCoverage;
+import com.epam.catgenome.entity.bam.BasePosition;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.entity.bam.SpliceJunctionsEntity;
+import com.epam.catgenome.entity.wig.Wig;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a BAM track in a compact columnar binary format. The stream starts with {@link #MAGIC} and {@link #VERSION}
+ * bytes and is followed by frames: a frame type byte, a 4-byte big-endian payload length and the payload itself.
+ * Primitive encodings are described in {@link BinaryColumn}.
+ * <p>
+ * {@link #FRAME_READS} holds a batch of reads: varint read count, a string dictionary (varint size and a block of
+ * strings) and the {@link #READ_COLUMNS} columns. Every block and column is prefixed by its varint byte length. Read
+ * names, mate names, reference names and read groups are stored as dictionary indexes (0 for {@code null}, otherwise
+ * index plus one). Start positions are delta coded against the previous read of the batch, end positions and mate
+ * positions are stored relative to the read start. CIGAR is stored as a varint {@code n}: 0 for {@code null}, 1 for a
+ * literal string that follows, otherwise {@code n - 2} varint ops {@code length << 4 | op} with op being an index in
+ * {@link #CIGAR_OPERATORS}. Different bases are stored as varint count plus one, nullable relative positions, a byte 0
+ * followed by a sequence of all bases or a byte 1 followed by a string for each base.
+ * <p>
+ * {@link #FRAME_TRACK} finishes a successful response: track fields as a JSON string (without blocks and coverage
+ * lists), then base coverage, splice junctions, downsample coverage and regions. Each list is a varint size plus one
+ * (0 for {@code null}) followed by length prefixed columns: base coverage - start delta, end, value, A, C, G, T, N,
+ * deletion and insertion counts; splice junctions - start delta, end, count, strand; wig - start delta, end, value.
+ * <p>
+ * {@link #FRAME_ERROR} finishes a failed response and holds an error message string.
+ * <p>
+ * Reads are accumulated into per-column buffers until {@link #flush()} is called.
+ */
+public class BinaryBamTrackEncoder implements BamTrackEncoder {
+
+    public static final byte[] MAGIC = "NGBB".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+
+    public static final int FRAME_READS = 1;
+    public static final int FRAME_TRACK = 2;
+    public static final int FRAME_ERROR = 3;
+
+    public static final String CIGAR_OPERATORS = "MIDNSHP=X";
+    public static final int CIGAR_OPERATOR_BITS = 4;
+    public static final int CIGAR_NULL = 0;
+    public static final int CIGAR_LITERAL = 1;
+    public static final int CIGAR_OPS_OFFSET = 2;
+
+    public static final int BASES_PACKED = 0;
+    public static final int BASES_LITERAL = 1;
+
+    public static final int COLUMN_START = 0;
+    public static final int COLUMN_END = 1;
+    public static final int COLUMN_FLAG = 2;
+    public static final int COLUMN_MAPPING_QUALITY = 3;
+    public static final int COLUMN_STRAND = 4;
+    public static final int COLUMN_TLEN = 5;
+    public static final int COLUMN_PNEXT = 6;
+    public static final int COLUMN_NAME = 7;
+    public static final int COLUMN_PAIRED_NAME = 8;
+    public static final int COLUMN_RNAME = 9;
+    public static final int COLUMN_RNEXT = 10;
+    public static final int COLUMN_READ_GROUP = 11;
+    public static final int COLUMN_CIGAR = 12;
+    public static final int COLUMN_SEQUENCE = 13;
+    public static final int COLUMN_QUALITIES = 14;
+    public static final int COLUMN_HEAD = 15;
+    public static final int COLUMN_TAIL = 16;
+    public static final int COLUMN_DIFFERENT_BASE = 17;
+    public static final int READ_COLUMNS = 18;
+
+    private static final int DECIMAL_RADIX = 10;
+    private static final long MAX_CIGAR_ELEMENT_LENGTH = 1L << (Integer.SIZE - CIGAR_OPERATOR_BITS - 1);
+    private static final int STRAND_NULL = 0;
+    private static final int STRAND_REVERSE = 1;
+    private static final int STRAND_FORWARD = 2;
+
+    private static final JsonMapper METADATA_MAPPER = createMetadataMapper();
+
+    private final OutputStream outputStream;
+    private final BinaryColumn[] columns = new BinaryColumn[READ_COLUMNS];
+    private final BinaryColumn frame = new BinaryColumn();
+    private final BinaryColumn frameHeader = new BinaryColumn();
+    private final BinaryColumn dictionaryColumn = new BinaryColumn();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<Integer> cigarLengths = new ArrayList<>();
+    private final StringBuilder bases = new StringBuilder();
+
+    private int readCount;
+    private long previousStart;
+
+    public BinaryBamTrackEncoder(final OutputStream outputStream) throws IOException {
+        this.outputStream = outputStream;
+        for (int i = 0; i < READ_COLUMNS; i++) {
+            columns[i] = new BinaryColumn();
+        }
+        outputStream.write(MAGIC);
+        outputStream.write(VERSION);
+    }
+
+    @Override
+    public void writeRead(final Read read) throws IOException {
+        final Integer start = read.getStartIndex();
+        previousStart = writeBlockBounds(columns, start, read.getEndIndex(), previousStart);
+        columns[COLUMN_FLAG].writeNullableInt(read.getFlagMask());
+        columns[COLUMN_MAPPING_QUALITY].writeNullableInt(read.getMappingQuality());
+        columns[COLUMN_STRAND].writeByte(read.getStand() == null ? STRAND_NULL
+                : read.getStand() ? STRAND_FORWARD : STRAND_REVERSE);
+        columns[COLUMN_TLEN].writeNullableInt(read.getTLen());
+        columns[COLUMN_PNEXT].writeNullableInt(relative(read.getPNext(), start));
+        writeDictionaryValue(COLUMN_NAME, read.getName());
+        writeDictionaryValue(COLUMN_PAIRED_NAME, read.getPairedReadName());
+        writeDictionaryValue(COLUMN_RNAME, read.getRName());
+        writeDictionaryValue(COLUMN_RNEXT, read.getRNext());
+        writeDictionaryValue(COLUMN_READ_GROUP, read.getReadGroup());
+        writeCigar(read.getCigarString());
+        columns[COLUMN_SEQUENCE].writeSequence(read.getSequence());
+        columns[COLUMN_QUALITIES].writeString(read.getQualities());
+        columns[COLUMN_HEAD].writeSequence(read.getHeadSequence());
+        columns[COLUMN_TAIL].writeSequence(read.getTailSequence());
+        writeDifferentBases(read.getDifferentBase());
+        readCount++;
+    }
+
+    @Override
+    public void writeTrack(final BamTrack<Read> track) throws IOException {
+        flush();
+        frame.reset();
+        frame.writeString(METADATA_MAPPER.writeValueAsString(track));
+        writeBaseCoverage(track.getBaseCoverage());
+        writeSpliceJunctions(track.getSpliceJunctions());
+        writeWigs(track.getDownsampleCoverage());
+        writeWigs(track.getRegions());
+        writeFrame(FRAME_TRACK);
+    }
+
+    @Override
+    public void writeError(final String message) throws IOException {
+        flush();
+        frame.reset();
+        frame.writeString(message);
+        writeFrame(FRAME_ERROR);
+    }
+
+    @Override
+    public int getPendingSize() {
+        int size = dictionaryColumn.size();
+        for (BinaryColumn column : columns) {
+            size += column.size();
+        }
+        return size;
+    }
+
+    /**
+     * Writes accumulated reads as a {@link #FRAME_READS} frame
+     */
+    @Override
+    public void flush() throws IOException {
+        if (readCount == 0) {
+            return;
+        }
+        frame.reset();
+        frame.writeVarLong(readCount);
+        frame.writeVarLong(dictionary.size());
+        dictionaryColumn.writeTo(frame);
+        for (BinaryColumn column : columns) {
+            column.writeTo(frame);
+            column.reset();
+        }
+        writeFrame(FRAME_READS);
+
+        dictionary.clear();
+        dictionaryColumn.reset();
+        readCount = 0;
+        previousStart = 0;
+    }
+
+    private void writeFrame(final int type) throws IOException {
+        frameHeader.reset();
+        frameHeader.writeByte(type);
+        frameHeader.writeFixedInt(frame.size());
+        frameHeader.writeTo(outputStream);
+        frame.writeTo(outputStream);
+    }
+
+    private void writeDictionaryValue(final int column, final String value) {
+        if (value == null) {
+            columns[column].writeVarLong(0);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index == null) {
+            index = dictionary.size() + 1;
+            dictionary.put(value, index);
+            dictionaryColumn.writeString(value);
+        }
+        columns[column].writeVarLong(index);
+    }
+
+    private void writeCigar(final String cigar) {
+        final BinaryColumn column = columns[COLUMN_CIGAR];
+        if (cigar == null) {
+            column.writeVarLong(CIGAR_NULL);
+            return;
+        }
+        if (!parseCigar(cigar)) {
+            column.writeVarLong(CIGAR_LITERAL);
+            column.writeString(cigar);
+            return;
+        }
+        column.writeVarLong(cigarLengths.size() + (long) CIGAR_OPS_OFFSET);
+        for (Integer element : cigarLengths) {
+            column.writeVarLong(element);
+        }
+    }
+
+    /**
+     * Splits a CIGAR string into packed {@code length << 4 | op} elements
+     * @return false if the string can't be represented as a list of operations
+     */
+    private boolean parseCigar(final String cigar) {
+        cigarLengths.clear();
+        if (cigar.isEmpty()) {
+            return false;
+        }
+        long length = 0;
+        boolean hasLength = false;
+        for (int i = 0; i < cigar.length(); i++) {
+            final char symbol = cigar.charAt(i);
+            if (symbol >= '0' && symbol <= '9') {
+                length = length * DECIMAL_RADIX + Character.digit(symbol, DECIMAL_RADIX);
+                if (length >= MAX_CIGAR_ELEMENT_LENGTH) {
+                    return false;
+                }
+                hasLength = true;
+                continue;
+            }
+            final int operator = CIGAR_OPERATORS.indexOf(symbol);
+            if (operator < 0 || !hasLength) {
+                return false;
+            }
+            cigarLengths.add((int) length << CIGAR_OPERATOR_BITS | operator);
+            length = 0;
+            hasLength = false;
+        }
+        return !hasLength;
+    }
+
+    private void writeDifferentBases(final List<BasePosition> differentBases) {
+        final BinaryColumn column = columns[COLUMN_DIFFERENT_BASE];
+        if (differentBases == null) {
+            column.writeVarLong(0);
+            return;
+        }
+        column.writeVarLong(differentBases.size() + 1L);
+        bases.setLength(0);
+        boolean packed = true;
+        for (BasePosition position : differentBases) {
+            column.writeNullableInt(position.getRelativePosition());
+            final String base = position.getBase();
+            if (base == null || base.length() != 1) {
+                packed = false;
+            } else {
+                bases.append(base);
+            }
+        }
+        if (packed) {
+            column.writeByte(BASES_PACKED);
+            column.writeSequence(bases);
+        } else {
+            column.writeByte(BASES_LITERAL);
+            for (BasePosition position : differentBases) {
+                column.writeString(position.getBase());
+            }
+        }
+    }
+
+    private void writeBaseCoverage(final List<BaseCoverage> coverage) {
+        if (coverage == null) {
+            frame.writeVarLong(0);
+            return;
+        }
+        frame.writeVarLong(coverage.size() + 1L);
+        final BinaryColumn[] coverageColumns = createColumns(10);
+        long previous = 0;
+        for (BaseCoverage item : coverage) {
+            previous = writeBlockBounds(coverageColumns, item.getStartIndex(), item.getEndIndex(), previous);
+            coverageColumns[2].writeNullableFloat(item.getValue());
+            coverageColumns[3].writeNullableInt(item.getaCov());
+            coverageColumns[4].writeNullableInt(item.getcCov());
+            coverageColumns[5].writeNullableInt(item.getgCov());
+            coverageColumns[6].writeNullableInt(item.gettCov());
+            coverageColumns[7].writeNullableInt(item.getnCov());
+            coverageColumns[8].writeNullableInt(item.getDelCov());
+            coverageColumns[9].writeNullableInt(item.getInsCov());
+        }
+        writeColumns(coverageColumns);
+    }
+
+    private void writeSpliceJunctions(final List<SpliceJunctionsEntity> junctions) {
+        if (junctions == null) {
+            frame.writeVarLong(0);
+            return;
+        }
+        frame.writeVarLong(junctions.size() + 1L);
+        final BinaryColumn[] junctionColumns = createColumns(4);
+        long previous = 0;
+        for (SpliceJunctionsEntity junction : junctions) {
+            previous = writeBlockBounds(junctionColumns, junction.getStart(), junction.getEnd(), previous);
+            junctionColumns[2].writeVarLong(junction.getCount());
+            junctionColumns[3].writeByte(junction.isStrand() ? 1 : 0);
+        }
+        writeColumns(junctionColumns);
+    }
+
+    private void writeWigs(final List<Wig> wigs) {
+        if (wigs == null) {
+            frame.writeVarLong(0);
+            return;
+        }
+        frame.writeVarLong(wigs.size() + 1L);
+        final BinaryColumn[] wigColumns = createColumns(3);
+        long previous = 0;
+        for (Wig wig : wigs) {
+            previous = writeBlockBounds(wigColumns, wig.getStartIndex(), wig.getEndIndex(), previous);
+            wigColumns[2].writeNullableFloat(wig.getValue());
+        }
+        writeColumns(wigColumns);
+    }
+
+    /**
+     * Writes a delta coded start into the first column and a relative end into the second one
+     * @return start to be used as a base for the next delta
+     */
+    private static long writeBlockBounds(final BinaryColumn[] blockColumns, final Integer start,
+                                         final Integer end, final long previous) {
+        blockColumns[0].writeNullableInt(start == null ? null : (int) (start - previous));
+        blockColumns[1].writeNullableInt(relative(end, start));
+        return start == null ? previous : start;
+    }
+
+    private void writeColumns(final BinaryColumn[] blockColumns) {
+        for (BinaryColumn column : blockColumns) {
+            column.writeTo(frame);
+        }
+    }
+
+    private static BinaryColumn[] createColumns(final int count) {
+        final BinaryColumn[] result = new BinaryColumn[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new BinaryColumn();
+        }
+        return result;
+    }
+
+    private static Integer relative(final Integer value, final Integer start) {
+        if (value == null) {
+            return null;
+        }
+        return start == null ? value : value - start;
+    }
+
+    private static JsonMapper createMetadataMapper() {
+        final JsonMapper mapper = new JsonMapper();
+        mapper.addMixIn(BamTrack.class, ColumnarFieldsIgnoredMixIn.class);
+        return mapper;
+    }
+
+    @JsonIgnoreProperties({"blocks", "baseCoverage", "spliceJunctions", "downsampleCoverage", "regions"})
+    private abstract static class ColumnarFieldsIgnoredMixIn {
+    }
+}
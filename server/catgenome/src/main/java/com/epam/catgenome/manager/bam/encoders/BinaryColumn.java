@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam.encoders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer with helpers for the primitives of the binary BAM track format:
+ * <ul>
+ *     <li>varint - unsigned LEB128 integer</li>
+ *     <li>nullable int - varint, 0 for {@code null}, otherwise zigzag encoded value plus one</li>
+ *     <li>nullable float - a byte 0 for {@code null}, otherwise 1 followed by 4 bytes of IEEE 754 bits</li>
+ *     <li>string - varint, 0 for {@code null}, otherwise UTF-8 length plus one, followed by UTF-8 bytes</li>
+ *     <li>sequence - varint, 0 for {@code null}, otherwise length plus one, followed by 2-bit packed bases
+ *     (A=0, C=1, G=2, T=3, first base in the highest bits), a varint count of other symbols and
+ *     a (varint position delta, varint char code) pair for each of them</li>
+ * </ul>
+ * All multi-byte fixed size values are big-endian.
+ */
+final class BinaryColumn {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_CONTINUATION = 0x80;
+    private static final int VARINT_SHIFT = 7;
+    private static final int MAX_VARINT_SIZE = 10;
+    private static final String BASES = "ACGT";
+    private static final int BYTE_SIZE = 8;
+    private static final int BASES_PER_BYTE = 4;
+    private static final int BITS_PER_BASE = 2;
+    private static final int FLOAT_SIZE = 4;
+
+    private byte[] data = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    void writeByte(final int value) {
+        ensureCapacity(1);
+        data[size++] = (byte) value;
+    }
+
+    void writeVarLong(final long value) {
+        ensureCapacity(MAX_VARINT_SIZE);
+        long remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0) {
+            data[size++] = (byte) ((remaining & VARINT_MASK) | VARINT_CONTINUATION);
+            remaining >>>= VARINT_SHIFT;
+        }
+        data[size++] = (byte) remaining;
+    }
+
+    void writeNullableInt(final Integer value) {
+        if (value == null) {
+            writeVarLong(0);
+        } else {
+            writeVarLong(zigZag(value) + 1);
+        }
+    }
+
+    void writeNullableFloat(final Float value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeFixedInt(Float.floatToIntBits(value));
+    }
+
+    void writeFixedInt(final int value) {
+        ensureCapacity(FLOAT_SIZE);
+        for (int shift = (FLOAT_SIZE - 1) * BYTE_SIZE; shift >= 0; shift -= BYTE_SIZE) {
+            data[size++] = (byte) (value >>> shift);
+        }
+    }
+
+    void writeString(final String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    void writeSequence(final CharSequence sequence) {
+        if (sequence == null) {
+            writeVarLong(0);
+            return;
+        }
+        final int length = sequence.length();
+        writeVarLong(length + 1L);
+        final int packedSize = (length + BASES_PER_BYTE - 1) / BASES_PER_BYTE;
+        ensureCapacity(packedSize);
+        Arrays.fill(data, size, size + packedSize, (byte) 0);
+        int exceptions = 0;
+        for (int i = 0; i < length; i++) {
+            final int code = baseCode(sequence.charAt(i));
+            if (code < 0) {
+                exceptions++;
+            } else {
+                final int shift = BYTE_SIZE - BITS_PER_BASE * (i % BASES_PER_BYTE + 1);
+                data[size + i / BASES_PER_BYTE] |= (byte) (code << shift);
+            }
+        }
+        size += packedSize;
+        writeVarLong(exceptions);
+        if (exceptions == 0) {
+            return;
+        }
+        int previous = 0;
+        for (int i = 0; i < length; i++) {
+            final char base = sequence.charAt(i);
+            if (baseCode(base) < 0) {
+                writeVarLong(i - previous);
+                writeVarLong(base);
+                previous = i;
+            }
+        }
+    }
+
+    void writeBytes(final byte[] bytes, final int offset, final int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, data, size, length);
+        size += length;
+    }
+
+    /**
+     * Writes the column content prefixed by its varint length
+     */
+    void writeTo(final BinaryColumn target) {
+        target.writeVarLong(size);
+        target.writeBytes(data, 0, size);
+    }
+
+    void writeTo(final OutputStream outputStream) throws IOException {
+        outputStream.write(data, 0, size);
+    }
+
+    private static int baseCode(final char base) {
+        return BASES.indexOf(base);
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> (Long.SIZE - 1));
+    }
+
+    private void ensureCapacity(final int additional) {
+        if (size + additional > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, size + additional));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam.encoders;
+
+import com.epam.catgenome.controller.JsonMapper;
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.Read;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a BAM track as a JSON {@code Result} object: {@code {"payload":{"blocks":[...], <track fields>},
+ * "status":"OK"}}. All the data is serialized by a single {@link JsonGenerator}.
+ */
+public class JsonBamTrackEncoder implements BamTrackEncoder {
+
+    private static final ObjectWriter READ_WRITER = JsonMapper.getInstance().writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private static final JsonMapper METADATA_MAPPER = createMetadataMapper();
+
+    private final JsonGenerator generator;
+
+    public JsonBamTrackEncoder(final OutputStream outputStream) throws IOException {
+        this.generator = JsonMapper.getInstance().getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("payload");
+        generator.writeArrayFieldStart("blocks");
+    }
+
+    @Override
+    public void writeRead(final Read read) throws IOException {
+        READ_WRITER.writeValue(generator, read);
+    }
+
+    @Override
+    public void writeTrack(final BamTrack<Read> track) throws IOException {
+        generator.writeEndArray();
+
+        // track fields are written into the already opened payload object
+        final DefaultSerializerProvider provider = ((DefaultSerializerProvider) METADATA_MAPPER
+                .getSerializerProvider()).createInstance(METADATA_MAPPER.getSerializationConfig(),
+                METADATA_MAPPER.getSerializerFactory());
+        final JsonSerializer<Object> serializer = provider.findValueSerializer(track.getClass())
+                .unwrappingSerializer(NameTransformer.NOP);
+        serializer.serialize(track, generator, provider);
+        generator.writeEndObject();
+        generator.writeStringField("status", "OK");
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void writeError(final String message) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeStringField("status", "ERROR");
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public int getPendingSize() {
+        return generator.getOutputBuffered();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    private static JsonMapper createMetadataMapper() {
+        final JsonMapper mapper = new JsonMapper();
+        mapper.addMixIn(BamTrack.class, BlocksIgnoredMixIn.class);
+        return mapper;
+    }
+
+    @JsonIgnoreProperties("blocks")
+    private abstract static class BlocksIgnoredMixIn {
+    }
+}
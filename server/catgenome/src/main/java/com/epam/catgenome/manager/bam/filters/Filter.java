@@ -44,7 +44,8 @@ public interface Filter<T> {
      * @param record representing a read
      * @param start of the read
      * @param end of the read
-     * @param differentBase list of read bases that differ from the reference nucleotides
+     * @param differentBase list of read bases that differ from the reference nucleotides, the list may be
+     *                      reused by the caller for the next record, so it must be copied to be retained
      * @param headStr soft clipped start of the read
      * @param tailStr soft clipped end of the read
      * @throws IOException
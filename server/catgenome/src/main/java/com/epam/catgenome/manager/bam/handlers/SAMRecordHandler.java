@@ -22,9 +22,11 @@
  * SOFTWARE.
  */
 
+
 package com.epam.catgenome.manager.bam.handlers;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,6 +38,7 @@ import com.epam.catgenome.entity.bam.BamReferenceBuffer;
 import com.epam.catgenome.entity.bam.BamTrackMode;
 import com.epam.catgenome.entity.bam.BaseCoverage;
 import com.epam.catgenome.entity.bam.BasePosition;
+import com.epam.catgenome.entity.bam.BasePositionBuffer;
 import com.epam.catgenome.entity.bam.SpliceJunctionsEntity;
 import com.epam.catgenome.manager.bam.filters.Filter;
 import com.epam.catgenome.manager.bam.sifters.DownsamplingSifter;
@@ -45,8 +48,6 @@ import htsjdk.samtools.CigarElement;
 import htsjdk.samtools.CigarOperator;
 import htsjdk.samtools.SAMRecord;
 
-import static htsjdk.samtools.SAMRecord.NULL_SEQUENCE_STRING;
-
 
 /**
  * Implementation for {@code SAMRecord} handling and getting data for a {@code BAMTrack}.
@@ -58,16 +59,20 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
     private static final String DELIMITER = "+";
     private static final String XS_TAG = "XS";
 
+    // offsets of the counters of a single position in the interleaved counters array
+    private static final int COVERAGE = 0;
+    private static final int DEL_COVERAGE = 1;
+    private static final int INS_COVERAGE = 2;
+    private static final int C_COVERAGE = 3;
+    private static final int A_COVERAGE = 4;
+    private static final int T_COVERAGE = 5;
+    private static final int G_COVERAGE = 6;
+    private static final int N_COVERAGE = 7;
+    private static final int COUNTERS_NUMBER = 8;
+
     private final Filter<SAMRecord> filter;
-    //for coverage
-    private final int[] coverageArray;
-    private final int[] cCoverageArray;
-    private final int[] aCoverageArray;
-    private final int[] tCoverageArray;
-    private final int[] gCoverageArray;
-    private final int[] nCoverageArray;
-    private final int[] insCoverageArray;
-    private final int[] delCoverageArray;
+    //for coverage, all counters of a position are stored next to each other
+    private final int[] counters;
     //track information
     private final int startTrack;
     private final int endTrack;
@@ -85,6 +90,9 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
 
     private BamTrackMode mode;
 
+    private final ReadBaseProcessor baseProcessor = new ReadBaseProcessor();
+    private final BasePositionBuffer differentBaseBuffer = new BasePositionBuffer();
+
     /**
      * @param startTrack left track border
      * @param endTrack right track border
@@ -112,14 +120,7 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
                     .toUpperCase());
         }
 
-        this.coverageArray = new int[endTrack - startTrack + 1];
-        this.cCoverageArray = new int[endTrack - startTrack + 1];
-        this.aCoverageArray = new int[endTrack - startTrack + 1];
-        this.tCoverageArray = new int[endTrack - startTrack + 1];
-        this.gCoverageArray = new int[endTrack - startTrack + 1];
-        this.nCoverageArray = new int[endTrack - startTrack + 1];
-        this.insCoverageArray = new int[endTrack - startTrack + 1];
-        this.delCoverageArray = new int[endTrack - startTrack + 1];
+        this.counters = new int[(endTrack - startTrack + 1) * COUNTERS_NUMBER];
         this.mode = options.getMode();
     }
 
@@ -137,9 +138,9 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         String tail = null;
 
         if (BamUtil.validateReadParams(flags, cigarList, end, start)) {
-            coverageAdd(start, end, coverageArray, true);
-            final String readString = record.getReadString();
-            boolean hasBases = !readString.equals(NULL_SEQUENCE_STRING);
+            coverageAdd(start, end, COVERAGE, true);
+            final byte[] readBases = record.getReadBases();
+            boolean hasBases = readBases.length > 0;
 
             if (hasBases && showClipping) {
                 final CigarElement first = cigarList.get(0);
@@ -147,11 +148,12 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
 
                 if (first.getOperator().equals(CigarOperator.S)) {
                     start -= first.getLength();
-                    head = readString.substring(0, first.getLength());
+                    head = new String(readBases, 0, first.getLength(), StandardCharsets.US_ASCII);
                 }
                 if (last.getOperator().equals(CigarOperator.S)) {
                     end += last.getLength();
-                    tail = readString.substring(readString.length() - last.getLength(), readString.length());
+                    tail = new String(readBases, readBases.length - last.getLength(), last.getLength(),
+                            StandardCharsets.US_ASCII);
                 }
             }
             if (start < min) {
@@ -163,9 +165,8 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
 
             List<BasePosition> differentBase = Collections.emptyList();
             if (hasBases) {
-                differentBase = computeDifferentBase(readString,
-                        referenceBuffer != null ? referenceBuffer.getBuffer() : null, start, min, cigarList,
-                        showClipping, record);
+                computeDifferentBase(readBases, start, cigarList, showClipping, record);
+                differentBase = differentBaseBuffer;
             }
 
             filter.add(record, start, end, mode == BamTrackMode.FULL ? differentBase : null, head, tail);
@@ -184,17 +185,17 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         int coverageValue = 0;
         int delCoverageValue = 0;
         final List<BaseCoverage> coverageList = new ArrayList<>();
-        for (int i = 0; i < coverageArray.length; i++) {
-            coverageValue += coverageArray[i];
-            delCoverageValue += delCoverageArray[i];
+        for (int i = 0, offset = 0; offset < counters.length; i++, offset += COUNTERS_NUMBER) {
+            coverageValue += counters[offset + COVERAGE];
+            delCoverageValue += counters[offset + DEL_COVERAGE];
 
             if (coverageValue - delCoverageValue > 0) {
                 BaseCoverage baseCoverage =
                         new BaseCoverage(startTrack + i, coverageValue - delCoverageValue);
                 if (mode == BamTrackMode.FULL) {
-                    baseCoverage.setCoverage(cCoverageArray[i], aCoverageArray[i], tCoverageArray[i],
-                            gCoverageArray[i], nCoverageArray[i], delCoverageValue,
-                            insCoverageArray[i]);
+                    baseCoverage.setCoverage(counters[offset + C_COVERAGE], counters[offset + A_COVERAGE],
+                            counters[offset + T_COVERAGE], counters[offset + G_COVERAGE],
+                            counters[offset + N_COVERAGE], delCoverageValue, counters[offset + INS_COVERAGE]);
                 }
                 coverageList.add(baseCoverage);
             }
@@ -209,9 +210,9 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         final int step = (int) Math.max(1, Math.round(1.0 / scaleFactor));
         int summ = 0;
         int denum = 0;
-        for (int i = 0; i < coverageArray.length; i++) {
-            coverageValue += coverageArray[i];
-            delCoverageValue += delCoverageArray[i];
+        for (int i = 0, offset = 0; offset < counters.length; i++, offset += COUNTERS_NUMBER) {
+            coverageValue += counters[offset + COVERAGE];
+            delCoverageValue += counters[offset + DEL_COVERAGE];
 
             summ = Math.max(summ, coverageValue - delCoverageValue);
             //summ += coverageValue - delCoverageValue;
@@ -230,7 +231,6 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         }
         return coverageList;
     }
-
     /**
      * @return minimum left coordinate from the added reads
      */
@@ -294,30 +294,33 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         return list;
     }
 
-    private void coverageAdd(final int start, final int end, final int[] coverage, final boolean increase) {
+    private void coverageAdd(final int start, final int end, final int counter, final boolean increase) {
         final int k = increase ? 1 : -1;
         if (end >= startTrack && start <= endTrack) {
             if (start < startTrack) {
-                coverage[0] += k;
+                counters[counter] += k;
             } else {
-                coverage[start - startTrack] += k;
+                counters[(start - startTrack) * COUNTERS_NUMBER + counter] += k;
             }
             if (end < endTrack) {
-                coverage[end - startTrack + 1] -= k;
+                counters[(end - startTrack + 1) * COUNTERS_NUMBER + counter] -= k;
             }
         }
     }
 
+    private void incrementCounter(final int position, final int counter) {
+        if (position >= startTrack && position <= endTrack) {
+            counters[(position - startTrack) * COUNTERS_NUMBER + counter]++;
+        }
+    }
+
     // SAMRecord is needed because sometimes we need tags, but in other case record is useless, because
-    // it doesn't cash some fields.
-    private List<BasePosition> computeDifferentBase(final String readString, final String bufferBase,
-                                                    final int startReadPosition, final int bufferStart,
-                                                    final List<CigarElement> cigar, final boolean showClipping,
-                                                    final SAMRecord record) {
-        ReadBaseProcessor
-                baseCounter = new ReadBaseProcessor(readString, bufferBase, startReadPosition, bufferStart,
-                cigar, showClipping, record);
-        return baseCounter.getMismatchBasePositions();
+    // it doesn't cash some fields. Result is written to the differentBaseBuffer, that is reused between records.
+    private void computeDifferentBase(final byte[] readBases, final int startReadPosition,
+                                      final List<CigarElement> cigar, final boolean showClipping,
+                                      final SAMRecord record) {
+        differentBaseBuffer.clear();
+        baseProcessor.process(readBases, startReadPosition, cigar, showClipping, record, differentBaseBuffer);
     }
 
     public List<BasePosition> computeDifferentBase(final SAMRecord record)
@@ -329,20 +332,23 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
             refreshTailReferenceBuffer(record.getEnd());
         }
 
-        ReadBaseProcessor
-                baseCounter = new ReadBaseProcessor(record.getReadString(), referenceBuffer.getBuffer(),
-                record.getStart(), min, record.getCigar().getCigarElements(), showClipping, record);
-        return baseCounter.getMismatchBasePositions();
+        computeDifferentBase(record.getReadBases(), record.getStart(), record.getCigar().getCigarElements(),
+                showClipping, record);
+        return differentBaseBuffer.copy();
+    }
+
+    private static byte toUpperCase(final byte base) {
+        return base >= 'a' && base <= 'z' ? (byte) (base - ('a' - 'A')) : base;
     }
 
     private class ReadBaseProcessor {
-        private final String upperReadString;
-        private final String bufferBase;
-        private final int startReadPosition;
-        private final int bufferStart;
-        private final List<CigarElement> cigar;
-        private final boolean showClipping;
-        private final SAMRecord record;
+        private byte[] readBases;
+        private byte[] bufferBase;
+        private int bufferLength;
+        private int startReadPosition;
+        private int bufferStart;
+        private boolean showClipping;
+        private SAMRecord record;
 
         private int position = 0;
         private int corrector = 0;
@@ -350,31 +356,25 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         //coordinate at reference
         private int bias;
 
-        protected ReadBaseProcessor(String readString, String bufferBase, int startReadPosition,
-                                    int bufferStart, List<CigarElement> cigar, boolean showClipping, SAMRecord record) {
-            this.bufferBase = bufferBase;
+        protected void process(byte[] readBases, int startReadPosition, List<CigarElement> cigar,
+                               boolean showClipping, SAMRecord record, BasePositionBuffer basePositions) {
+            this.readBases = readBases;
+            this.bufferBase = referenceBuffer != null ? referenceBuffer.getBases() : null;
+            this.bufferLength = referenceBuffer != null ? referenceBuffer.getLength() : 0;
             this.startReadPosition = startReadPosition;
-            this.bufferStart = bufferStart;
-            this.cigar = cigar;
+            this.bufferStart = min;
             this.showClipping = showClipping;
             this.record = record;
-            this.upperReadString = readString.toUpperCase();
             this.position = 0;
             this.corrector = 0;
             this.bias = startReadPosition - bufferStart;
-        }
-
-        protected List<BasePosition> getMismatchBasePositions() {
-            position = 0;
-            corrector = 0;
-            final List<BasePosition> basePositions = new ArrayList<>();
             for (CigarElement cigarElement : cigar) {
                 processCigarOperator(basePositions, cigarElement);
             }
-            return basePositions;
+            this.record = null;
         }
 
-        private void processCigarOperator(List<BasePosition> basePositions, CigarElement cigarElement) {
+        private void processCigarOperator(BasePositionBuffer basePositions, CigarElement cigarElement) {
             final int cigarLength = cigarElement.getLength();
             switch (cigarElement.getOperator()) {
                 case M:
@@ -401,17 +401,14 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
 
         private void processInsertion(int cigarLength) {
             //add to insCov, to the next base
-            final int pos = startReadPosition + position + corrector - 1;
-            if (pos >= startTrack && pos <= endTrack) {
-                insCoverageArray[pos - startTrack]++;
-            }
+            incrementCounter(startReadPosition + position + corrector - 1, INS_COVERAGE);
             position += cigarLength;
             corrector -= cigarLength;
         }
 
         private void processDeletion(int cigarLength) {
             //add to delCov
-            coverageAdd(bufferStart + bias, bufferStart + bias + cigarLength - 1, delCoverageArray, true);
+            coverageAdd(bufferStart + bias, bufferStart + bias + cigarLength - 1, DEL_COVERAGE, true);
             bias += cigarLength;
             corrector += cigarLength;
         }
@@ -424,7 +421,7 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
                 addToSpliceJunctionsHashMap(bufferStart + bias - 1, bufferStart + bias + cigarLength - 1,
                         strandSJ);
             }
-            coverageAdd(bufferStart + bias, bufferStart + bias + cigarLength - 1, coverageArray, false);
+            coverageAdd(bufferStart + bias, bufferStart + bias + cigarLength - 1, COVERAGE, false);
             bias += cigarLength;
             corrector += cigarLength;
         }
@@ -438,15 +435,15 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
             position += cigarLength;
         }
 
-        private void processMatch(List<BasePosition> basePositions, int cigarLength) {
+        private void processMatch(BasePositionBuffer basePositions, int cigarLength) {
             for (int j = 0; j < cigarLength; j++) {
-                if (checkIfBiasOutOfBound() && bufferBase != null &&
-                        bufferBase.charAt(bias) != upperReadString.charAt(position)) {
-                    basePositions.add(
-                            new BasePosition(position + corrector, upperReadString.charAt(position))
-                    );
-                    addBaseCoverage(upperReadString.charAt(position), startReadPosition + position + corrector);
-                    //add to the coverage array (c/a/t/g/n)
+                if (checkIfBiasOutOfBound() && bufferBase != null) {
+                    final byte base = toUpperCase(readBases[position]);
+                    if (bufferBase[bias] != base) {
+                        basePositions.add(position + corrector, base);
+                        //add to the coverage array (c/a/t/g/n)
+                        addBaseCoverage(base, startReadPosition + position + corrector);
+                    }
                 }
                 bias++;
                 position++;
@@ -454,7 +451,7 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
         }
 
         private boolean checkIfBiasOutOfBound() {
-            return 0 <= bias && bias < endTrack;
+            return 0 <= bias && bias < endTrack && bias < bufferLength;
         }
 
         private String getXSTag(List<SAMRecord.SAMTagAndValue> list) {
@@ -467,27 +464,25 @@ public class SAMRecordHandler implements Handler<SAMRecord> {
             return tagValue;
         }
 
-        private void addBaseCoverage(final char ch, final int position) {
-            if (position >= startTrack && position <= endTrack) {
-                switch (ch) {
-                    case 'C':
-                        cCoverageArray[position - startTrack]++;
-                        break;
-                    case 'A':
-                        aCoverageArray[position - startTrack]++;
-                        break;
-                    case 'T':
-                        tCoverageArray[position - startTrack]++;
-                        break;
-                    case 'G':
-                        gCoverageArray[position - startTrack]++;
-                        break;
-                    case 'N':
-                        nCoverageArray[position - startTrack]++;
-                        break;
-                    default:
-                        break;
-                }
+        private void addBaseCoverage(final byte base, final int position) {
+            switch (base) {
+                case 'C':
+                    incrementCounter(position, C_COVERAGE);
+                    break;
+                case 'A':
+                    incrementCounter(position, A_COVERAGE);
+                    break;
+                case 'T':
+                    incrementCounter(position, T_COVERAGE);
+                    break;
+                case 'G':
+                    incrementCounter(position, G_COVERAGE);
+                    break;
+                case 'N':
+                    incrementCounter(position, N_COVERAGE);
+                    break;
+                default:
+                    break;
             }
         }
 
@@ -613,7 +613,7 @@ public class BedManager {
                 Collectors.toMap(BaseEntity::getName, chromosome -> chromosome));
 
         try {
-            fileManager.deleteFileFeatureIndex(bedFile);
+            featureIndexManager.deleteFileFeatureIndex(bedFile);
             try (AbstractFeatureReader<NggbBedFeature, LineIterator> reader =
                     AbstractEnhancedFeatureReader
                                  .getFeatureReader(bedFile.getPath(), getCodec(bedFile), false, indexCache)) {
@@ -64,6 +64,7 @@ import com.epam.catgenome.manager.bed.BedManager;
 import com.epam.catgenome.manager.gene.GffManager;
 import com.epam.catgenome.manager.maf.MafManager;
 import com.epam.catgenome.manager.seg.SegManager;
+import com.epam.catgenome.manager.project.ProjectTreeSnapshot;
 import com.epam.catgenome.manager.vcf.VcfManager;
 
 /**
@@ -101,6 +102,9 @@ public class DataItemManager {
     @Autowired
     private AzureBlobClient azureBlobClient;
 
+    @Autowired
+    private ProjectTreeSnapshot projectTreeSnapshot;
+
     @Value("${base.external.url:}")
     private String baseExternalUrl;
 
@@ -153,6 +157,7 @@ public class DataItemManager {
             item.setPrettyName(newPrettyName.trim());
         }
         biologicalDataItemDao.updateBiologicalDataItems(Collections.singletonList(item));
+        projectTreeSnapshot.invalidate(item);
     }
 
     /**
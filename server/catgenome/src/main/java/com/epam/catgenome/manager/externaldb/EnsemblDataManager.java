@@ -25,12 +25,21 @@
 package com.epam.catgenome.manager.externaldb;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -55,6 +64,8 @@ public class EnsemblDataManager {
 
     private static final String ENSEMBL_VARIATION_TOOL = "variation";
     private static final String ENSEMBL_EXPAND_TOOL = "expand";
+    // maximum number of IDs, accepted by a single POST lookup request
+    private static final int ENSEMBL_LOOKUP_BATCH_SIZE = 1000;
 
     private static final String ENSEMBL_OVERLAP_TOOL = "overlap/region";
     private static final String CONTENT_TYPE = "content-type";
@@ -92,6 +103,51 @@ public class EnsemblDataManager {
         return ensemblEntryVO;
     }
 
+    /**
+     * Fetches gene data of several genes from Ensembl. IDs are looked up with batch POST requests, which are run
+     * concurrently, if there are several batches. A failed batch is retried with single ID lookups.
+     *
+     * @param geneIds gene ids, duplicates are looked up once
+     * @return futures of Ensemble entries by gene ID, an entry of an ID, unknown to Ensembl, is null
+     */
+    public Map<String, CompletableFuture<EnsemblEntryVO>> fetchEnsemblEntries(final Collection<String> geneIds) {
+        final List<List<String>> batches = Lists.partition(new ArrayList<>(new LinkedHashSet<>(geneIds)),
+                ENSEMBL_LOOKUP_BATCH_SIZE);
+        final Map<String, CompletableFuture<EnsemblEntryVO>> entries = new LinkedHashMap<>();
+        httpDataManager.fetchAll(batches, this::lookupEnsemblEntries).forEach((batch, result) -> {
+            final CompletableFuture<Map<String, EnsemblEntryVO>> batchResult = result.exceptionally(e -> {
+                log.warn("Ensembl batch lookup failed, genes are looked up one by one", e);
+                return null;
+            });
+            for (String geneId : batch) {
+                entries.put(geneId, batchResult.thenCompose(batchEntries -> batchEntries != null
+                        ? CompletableFuture.completedFuture(batchEntries.get(geneId))
+                        : httpDataManager.fetchAll(Collections.singletonList(geneId), this::fetchEnsemblEntry)
+                                .get(geneId)));
+            }
+        });
+        return entries;
+    }
+
+    private Map<String, EnsemblEntryVO> lookupEnsemblEntries(final List<String> geneIds)
+            throws ExternalDbUnavailableException {
+        final String location = String.format("%s%s?%s=%s&%s=1&utr=1", ensemblServer, ENSEMBL_TOOL,
+                CONTENT_TYPE, APPLICATION_JSON, ENSEMBL_EXPAND_TOOL);
+        final JSONObject request;
+        try {
+            request = new JSONObject(objectMapper.writeValueAsString(Collections.singletonMap("ids", geneIds)));
+        } catch (JsonProcessingException | JSONException e) {
+            throw new IllegalArgumentException("Invalid gene IDs " + geneIds, e);
+        }
+        final String geneData = httpDataManager.fetchData(location, request);
+        try {
+            return objectMapper.readValue(geneData, objectMapper.getTypeFactory()
+                    .constructMapType(Map.class, String.class, EnsemblEntryVO.class));
+        } catch (IOException e) {
+            throw new ExternalDbUnavailableException("Unexpected result format", e);
+        }
+    }
+
     public String fetchNcbiId(final String geneId) {
         final ParameterNameValue[] params = new ParameterNameValue[]{
             new ParameterNameValue(CONTENT_TYPE, APPLICATION_JSON)};
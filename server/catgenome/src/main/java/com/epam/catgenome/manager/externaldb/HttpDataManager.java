@@ -36,14 +36,19 @@ import java.net.PasswordAuthentication;
 import java.net.Proxy;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.codehaus.jettison.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -74,6 +79,8 @@ public class HttpDataManager {
     private String proxyUser;
     @Value("#{catgenome['externaldb.proxy.password'] ?: null}")
     private String proxyPassword;
+    @Autowired(required = false)
+    private HttpResponseCache responseCache;
 
 
     /**
@@ -147,7 +154,43 @@ public class HttpDataManager {
             throws ExternalDbUnavailableException {
 
         final String location = getLocationStub(locationStub, params);
+        if (responseCache == null) {
+            return loadFromURL(location, headers);
+        }
+        final String request = "GET " + (MapUtils.isEmpty(headers) ? "" : new TreeMap<>(headers).toString());
+        return responseCache.get(location, request, () -> loadFromURL(location, headers));
+    }
 
+    /**
+     * Runs lookups of distinct keys concurrently with a bounded number of requests in flight. Lookups are
+     * run one by one, if the response cache isn't configured.
+     *
+     * @param keys keys to look up
+     * @param lookup a lookup of a single key
+     * @return futures of lookup results by key
+     */
+    public <K, V> Map<K, CompletableFuture<V>> fetchAll(final Collection<K> keys,
+                                                        final HttpResponseCache.Lookup<K, V> lookup) {
+        if (responseCache != null) {
+            return responseCache.fetchAll(keys, lookup);
+        }
+        final Map<K, CompletableFuture<V>> results = new LinkedHashMap<>();
+        for (K key : keys) {
+            results.computeIfAbsent(key, k -> {
+                final CompletableFuture<V> result = new CompletableFuture<>();
+                try {
+                    result.complete(lookup.apply(k));
+                } catch (ExternalDbUnavailableException e) {
+                    result.completeExceptionally(e);
+                }
+                return result;
+            });
+        }
+        return results;
+    }
+
+    private String loadFromURL(final String location, final Map<String, String> headers)
+            throws ExternalDbUnavailableException {
         HttpURLConnection conn = null;
         try {
             conn = createConnection(location);
@@ -259,6 +302,14 @@ public class HttpDataManager {
 
     public String getResultFromHttp(final String location, final JSONObject object)
             throws ExternalDbUnavailableException {
+        if (responseCache == null) {
+            return loadFromHttp(location, object);
+        }
+        return responseCache.get(location, "POST " + object, () -> loadFromHttp(location, object));
+    }
+
+    private String loadFromHttp(final String location, final JSONObject object)
+            throws ExternalDbUnavailableException {
         HttpURLConnection conn = null;
         try {
             URL url = new URL(location);
@@ -0,0 +1,334 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Caches successful responses of external databases for {@link HttpDataManager}. Responses are kept in memory,
+ * least recently used ones are evicted first, and optionally in a directory, so that they survive a restart.
+ * Each entry lives for a TTL of its source host. Concurrent identical requests are coalesced: only one of them
+ * goes to the external database, the others wait for its result.
+ */
+@Component
+@Slf4j
+public class HttpResponseCache {
+
+    private static final long MILLIS_IN_SECOND = 1000L;
+    private static final int CHAR_BYTES = 2;
+    private static final long THREAD_KEEP_ALIVE_SECONDS = 60L;
+    // NCBI E-utilities history server sessions expire within hours, requests using them aren't cached
+    private static final Pattern SESSION_PARAMETER = Pattern.compile("[?&\\s\"](usehistory|WebEnv|query_key)\\b",
+            Pattern.CASE_INSENSITIVE);
+    // error replies, which some databases (e.g. NCBI E-utilities) return with 200 status
+    private static final Pattern ERROR_PAYLOAD = Pattern.compile("<ERROR>|\"error\"\\s*:",
+            Pattern.CASE_INSENSITIVE);
+
+    private final long defaultTtl;
+    private final Map<String, Long> sourceTtls;
+    private final File directory;
+    private final Cache<String, CachedResponse> memory;
+    private final ConcurrentMap<String, CompletableFuture<String>> loading = new ConcurrentHashMap<>();
+    private final ExecutorService fetchExecutor;
+
+    /**
+     * @param maxBytes approximate size of responses kept in memory, 0 disables caching
+     * @param ttlSeconds default time to live of a response
+     * @param sourceTtls comma separated 'host:seconds' pairs overriding the default TTL, 0 disables caching
+     *                   of a host
+     * @param directory a directory to persist responses, empty value keeps them in memory only
+     * @param fetchThreads maximum number of concurrent requests of batch lookups
+     */
+    public HttpResponseCache(@Value("${externaldb.cache.max.bytes:67108864}") final long maxBytes,
+                             @Value("${externaldb.cache.ttl:86400}") final long ttlSeconds,
+                             @Value("${externaldb.cache.source.ttl:}") final String sourceTtls,
+                             @Value("${externaldb.cache.dir:}") final String directory,
+                             @Value("${externaldb.fetch.threads:8}") final int fetchThreads) {
+        this.defaultTtl = maxBytes > 0 ? ttlSeconds * MILLIS_IN_SECOND : 0;
+        this.sourceTtls = parseSourceTtls(sourceTtls);
+        this.directory = StringUtils.isBlank(directory) ? null : new File(directory);
+        if (this.directory != null && !this.directory.exists() && !this.directory.mkdirs()) {
+            throw new IllegalStateException("Cannot create external DB cache directory " + directory);
+        }
+        this.memory = CacheBuilder.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                .weigher((String key, CachedResponse value) ->
+                        (int) Math.min(Integer.MAX_VALUE, (long) (key.length() + value.body.length()) * CHAR_BYTES))
+                .build();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(fetchThreads, fetchThreads,
+                THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("externaldb-fetch-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        this.fetchExecutor = executor;
+    }
+
+    /**
+     * Returns a cached response or loads it. Failed, blank and error responses are not cached, as well as
+     * requests to NCBI E-utilities history server.
+     * @param location requested URL, its host determines the TTL
+     * @param request anything else, that identifies the request: method, headers, body
+     * @param loader performs the request
+     * @return response body
+     * @throws ExternalDbUnavailableException if the request fails
+     */
+    public String get(final String location, final String request, final ResponseLoader loader)
+            throws ExternalDbUnavailableException {
+        final long ttl = getTtl(location);
+        if (ttl <= 0 || SESSION_PARAMETER.matcher(location).find() || SESSION_PARAMETER.matcher(request).find()) {
+            return loader.load();
+        }
+        final String key = location + '\n' + request;
+        final String cached = getFromMemory(key);
+        if (cached != null) {
+            return cached;
+        }
+        final CompletableFuture<String> own = new CompletableFuture<>();
+        final CompletableFuture<String> running = loading.putIfAbsent(key, own);
+        if (running != null) {
+            return await(running, location);
+        }
+        try {
+            // a concurrent request might have been completed before this one claimed the key
+            String body = getFromMemory(key);
+            if (body == null) {
+                body = getFromDisk(key);
+            }
+            if (body == null) {
+                body = loader.load();
+                put(key, body, System.currentTimeMillis() + ttl);
+            }
+            own.complete(body);
+            return body;
+        } catch (ExternalDbUnavailableException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, own);
+        }
+    }
+
+    /**
+     * Runs lookups of distinct keys concurrently, at most 'externaldb.fetch.threads' requests are in flight
+     * @param keys keys to look up, duplicates are looked up once
+     * @param lookup a lookup of a single key
+     * @param <K> key type
+     * @param <V> lookup result type
+     * @return futures of lookup results by key, a failed lookup completes its future exceptionally with
+     * {@link ExternalDbUnavailableException} as a cause
+     */
+    public <K, V> Map<K, CompletableFuture<V>> fetchAll(final Collection<K> keys, final Lookup<K, V> lookup) {
+        final Map<K, CompletableFuture<V>> results = new LinkedHashMap<>();
+        for (K key : keys) {
+            results.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    return lookup.apply(k);
+                } catch (ExternalDbUnavailableException e) {
+                    throw new CompletionException(e);
+                }
+            }, fetchExecutor));
+        }
+        return results;
+    }
+
+    /**
+     * Removes all cached responses
+     */
+    public void clear() {
+        memory.invalidateAll();
+        if (directory != null) {
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    private String getFromMemory(final String key) {
+        final CachedResponse cached = memory.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAt > System.currentTimeMillis()) {
+            return cached.body;
+        }
+        memory.invalidate(key);
+        return null;
+    }
+
+    private String getFromDisk(final String key) {
+        if (directory == null) {
+            return null;
+        }
+        final File file = getFile(key);
+        if (!file.exists()) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            final long expiresAt = input.readLong();
+            if (expiresAt <= System.currentTimeMillis()) {
+                input.close();
+                deleteQuietly(file);
+                return null;
+            }
+            final String body = new String(IOUtils.toByteArray(input), StandardCharsets.UTF_8);
+            memory.put(key, new CachedResponse(body, expiresAt));
+            return body;
+        } catch (IOException e) {
+            log.warn("Cached external DB response {} can't be read", file.getName(), e);
+            return null;
+        }
+    }
+
+    private void put(final String key, final String body, final long expiresAt) {
+        if (StringUtils.isBlank(body) || ERROR_PAYLOAD.matcher(body).find()) {
+            return;
+        }
+        memory.put(key, new CachedResponse(body, expiresAt));
+        if (directory == null) {
+            return;
+        }
+        final File file = getFile(key);
+        final File temp = new File(directory, file.getName() + '.' + Thread.currentThread().getId());
+        try {
+            try (DataOutputStream output = new DataOutputStream(new FileOutputStream(temp))) {
+                output.writeLong(expiresAt);
+                output.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("External DB response can't be stored to {}", file.getName(), e);
+            deleteQuietly(temp);
+        }
+    }
+
+    private File getFile(final String key) {
+        return new File(directory, DigestUtils.sha256Hex(key));
+    }
+
+    private long getTtl(final String location) {
+        if (defaultTtl <= 0) {
+            return 0;
+        }
+        try {
+            return sourceTtls.getOrDefault(new URL(location).getHost(), defaultTtl);
+        } catch (MalformedURLException e) {
+            return 0;
+        }
+    }
+
+    private static String await(final CompletableFuture<String> future, final String location)
+            throws ExternalDbUnavailableException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalDbUnavailableException("Interrupted while waiting for " + location, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExternalDbUnavailableException) {
+                throw (ExternalDbUnavailableException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ExternalDbUnavailableException("Couldn't fetch data for URL " + location, e.getCause());
+        }
+    }
+
+    private static Map<String, Long> parseSourceTtls(final String value) {
+        final Map<String, Long> ttls = new HashMap<>();
+        for (String pair : StringUtils.split(StringUtils.defaultString(value), ',')) {
+            final String[] hostAndTtl = StringUtils.split(pair.trim(), ':');
+            if (hostAndTtl.length != 2) {
+                throw new IllegalArgumentException("Invalid external DB cache TTL: " + pair);
+            }
+            ttls.put(hostAndTtl[0].trim(), Long.parseLong(hostAndTtl[1].trim()) * MILLIS_IN_SECOND);
+        }
+        return ttls;
+    }
+
+    private static void deleteQuietly(final File file) {
+        if (file.exists() && !file.delete()) {
+            log.warn("Cached external DB response {} can't be deleted", file.getName());
+        }
+    }
+
+    @FunctionalInterface
+    public interface ResponseLoader {
+        String load() throws ExternalDbUnavailableException;
+    }
+
+    @FunctionalInterface
+    public interface Lookup<K, V> {
+        V apply(K key) throws ExternalDbUnavailableException;
+    }
+
+    private static final class CachedResponse {
+        private final String body;
+        private final long expiresAt;
+
+        private CachedResponse(final String body, final long expiresAt) {
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
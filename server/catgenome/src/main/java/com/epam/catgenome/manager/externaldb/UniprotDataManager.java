@@ -25,6 +25,9 @@
 package com.epam.catgenome.manager.externaldb;
 
 import java.io.StringReader;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -46,8 +49,10 @@ import com.epam.catgenome.manager.externaldb.bindings.uniprot.Uniprot;
 public class UniprotDataManager {
 
     private static final String UNIPROT_TOOL = "uniprotkb/search";
+    private static final String UNIPROT_BINDINGS = "com.epam.catgenome.manager.externaldb.bindings.uniprot";
 
-    private Uniprot fetchedUniprotData = null;
+    // JAXBContext is thread safe and expensive to create, so it is shared by all lookups
+    private volatile JAXBContext jaxbContext;
 
     @Autowired
     private HttpDataManager httpDataManager;
@@ -71,19 +76,33 @@ public class UniprotDataManager {
         String uniprotData = httpDataManager.fetchData(location, params);
 
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance("com.epam.catgenome.manager.externaldb.bindings.uniprot");
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            Unmarshaller unmarshaller = getJaxbContext().createUnmarshaller();
 
             StringReader reader = new StringReader(uniprotData);
             Object uniprotObject = unmarshaller.unmarshal(reader);
 
-            if (uniprotObject instanceof Uniprot) {
-                fetchedUniprotData = (Uniprot) uniprotObject;
-            }
-
-            return fetchedUniprotData;
+            return uniprotObject instanceof Uniprot ? (Uniprot) uniprotObject : null;
         } catch (JAXBException e) {
             throw new ExternalDbUnavailableException("Unexpected result format", e);
         }
     }
+
+    /**
+     * Fetches data of several genes from UniProt concurrently
+     *
+     * @param geneIds gene ids in any database, duplicates are looked up once
+     * @return futures of UniProt entries by gene ID
+     */
+    public Map<String, CompletableFuture<Uniprot>> fetchUniprotEntries(final Collection<String> geneIds) {
+        return httpDataManager.fetchAll(geneIds, this::fetchUniprotEntry);
+    }
+
+    private JAXBContext getJaxbContext() throws JAXBException {
+        JAXBContext context = jaxbContext;
+        if (context == null) {
+            context = JAXBContext.newInstance(UNIPROT_BINDINGS);
+            jaxbContext = context;
+        }
+        return context;
+    }
 }
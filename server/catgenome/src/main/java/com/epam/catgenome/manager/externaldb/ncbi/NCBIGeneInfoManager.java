@@ -27,7 +27,7 @@ import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.entity.externaldb.ncbi.GeneInfo;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.index.AbstractIndexManager;
-import com.epam.catgenome.manager.index.CaseInsensitiveWhitespaceAnalyzer;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.FileFormat;
 import lombok.Getter;
 import org.apache.commons.collections4.CollectionUtils;
@@ -36,15 +36,12 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.SimpleFSDirectory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -57,9 +54,7 @@ import java.io.Reader;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Service
 public class NCBIGeneInfoManager extends AbstractIndexManager<GeneInfo> {
@@ -90,16 +85,10 @@ public class NCBIGeneInfoManager extends AbstractIndexManager<GeneInfo> {
     }
 
     @Override
-    public void importData(final String path) throws IOException, ParseException {
-        Set<GeneInfo> entries = new HashSet<>();
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<GeneInfo, E> consumer)
+            throws IOException, E {
         String line;
-        try (Reader reader = new FileReader(path);
-             BufferedReader bufferedReader = new BufferedReader(reader);
-             Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexWriter writer = new IndexWriter(
-                     index, new IndexWriterConfig(new CaseInsensitiveWhitespaceAnalyzer())
-                     .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
-            writer.deleteAll();
+        try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
             line = bufferedReader.readLine();
             String[] cells = line.split(FileFormat.TSV.getSeparator());
             Assert.isTrue(cells.length == COLUMNS, MessagesConstants.ERROR_INCORRECT_FILE_FORMAT);
@@ -111,39 +100,21 @@ public class NCBIGeneInfoManager extends AbstractIndexManager<GeneInfo> {
                         .symbol(cells[2].trim())
                         .description(cells[8].trim())
                         .build();
-                entries.add(geneInfo);
-                if (entries.size() >= BATCH_SIZE) {
-                    for (GeneInfo entry: entries) {
-                        addDoc(writer, entry);
-                    }
-                    entries = new HashSet<>();
-                }
-            }
-            for (GeneInfo entry: entries) {
-                addDoc(writer, entry);
+                consumer.accept(geneInfo);
             }
         }
     }
 
+    @Override
     public List<GeneInfo> readEntries(final String path) throws IOException {
-        final Set<GeneInfo> entries = new HashSet<>();
-        String line;
-        try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
-            line = bufferedReader.readLine();
-            String[] cells = line.split(FileFormat.TSV.getSeparator());
-            Assert.isTrue(cells.length == COLUMNS, MessagesConstants.ERROR_INCORRECT_FILE_FORMAT);
-            while ((line = bufferedReader.readLine()) != null) {
-                cells = line.split(FileFormat.TSV.getSeparator());
-                GeneInfo geneInfo = GeneInfo.builder()
-                        .taxId(Long.parseLong(cells[0].trim()))
-                        .entrezId(Long.parseLong(cells[1].trim()))
-                        .symbol(cells[2].trim())
-                        .description(cells[8].trim())
-                        .build();
-                entries.add(geneInfo);
-            }
-        }
-        return new ArrayList<>(entries);
+        final List<GeneInfo> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return BATCH_SIZE;
     }
 
     @Override
@@ -30,8 +30,6 @@ import com.epam.catgenome.manager.index.Filter;
 import com.epam.catgenome.manager.index.SearchRequest;
 import lombok.Getter;
 import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
@@ -39,11 +37,8 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.SimpleFSDirectory;
 
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -75,9 +70,8 @@ public abstract class AbstractAssociationManager<T extends Association> extends
                 : request.getPageSize();
         final int hits = page * pageSize;
 
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = searcher.search(query, hits, getSort(request.getOrderInfos()));
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
 
@@ -98,9 +92,8 @@ public abstract class AbstractAssociationManager<T extends Association> extends
         final BooleanQuery.Builder mainBuilder = new BooleanQuery.Builder();
         mainBuilder.add(getByTermQuery(diseaseId, IndexCommonFields.DISEASE_ID.name()), BooleanClause.Occur.MUST);
         final List<T> entries = new ArrayList<>();
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = searcher.search(mainBuilder.build(), topHits, getDefaultSort());
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
             for (ScoreDoc scoreDoc : scoreDocs) {
@@ -132,9 +125,13 @@ public abstract class AbstractAssociationManager<T extends Association> extends
         return buildQuery(getByGeneIdsQuery(geneIds), filters);
     }
 
+    public List<String> searchFieldValuesByGeneIds(final List<String> ids, final String valueField)
+            throws ParseException, IOException {
+        return searchFieldValues(ids, IndexCommonFields.GENE_ID.name(), valueField);
+    }
+
     public Long totalCount(final List<String> geneIds) throws ParseException, IOException {
-        final List<T> result = searchByGeneIds(geneIds);
-        return (long) result.size();
+        return count(geneIds, IndexCommonFields.GENE_ID.name());
     }
 
     public Map<String, Long> totalCountMap(final List<String> geneIds) throws ParseException, IOException {
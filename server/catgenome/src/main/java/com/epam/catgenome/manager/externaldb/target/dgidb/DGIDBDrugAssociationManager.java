@@ -29,6 +29,7 @@ import com.epam.catgenome.entity.externaldb.target.dgidb.DGIDBDrugAssociation;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.externaldb.ncbi.NCBIEnsemblIdsManager;
 import com.epam.catgenome.manager.externaldb.target.AbstractAssociationManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.FileFormat;
 import lombok.SneakyThrows;
 import org.apache.http.util.TextUtils;
@@ -63,6 +64,8 @@ import java.util.stream.Collectors;
 @Service
 public class DGIDBDrugAssociationManager extends AbstractAssociationManager<DGIDBDrugAssociation> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(DGIDBField.values(), DGIDBField::getType);
+
     private static final int COLUMNS = 11;
     private final NCBIEnsemblIdsManager ncbiEnsemblIdsManager;
 
@@ -73,6 +76,10 @@ public class DGIDBDrugAssociationManager extends AbstractAssociationManager<DGID
         this.ncbiEnsemblIdsManager = ncbiEnsemblIdsManager;
     }
 
+    public List<String> searchDrugNames(final List<String> geneIds) throws IOException, ParseException {
+        return searchFieldValuesByGeneIds(geneIds, DGIDBField.DRUG_NAME.name());
+    }
+
     public DGIDBDrugFieldValues getFieldValues(final List<String> geneIds)
             throws IOException, ParseException {
         final Query query = getByGeneIdsQuery(geneIds);
@@ -96,6 +103,14 @@ public class DGIDBDrugAssociationManager extends AbstractAssociationManager<DGID
     @Override
     public List<DGIDBDrugAssociation> readEntries(final String path) throws IOException {
         final List<DGIDBDrugAssociation> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path,
+                                                  final EntryConsumer<DGIDBDrugAssociation, E> consumer)
+            throws IOException, E {
         String line;
         try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
             line = bufferedReader.readLine();
@@ -113,11 +128,15 @@ public class DGIDBDrugAssociationManager extends AbstractAssociationManager<DGID
                             .interactionClaimSource(getCellValue(cells, 3))
                             .interactionTypes(getCellValue(cells, 4))
                             .build();
-                    entries.add(entry);
+                    consumer.accept(entry);
                 }
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
@@ -165,6 +184,7 @@ public class DGIDBDrugAssociationManager extends AbstractAssociationManager<DGID
                     entry.getInteractionClaimSource(), Field.Store.YES));
             doc.add(new SortedDocValuesField(DGIDBField.INTERACTION_CLAIM_SOURCE.name(),
                     new BytesRef(entry.getInteractionClaimSource())));
+            addNgramFields(doc);
             writer.addDocument(doc);
         }
     }
@@ -183,6 +203,11 @@ public class DGIDBDrugAssociationManager extends AbstractAssociationManager<DGID
                 .build();
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return DGIDBField.valueOf(fieldName).getType();
@@ -44,8 +44,6 @@ import org.apache.lucene.document.FloatPoint;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.IndexSearcher;
@@ -54,8 +52,6 @@ import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.SimpleFSDirectory;
 import org.apache.lucene.util.BytesRef;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -72,6 +68,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -80,6 +77,8 @@ import static com.epam.catgenome.util.NgbFileUtils.getDirectory;
 @Service
 public class DiseaseAssociationManager extends AbstractAssociationManager<DiseaseAssociation> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(DiseaseField.values(), DiseaseField::getType);
+
     @Value("${targets.opentargets.overallScoresDir:associationByOverallDirect}")
     private String overallScoresDir;
     @Value("${targets.opentargets.scoresDir:associationByDatatypeDirect}")
@@ -103,9 +102,8 @@ public class DiseaseAssociationManager extends AbstractAssociationManager<Diseas
     private List<DiseaseAssociation> searchAll(final Query query)
             throws IOException {
         final List<DiseaseAssociation> entries = new ArrayList<>();
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = searcher.search(query, topHits);
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
             for (ScoreDoc scoreDoc : scoreDocs) {
@@ -201,6 +199,7 @@ public class DiseaseAssociationManager extends AbstractAssociationManager<Diseas
         addFloatField(entry.getLiteratureScore(), doc, DiseaseField.TEXT_MINING_SCORE);
         addFloatField(entry.getRnaExpressionScore(), doc, DiseaseField.RNA_EXPRESSION_SCORE);
         addFloatField(entry.getAnimalModelScore(), doc, DiseaseField.ANIMAL_MODELS_SCORE);
+        addNgramFields(doc);
         writer.addDocument(doc);
     }
 
@@ -263,6 +262,11 @@ public class DiseaseAssociationManager extends AbstractAssociationManager<Diseas
         return new Sort(sortFields.toArray(new SortField[sortFields.size()]));
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return DiseaseField.valueOf(fieldName).getType();
@@ -29,6 +29,7 @@ import com.epam.catgenome.entity.externaldb.target.opentargets.Disease;
 import com.epam.catgenome.entity.externaldb.target.UrlEntity;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.index.AbstractIndexManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -40,7 +41,6 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.queryparser.classic.ParseException;
@@ -49,8 +49,6 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.SimpleFSDirectory;
 import org.apache.lucene.util.BytesRef;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -64,10 +62,12 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.epam.catgenome.util.IndexUtils.deserialize;
@@ -78,6 +78,8 @@ import static com.epam.catgenome.util.NgbFileUtils.getDirectory;
 @Service
 public class DiseaseManager extends AbstractIndexManager<Disease> {
 
+    private static final Set<String> NGRAM_FIELDS = Collections.singleton(IndexFields.NAME.name());
+
     @Value("${targets.opentargets.diseasesDir:diseases}")
     private String diseasesDir;
     public DiseaseManager(final @Value("${targets.index.directory}") String indexDirectory,
@@ -91,8 +93,8 @@ public class DiseaseManager extends AbstractIndexManager<Disease> {
 
     public List<BareDisease> search() throws IOException {
         final List<BareDisease> diseases = new ArrayList<>();
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexReader indexReader = acquired.getSearcher().getIndexReader();
             int numDocs = indexReader.numDocs();
             for (int docId = 0; docId < numDocs; docId++) {
                 Document doc = indexReader.document(docId);
@@ -104,10 +106,9 @@ public class DiseaseManager extends AbstractIndexManager<Disease> {
     }
 
     public Disease searchById(final String diseaseId) throws IOException, ParseException {
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
+        try (AcquiredSearcher acquired = acquireSearcher()) {
             Query query = getByTermQuery(diseaseId, IndexFields.DISEASE_ID.name());
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = searcher.search(query, 1);
             if (topDocs.totalHits > 0) {
                 ScoreDoc scoreDoc = topDocs.scoreDocs[0];
@@ -121,9 +122,8 @@ public class DiseaseManager extends AbstractIndexManager<Disease> {
     public Map<String, String> search(final String name) throws IOException, ParseException {
         final Map<String, String> entries = new LinkedHashMap<>();
         final Query query = getByPhraseQuery(name, IndexFields.NAME.name());
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = searcher.search(query, topHits, getDefaultSort());
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
             for (ScoreDoc scoreDoc : scoreDocs) {
@@ -136,9 +136,16 @@ public class DiseaseManager extends AbstractIndexManager<Disease> {
 
     @Override
     public List<Disease> readEntries(final String path) throws IOException {
+        final List<Disease> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<Disease, E> consumer)
+            throws IOException, E {
         final Path diseasesPath = Paths.get(path, diseasesDir);
         final File directory = getDirectory(diseasesPath.toString());
-        final List<Disease> entries = new ArrayList<>();
         String line;
         final ObjectMapper objectMapper = new ObjectMapper();
         for (File f: directory.listFiles()) {
@@ -149,14 +156,23 @@ public class DiseaseManager extends AbstractIndexManager<Disease> {
                     try {
                         JsonNode jsonNodes = objectMapper.readTree(line);
                         Disease entry = entryFromJson(jsonNodes);
-                        entries.add(entry);
+                        consumer.accept(entry);
                     } catch (JsonProcessingException e) {
                         throw new IllegalStateException(MessagesConstants.ERROR_INCORRECT_JSON_FORMAT);
                     }
                 }
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
+    }
+
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
     }
 
     @Override
@@ -220,6 +236,7 @@ public class DiseaseManager extends AbstractIndexManager<Disease> {
                 .collect(Collectors.toList());
         doc.add(new StringField(IndexFields.THERAPEUTIC_AREA_IDS.name(),
                 serialize(therapeuticAreaIds), Field.Store.YES));
+        addNgramFields(doc);
         writer.addDocument(doc);
     }
 
@@ -30,6 +30,7 @@ import com.epam.catgenome.entity.externaldb.target.opentargets.TargetDetails;
 import com.epam.catgenome.entity.externaldb.target.UrlEntity;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.externaldb.target.AbstractAssociationManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -60,6 +61,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -69,6 +71,8 @@ import static com.epam.catgenome.util.NgbFileUtils.getDirectory;
 @Service
 public class DrugAssociationManager extends AbstractAssociationManager<DrugAssociation> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(DrugField.values(), DrugField::getType);
+
     @Value("${targets.opentargets.drugsDir:knownDrugsAggregated}")
     private String drugsDir;
     private final DiseaseManager diseaseManager;
@@ -88,6 +92,10 @@ public class DrugAssociationManager extends AbstractAssociationManager<DrugAssoc
         return Pair.of((long) result.size(), result.stream().map(DrugAssociation::getId).distinct().count());
     }
 
+    public List<String> searchDrugNames(final List<String> geneIds) throws IOException, ParseException {
+        return searchFieldValuesByGeneIds(geneIds, DrugField.DRUG_NAME.name());
+    }
+
     public DrugFieldValues getFieldValues(final List<String> geneIds) throws IOException, ParseException {
         final Query query = getByGeneIdsQuery(geneIds);
         return getFieldValues(query);
@@ -108,9 +116,16 @@ public class DrugAssociationManager extends AbstractAssociationManager<DrugAssoc
 
     @Override
     public List<DrugAssociation> readEntries(final String path) throws IOException {
+        final List<DrugAssociation> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<DrugAssociation, E> consumer)
+            throws IOException, E {
         final Path drugsPath = Paths.get(path, drugsDir);
         final File directory = getDirectory(drugsPath.toString());
-        final List<DrugAssociation> entries = new ArrayList<>();
         String line;
         final ObjectMapper objectMapper = new ObjectMapper();
         for (File f: directory.listFiles()) {
@@ -119,14 +134,18 @@ public class DrugAssociationManager extends AbstractAssociationManager<DrugAssoc
                     try {
                         JsonNode jsonNodes = objectMapper.readTree(line);
                         DrugAssociation entry = entryFromJson(jsonNodes);
-                        entries.add(entry);
+                        consumer.accept(entry);
                     } catch (JsonProcessingException e) {
                         throw new IllegalStateException(MessagesConstants.ERROR_INCORRECT_JSON_FORMAT);
                     }
                 }
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
@@ -181,6 +200,7 @@ public class DrugAssociationManager extends AbstractAssociationManager<DrugAssoc
         doc.add(new SortedDocValuesField(DrugField.SOURCE.name(), new BytesRef(entry.getSource().getName())));
 
         doc.add(new StringField(DrugField.SOURCE_URL.name(), entry.getSource().getUrl(), Field.Store.YES));
+        addNgramFields(doc);
         writer.addDocument(doc);
     }
 
@@ -235,6 +255,11 @@ public class DrugAssociationManager extends AbstractAssociationManager<DrugAssoc
                 .build();
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return DrugField.valueOf(fieldName).getType();
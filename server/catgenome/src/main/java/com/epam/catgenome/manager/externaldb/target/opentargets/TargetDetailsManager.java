@@ -27,6 +27,7 @@ import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.entity.externaldb.target.opentargets.TargetDetails;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.index.AbstractIndexManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.IndexUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -72,9 +73,16 @@ public class TargetDetailsManager extends AbstractIndexManager<TargetDetails> {
 
     @Override
     public List<TargetDetails> readEntries(final String path) throws IOException {
+        final List<TargetDetails> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<TargetDetails, E> consumer)
+            throws IOException, E {
         final Path targetsPath = Paths.get(path, targetsDir);
         final File directory = getDirectory(targetsPath.toString());
-        final List<TargetDetails> entries = new ArrayList<>();
         String line;
         final ObjectMapper objectMapper = new ObjectMapper();
         for (File f: directory.listFiles()) {
@@ -83,14 +91,18 @@ public class TargetDetailsManager extends AbstractIndexManager<TargetDetails> {
                     try {
                         JsonNode jsonNodes = objectMapper.readTree(line);
                         TargetDetails entry = entryFromJson(jsonNodes);
-                        entries.add(entry);
+                        consumer.accept(entry);
                     } catch (JsonProcessingException e) {
                         throw new IllegalStateException(MessagesConstants.ERROR_INCORRECT_JSON_FORMAT);
                     }
                 }
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
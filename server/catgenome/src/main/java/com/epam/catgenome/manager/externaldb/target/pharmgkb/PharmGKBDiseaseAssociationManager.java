@@ -28,6 +28,7 @@ import com.epam.catgenome.entity.externaldb.target.pharmgkb.PharmGKBDisease;
 import com.epam.catgenome.entity.externaldb.target.pharmgkb.PharmGKBGene;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.externaldb.target.AbstractAssociationManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.FileFormat;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -54,6 +55,9 @@ import java.util.stream.Collectors;
 @Service
 public class PharmGKBDiseaseAssociationManager extends AbstractAssociationManager<PharmGKBDisease> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(PharmGKBDiseaseField.values(),
+            PharmGKBDiseaseField::getType);
+
     private static final int COLUMNS = 11;
     private static final String GENE = "Gene";
     private static final String DISEASE = "Disease";
@@ -69,6 +73,13 @@ public class PharmGKBDiseaseAssociationManager extends AbstractAssociationManage
     @Override
     public List<PharmGKBDisease> readEntries(final String path) throws IOException {
         final List<PharmGKBDisease> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<PharmGKBDisease, E> consumer)
+            throws IOException, E {
         String line;
         try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
             line = bufferedReader.readLine();
@@ -82,11 +93,15 @@ public class PharmGKBDiseaseAssociationManager extends AbstractAssociationManage
                             .name(cells[4].trim())
                             .geneId(cells[0].trim())
                             .build();
-                    entries.add(entry);
+                    consumer.accept(entry);
                 }
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
@@ -122,6 +137,7 @@ public class PharmGKBDiseaseAssociationManager extends AbstractAssociationManage
 
         doc.add(new TextField(PharmGKBDiseaseField.DISEASE_NAME.name(), entry.getName(), Field.Store.YES));
         doc.add(new SortedDocValuesField(PharmGKBDiseaseField.DISEASE_NAME.name(), new BytesRef(entry.getName())));
+        addNgramFields(doc);
         writer.addDocument(doc);
     }
 
@@ -136,6 +152,11 @@ public class PharmGKBDiseaseAssociationManager extends AbstractAssociationManage
                 .build();
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return PharmGKBDiseaseField.valueOf(fieldName).getType();
@@ -28,6 +28,7 @@ import com.epam.catgenome.entity.externaldb.target.pharmgkb.PharmGKBDrug;
 import com.epam.catgenome.entity.externaldb.target.pharmgkb.PharmGKBGene;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.externaldb.target.AbstractAssociationManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.FileFormat;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
@@ -58,6 +59,9 @@ import java.util.stream.Collectors;
 @Service
 public class PharmGKBDrugAssociationManager extends AbstractAssociationManager<PharmGKBDrug> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(PharmGKBDrugField.values(),
+            PharmGKBDrugField::getType);
+
     private final PharmGKBGeneManager pharmGKBGeneManager;
     private final PharmGKBDrugManager pharmGKBDrugManager;
 
@@ -70,6 +74,10 @@ public class PharmGKBDrugAssociationManager extends AbstractAssociationManager<P
         this.pharmGKBDrugManager = pharmGKBDrugManager;
     }
 
+    public List<String> searchDrugNames(final List<String> geneIds) throws IOException, ParseException {
+        return searchFieldValuesByGeneIds(geneIds, PharmGKBDrugField.DRUG_NAME.name());
+    }
+
     public PharmGKBDrugFieldValues getFieldValues(final List<String> geneIds)
             throws IOException, ParseException {
         final List<PharmGKBDrug> result = searchByGeneIds(geneIds);
@@ -86,6 +94,13 @@ public class PharmGKBDrugAssociationManager extends AbstractAssociationManager<P
     @Override
     public List<PharmGKBDrug> readEntries(final String path) throws IOException {
         final List<PharmGKBDrug> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<PharmGKBDrug, E> consumer)
+            throws IOException, E {
         String line;
         try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
             line = bufferedReader.readLine();
@@ -102,11 +117,15 @@ public class PharmGKBDrugAssociationManager extends AbstractAssociationManager<P
                             .geneId(pharmGKBId)
                             .id(drugId)
                             .build();
-                    entries.add(entry);
+                    consumer.accept(entry);
                 }
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
@@ -155,6 +174,7 @@ public class PharmGKBDrugAssociationManager extends AbstractAssociationManager<P
 
             doc.add(new StringField(PharmGKBDrugField.SOURCE.name(), entry.getSource(), Field.Store.YES));
             doc.add(new SortedDocValuesField(PharmGKBDrugField.SOURCE.name(), new BytesRef(entry.getSource())));
+            addNgramFields(doc);
             writer.addDocument(doc);
         }
     }
@@ -171,6 +191,11 @@ public class PharmGKBDrugAssociationManager extends AbstractAssociationManager<P
                 .build();
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return PharmGKBDrugField.valueOf(fieldName).getType();
@@ -27,6 +27,7 @@ import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.entity.externaldb.target.pharmgkb.PharmGKBDrug;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.index.AbstractIndexManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.FileFormat;
 import lombok.Getter;
 import org.apache.lucene.document.Document;
@@ -64,6 +65,13 @@ public class PharmGKBDrugManager extends AbstractIndexManager<PharmGKBDrug> {
     @Override
     public List<PharmGKBDrug> readEntries(final String path) throws IOException {
         final List<PharmGKBDrug> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<PharmGKBDrug, E> consumer)
+            throws IOException, E {
         String line;
         try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
             line = bufferedReader.readLine();
@@ -76,10 +84,14 @@ public class PharmGKBDrugManager extends AbstractIndexManager<PharmGKBDrug> {
                         .name(cells[1].trim())
                         .source(cells[2].trim())
                         .build();
-                entries.add(entry);
+                consumer.accept(entry);
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
@@ -27,6 +27,7 @@ import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.entity.externaldb.target.pharmgkb.PharmGKBGene;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.index.AbstractIndexManager;
+import com.epam.catgenome.manager.index.EntryConsumer;
 import com.epam.catgenome.util.FileFormat;
 import lombok.Getter;
 import org.apache.http.util.TextUtils;
@@ -66,6 +67,13 @@ public class PharmGKBGeneManager extends AbstractIndexManager<PharmGKBGene> {
     @Override
     public List<PharmGKBGene> readEntries(final String path) throws IOException {
         final List<PharmGKBGene> entries = new ArrayList<>();
+        readEntries(path, entries::add);
+        return entries;
+    }
+
+    @Override
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<PharmGKBGene, E> consumer)
+            throws IOException, E {
         String line;
         try (Reader reader = new FileReader(path); BufferedReader bufferedReader = new BufferedReader(reader)) {
             line = bufferedReader.readLine();
@@ -77,10 +85,14 @@ public class PharmGKBGeneManager extends AbstractIndexManager<PharmGKBGene> {
                         .pharmGKBId(cells[0].trim())
                         .geneId(cells[3].trim())
                         .build();
-                entries.add(entry);
+                consumer.accept(entry);
             }
         }
-        return entries;
+    }
+
+    @Override
+    protected int getImportBatchSize() {
+        return IMPORT_BATCH_SIZE;
     }
 
     @Override
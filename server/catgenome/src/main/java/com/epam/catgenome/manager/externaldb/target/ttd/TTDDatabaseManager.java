@@ -104,6 +104,17 @@ public class TTDDatabaseManager {
         return result;
     }
 
+    public long countTTDDiseases(final List<TargetGene> targetGenes) throws ParseException, IOException {
+        long count = 0;
+        for (TargetGene gene : targetGenes) {
+            count += ttdDiseaseAssociationManager.countByTargetNames(Collections.singletonList(gene.getGeneName()));
+            if (CollectionUtils.isNotEmpty(gene.getTtdTargets())) {
+                count += ttdDiseaseAssociationManager.countByTargetIds(gene.getTtdTargets());
+            }
+        }
+        return count;
+    }
+
     public SearchResult<TTDDrugAssociation> getTTDDrugs(final List<TargetGene> genes,
                                                         final AssociationSearchRequest request)
             throws ParseException, IOException {
@@ -138,6 +149,18 @@ public class TTDDatabaseManager {
         return result;
     }
 
+    public List<String> fetchTTDDrugNames(final List<TargetGene> genes) throws ParseException, IOException {
+        final List<String> result = new ArrayList<>();
+        for (TargetGene gene : genes) {
+            result.addAll(ttdDrugAssociationManager.searchDrugNamesByTargetNames(
+                    Collections.singletonList(gene.getGeneName())));
+            if (CollectionUtils.isNotEmpty(gene.getTtdTargets())) {
+                result.addAll(ttdDrugAssociationManager.searchDrugNamesByTargetIds(gene.getTtdTargets()));
+            }
+        }
+        return result;
+    }
+
     public TTDDrugFieldValues getDrugFieldValues(final List<TargetGene> targetGenes)
             throws IOException, ParseException {
         final List<TTDDrugAssociation> result = fetchTTDDrugs(targetGenes, Collections.emptyList());
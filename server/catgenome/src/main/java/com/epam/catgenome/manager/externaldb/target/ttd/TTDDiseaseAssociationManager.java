@@ -49,12 +49,15 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
 @Service
 public class TTDDiseaseAssociationManager extends AbstractAssociationManager<TTDDiseaseAssociation> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(TTDDiseaseField.values(), TTDDiseaseField::getType);
+
     public TTDDiseaseAssociationManager(final @Value("${targets.index.directory}") String indexDirectory,
                                         final @Value("${targets.top.hits:10000}") int targetsTopHits) {
         super(Paths.get(indexDirectory, "ttd.disease.association").toString(), targetsTopHits);
@@ -135,6 +138,7 @@ public class TTDDiseaseAssociationManager extends AbstractAssociationManager<TTD
 
         final String phase = Optional.ofNullable(entry.getClinicalStatus()).orElse("");
         doc.add(new StringField(TTDDiseaseField.CLINICAL_STATUS.name(), phase, Field.Store.YES));
+        addNgramFields(doc);
         writer.addDocument(doc);
     }
 
@@ -148,6 +152,11 @@ public class TTDDiseaseAssociationManager extends AbstractAssociationManager<TTD
                 .build();
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return TTDDiseaseField.valueOf(fieldName).getType();
@@ -180,6 +189,14 @@ public class TTDDiseaseAssociationManager extends AbstractAssociationManager<TTD
         return search(getByTargetIdsQuery(values), null);
     }
 
+    public long countByTargetNames(final List<String> values) throws IOException {
+        return count(getByTargetNamesQuery(values));
+    }
+
+    public long countByTargetIds(final List<String> values) throws ParseException, IOException {
+        return count(getByTargetIdsQuery(values));
+    }
+
     private Query getByTargetNamesQuery(final List<String> values) {
         final List<String> lowerCaseValues = values.stream().map(String::toLowerCase).collect(Collectors.toList());
         return getByOptionsQuery(lowerCaseValues, TTDDiseaseField.TTD_TARGET_CI.name());
@@ -26,7 +26,6 @@ package com.epam.catgenome.manager.externaldb.target.ttd;
 import com.epam.catgenome.entity.externaldb.target.ttd.TTDDrugAssociation;
 import com.epam.catgenome.entity.index.FilterType;
 import com.epam.catgenome.manager.externaldb.target.AbstractAssociationManager;
-import com.epam.catgenome.manager.index.CaseInsensitiveWhitespaceAnalyzer;
 import com.epam.catgenome.manager.index.Filter;
 import com.epam.catgenome.util.FileFormat;
 import org.apache.lucene.document.Document;
@@ -34,12 +33,9 @@ import org.apache.lucene.document.Field;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.SortField;
-import org.apache.lucene.store.Directory;
-import org.apache.lucene.store.SimpleFSDirectory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -53,6 +49,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -61,6 +58,8 @@ import static com.epam.catgenome.manager.externaldb.target.ttd.TTDDiseaseAssocia
 @Service
 public class TTDDrugAssociationManager extends AbstractAssociationManager<TTDDrugAssociation> {
 
+    private static final Set<String> NGRAM_FIELDS = getPhraseFields(TTDDrugField.values(), TTDDrugField::getType);
+
     public TTDDrugAssociationManager(final @Value("${targets.index.directory}") String indexDirectory,
                                      final @Value("${targets.top.hits:10000}") int targetsTopHits) {
         super(Paths.get(indexDirectory, "ttd.drug.association").toString(), targetsTopHits);
@@ -69,14 +68,11 @@ public class TTDDrugAssociationManager extends AbstractAssociationManager<TTDDru
     public void importData(final String drugsPath, final String targetsPath) throws IOException, ParseException {
         final List<TTDDrugAssociation> entries = readEntries(targetsPath);
         processEntries(entries, drugsPath);
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexWriter writer = new IndexWriter(
-                     index, new IndexWriterConfig(new CaseInsensitiveWhitespaceAnalyzer())
-                     .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
-            writer.deleteAll();
+        try (IndexImport indexImport = startImport()) {
             for (TTDDrugAssociation entry: entries) {
-                addDoc(writer, entry);
+                indexImport.add(entry);
             }
+            indexImport.commit();
         }
     }
 
@@ -260,6 +256,7 @@ public class TTDDrugAssociationManager extends AbstractAssociationManager<TTDDru
         final String compoundClass = Optional.ofNullable(entry.getCompoundClass()).orElse("");
         doc.add(new StringField(TTDDrugField.COMPOUND_CLASS.name(), compoundClass, Field.Store.YES));
 
+        addNgramFields(doc);
         writer.addDocument(doc);
     }
 
@@ -283,6 +280,11 @@ public class TTDDrugAssociationManager extends AbstractAssociationManager<TTDDru
                 .build();
     }
 
+    @Override
+    protected Set<String> getNgramFields() {
+        return NGRAM_FIELDS;
+    }
+
     @Override
     public FilterType getFilterType(String fieldName) {
         return TTDDrugField.valueOf(fieldName).getType();
@@ -306,6 +308,14 @@ public class TTDDrugAssociationManager extends AbstractAssociationManager<TTDDru
         return search(getByTargetIdsQuery(values), null);
     }
 
+    public List<String> searchDrugNamesByTargetNames(final List<String> values) throws IOException {
+        return searchFieldValues(getByTargetNamesQuery(values), TTDDrugField.DRUG_NAME.name());
+    }
+
+    public List<String> searchDrugNamesByTargetIds(final List<String> values) throws ParseException, IOException {
+        return searchFieldValues(getByTargetIdsQuery(values), TTDDrugField.DRUG_NAME.name());
+    }
+
     private Query getByTargetNamesQuery(final List<String> values) {
         final List<String> lowerCaseValues = values.stream().map(String::toLowerCase).collect(Collectors.toList());
         return getByOptionsQuery(lowerCaseValues, TTDDrugField.TTD_TARGET_CI.name());
@@ -68,6 +68,7 @@ import com.epam.catgenome.manager.FeatureIndexManager;
 import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.gene.parser.GeneFeature;
 import com.epam.catgenome.manager.gene.parser.GffCodec;
+import com.epam.catgenome.manager.gene.store.GeneModelStoreWriter;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import htsjdk.samtools.util.BlockCompressedOutputStream;
 import htsjdk.tribble.AsciiFeatureCodec;
@@ -85,7 +86,7 @@ import htsjdk.tribble.util.LittleEndianOutputStream;
  * Make:        IntelliJ IDEA 14.1.4, JDK 1.8
  *
  * A class that registers GeneFile's in the system: creates index if required and all the helper files: large scale
- * file, transcript file and histogram
+ * file, transcript file, compiled gene model store and histogram
  *
  *
  */
@@ -104,6 +105,7 @@ public class GeneRegisterer {
     private BlockCompressedOutputStream transcriptBCOS = null;
     private BufferedWriter writerTranscript = null;
     private BufferedWriter writerLargeScale = null;
+    private GeneModelStoreWriter modelStoreWriter = null;
     private IndexUtils.FeatureIterator<GeneFeature, LineIterator> iterator = null;
     private LittleEndianOutputStream indexOutputStream = null;
     private LittleEndianOutputStream largeScaleIndexOutputStream = null;
@@ -242,6 +244,9 @@ public class GeneRegisterer {
                         filePointer, writer);
             }
         }
+        if (createFeatureIndex) {
+            featureIndexManager.refreshLuceneIndexForFile(geneFile);
+        }
 
         processLastFeature(feature, featuresCount, geneFile, allEntries, createFeatureIndex);
 
@@ -251,6 +256,7 @@ public class GeneRegisterer {
         if (createHelperFiles) {
             writerLargeScale.flush();
             writerTranscript.flush();
+            modelStoreWriter.finish();
         }
 
         return firstFeature;
@@ -451,12 +457,14 @@ public class GeneRegisterer {
             return;
         }
 
+        modelStoreWriter.add(feature, GeneFileType.ORIGINAL);
         if (GeneUtils.isGene(feature) || GeneUtils.isTranscript(feature)) {
             boolean written = addFeatureToLargeScaleFile(feature);
             if (written) {
                 writerLargeScale.flush();
                 largeScaleIndexCreator.addFeature(feature, largeScalePosition);
                 largeScalePosition = getFilePosition(geneFile, largeScaleBCOS, largeScaleOS);
+                modelStoreWriter.add(feature, GeneFileType.LARGE_SCALE);
             }
             largeScaleWritten = largeScaleWritten || written;
 
@@ -465,6 +473,7 @@ public class GeneRegisterer {
                 writerTranscript.flush();
                 transcriptIndexCreator.addFeature(feature, transcriptPosition);
                 transcriptPosition = getFilePosition(geneFile, transcriptBCOS, transcriptOS);
+                modelStoreWriter.add(feature, GeneFileType.TRANSCRIPT);
             }
             transcriptWritten = transcriptWritten || written;
         }
@@ -536,6 +545,8 @@ public class GeneRegisterer {
                 writerLargeScale = new BufferedWriter(new OutputStreamWriter(largeScaleOS,
                         Charset.forName(CHARSET_NAME)));
             }
+            final boolean gtf = gffType == GffCodec.GffType.GTF || gffType == GffCodec.GffType.COMPRESSED_GTF;
+            modelStoreWriter = new GeneModelStoreWriter(fileManager.makeGeneModelStoreFile(geneFile), gtf);
         }
 
         iterator = new IndexUtils.FeatureIterator<>(filePath, codec);
@@ -548,6 +559,7 @@ public class GeneRegisterer {
         IOUtils.closeQuietly(iterator);
         IOUtils.closeQuietly(writerLargeScale);
         IOUtils.closeQuietly(writerTranscript);
+        IOUtils.closeQuietly(modelStoreWriter);
         if (!geneFile.getCompressed()) { // is already closed
             IOUtils.closeQuietly(transcriptBCOS);
         }
@@ -42,23 +42,30 @@ import com.epam.catgenome.manager.externaldb.ExtenalDBUtils;
 import com.epam.catgenome.manager.externaldb.UniprotDataManager;
 import com.epam.catgenome.manager.externaldb.bindings.uniprot.Uniprot;
 import com.epam.catgenome.manager.gene.reader.AbstractGeneReader;
+import com.epam.catgenome.manager.gene.store.GeneModelStore;
+import com.epam.catgenome.manager.gene.store.GeneModelStoreManager;
 import com.epam.catgenome.manager.parallel.TaskExecutorService;
 import com.epam.catgenome.util.Utils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.Assert;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.AccessDeniedException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -73,13 +80,17 @@ public class GeneTrackManager {
     private final FeatureIndexManager featureIndexManager;
     private final EnsemblDataManager ensemblDataManager;
     private final UniprotDataManager uniprotDataManager;
+    private final GeneModelStoreManager geneModelStoreManager;
     private final boolean loadFromIndex;
+    private final long transcriptLookupTimeout;
 
     public GeneTrackManager(final TrackHelper trackHelper, final GeneFileManager geneFileManager,
                             final FileManager fileManager, final TaskExecutorService taskExecutorService,
                             final FeatureIndexManager featureIndexManager,
                             final EnsemblDataManager ensemblDataManager, final UniprotDataManager uniprotDataManager,
-                            @Value("${gene.track.index.load.enable:false}") final boolean loadFromIndex) {
+                            final GeneModelStoreManager geneModelStoreManager,
+                            @Value("${gene.track.index.load.enable:false}") final boolean loadFromIndex,
+                            @Value("${gene.transcript.lookup.timeout:30000}") final long transcriptLookupTimeout) {
         this.trackHelper = trackHelper;
         this.geneFileManager = geneFileManager;
         this.fileManager = fileManager;
@@ -87,7 +98,9 @@ public class GeneTrackManager {
         this.featureIndexManager = featureIndexManager;
         this.ensemblDataManager = ensemblDataManager;
         this.uniprotDataManager = uniprotDataManager;
+        this.geneModelStoreManager = geneModelStoreManager;
         this.loadFromIndex = loadFromIndex;
+        this.transcriptLookupTimeout = transcriptLookupTimeout;
     }
 
     /**
@@ -172,7 +185,8 @@ public class GeneTrackManager {
     }
 
     /**
-     * Load transcripts from external databases for a desired interval, specified by track
+     * Load transcripts from external databases for a desired interval, specified by track. Lookups of all genes
+     * are run concurrently, a gene, which lookup failed or timed out, is returned with an error message.
      *
      * @param track a track, for which to load transcripts
      * @return a track, filled with gene features and transcripts
@@ -190,18 +204,7 @@ public class GeneTrackManager {
         }
 
         final Track<GeneTranscript> geneTranscriptTrack = new Track<>(track);
-        final List<GeneTranscript> geneTranscriptList = new ArrayList<>();
-
-        for (Gene gene : geneTrack.getBlocks()) {
-            try {
-                gene.setTranscripts(getTranscriptFromDB(gene.getGroupId()));
-                geneTranscriptList.add(new GeneTranscript(gene));
-            } catch (ExternalDbUnavailableException e) {
-                log.info("External DB Exception", e);
-                geneTranscriptList.add(new GeneTranscript(gene, e.getMessage()));
-            }
-        }
-        geneTranscriptTrack.setBlocks(geneTranscriptList);
+        geneTranscriptTrack.setBlocks(enrichTranscripts(geneTrack.getBlocks()));
         return geneTranscriptTrack;
     }
 
@@ -280,23 +283,83 @@ public class GeneTrackManager {
         return true;
     }
 
-    private List<Transcript> getTranscriptFromDB(final String geneID) throws ExternalDbUnavailableException {
-        final EnsemblEntryVO vo = ensemblDataManager.fetchEnsemblEntry(geneID);
-        Assert.notNull(vo);
-        final List<Transcript> transcriptList = ExtenalDBUtils.ensemblEntryVO2Transcript(vo);
-        for (Transcript transcript : transcriptList) {
-            if (transcript.getBioType().equals(PROTEIN_CODING)) {
-                try {
-                    final Uniprot un = uniprotDataManager.fetchUniprotEntry(transcript.getId());
+    private List<GeneTranscript> enrichTranscripts(final List<Gene> genes) {
+        final Map<String, CompletableFuture<EnsemblEntryVO>> entries = ensemblDataManager.fetchEnsemblEntries(
+                genes.stream().map(Gene::getGroupId).filter(Objects::nonNull).collect(Collectors.toList()));
+        final Map<String, List<Transcript>> transcripts = new HashMap<>();
+        final Map<String, String> errors = new HashMap<>();
+        final long ensemblDeadline = lookupDeadline();
+        for (Map.Entry<String, CompletableFuture<EnsemblEntryVO>> entry : entries.entrySet()) {
+            try {
+                final EnsemblEntryVO vo = await(entry.getValue(), ensemblDeadline);
+                if (vo == null) {
+                    errors.put(entry.getKey(), String.format("Gene %s is not found in Ensembl", entry.getKey()));
+                } else {
+                    transcripts.put(entry.getKey(), ExtenalDBUtils.ensemblEntryVO2Transcript(vo));
+                }
+            } catch (ExternalDbUnavailableException e) {
+                log.info("External DB Exception", e);
+                errors.put(entry.getKey(), e.getMessage());
+            }
+        }
+
+        final List<Transcript> proteinCoding = transcripts.values().stream()
+                .flatMap(List::stream)
+                .filter(transcript -> PROTEIN_CODING.equals(transcript.getBioType()))
+                .collect(Collectors.toList());
+        final Map<String, CompletableFuture<Uniprot>> uniprotEntries = uniprotDataManager.fetchUniprotEntries(
+                proteinCoding.stream().map(Transcript::getId).collect(Collectors.toList()));
+        final long uniprotDeadline = lookupDeadline();
+        for (Transcript transcript : proteinCoding) {
+            try {
+                final Uniprot un = await(uniprotEntries.get(transcript.getId()), uniprotDeadline);
+                if (un != null) {
                     ExtenalDBUtils.fillDomain(un, transcript);
                     ExtenalDBUtils.fillPBP(un, transcript);
                     ExtenalDBUtils.fillSecondaryStructure(un, transcript);
-                } catch (ExternalDbUnavailableException e) {
-                    log.debug(e.getMessage(), e);
                 }
+            } catch (ExternalDbUnavailableException e) {
+                log.debug(e.getMessage(), e);
+            }
+        }
+
+        final List<GeneTranscript> geneTranscriptList = new ArrayList<>(genes.size());
+        for (Gene gene : genes) {
+            final List<Transcript> geneTranscripts = transcripts.get(gene.getGroupId());
+            if (geneTranscripts != null) {
+                gene.setTranscripts(geneTranscripts);
+                geneTranscriptList.add(new GeneTranscript(gene));
+            } else {
+                geneTranscriptList.add(new GeneTranscript(gene,
+                        errors.getOrDefault(gene.getGroupId(), "Gene ID is not specified")));
+            }
+        }
+        return geneTranscriptList;
+    }
+
+    private long lookupDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(transcriptLookupTimeout);
+    }
+
+    /**
+     * Waits for a lookup until the deadline. A lookup, which timed out, isn't cancelled: it completes in
+     * background and warms up the external DB response cache for subsequent requests.
+     */
+    private static <T> T await(final CompletableFuture<T> lookup, final long deadline)
+            throws ExternalDbUnavailableException {
+        try {
+            return lookup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExternalDbUnavailableException("External DB lookup is interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExternalDbUnavailableException) {
+                throw (ExternalDbUnavailableException) e.getCause();
             }
+            throw new ExternalDbUnavailableException(String.valueOf(e.getCause().getMessage()), e.getCause());
+        } catch (TimeoutException e) {
+            throw new ExternalDbUnavailableException("External DB lookup timed out", e);
         }
-        return transcriptList;
     }
 
     private Track<Gene> loadGenes(final Track<Gene> track, final GeneFile geneFile, final Chromosome chromosome,
@@ -308,7 +371,11 @@ public class GeneTrackManager {
         }
 
         final List<Gene> notSyncGenes;
-        if (Objects.nonNull(geneFile.getId()) && fromIndex) {
+        final GeneModelStore modelStore = fromIndex ? null : geneModelStoreManager.findStore(geneFile);
+        if (modelStore != null) {
+            notSyncGenes = AbstractGeneReader.createGeneReader(taskExecutorService.getExecutorService(), fileManager,
+                    geneFile).readGenesFromModelStore(track, chromosome, collapsed, modelStore);
+        } else if (Objects.nonNull(geneFile.getId()) && fromIndex) {
             final AbstractGeneReader geneReader = AbstractGeneReader.createGeneReader(
                     taskExecutorService.getExecutorService(), fileManager, geneFile, featureIndexManager);
             notSyncGenes = geneReader.readGenesFromIndex(track, chromosome, collapsed,
@@ -235,7 +235,7 @@ public class GffManager {
      */
     public GeneFile reindexGeneFile(long geneFileId, boolean full, boolean createTabixIndex) throws IOException {
         GeneFile geneFile = geneFileManager.load(geneFileId);
-        fileManager.deleteFileFeatureIndex(geneFile);
+        featureIndexManager.deleteFileFeatureIndex(geneFile);
         if (createTabixIndex) {
             File index = new File(geneFile.getIndex().getPath());
             if (index.exists()) {
@@ -96,6 +96,21 @@ public class GffFeature implements GeneFeature {
         this.groupId = parseGroupId(line);
     }
 
+    public GffFeature(final String seqName, final String source, final String feature, final int start,
+                      final int end, final float score, final StrandSerializable strand, final int frame,
+                      final Map<String, String> attributes, final String groupId) {
+        this.seqName = seqName;
+        this.source = source;
+        this.feature = feature;
+        this.start = start;
+        this.end = end;
+        this.score = score;
+        this.strand = strand;
+        this.frame = frame;
+        this.attributes = attributes;
+        this.groupId = groupId;
+    }
+
     public GffFeature(final GeneIndexEntry indexEntry) {
         this.seqName = indexEntry.getChromosome().getName();
         this.source = indexEntry.getSource();
@@ -46,6 +46,12 @@ public class GtfFeature extends GffFeature {
         super(line);
     }
 
+    public GtfFeature(final String seqName, final String source, final String feature, final int start,
+                      final int end, final float score, final StrandSerializable strand, final int frame,
+                      final Map<String, String> attributes, final String groupId) {
+        super(seqName, source, feature, start, end, score, strand, frame, attributes, groupId);
+    }
+
     public GtfFeature(final GeneIndexEntry indexEntry) {
         super(indexEntry);
     }
@@ -60,6 +60,7 @@ import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.gene.GeneUtils;
 import com.epam.catgenome.manager.gene.parser.GeneFeature;
 import com.epam.catgenome.manager.gene.parser.GffCodec;
+import com.epam.catgenome.manager.gene.store.GeneModelStore;
 import com.epam.catgenome.manager.parallel.ParallelTaskExecutionUtils;
 import com.epam.catgenome.manager.parallel.TreeListMultiset;
 import com.epam.catgenome.util.Utils;
@@ -191,6 +192,41 @@ public abstract class AbstractGeneReader {
         return new ArrayList<>(passedGenes);
     }
 
+    /**
+     * Reads genes from a compiled gene model store of the file in a interval, specified by a track. The whole
+     * interval is served by a single binary search in the store, so no parallel sub-interval reading is required.
+     *
+     * @param track      a track, specifying interval to load genes from
+     * @param chromosome a chromosome to load genes from
+     * @param collapse   flag, determining if all transcripts of a single gene should be collapsed to one
+     * @param store      a compiled gene model store of the file
+     * @return a list of Gene features
+     */
+    public List<Gene> readGenesFromModelStore(final Track<Gene> track, final Chromosome chromosome,
+                                              final boolean collapse, final GeneModelStore store) {
+        double time1 = Utils.getSystemTimeMilliseconds();
+        final GeneFileType scaleType = determineGeneFileType(track.getScaleFactor());
+        final int start = track.getStartIndex();
+        final int end = track.getEndIndex();
+        final ReaderState state = new ReaderState();
+        final Map<String, Gene> overlappedMrnas = new HashMap<>();
+        for (GeneFeature feature : store.query(scaleType, chromosome.getName(), start, end)) {
+            processFeature(state, feature, overlappedMrnas, start, end);
+        }
+        for (Map.Entry<String, Gene> e : overlappedMrnas.entrySet()) {
+            countExons(e.getKey(), e.getValue(), store.query(scaleType, chromosome.getName(),
+                    e.getValue().getStartIndex(), e.getValue().getEndIndex()));
+        }
+        double time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Reading from gene model store took {} ms", time2 - time1);
+
+        time1 = Utils.getSystemTimeMilliseconds();
+        List<Gene> passedGenes = processAssembly(state, track, collapse);
+        time2 = Utils.getSystemTimeMilliseconds();
+        LOGGER.debug("Assembly took {} ms", time2 - time1);
+        return new ArrayList<>(passedGenes);
+    }
+
     public List<Gene> readGenesFromIndex(final Track<Gene> track, final Chromosome chromosome, final boolean collapse,
                                          final int maxTaskCount) throws GeneReadingException {
         // Try to paralleling of reading from file.
@@ -485,6 +521,20 @@ public abstract class AbstractGeneReader {
         }
     }
 
+    private void countExons(final String transcriptId, final Gene transcript, final List<GeneFeature> features) {
+        long count = 0;
+        long basesCount = 0;
+        for (GeneFeature feature : features) {
+            if (GeneUtils.isExon(feature) && Objects.equals(GeneUtils.getTranscriptId(feature), transcriptId)) {
+                count++;
+                basesCount += feature.getEnd() - feature.getStart();
+            }
+        }
+
+        transcript.setExonsCount(count);
+        transcript.setAminoacidLength(basesCount / CODON_LENGTH);
+    }
+
     private void fillExonsCountForOverlappingIndex(final Map<String, Gene> overlappedMrnas, final Chromosome chromosome,
                                                    final GeneFileType scaleType)
             throws IOException {
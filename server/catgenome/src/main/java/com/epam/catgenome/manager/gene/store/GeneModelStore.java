@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.gene.store;
+
+import com.epam.catgenome.entity.gene.GeneFileType;
+import com.epam.catgenome.manager.gene.parser.GeneFeature;
+import com.epam.catgenome.manager.gene.parser.GffFeature;
+import com.epam.catgenome.manager.gene.parser.GtfFeature;
+import com.epam.catgenome.manager.gene.parser.StrandSerializable;
+import com.epam.catgenome.util.Utils;
+import lombok.Value;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compiled, memory mapped representation of a registered gene file. For each scale level
+ * ({@link GeneFileType#ORIGINAL}, {@link GeneFileType#LARGE_SCALE}, {@link GeneFileType#TRANSCRIPT}) and chromosome
+ * the store keeps a block of primitive arrays sorted by feature start: starts, ends, running maximum of ends, which
+ * serves as an interval index, scores, strands, frames and references into a string table of the block. A query is
+ * a binary search over the mapped arrays and decoding of the overlapping slice, no text is parsed.
+ */
+public final class GeneModelStore {
+
+    static final int MAGIC = 0x4E474D53;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 9;
+
+    private static final int INT_BYTES = 4;
+    private static final int FOOTER_SIZE = 8;
+
+    private final Map<GeneFileType, Map<String, Block>> blocks;
+
+    private GeneModelStore(final Map<GeneFileType, Map<String, Block>> blocks) {
+        this.blocks = blocks;
+    }
+
+    /**
+     * Maps a store file into memory
+     * @param file a file, written by {@link GeneModelStoreWriter}
+     * @return an opened store
+     * @throws IOException if the file can't be read or has unexpected format
+     */
+    public static GeneModelStore open(final File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            final long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("Gene model store is truncated: " + file.getName());
+            }
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Unsupported gene model store: " + file.getName());
+            }
+            final boolean gtf = header.get() != 0;
+
+            raf.seek(size - FOOTER_SIZE);
+            final long directoryOffset = raf.readLong();
+            raf.seek(directoryOffset);
+            final int count = raf.readInt();
+            final List<BlockEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final GeneFileType level = GeneFileType.values()[raf.readByte()];
+                entries.add(new BlockEntry(level, raf.readUTF(), raf.readLong(), raf.readInt()));
+            }
+
+            // a single mapping keeps the number of memory areas low for assemblies with many scaffolds
+            final MappedByteBuffer data = directoryOffset <= Integer.MAX_VALUE
+                    ? channel.map(FileChannel.MapMode.READ_ONLY, 0, directoryOffset) : null;
+            final Map<GeneFileType, Map<String, Block>> blocks = new EnumMap<>(GeneFileType.class);
+            for (BlockEntry entry : entries) {
+                final Block block = data != null ? new Block(data, (int) entry.getOffset(), gtf)
+                        : new Block(channel.map(FileChannel.MapMode.READ_ONLY, entry.getOffset(),
+                                entry.getLength()), 0, gtf);
+                blocks.computeIfAbsent(entry.getLevel(), key -> new HashMap<>()).put(entry.getContig(), block);
+            }
+            return new GeneModelStore(blocks);
+        }
+    }
+
+    /**
+     * @return scale levels, present in the store. Levels without features fall back to
+     * {@link GeneFileType#ORIGINAL} on query, as helper files do
+     */
+    public Set<GeneFileType> getLevels() {
+        return blocks.isEmpty() ? EnumSet.noneOf(GeneFileType.class) : EnumSet.copyOf(blocks.keySet());
+    }
+
+    /**
+     * Returns features of a scale level, overlapping an interval, in the order of the source file
+     * @param level a scale level to query
+     * @param chromosome a chromosome name, alternative naming with or without 'chr' prefix is also checked
+     * @param start start of the interval, inclusive
+     * @param end end of the interval, inclusive
+     * @return overlapping features
+     */
+    public List<GeneFeature> query(final GeneFileType level, final String chromosome, final int start,
+                                   final int end) {
+        Map<String, Block> levelBlocks = blocks.get(level);
+        if (levelBlocks == null) {
+            levelBlocks = blocks.get(GeneFileType.ORIGINAL);
+        }
+        if (levelBlocks == null) {
+            return Collections.emptyList();
+        }
+        String contig = chromosome;
+        Block block = levelBlocks.get(contig);
+        if (block == null) {
+            contig = Utils.changeChromosomeName(chromosome);
+            block = levelBlocks.get(contig);
+        }
+        if (block == null) {
+            return Collections.emptyList();
+        }
+        return block.query(contig, start, end);
+    }
+
+    @Value
+    static class BlockEntry {
+        GeneFileType level;
+        String contig;
+        long offset;
+        int length;
+    }
+
+    private static final class Block {
+        private final ByteBuffer buffer;
+        private final boolean gtf;
+        private final int count;
+        private final int starts;
+        private final int ends;
+        private final int maxEnds;
+        private final int scores;
+        private final int sources;
+        private final int types;
+        private final int groups;
+        private final int attributeOffsets;
+        private final int strands;
+        private final int frames;
+        private final int attributes;
+        private final int stringOffsets;
+        private final int stringBytes;
+        private final String[] strings;
+
+        private Block(final ByteBuffer buffer, final int offset, final boolean gtf) {
+            this.buffer = buffer;
+            this.gtf = gtf;
+            this.count = buffer.getInt(offset);
+            final int arrayBytes = count * INT_BYTES;
+            this.starts = offset + INT_BYTES;
+            this.ends = starts + arrayBytes;
+            this.maxEnds = ends + arrayBytes;
+            this.scores = maxEnds + arrayBytes;
+            this.sources = scores + arrayBytes;
+            this.types = sources + arrayBytes;
+            this.groups = types + arrayBytes;
+            this.attributeOffsets = groups + arrayBytes;
+            this.strands = attributeOffsets + arrayBytes + INT_BYTES;
+            this.frames = strands + count;
+            final int attributeCount = buffer.getInt(frames + count);
+            this.attributes = frames + count + INT_BYTES;
+            final int stringCountOffset = attributes + attributeCount * INT_BYTES;
+            this.strings = new String[buffer.getInt(stringCountOffset)];
+            this.stringOffsets = stringCountOffset + INT_BYTES;
+            this.stringBytes = stringOffsets + (strings.length + 1) * INT_BYTES;
+        }
+
+        private List<GeneFeature> query(final String contig, final int start, final int end) {
+            // features, starting after the interval end, are cut off by sorted starts
+            final int to = firstIndex(starts, (long) end + 1);
+            // all features before the first running maximum of ends reaching the interval start end before it
+            final int from = firstIndex(maxEnds, start);
+            final List<GeneFeature> result = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                if (intAt(ends, i) >= start) {
+                    result.add(feature(contig, i));
+                }
+            }
+            return result;
+        }
+
+        private int firstIndex(final int array, final long value) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (intAt(array, middle) < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private GeneFeature feature(final String contig, final int index) {
+            final int firstAttribute = intAt(attributeOffsets, index);
+            final int lastAttribute = intAt(attributeOffsets, index + 1);
+            final Map<String, String> featureAttributes = new HashMap<>();
+            for (int i = firstAttribute; i < lastAttribute; i += 2) {
+                featureAttributes.put(string(intAt(attributes, i)), string(intAt(attributes, i + 1)));
+            }
+            final byte strand = buffer.get(strands + index);
+            final StrandSerializable featureStrand = strand == 0 ? null : StrandSerializable.values()[strand - 1];
+            final String source = string(intAt(sources, index));
+            final String type = string(intAt(types, index));
+            final int start = intAt(starts, index);
+            final int end = intAt(ends, index);
+            final float score = buffer.getFloat(scores + index * INT_BYTES);
+            final int frame = buffer.get(frames + index);
+            final String groupId = string(intAt(groups, index));
+            return gtf
+                    ? new GtfFeature(contig, source, type, start, end, score, featureStrand, frame,
+                        featureAttributes, groupId)
+                    : new GffFeature(contig, source, type, start, end, score, featureStrand, frame,
+                        featureAttributes, groupId);
+        }
+
+        private int intAt(final int array, final int index) {
+            return buffer.getInt(array + index * INT_BYTES);
+        }
+
+        private String string(final int index) {
+            if (index < 0) {
+                return null;
+            }
+            String value = strings[index];
+            if (value == null) {
+                final int from = intAt(stringOffsets, index);
+                final byte[] bytes = new byte[intAt(stringOffsets, index + 1) - from];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(stringBytes + from + i);
+                }
+                value = new String(bytes, StandardCharsets.UTF_8);
+                // strings are immutable, a racing thread decodes an equal value at worst
+                strings[index] = value;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.gene.store;
+
+import com.epam.catgenome.entity.gene.GeneFile;
+import com.epam.catgenome.manager.FileManager;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Provides opened {@link GeneModelStore} instances of registered gene files. Mapped stores are shared between
+ * track requests, a store is reopened when its file is replaced by reindexing and the previous mapping is evicted.
+ * Requests, that still hold the previous store, keep reading the replaced file, which stays valid until unmapped.
+ */
+@Service
+@Slf4j
+public class GeneModelStoreManager {
+
+    private final FileManager fileManager;
+    private final boolean enabled;
+    private final Cache<String, GeneModelStore> stores;
+    private final ConcurrentMap<String, String> currentKeys = new ConcurrentHashMap<>();
+
+    public GeneModelStoreManager(final FileManager fileManager,
+                                 @Value("${gene.track.model.store.enable:true}") final boolean enabled,
+                                 @Value("${gene.track.model.store.cache.size:64}") final int cacheSize) {
+        this.fileManager = fileManager;
+        this.enabled = enabled;
+        this.stores = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * Returns a compiled gene model store of a registered gene file
+     * @param geneFile a gene file
+     * @return an opened store or {@code null}, if the file has no store and should be read from the source
+     */
+    public GeneModelStore findStore(final GeneFile geneFile) {
+        if (!enabled || geneFile.getId() == null) {
+            return null;
+        }
+        final File file = fileManager.makeGeneModelStoreFile(geneFile);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            final String key = storeKey(file);
+            final String previous = currentKeys.put(file.getAbsolutePath(), key);
+            if (previous != null && !previous.equals(key)) {
+                stores.invalidate(previous);
+            }
+            return stores.get(key, () -> GeneModelStore.open(file));
+        } catch (IOException | ExecutionException | UncheckedExecutionException e) {
+            log.warn("Gene model store {} can't be opened, the source file is used", file.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Identifies a version of a store file: a file, replaced by reindexing, gets a new file key (inode), even if
+     * its modification time and length are the same as of the previous one
+     */
+    private static String storeKey(final File file) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        return file.getAbsolutePath() + ':' + attributes.fileKey() + ':' + attributes.lastModifiedTime().toMillis()
+                + ':' + attributes.size();
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.gene.store;
+
+import com.epam.catgenome.entity.gene.GeneFileType;
+import com.epam.catgenome.manager.gene.parser.GeneFeature;
+import com.epam.catgenome.manager.gene.parser.StrandSerializable;
+import htsjdk.tribble.Feature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a {@link GeneModelStore} file while a gene file is being registered. Features are expected to come
+ * grouped by chromosome, as the registration requires anyway: features of one chromosome are buffered for each
+ * scale level and written as a single block, when the next chromosome starts. The store is written to a temporary
+ * file in the same directory and atomically moved over the target on {@link #finish()}, so a store, that is
+ * mapped by running track requests, is never rewritten in place. The stale target is removed, if the writer
+ * is closed without {@link #finish()} or chromosomes are not contiguous in the source file.
+ */
+@Slf4j
+public class GeneModelStoreWriter implements Closeable {
+
+    private final File file;
+    private final File tempFile;
+    private final DataOutputStream out;
+    private final Map<GeneFileType, List<GeneFeature>> pending = new EnumMap<>(GeneFileType.class);
+    private final List<GeneModelStore.BlockEntry> directory = new ArrayList<>();
+    private final Set<String> writtenContigs = new HashSet<>();
+    private long position;
+    private String currentContig;
+    private boolean consistent = true;
+    private boolean finished;
+
+    public GeneModelStoreWriter(final File file, final boolean gtf) throws IOException {
+        this.file = file;
+        this.tempFile = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+        out.writeInt(GeneModelStore.MAGIC);
+        out.writeInt(GeneModelStore.VERSION);
+        out.writeBoolean(gtf);
+        position = GeneModelStore.HEADER_SIZE;
+    }
+
+    /**
+     * Adds a feature to a scale level of the store
+     * @param feature a feature to add
+     * @param level a scale level, the feature belongs to
+     * @throws IOException if the previous chromosome can't be written
+     */
+    public void add(final GeneFeature feature, final GeneFileType level) throws IOException {
+        if (!consistent) {
+            return;
+        }
+        if (!feature.getContig().equals(currentContig)) {
+            flush();
+            if (!writtenContigs.add(feature.getContig())) {
+                log.warn("Features of chromosome {} are not contiguous, gene model store {} is skipped",
+                        feature.getContig(), file.getName());
+                consistent = false;
+                return;
+            }
+            currentContig = feature.getContig();
+        }
+        pending.computeIfAbsent(level, key -> new ArrayList<>()).add(feature);
+    }
+
+    /**
+     * Writes the last chromosome and the block directory and replaces the target file with the written store
+     * @throws IOException if the file can't be written or moved
+     */
+    public void finish() throws IOException {
+        if (!consistent) {
+            return;
+        }
+        flush();
+        final long directoryOffset = position;
+        out.writeInt(directory.size());
+        for (GeneModelStore.BlockEntry entry : directory) {
+            out.writeByte(entry.getLevel().ordinal());
+            out.writeUTF(entry.getContig());
+            out.writeLong(entry.getOffset());
+            out.writeInt(entry.getLength());
+        }
+        out.writeLong(directoryOffset);
+        out.close();
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+        if (finished) {
+            return;
+        }
+        deleteQuietly(tempFile);
+        deleteQuietly(file);
+    }
+
+    private void deleteQuietly(final File target) {
+        if (target.exists() && !target.delete()) {
+            log.warn("Incomplete gene model store {} can't be deleted", target.getAbsolutePath());
+        }
+    }
+
+    private void flush() throws IOException {
+        for (Map.Entry<GeneFileType, List<GeneFeature>> level : pending.entrySet()) {
+            final byte[] block = encodeBlock(level.getValue());
+            out.write(block);
+            directory.add(new GeneModelStore.BlockEntry(level.getKey(), currentContig, position, block.length));
+            position += block.length;
+        }
+        pending.clear();
+    }
+
+    private static byte[] encodeBlock(final List<GeneFeature> features) throws IOException {
+        // registration requires sorted files, the stable sort only guards the binary search
+        features.sort(Comparator.comparingInt(Feature::getStart));
+        final int count = features.size();
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final int[] sources = new int[count];
+        final int[] types = new int[count];
+        final int[] groups = new int[count];
+        final int[] attributeOffsets = new int[count + 1];
+        final List<Integer> attributes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final GeneFeature feature = features.get(i);
+            sources[i] = stringIndex(strings, feature.getSource());
+            types[i] = stringIndex(strings, feature.getFeature());
+            groups[i] = stringIndex(strings, feature.getGroupId());
+            attributeOffsets[i] = attributes.size();
+            if (feature.getAttributes() != null) {
+                for (Map.Entry<String, String> attribute : feature.getAttributes().entrySet()) {
+                    attributes.add(stringIndex(strings, attribute.getKey()));
+                    attributes.add(stringIndex(strings, attribute.getValue()));
+                }
+            }
+        }
+        attributeOffsets[count] = attributes.size();
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream block = new DataOutputStream(bytes);
+        block.writeInt(count);
+        for (GeneFeature feature : features) {
+            block.writeInt(feature.getStart());
+        }
+        for (GeneFeature feature : features) {
+            block.writeInt(feature.getEnd());
+        }
+        int maxEnd = Integer.MIN_VALUE;
+        for (GeneFeature feature : features) {
+            maxEnd = Math.max(maxEnd, feature.getEnd());
+            block.writeInt(maxEnd);
+        }
+        for (GeneFeature feature : features) {
+            block.writeFloat(feature.getScore());
+        }
+        writeInts(block, sources);
+        writeInts(block, types);
+        writeInts(block, groups);
+        writeInts(block, attributeOffsets);
+        for (GeneFeature feature : features) {
+            final StrandSerializable strand = feature.getStrand();
+            block.writeByte(strand == null ? 0 : strand.ordinal() + 1);
+        }
+        for (GeneFeature feature : features) {
+            block.writeByte(feature.getFrame());
+        }
+        block.writeInt(attributes.size());
+        for (Integer attribute : attributes) {
+            block.writeInt(attribute);
+        }
+        writeStrings(block, strings.keySet());
+        block.flush();
+        return bytes.toByteArray();
+    }
+
+    private static int stringIndex(final Map<String, Integer> strings, final String value) {
+        if (value == null) {
+            return -1;
+        }
+        return strings.computeIfAbsent(value, key -> strings.size());
+    }
+
+    private static void writeInts(final DataOutputStream block, final int[] values) throws IOException {
+        for (int value : values) {
+            block.writeInt(value);
+        }
+    }
+
+    private static void writeStrings(final DataOutputStream block, final Set<String> strings) throws IOException {
+        final List<byte[]> encoded = new ArrayList<>(strings.size());
+        for (String value : strings) {
+            encoded.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        block.writeInt(encoded.size());
+        int offset = 0;
+        for (byte[] value : encoded) {
+            block.writeInt(offset);
+            offset += value.length;
+        }
+        block.writeInt(offset);
+        for (byte[] value : encoded) {
+            block.write(value);
+        }
+    }
+}
@@ -29,10 +29,13 @@ import com.epam.catgenome.dao.heatmap.HeatmapDao;
 import com.epam.catgenome.entity.BiologicalDataItemFormat;
 import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.heatmap.Heatmap;
+import com.epam.catgenome.entity.heatmap.HeatmapAggregationType;
 import com.epam.catgenome.entity.heatmap.HeatmapAnnotationType;
 import com.epam.catgenome.entity.heatmap.HeatmapDataType;
+import com.epam.catgenome.entity.heatmap.HeatmapTile;
 import com.epam.catgenome.entity.heatmap.HeatmapTree;
 import com.epam.catgenome.entity.heatmap.HeatmapTreeNode;
+import com.epam.catgenome.entity.heatmap.HeatmapViewport;
 import com.epam.catgenome.manager.BiologicalDataItemManager;
 import com.epam.catgenome.util.FileFormat;
 import com.epam.catgenome.util.Utils;
@@ -75,6 +78,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -92,6 +96,12 @@ public class HeatmapManager {
     @Value("${heatmap.values.max.size:100}")
     private int valuesMaxSize;
 
+    @Value("${heatmap.tile.size:256}")
+    private int tileSize;
+
+    @Value("${heatmap.viewport.max.size:1000}")
+    private int viewportMaxSize;
+
     private final HeatmapDao heatmapDao;
     private final BiologicalDataItemManager biologicalDataItemManager;
 
@@ -113,11 +123,18 @@ public class HeatmapManager {
             h -> checkTree(getLabelSet(h.getColumnLabels()), h.getColumnTreePath()));
         biologicalDataItemManager.createBiologicalDataItem(heatmap);
         heatmap.setBioDataItemId(heatmap.getId());
-        return heatmapDao.saveHeatmap(heatmap,
+        final boolean numeric = heatmap.getCellValueType() != HeatmapDataType.STRING;
+        heatmap.setTileSize(numeric ? tileSize : null);
+        heatmapDao.saveHeatmap(heatmap,
                 listToData(contentAsList),
                 cellAnnotation,
                 rowTree,
                 columnTree);
+        if (numeric) {
+            HeatmapTiles.split(contentAsList, heatmap.getColumnLabels().size(), tileSize,
+                band -> heatmapDao.saveHeatmapTiles(heatmap.getHeatmapId(), band));
+        }
+        return heatmap;
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -204,6 +221,52 @@ public class HeatmapManager {
         }
     }
 
+    /**
+     * Returns numeric values of a rectangular part of a heatmap. If the part is larger than maxRows x maxColumns,
+     * neighbouring cells are aggregated into bins, so that the result fits into the requested size.
+     *
+     * @param startRow first row of the viewport (0-based, inclusive), the first heatmap row by default
+     * @param endRow last row of the viewport (exclusive), the last heatmap row by default
+     * @param startColumn first column of the viewport (0-based, inclusive), the first heatmap column by default
+     * @param endColumn last column of the viewport (exclusive), the last heatmap column by default
+     * @param maxRows max number of rows in the result, limited by heatmap.viewport.max.size
+     * @param maxColumns max number of columns in the result, limited by heatmap.viewport.max.size
+     * @param aggregationType defines how cells of a bin are combined, mean value by default
+     */
+    public HeatmapViewport getViewport(final long heatmapId,
+                                       final Integer startRow, final Integer endRow,
+                                       final Integer startColumn, final Integer endColumn,
+                                       final Integer maxRows, final Integer maxColumns,
+                                       final HeatmapAggregationType aggregationType) throws IOException {
+        final Heatmap heatmap = getHeatmap(heatmapId);
+        Assert.isTrue(heatmap.getCellValueType() != HeatmapDataType.STRING,
+                getMessage(MessagesConstants.ERROR_HEATMAP_VIEWPORT_NOT_NUMERIC, heatmapId,
+                        heatmap.getCellValueType()));
+        final int rowCount = heatmap.getRowLabels().size();
+        final int columnCount = heatmap.getColumnLabels().size();
+        final int fromRow = Optional.ofNullable(startRow).orElse(0);
+        final int toRow = Optional.ofNullable(endRow).orElse(rowCount);
+        final int fromColumn = Optional.ofNullable(startColumn).orElse(0);
+        final int toColumn = Optional.ofNullable(endColumn).orElse(columnCount);
+        Assert.isTrue(fromRow >= 0 && fromRow < toRow && toRow <= rowCount
+                        && fromColumn >= 0 && fromColumn < toColumn && toColumn <= columnCount,
+                getMessage(MessagesConstants.ERROR_HEATMAP_VIEWPORT_RANGE, fromRow, toRow, fromColumn, toColumn,
+                        rowCount, columnCount));
+        final HeatmapViewportAggregator aggregator = new HeatmapViewportAggregator(
+                fromRow, toRow, getViewportStep(toRow - fromRow, maxRows),
+                fromColumn, toColumn, getViewportStep(toColumn - fromColumn, maxColumns));
+        if (heatmap.getTileSize() == null) {
+            // heatmaps, registered before tiled storage was introduced, are aggregated from the serialized content
+            try (InputStream heatmapIS = heatmapDao.loadHeatmapContent(heatmapId)) {
+                HeatmapTiles.split(dataToList(heatmapIS), columnCount, tileSize,
+                    band -> band.forEach(tile -> aggregator.addCells(tile, tileSize)));
+            }
+        } else {
+            aggregateTiles(heatmap, aggregator, fromRow, toRow, fromColumn, toColumn);
+        }
+        return aggregator.build(Optional.ofNullable(aggregationType).orElse(HeatmapAggregationType.MEAN));
+    }
+
     public HeatmapTree getTree(final long heatmapId) throws IOException {
         final Heatmap heatmap = heatmapDao.loadHeatmap(heatmapId);
         final HeatmapTree heatmapTree = new HeatmapTree();
@@ -236,6 +299,43 @@ public class HeatmapManager {
         return (List<List<String>>) in.readObject();
     }
 
+    private void aggregateTiles(final Heatmap heatmap, final HeatmapViewportAggregator aggregator,
+                                final int fromRow, final int toRow, final int fromColumn, final int toColumn) {
+        final int size = heatmap.getTileSize();
+        final int fromTileRow = fromRow / size;
+        final int toTileRow = (toRow - 1) / size;
+        final int fromTileColumn = fromColumn / size;
+        final int toTileColumn = (toColumn - 1) / size;
+        final Set<Integer> partialTileRows = new TreeSet<>();
+        final Set<Integer> partialTileColumns = new TreeSet<>();
+        for (final HeatmapTile tile : heatmapDao.loadHeatmapTileSummaries(heatmap.getHeatmapId(),
+                fromTileRow, toTileRow, fromTileColumn, toTileColumn)) {
+            final boolean wholeRow = aggregator.isWholeRow(tile, size);
+            final boolean wholeColumn = aggregator.isWholeColumn(tile, size);
+            if (wholeRow && wholeColumn) {
+                aggregator.addSummary(tile, size);
+            }
+            if (!wholeRow) {
+                partialTileRows.add(tile.getTileRow());
+            }
+            if (!wholeColumn) {
+                partialTileColumns.add(tile.getTileColumn());
+            }
+        }
+        if (partialTileRows.isEmpty() && partialTileColumns.isEmpty()) {
+            return;
+        }
+        // values are loaded only for tiles, that are split by a bin or a viewport border
+        heatmapDao.loadHeatmapTiles(heatmap.getHeatmapId(), fromTileRow, toTileRow, fromTileColumn, toTileColumn,
+                new ArrayList<>(partialTileRows), new ArrayList<>(partialTileColumns))
+                .forEach(tile -> aggregator.addCells(tile, size));
+    }
+
+    private int getViewportStep(final int length, final Integer maxSize) {
+        final int size = maxSize == null || maxSize <= 0 ? viewportMaxSize : Math.min(maxSize, viewportMaxSize);
+        return (length + size - 1) / size;
+    }
+
     private HeatmapTreeNode convertTree(final TreeNode node) {
         final HeatmapTreeNode heatmapTreeNode = HeatmapTreeNode.builder()
                 .name(node.getName())
@@ -25,8 +25,10 @@ package com.epam.catgenome.manager.heatmap;
 
 import com.epam.catgenome.controller.vo.registration.HeatmapRegistrationRequest;
 import com.epam.catgenome.entity.heatmap.Heatmap;
+import com.epam.catgenome.entity.heatmap.HeatmapAggregationType;
 import com.epam.catgenome.entity.heatmap.HeatmapAnnotationType;
 import com.epam.catgenome.entity.heatmap.HeatmapTree;
+import com.epam.catgenome.entity.heatmap.HeatmapViewport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -71,6 +73,16 @@ public class HeatmapSecurityService {
         return heatmapManager.getContent(heatmapId);
     }
 
+    @PreAuthorize(ROLE_ADMIN + OR + READ_HEATMAP_BY_PROJECT_ID)
+    public HeatmapViewport getViewport(final long heatmapId, final Long projectId,
+                                       final Integer startRow, final Integer endRow,
+                                       final Integer startColumn, final Integer endColumn,
+                                       final Integer maxRows, final Integer maxColumns,
+                                       final HeatmapAggregationType aggregationType) throws IOException {
+        return heatmapManager.getViewport(heatmapId, startRow, endRow, startColumn, endColumn,
+                maxRows, maxColumns, aggregationType);
+    }
+
     @PreAuthorize(ROLE_ADMIN + OR + ROLE_HEATMAP_MANAGER)
     public void updateLabelAnnotation(final long heatmapId,
                                       final String path,
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.heatmap;
+
+import com.epam.catgenome.entity.heatmap.HeatmapTile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits a numeric heatmap into square tiles of a fixed size. Tiles are produced by bands of tileSize rows,
+ * so that only a single band of the float matrix is kept in memory at once.
+ */
+final class HeatmapTiles {
+
+    private HeatmapTiles() {
+        // no operations by default
+    }
+
+    static void split(final List<List<String>> content, final int columnCount, final int tileSize,
+                      final Consumer<List<HeatmapTile>> bandConsumer) {
+        final Iterator<List<String>> rows = content.iterator();
+        int tileRow = 0;
+        int rowsLeft = content.size();
+        while (rowsLeft > 0) {
+            final int bandRows = Math.min(tileSize, rowsLeft);
+            final List<HeatmapTile> band = createBand(tileRow, bandRows, columnCount, tileSize);
+            for (int row = 0; row < bandRows; row++) {
+                fillRow(band, rows.next(), row, bandRows, tileSize);
+            }
+            band.forEach(HeatmapTiles::summarize);
+            bandConsumer.accept(band);
+            rowsLeft -= bandRows;
+            tileRow++;
+        }
+    }
+
+    private static List<HeatmapTile> createBand(final int tileRow, final int bandRows, final int columnCount,
+                                                final int tileSize) {
+        final List<HeatmapTile> band = new ArrayList<>();
+        for (int tileColumn = 0; tileColumn * tileSize < columnCount; tileColumn++) {
+            final int tileColumns = Math.min(tileSize, columnCount - tileColumn * tileSize);
+            final float[] values = new float[bandRows * tileColumns];
+            Arrays.fill(values, Float.NaN);
+            band.add(HeatmapTile.builder()
+                    .tileRow(tileRow)
+                    .tileColumn(tileColumn)
+                    .rowCount(bandRows)
+                    .columnCount(tileColumns)
+                    .values(values)
+                    .build());
+        }
+        return band;
+    }
+
+    private static void fillRow(final List<HeatmapTile> band, final List<String> cells, final int row,
+                                final int bandRows, final int tileSize) {
+        int column = 0;
+        for (final String cell : cells) {
+            if (column / tileSize >= band.size()) {
+                break;
+            }
+            band.get(column / tileSize).getValues()[(column % tileSize) * bandRows + row] = parseValue(cell);
+            column++;
+        }
+    }
+
+    private static float parseValue(final String cell) {
+        if (cell == null) {
+            return Float.NaN;
+        }
+        try {
+            return (float) Double.parseDouble(cell);
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+
+    private static void summarize(final HeatmapTile tile) {
+        int count = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (final float value : tile.getValues()) {
+            if (!Float.isNaN(value)) {
+                count++;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+            }
+        }
+        tile.setValueCount(count);
+        tile.setMinValue(count == 0 ? null : min);
+        tile.setMaxValue(count == 0 ? null : max);
+        tile.setSumValue(count == 0 ? null : sum);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.heatmap;
+
+import com.epam.catgenome.entity.heatmap.HeatmapAggregationType;
+import com.epam.catgenome.entity.heatmap.HeatmapTile;
+import com.epam.catgenome.entity.heatmap.HeatmapViewport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregates heatmap tiles into bins of a viewport. A tile, that lies entirely in a single bin, is merged
+ * by its summary, other tiles are merged cell by cell, so for zoomed out views most of the tiles
+ * are never loaded.
+ */
+final class HeatmapViewportAggregator {
+
+    private final int startRow;
+    private final int endRow;
+    private final int rowStep;
+    private final int startColumn;
+    private final int endColumn;
+    private final int columnStep;
+    private final int binColumns;
+    private final int[] counts;
+    private final double[] minValues;
+    private final double[] maxValues;
+    private final double[] sumValues;
+
+    HeatmapViewportAggregator(final int startRow, final int endRow, final int rowStep,
+                              final int startColumn, final int endColumn, final int columnStep) {
+        this.startRow = startRow;
+        this.endRow = endRow;
+        this.rowStep = rowStep;
+        this.startColumn = startColumn;
+        this.endColumn = endColumn;
+        this.columnStep = columnStep;
+        this.binColumns = binCount(startColumn, endColumn, columnStep);
+        final int bins = binCount(startRow, endRow, rowStep) * binColumns;
+        this.counts = new int[bins];
+        this.minValues = new double[bins];
+        this.maxValues = new double[bins];
+        this.sumValues = new double[bins];
+        Arrays.fill(minValues, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxValues, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * @return true if all rows of a tile are inside the viewport and fall into a single bin
+     */
+    boolean isWholeRow(final HeatmapTile tile, final int tileSize) {
+        return isWhole(tile.getTileRow() * tileSize, tile.getRowCount(), startRow, endRow, rowStep);
+    }
+
+    /**
+     * @return true if all columns of a tile are inside the viewport and fall into a single bin
+     */
+    boolean isWholeColumn(final HeatmapTile tile, final int tileSize) {
+        return isWhole(tile.getTileColumn() * tileSize, tile.getColumnCount(), startColumn, endColumn, columnStep);
+    }
+
+    void addSummary(final HeatmapTile tile, final int tileSize) {
+        if (tile.getValueCount() == 0) {
+            return;
+        }
+        final int bin = ((tile.getTileRow() * tileSize - startRow) / rowStep) * binColumns
+                + (tile.getTileColumn() * tileSize - startColumn) / columnStep;
+        counts[bin] += tile.getValueCount();
+        minValues[bin] = Math.min(minValues[bin], tile.getMinValue());
+        maxValues[bin] = Math.max(maxValues[bin], tile.getMaxValue());
+        sumValues[bin] += tile.getSumValue();
+    }
+
+    void addCells(final HeatmapTile tile, final int tileSize) {
+        final int tileStartRow = tile.getTileRow() * tileSize;
+        final int tileStartColumn = tile.getTileColumn() * tileSize;
+        final int fromRow = Math.max(startRow, tileStartRow);
+        final int toRow = Math.min(endRow, tileStartRow + tile.getRowCount());
+        final int fromColumn = Math.max(startColumn, tileStartColumn);
+        final int toColumn = Math.min(endColumn, tileStartColumn + tile.getColumnCount());
+        for (int column = fromColumn; column < toColumn; column++) {
+            final int binColumn = (column - startColumn) / columnStep;
+            for (int row = fromRow; row < toRow; row++) {
+                final float value = tile.getValue(row - tileStartRow, column - tileStartColumn);
+                if (!Float.isNaN(value)) {
+                    final int bin = ((row - startRow) / rowStep) * binColumns + binColumn;
+                    counts[bin]++;
+                    minValues[bin] = Math.min(minValues[bin], value);
+                    maxValues[bin] = Math.max(maxValues[bin], value);
+                    sumValues[bin] += value;
+                }
+            }
+        }
+    }
+
+    HeatmapViewport build(final HeatmapAggregationType aggregationType) {
+        final List<List<Float>> values = new ArrayList<>(counts.length / binColumns);
+        for (int rowStart = 0; rowStart < counts.length; rowStart += binColumns) {
+            final List<Float> row = new ArrayList<>(binColumns);
+            for (int bin = rowStart; bin < rowStart + binColumns; bin++) {
+                row.add(counts[bin] == 0 ? null : (float) aggregate(bin, aggregationType));
+            }
+            values.add(row);
+        }
+        return HeatmapViewport.builder()
+                .startRow(startRow)
+                .endRow(endRow)
+                .rowStep(rowStep)
+                .startColumn(startColumn)
+                .endColumn(endColumn)
+                .columnStep(columnStep)
+                .aggregationType(aggregationType)
+                .values(values)
+                .build();
+    }
+
+    private double aggregate(final int bin, final HeatmapAggregationType aggregationType) {
+        switch (aggregationType) {
+            case MIN:
+                return minValues[bin];
+            case MAX:
+                return maxValues[bin];
+            case MEAN:
+                return sumValues[bin] / counts[bin];
+            default:
+                throw new IllegalArgumentException("Unsupported aggregation type: " + aggregationType);
+        }
+    }
+
+    private static boolean isWhole(final int tileStart, final int tileLength, final int start, final int end,
+                                   final int step) {
+        final int tileEnd = tileStart + tileLength;
+        return tileStart >= start && tileEnd <= end && (tileStart - start) / step == (tileEnd - 1 - start) / step;
+    }
+
+    private static int binCount(final int start, final int end, final int step) {
+        return (end - start + step - 1) / step;
+    }
+}
@@ -32,24 +32,34 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
 import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.*;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.*;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.SimpleFSDirectory;
 
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.epam.catgenome.component.MessageHelper.getMessage;
 import static com.epam.catgenome.util.IndexUtils.*;
 import static com.epam.catgenome.util.Utils.DEFAULT_PAGE_SIZE;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.join;
 
 @Slf4j
@@ -57,8 +67,11 @@ public abstract class AbstractIndexManager<T> {
 
     private static final String TERM_SPLIT_TOKEN = " ";
     private static final Integer BATCH_SIZE = 1000;
+    protected static final int IMPORT_BATCH_SIZE = 10000;
     public final String indexDirectory;
     public final int topHits;
+    private final Object searcherLock = new Object();
+    private volatile SearcherManager searcherManager;
 
     public AbstractIndexManager(String indexDirectory, int topHits) {
         this.indexDirectory = indexDirectory;
@@ -78,9 +91,8 @@ public abstract class AbstractIndexManager<T> {
                 : request.getPageSize();
         final int hits = page * pageSize;
 
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = sort != null ? searcher.search(query, hits, sort) : searcher.search(query, topHits);
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
 
@@ -101,9 +113,8 @@ public abstract class AbstractIndexManager<T> {
 
     public List<T> search(final Query query, final Sort sort) throws IOException, ParseException {
         final List<T> entries = new ArrayList<>();
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             TopDocs topDocs = sort == null ? searcher.search(query, topHits) :
                     searcher.search(query, topHits, sort);
             ScoreDoc[] scoreDocs = topDocs.scoreDocs;
@@ -125,9 +136,8 @@ public abstract class AbstractIndexManager<T> {
         final List<List<String>> subSets = Lists.partition(ids, BATCH_SIZE);
         for (List<String> subIds : subSets) {
             Query query = getByTermsQuery(subIds, fieldName);
-            try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-                 IndexReader indexReader = DirectoryReader.open(index)) {
-                IndexSearcher searcher = new IndexSearcher(indexReader);
+            try (AcquiredSearcher acquired = acquireSearcher()) {
+                IndexSearcher searcher = acquired.getSearcher();
                 TopDocs topDocs = searcher.search(query, topHits);
                 for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
                     Document doc = searcher.doc(scoreDoc.doc);
@@ -142,20 +152,92 @@ public abstract class AbstractIndexManager<T> {
         return result;
     }
 
-    public void importData(final String path) throws IOException, ParseException {
-        final List<T> entries = readEntries(path);
-        final List<T> processedEntries = processEntries(entries);
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexWriter writer = new IndexWriter(
-                     index, new IndexWriterConfig(new CaseInsensitiveWhitespaceAnalyzer())
-                     .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
-            writer.deleteAll();
-            for (T entry: processedEntries) {
-                addDoc(writer, entry);
+    public long count(final Query query) throws IOException {
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            return acquired.getSearcher().count(query);
+        } catch (IndexNotFoundException e) {
+            log.info(getMessage(MessagesConstants.INFO_INDEX_NOT_FOUND, indexDirectory));
+            return 0;
+        }
+    }
+
+    public long count(final List<String> ids, final String fieldName) throws ParseException, IOException {
+        long count = 0;
+        for (List<String> subIds : Lists.partition(ids, BATCH_SIZE)) {
+            count += count(getByTermsQuery(subIds, fieldName));
+        }
+        return count;
+    }
+
+    /**
+     * Loads a single stored field of the documents matching the query, skipping the rest
+     * of the document and entry construction.
+     * @param query to match documents
+     * @param valueField stored field to load
+     * @return non-null values of the field, one per matched document
+     */
+    public List<String> searchFieldValues(final Query query, final String valueField) throws IOException {
+        final List<String> values = new ArrayList<>();
+        final Set<String> fieldsToLoad = Collections.singleton(valueField);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
+            TopDocs topDocs = searcher.search(query, topHits);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                String value = searcher.doc(scoreDoc.doc, fieldsToLoad).get(valueField);
+                if (value != null) {
+                    values.add(value);
+                }
             }
+        } catch (IndexNotFoundException e) {
+            log.info(getMessage(MessagesConstants.INFO_INDEX_NOT_FOUND, indexDirectory));
+            return new ArrayList<>();
+        }
+        return values;
+    }
+
+    public List<String> searchFieldValues(final List<String> ids, final String fieldName, final String valueField)
+            throws ParseException, IOException {
+        final List<String> values = new ArrayList<>();
+        for (List<String> subIds : Lists.partition(ids, BATCH_SIZE)) {
+            values.addAll(searchFieldValues(getByTermsQuery(subIds, fieldName), valueField));
+        }
+        return values;
+    }
+
+    public void importData(final String path) throws IOException, ParseException {
+        try (IndexImport entries = startImport()) {
+            readEntries(path, entries::add);
+            entries.commit();
         }
     }
 
+    /**
+     * Reads entries of a source file passing them to the consumer one by one. By default, all the
+     * entries are read into memory first, sources with large files override it to parse them lazily.
+     */
+    public <E extends Exception> void readEntries(final String path, final EntryConsumer<T, E> consumer)
+            throws IOException, E {
+        for (T entry : readEntries(path)) {
+            consumer.accept(entry);
+        }
+    }
+
+    /**
+     * Returns the number of entries passed to processEntries at once during import. By default, all the
+     * entries of a source are processed together, sources that process entries independently of each
+     * other override it to keep the import memory bounded.
+     */
+    protected int getImportBatchSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Starts rebuilding of the index from scratch.
+     */
+    protected IndexImport startImport() throws IOException {
+        return new IndexImport(getImportBatchSize());
+    }
+
     public void delete(final Query query) throws IOException, ParseException {
         try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
              IndexWriter writer = new IndexWriter(
@@ -163,6 +245,71 @@ public abstract class AbstractIndexManager<T> {
                      .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
             writer.deleteDocuments(query);
         }
+        refreshSearcher();
+    }
+
+    /**
+     * Acquires a searcher over the latest index content visible to this manager. The searcher is shared
+     * between concurrent requests and must be released by closing the returned reference.
+     * @throws IndexNotFoundException if the index wasn't created yet
+     */
+    protected AcquiredSearcher acquireSearcher() throws IOException {
+        while (true) {
+            final SearcherManager manager = getSearcherManager();
+            try {
+                return new AcquiredSearcher(manager, manager.acquire());
+            } catch (AlreadyClosedException e) {
+                // the searcher was refreshed concurrently, retry with a new one
+                log.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Makes changes written to the index directory visible to searches, must be called after
+     * writes made without IndexImport. Searches in progress keep using the previous index content.
+     */
+    protected void refreshSearcher() throws IOException {
+        final SearcherManager manager;
+        synchronized (searcherLock) {
+            manager = searcherManager;
+            searcherManager = null;
+        }
+        if (manager != null) {
+            manager.close();
+        }
+    }
+
+    @PreDestroy
+    public void closeSearcher() throws IOException {
+        refreshSearcher();
+    }
+
+    private SearcherManager getSearcherManager() throws IOException {
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            synchronized (searcherLock) {
+                manager = searcherManager;
+                if (manager == null) {
+                    manager = openSearcherManager();
+                    searcherManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+
+    private SearcherManager openSearcherManager() throws IOException {
+        final Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
+        try {
+            final DirectoryReader reader = DirectoryReader.open(index);
+            // the directory is kept open until the last search over its reader is finished
+            reader.addReaderClosedListener(closed -> index.close());
+            return new SearcherManager(reader, null);
+        } catch (IOException e) {
+            index.close();
+            throw e;
+        }
     }
 
     public Query buildQuery(final Query query, final List<Filter> filters) throws ParseException {
@@ -231,14 +378,82 @@ public abstract class AbstractIndexManager<T> {
     }
 
     public Query getByPhraseQuery(final String phrase, final String fieldName) {
+        final boolean ngrams = getNgramFields().contains(fieldName) && isNgramIndexed(fieldName);
         final BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        boolean empty = true;
         for (String term : phrase.split(TERM_SPLIT_TOKEN)) {
-            builder.add(new WildcardQuery(new Term(fieldName, "*" + term.toLowerCase() + "*")),
+            // repeated separators give empty terms, which match nothing in the n-gram field
+            if (isBlank(term)) {
+                continue;
+            }
+            final String value = term.trim().toLowerCase();
+            builder.add(ngrams ? getByNgramQuery(value, fieldName) :
+                            new WildcardQuery(new Term(fieldName, "*" + value + "*")),
                     BooleanClause.Occur.MUST);
+            empty = false;
+        }
+        return empty ? new MatchAllDocsQuery() : builder.build();
+    }
+
+    /**
+     * Returns names of the fields filtered by substrings, which are indexed with n-gram companion fields,
+     * see {@link #addNgramFields(Document)}. Substring filters by other fields use wildcard queries.
+     */
+    protected Set<String> getNgramFields() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Adds n-gram companion fields for the stored values of {@link #getNgramFields()} to a document,
+     * must be called before the document is written.
+     */
+    protected void addNgramFields(final Document doc) {
+        final Set<String> ngramFields = getNgramFields();
+        for (IndexableField field : new ArrayList<>(doc.getFields())) {
+            if (ngramFields.contains(field.name()) && field.fieldType().stored() && field.stringValue() != null) {
+                doc.add(new TextField(NgramFieldAnalyzer.getNgramField(field.name()),
+                        field.stringValue(), Field.Store.NO));
+            }
+        }
+    }
+
+    protected static <F extends Enum<F>> Set<String> getPhraseFields(final F[] fields,
+                                                                    final Function<F, FilterType> filterType) {
+        return Arrays.stream(fields)
+                .filter(f -> filterType.apply(f) == FilterType.PHRASE)
+                .map(Enum::name)
+                .collect(Collectors.toSet());
+    }
+
+    private Query getByNgramQuery(final String term, final String fieldName) {
+        final String ngramField = NgramFieldAnalyzer.getNgramField(fieldName);
+        if (term.length() <= NgramFieldAnalyzer.MAX_GRAM) {
+            return new TermQuery(new Term(ngramField, term));
+        }
+        // n-grams of a token are indexed at its position, so a longer term is matched
+        // by all of its n-grams of maximal length found within the same token
+        final PhraseQuery.Builder builder = new PhraseQuery.Builder();
+        for (int i = 0; i + NgramFieldAnalyzer.MAX_GRAM <= term.length(); i++) {
+            builder.add(new Term(ngramField, term.substring(i, i + NgramFieldAnalyzer.MAX_GRAM)), 0);
         }
         return builder.build();
     }
 
+    /**
+     * Checks if the index was built with n-gram companion fields: indexes imported before they were introduced
+     * keep filtering by wildcard queries until re-imported.
+     */
+    private boolean isNgramIndexed(final String fieldName) {
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            return MultiFields.getTerms(acquired.getSearcher().getIndexReader(),
+                    NgramFieldAnalyzer.getNgramField(fieldName)) != null;
+        } catch (IndexNotFoundException e) {
+            return false;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public Query getByPrefixQuery(final String prefix, final String fieldName) {
         return new PrefixQuery(new Term(fieldName, prefix));
     }
@@ -261,4 +476,87 @@ public abstract class AbstractIndexManager<T> {
     public abstract List<T> processEntries(List<T> entries) throws IOException, ParseException;
     public abstract void addDoc(IndexWriter writer, T entry) throws IOException;
     public abstract T entryFromDoc(Document doc);
+
+    protected static final class AcquiredSearcher implements Closeable {
+
+        private final SearcherManager manager;
+        private final IndexSearcher searcher;
+
+        private AcquiredSearcher(final SearcherManager manager, final IndexSearcher searcher) {
+            this.manager = manager;
+            this.searcher = searcher;
+        }
+
+        public IndexSearcher getSearcher() {
+            return searcher;
+        }
+
+        @Override
+        public void close() throws IOException {
+            manager.release(searcher);
+        }
+    }
+
+    /**
+     * Rebuilds the index from scratch. Entries are processed and written in batches, the new content
+     * becomes visible to searches at once on commit. An import that failed or wasn't committed is
+     * rolled back and leaves the previous index content intact.
+     */
+    protected final class IndexImport implements Closeable {
+
+        private final int batchSize;
+        private final Directory index;
+        private final IndexWriter writer;
+        private List<T> batch = new ArrayList<>();
+        private boolean committed;
+
+        private IndexImport(final int batchSize) throws IOException {
+            this.batchSize = batchSize;
+            this.index = new SimpleFSDirectory(Paths.get(indexDirectory));
+            try {
+                this.writer = new IndexWriter(index, new IndexWriterConfig(new NgramFieldAnalyzer())
+                        .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+                writer.deleteAll();
+            } catch (IOException e) {
+                index.close();
+                throw e;
+            }
+        }
+
+        public void add(final T entry) throws IOException, ParseException {
+            batch.add(entry);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void commit() throws IOException, ParseException {
+            flush();
+            writer.commit();
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (committed) {
+                    writer.close();
+                } else {
+                    writer.rollback();
+                }
+            } finally {
+                index.close();
+            }
+            if (committed) {
+                refreshSearcher();
+            }
+        }
+
+        private void flush() throws IOException, ParseException {
+            for (T entry : processEntries(batch)) {
+                addDoc(writer, entry);
+            }
+            batch = new ArrayList<>();
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.index;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.DelegatingAnalyzerWrapper;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.ngram.NGramTokenFilter;
+
+/**
+ * Splits n-gram companion fields into lower case n-grams of their whitespace separated tokens, all the
+ * n-grams of a token share its position. Other fields are analyzed by {@link CaseInsensitiveWhitespaceAnalyzer}.
+ */
+public class NgramFieldAnalyzer extends DelegatingAnalyzerWrapper {
+
+    public static final int MIN_GRAM = 1;
+    public static final int MAX_GRAM = 8;
+    private static final String NGRAM_FIELD_SUFFIX = "_NGRAM";
+
+    private final Analyzer defaultAnalyzer = new CaseInsensitiveWhitespaceAnalyzer();
+    private final Analyzer ngramAnalyzer = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(final String fieldName) {
+            final Tokenizer tokenizer = new WhitespaceTokenizer();
+            final TokenStream filter = new NGramTokenFilter(new LowerCaseFilter(tokenizer), MIN_GRAM, MAX_GRAM);
+            return new TokenStreamComponents(tokenizer, filter);
+        }
+    };
+
+    public NgramFieldAnalyzer() {
+        super(PER_FIELD_REUSE_STRATEGY);
+    }
+
+    public static String getNgramField(final String fieldName) {
+        return fieldName + NGRAM_FIELD_SUFFIX;
+    }
+
+    @Override
+    protected Analyzer getWrappedAnalyzer(final String fieldName) {
+        return fieldName.endsWith(NGRAM_FIELD_SUFFIX) ? ngramAnalyzer : defaultAnalyzer;
+    }
+}
@@ -30,6 +30,8 @@ import com.epam.catgenome.dao.metadata.MetadataDao;
 import com.epam.catgenome.entity.metadata.EntityVO;
 import com.epam.catgenome.entity.metadata.MetadataVO;
 import com.epam.catgenome.entity.security.AbstractSecuredEntity;
+import com.epam.catgenome.entity.security.AclClass;
+import com.epam.catgenome.manager.project.ProjectTreeSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.MapUtils;
@@ -51,6 +53,7 @@ import java.util.stream.Collectors;
 public class MetadataManager {
 
     private final MetadataDao metadataDao;
+    private final ProjectTreeSnapshot projectTreeSnapshot;
 
     @Transactional(propagation = Propagation.REQUIRED)
     public MetadataVO upsert(final MetadataVO metadataVO) {
@@ -61,6 +64,7 @@ public class MetadataManager {
         final String entityClass = metadataVO.getAclClass().name();
 
         prepareMetadata(metadataVO);
+        projectTreeSnapshot.invalidate(entityId, metadataVO.getAclClass());
 
         final MetadataVO loadedMetadata = metadataDao.get(entityId, entityClass);
         if (Objects.isNull(loadedMetadata)) {
@@ -94,6 +98,7 @@ public class MetadataManager {
             return null;
         }
         metadataDao.delete(entityId, entityClass);
+        projectTreeSnapshot.invalidate(entityId, AclClass.valueOf(entityClass));
         return metadataVO;
     }
 
@@ -50,12 +50,14 @@ public class ProjectDescriptionService {
 
     private final ProjectManager projectManager;
     private final ProjectDescriptionDao projectDescriptionDao;
+    private final ProjectTreeSnapshot projectTreeSnapshot;
 
     @Transactional
     public ProjectDescription upsert(final Long projectId, final String name, final String path,
                                      final MultipartFile multipartFile) throws IOException {
         Assert.isTrue(path != null || multipartFile != null, "Description file path or content should be defined");
         projectManager.load(projectId);
+        projectTreeSnapshot.invalidate(projectId);
 
         String descriptionName;
         byte[] content;
@@ -104,12 +106,14 @@ public class ProjectDescriptionService {
     public ProjectDescription deleteById(final Long id) {
         final ProjectDescription description = load(id);
         projectDescriptionDao.deleteById(id);
+        projectTreeSnapshot.invalidate(description.getProjectId());
         return description;
     }
 
     @Transactional
     public List<ProjectDescription> deleteByProjectId(final Long projectId, final String name) {
         projectManager.load(projectId);
+        projectTreeSnapshot.invalidate(projectId);
         final List<ProjectDescription> descriptions = loadDescriptions(projectId);
 
         if (StringUtils.isBlank(name)) {
@@ -27,7 +27,6 @@ package com.epam.catgenome.manager.project;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -41,7 +40,6 @@ import java.util.stream.Collectors;
 import com.epam.catgenome.dao.project.ProjectDescriptionDao;
 import com.epam.catgenome.dao.reference.ReferenceGenomeDao;
 import com.epam.catgenome.entity.FeatureFile;
-import com.epam.catgenome.entity.project.ProjectDescription;
 import com.epam.catgenome.entity.project.ProjectNote;
 import com.epam.catgenome.entity.metadata.EntityVO;
 import com.epam.catgenome.entity.metadata.MetadataVO;
@@ -52,7 +50,6 @@ import com.epam.catgenome.manager.metadata.MetadataManager;
 import com.epam.catgenome.security.acl.aspect.AclSync;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.ListUtils;
-import org.apache.commons.collections4.SetUtils;
 import com.epam.catgenome.util.db.Filter;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -104,6 +101,7 @@ public class ProjectManager implements SecuredEntityManager {
     private final AuthManager authManager;
     private final MetadataManager metadataManager;
     private final ProjectDescriptionDao projectDescriptionDao;
+    private final ProjectTreeSnapshot projectTreeSnapshot;
 
     /**
      * Loads all top-level projects from the database.
@@ -117,58 +115,24 @@ public class ProjectManager implements SecuredEntityManager {
     }
 
     /**
-     * Loads all project hierarchy for current user, with all items
+     * Loads all project hierarchy for current user, with all items. The hierarchy is built from
+     * the {@link ProjectTreeSnapshot}, so that projects aren't reloaded from the database on each call.
      * @param parentId specifies the root project for loading, if null, all projects will be loaded
      * @param referenceName
      * @return all project hierarchy for current user, with all items
      */
     @Transactional(propagation = Propagation.SUPPORTS)
     public List<Project> loadProjectTree(final Long parentId, final String referenceName) {
-        List<Project> allProjects;
-        if (StringUtils.isEmpty(referenceName)) {
-            allProjects = projectDao.loadAllProjects();
-        } else {
+        Long referenceItemId = null;
+        if (!StringUtils.isEmpty(referenceName)) {
             Reference reference = referenceGenomeDao.loadReferenceGenomeByName(referenceName.toLowerCase());
             Assert.notNull(reference, getMessage(ERROR_BIO_NAME_NOT_FOUND, referenceName));
-            allProjects = projectDao.loadProjectsByBioDataItemId(reference.getBioDataItemId());
+            referenceItemId = reference.getBioDataItemId();
         }
 
+        List<Project> allProjects = projectTreeSnapshot.loadProjects(referenceItemId);
         Map<Long, List<Project>> hierarchyMap = new HashMap<>();
-        Map<Long, Set<ProjectItem>> itemMap;
-
-        if (StringUtils.isEmpty(referenceName)) {
-            itemMap = projectDao.loadAllProjectItems();
-        } else {
-            itemMap = projectDao.loadProjectItemsByProjects(allProjects);
-        }
-
-        Map<Long, Set<ProjectNote>> noteMap = projectDao.loadAllProjectNotes(StringUtils.isEmpty(referenceName) ?
-                null : allProjects);
-
-        Map<Long, List<ProjectDescription>> descriptionsMap = StringUtils.isBlank(referenceName)
-                ? projectDescriptionDao.findAll()
-                : projectDescriptionDao.findByProjectIdIn(ListUtils.emptyIfNull(allProjects).stream()
-                .map(Project::getId)
-                .collect(Collectors.toList()));
-
-        attachMetadata(allProjects, itemMap);
-
-        allProjects.forEach(p -> {
-            if (itemMap.containsKey(p.getId())) {
-                p.setItems(new ArrayList<>(itemMap.get(p.getId())));
-            }
-            if (noteMap.containsKey(p.getId())) {
-                p.setNotes(new ArrayList<>(noteMap.get(p.getId())));
-            }
-            if (descriptionsMap.containsKey(p.getId())) {
-                p.setDescriptions(new ArrayList<>(descriptionsMap.get(p.getId())));
-            }
-
-            if (!hierarchyMap.containsKey(p.getParentId())) {
-                hierarchyMap.put(p.getParentId(), new ArrayList<>());
-            }
-            hierarchyMap.get(p.getParentId()).add(p);
-        });
+        allProjects.forEach(p -> hierarchyMap.computeIfAbsent(p.getParentId(), id -> new ArrayList<>()).add(p));
 
         if (parentId != null) {
             Project topProject = this.load(parentId);
@@ -181,6 +145,13 @@ public class ProjectManager implements SecuredEntityManager {
         return hierarchyMap.get(null);
     }
 
+    /**
+     * @return a version of project trees data, that changes each time any project is modified
+     */
+    public long getProjectTreeVersion() {
+        return projectTreeSnapshot.getVersion();
+    }
+
     /**
      * Loads a project from the database by its ID with all its items
      *
@@ -201,6 +172,7 @@ public class ProjectManager implements SecuredEntityManager {
         final Project project = load(id);
         project.setOwner(owner);
         projectDao.updateOwner(id, owner);
+        projectTreeSnapshot.invalidate(id);
         return project;
     }
 
@@ -236,6 +208,7 @@ public class ProjectManager implements SecuredEntityManager {
             Assert.notNull(projectDao.loadProject(parentId), getMessage(ERROR_PROJECT_ID_NOT_FOUND, parentId));
         }
         projectDao.moveProjectToParent(projectId, parentId);
+        projectTreeSnapshot.invalidate(projectId);
     }
 
     /**
@@ -267,6 +240,7 @@ public class ProjectManager implements SecuredEntityManager {
         boolean newProject = checkNewProject(helpProject);
 
         projectDao.saveProject(helpProject, parentId);
+        projectTreeSnapshot.invalidate(helpProject.getId());
 
         Project loadedProject = this.load(helpProject.getId());
 
@@ -392,6 +366,7 @@ public class ProjectManager implements SecuredEntityManager {
             project.setPrettyName(newPrettyName.trim());
         }
         projectDao.saveProject(project, null);
+        projectTreeSnapshot.invalidate(project.getId());
     }
 
     /**
@@ -415,6 +390,7 @@ public class ProjectManager implements SecuredEntityManager {
         if (!existingBioIds.contains(biologicalItemId)) {
             checkReference(reference, itemsToAdd);
             projectDao.addProjectItem(projectId, biologicalItemId);
+            projectTreeSnapshot.invalidate(projectId);
         }
         return load(projectId);
     }
@@ -428,6 +404,7 @@ public class ProjectManager implements SecuredEntityManager {
     @Transactional(propagation = Propagation.REQUIRED)
     public Project removeProjectItem(long projectId, long biologicalItemId) {
         projectDao.deleteProjectItem(projectId, biologicalItemId);
+        projectTreeSnapshot.invalidate(projectId);
         return load(projectId);
     }
 
@@ -441,6 +418,7 @@ public class ProjectManager implements SecuredEntityManager {
     public void hideProjectItem(long projectId, long biologicalItemId) {
         Boolean isHidden = projectDao.isProjectItemHidden(projectId, biologicalItemId);
         projectDao.hideProjectItem(projectId, biologicalItemId, !isHidden);
+        projectTreeSnapshot.invalidate(projectId);
     }
 
     private void loadProjectStuff(final Project project) {
@@ -451,6 +429,7 @@ public class ProjectManager implements SecuredEntityManager {
 
     private void updateLastOpenedDate(Project project) {
         projectDao.updateLastOpenedDate(project.getId());
+        projectTreeSnapshot.invalidate(project.getId());
     }
 
     private void loadProjectItems(final Project project) {
@@ -488,6 +467,7 @@ public class ProjectManager implements SecuredEntityManager {
         projectDao.deleteProjectItems(projectToDelete.getId());
         projectDao.deleteProject(projectToDelete.getId());
         fileManager.deleteProjectDirectory(projectToDelete);
+        projectTreeSnapshot.invalidate(projectToDelete.getId());
         metadataManager.delete(projectToDelete.getId(), AclClass.PROJECT.name());
     }
 
@@ -554,49 +534,6 @@ public class ProjectManager implements SecuredEntityManager {
         return newProject;
     }
 
-    private void attachMetadata(final List<Project> allProjects, final Map<Long, Set<ProjectItem>> itemMap) {
-        attachMetadataToProjects(allProjects);
-        attachMetadataToItems(itemMap);
-    }
-
-    private void attachMetadataToProjects(final List<Project> allProjects) {
-        final Map<EntityVO, MetadataVO> projectsMetadata = metadataManager.getItems(allProjects.stream()
-                .map(project -> EntityVO.builder()
-                        .entityId(project.getId())
-                        .entityClass(project.getAclClass())
-                        .build())
-                .collect(Collectors.toList()));
-        allProjects.forEach(project -> attachMetadataToProject(project, projectsMetadata));
-    }
-
-    private void attachMetadataToProject(final Project project, final Map<EntityVO, MetadataVO> projectMetadata) {
-        final MetadataVO metadataVO = projectMetadata.get(EntityVO.builder()
-                .entityId(project.getId())
-                .entityClass(project.getAclClass())
-                .build());
-
-        if (Objects.isNull(metadataVO)) {
-            return;
-        }
-
-        project.setMetadata(metadataVO.getMetadata());
-    }
-
-    private void attachMetadataToItems(final Map<Long, Set<ProjectItem>> itemMap) {
-        final Map<EntityVO, MetadataVO> projectItemsMetadata = metadataManager.getItems(itemMap.values().stream()
-                .flatMap(Collection::stream)
-                .map(ProjectItem::getBioDataItem)
-                .map(projectItem -> EntityVO.builder()
-                        .entityId(projectItem.getId())
-                        .entityClass(projectItem.getAclClass())
-                        .build())
-                .distinct()
-                .collect(Collectors.toList()));
-        itemMap.values().forEach(items -> SetUtils.emptyIfNull(items).stream()
-                .map(ProjectItem::getBioDataItem)
-                .forEach(item -> attachMetadataToItem(item, projectItemsMetadata)));
-    }
-
     private void attachMetadataToItem(final BiologicalDataItem item,
                                       final Map<EntityVO, MetadataVO> projectItemsMetadata) {
         final MetadataVO metadataVO = projectItemsMetadata.get(EntityVO.builder()
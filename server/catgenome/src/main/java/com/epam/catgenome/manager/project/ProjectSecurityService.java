@@ -33,7 +33,10 @@ import com.epam.catgenome.security.acl.aspect.AclMask;
 import com.epam.catgenome.security.acl.aspect.AclMaskList;
 import com.epam.catgenome.security.acl.aspect.AclTree;
 import com.epam.catgenome.security.acl.aspect.AclFilterAndTree;
+import com.epam.catgenome.security.acl.GrantPermissionManager;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -54,6 +57,9 @@ public class ProjectSecurityService {
     private final ProjectManager projectManager;
     private final ProjectDescriptionService projectDescriptionService;
 
+    @Autowired(required = false)
+    private GrantPermissionManager permissionManager;
+
     @AclFilterAndTree
     @AclMaskList
     @PreAuthorize(ROLE_USER)
@@ -68,6 +74,16 @@ public class ProjectSecurityService {
         return projectManager.loadProjectTree(parentId, referenceName);
     }
 
+    /**
+     * @return a tag of a project tree, that changes when projects or permissions of the current user change
+     */
+    @PreAuthorize(ROLE_USER)
+    public String getProjectTreeTag(Long parentId, String referenceName) {
+        final String permissionsTag = permissionManager == null ? "" : permissionManager.getPermissionsTag();
+        return DigestUtils.md5Hex(String.join(":", String.valueOf(projectManager.getProjectTreeVersion()),
+                permissionsTag, String.valueOf(parentId), String.valueOf(referenceName)));
+    }
+
     @AclTree
     @AclMask
     @PreAuthorize(ROLE_USER)
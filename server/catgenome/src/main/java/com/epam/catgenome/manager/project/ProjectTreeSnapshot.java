@@ -0,0 +1,342 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.project;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.epam.catgenome.dao.metadata.MetadataDao;
+import com.epam.catgenome.dao.project.ProjectDao;
+import com.epam.catgenome.dao.project.ProjectDescriptionDao;
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.metadata.EntityVO;
+import com.epam.catgenome.entity.metadata.MetadataVO;
+import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.entity.project.ProjectDescription;
+import com.epam.catgenome.entity.project.ProjectItem;
+import com.epam.catgenome.entity.project.ProjectNote;
+import com.epam.catgenome.entity.security.AbstractSecuredEntity;
+import com.epam.catgenome.entity.security.AclClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.objenesis.Objenesis;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Keeps an in-memory snapshot of all projects with their items, notes, descriptions and metadata, that
+ * is used to build project trees without reloading the whole hierarchy from the database.
+ * <p>
+ * Managers, that modify project data, invalidate affected projects, which are reloaded on the next access.
+ * Invalidation is repeated after the current transaction completes, so changes, that weren't committed
+ * at the moment of reloading, aren't lost. Each invalidation changes the snapshot version, which allows
+ * clients to check, if a tree they've already loaded is still up to date.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ProjectTreeSnapshot {
+
+    private static final Objenesis OBJENESIS = new SpringObjenesis();
+
+    private final ProjectDao projectDao;
+    private final ProjectDescriptionDao projectDescriptionDao;
+    private final MetadataDao metadataDao;
+    private final boolean enabled;
+    private final long ttl;
+
+    // incremented on any change of project data, starts from the current time to differ between restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final Set<Long> invalidProjects = ConcurrentHashMap.newKeySet();
+    private final Object refreshLock = new Object();
+    private volatile boolean invalidAll = true;
+    private volatile long loadedAt;
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+
+    public ProjectTreeSnapshot(final ProjectDao projectDao, final ProjectDescriptionDao projectDescriptionDao,
+                               final MetadataDao metadataDao,
+                               @Value("${project.tree.snapshot.enable:true}") final boolean enabled,
+                               @Value("${project.tree.snapshot.ttl:3600}") final long ttl) {
+        this.projectDao = projectDao;
+        this.projectDescriptionDao = projectDescriptionDao;
+        this.metadataDao = metadataDao;
+        this.enabled = enabled;
+        this.ttl = TimeUnit.SECONDS.toMillis(ttl);
+    }
+
+    /**
+     * @return a version of project data, that changes each time any project is modified. If the snapshot is
+     * disabled, a new version is returned on each call
+     */
+    public long getVersion() {
+        if (!enabled) {
+            return version.incrementAndGet();
+        }
+        if (!invalidAll && isExpired()) {
+            invalidAll = true;
+            version.incrementAndGet();
+        }
+        return version.get();
+    }
+
+    /**
+     * Loads copies of projects with their items, notes, descriptions and metadata, nested projects aren't set.
+     * Returned projects can be freely modified by a caller.
+     * @param bioDataItemId if specified, only projects, containing an item with this ID, are returned
+     * @return projects from the snapshot
+     */
+    public List<Project> loadProjects(final Long bioDataItemId) {
+        final Collection<Project> projects = refresh().projects.values();
+        return projects.stream()
+                .filter(project -> bioDataItemId == null || containsItem(project, bioDataItemId))
+                .map(ProjectTreeSnapshot::copyOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Invalidates a project, it will be reloaded on the next access to the snapshot
+     * @param projectId an ID of a changed project
+     */
+    public void invalidate(final Long projectId) {
+        if (projectId != null) {
+            onChange(() -> invalidProjects.add(projectId));
+        }
+    }
+
+    /**
+     * Invalidates a changed entity: a project itself or all projects, containing the entity as an item
+     * @param entityId an ID of a changed entity
+     * @param aclClass a class of a changed entity
+     */
+    public void invalidate(final Long entityId, final AclClass aclClass) {
+        if (aclClass == AclClass.PROJECT) {
+            invalidate(entityId);
+            return;
+        }
+        final EntityVO entity = EntityVO.builder().entityId(entityId).entityClass(aclClass).build();
+        onChange(() -> invalidProjects.addAll(snapshot.itemProjects.getOrDefault(entity,
+                Collections.emptySet())));
+    }
+
+    public void invalidate(final AbstractSecuredEntity entity) {
+        if (entity != null) {
+            invalidate(entity.getId(), entity.getAclClass());
+        }
+    }
+
+    /**
+     * Invalidates the whole snapshot, all projects will be reloaded on the next access
+     */
+    public void invalidateAll() {
+        onChange(() -> {
+            invalidAll = true;
+        });
+    }
+
+    private void onChange(final Runnable invalidation) {
+        invalidation.run();
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    invalidation.run();
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private Snapshot refresh() {
+        if (!enabled) {
+            return new Snapshot(load(projectDao.loadAllProjects(), true));
+        }
+        if (!invalidAll && invalidProjects.isEmpty() && !isExpired()) {
+            return snapshot;
+        }
+        synchronized (refreshLock) {
+            if (invalidAll || isExpired()) {
+                invalidAll = false;
+                invalidProjects.clear();
+                final long startedAt = System.currentTimeMillis();
+                snapshot = new Snapshot(load(projectDao.loadAllProjects(), true));
+                loadedAt = startedAt;
+                log.debug("Project tree snapshot of {} projects is loaded in {} ms",
+                        snapshot.projects.size(), System.currentTimeMillis() - startedAt);
+            } else if (!invalidProjects.isEmpty()) {
+                final List<Long> projectIds = new ArrayList<>(invalidProjects);
+                invalidProjects.removeAll(projectIds);
+                final Map<Long, Project> projects = new TreeMap<>(snapshot.projects);
+                projectIds.forEach(projects::remove);
+                projects.putAll(load(projectIds.stream()
+                        .map(projectDao::loadProject)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()), false));
+                snapshot = new Snapshot(projects);
+            }
+            return snapshot;
+        }
+    }
+
+    private boolean isExpired() {
+        return ttl > 0 && System.currentTimeMillis() - loadedAt > ttl;
+    }
+
+    private Map<Long, Project> load(final List<Project> projects, final boolean all) {
+        final Map<Long, Project> loaded = new TreeMap<>();
+        if (projects.isEmpty()) {
+            return loaded;
+        }
+        final List<Long> projectIds = projects.stream().map(Project::getId).collect(Collectors.toList());
+        final Map<Long, Set<ProjectItem>> itemMap = all
+                ? projectDao.loadAllProjectItems()
+                : projectDao.loadProjectItemsByProjectIds(projectIds);
+        final Map<Long, Set<ProjectNote>> noteMap = projectDao.loadAllProjectNotes(all ? null : projects);
+        final Map<Long, List<ProjectDescription>> descriptionsMap = all
+                ? projectDescriptionDao.findAll()
+                : projectDescriptionDao.findByProjectIdIn(projectIds);
+
+        projects.forEach(p -> {
+            if (itemMap.containsKey(p.getId())) {
+                p.setItems(new ArrayList<>(itemMap.get(p.getId())));
+            }
+            if (noteMap.containsKey(p.getId())) {
+                p.setNotes(new ArrayList<>(noteMap.get(p.getId())));
+            }
+            if (descriptionsMap.containsKey(p.getId())) {
+                p.setDescriptions(new ArrayList<>(descriptionsMap.get(p.getId())));
+            }
+            loaded.put(p.getId(), p);
+        });
+        attachMetadata(projects);
+        return loaded;
+    }
+
+    private void attachMetadata(final List<Project> projects) {
+        final List<AbstractSecuredEntity> entities = new ArrayList<>(projects);
+        projects.stream()
+                .flatMap(project -> itemsOf(project).stream())
+                .map(ProjectItem::getBioDataItem)
+                .forEach(entities::add);
+        final Map<EntityVO, MetadataVO> metadata = metadataDao.getItems(entities.stream()
+                .map(ProjectTreeSnapshot::toEntity)
+                .distinct()
+                .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(metadataVO -> EntityVO.builder()
+                        .entityId(metadataVO.getId())
+                        .entityClass(metadataVO.getAclClass())
+                        .build(), Function.identity()));
+        projects.forEach(project -> {
+            final MetadataVO projectMetadata = metadata.get(toEntity(project));
+            if (projectMetadata != null) {
+                project.setMetadata(projectMetadata.getMetadata());
+            }
+            itemsOf(project).stream()
+                    .map(ProjectItem::getBioDataItem)
+                    .forEach(item -> {
+                        final MetadataVO itemMetadata = metadata.get(toEntity(item));
+                        if (itemMetadata != null) {
+                            item.setMetadata(itemMetadata.getMetadata());
+                        }
+                    });
+        });
+    }
+
+    private static boolean containsItem(final Project project, final Long bioDataItemId) {
+        return itemsOf(project).stream()
+                .anyMatch(item -> bioDataItemId.equals(BiologicalDataItem.getBioDataItemId(item.getBioDataItem())));
+    }
+
+    private static List<ProjectItem> itemsOf(final Project project) {
+        return project.getItems() == null ? Collections.emptyList() : project.getItems();
+    }
+
+    private static EntityVO toEntity(final AbstractSecuredEntity entity) {
+        return EntityVO.builder()
+                .entityId(entity.getId())
+                .entityClass(entity.getAclClass())
+                .build();
+    }
+
+    /**
+     * Copies a project together with its items, since permission masks are set to projects and items, when
+     * a tree is filtered for a user
+     */
+    private static Project copyOf(final Project project) {
+        final Project copy = shallowCopy(project);
+        if (project.getItems() != null) {
+            copy.setItems(project.getItems().stream()
+                    .map(item -> {
+                        final ProjectItem itemCopy = shallowCopy(item);
+                        itemCopy.setBioDataItem(shallowCopy(item.getBioDataItem()));
+                        return itemCopy;
+                    })
+                    .collect(Collectors.toList()));
+        }
+        if (project.getNotes() != null) {
+            copy.setNotes(new ArrayList<>(project.getNotes()));
+        }
+        if (project.getDescriptions() != null) {
+            copy.setDescriptions(new ArrayList<>(project.getDescriptions()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T shallowCopy(final T source) {
+        // some data items don't have a default constructor, so they are instantiated the same way as proxies are
+        final T copy = (T) OBJENESIS.newInstance(source.getClass());
+        ReflectionUtils.shallowCopyFieldState(source, copy);
+        return copy;
+    }
+
+    private static final class Snapshot {
+
+        private final Map<Long, Project> projects;
+        private final Map<EntityVO, Set<Long>> itemProjects = new HashMap<>();
+
+        private Snapshot(final Map<Long, Project> projects) {
+            this.projects = projects;
+            projects.values().forEach(project -> itemsOf(project).forEach(item -> itemProjects
+                    .computeIfAbsent(toEntity(item.getBioDataItem()), entity -> new HashSet<>())
+                    .add(project.getId())));
+        }
+    }
+}
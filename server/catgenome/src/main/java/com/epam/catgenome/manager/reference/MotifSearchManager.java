@@ -48,6 +48,7 @@ import com.epam.catgenome.manager.gene.GeneFileManager;
 import com.epam.catgenome.manager.gene.GeneUtils;
 import com.epam.catgenome.manager.gene.GffManager;
 import com.epam.catgenome.manager.gene.parser.StrandSerializable;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
 import com.epam.catgenome.util.NggbIntervalTreeMap;
 import com.epam.catgenome.util.motif.MotifSearcher;
 import htsjdk.samtools.util.Interval;
@@ -59,17 +60,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.epam.catgenome.component.MessageHelper.getMessage;
@@ -93,6 +102,9 @@ public class MotifSearchManager {
     @Value("${motif.search.result.size.limit:131072}")
     private int searchResultSizeLimit;
 
+    @Value("${motif.search.threads:0}")
+    private int searchThreads;
+
     @Autowired
     private ReferenceGenomeManager referenceGenomeManager;
 
@@ -108,6 +120,9 @@ public class MotifSearchManager {
     @Autowired
     private GffManager gffManager;
 
+    @Autowired
+    private TaskExecutorService taskExecutorService;
+
     public Track<StrandedSequence> fillTrackWithMotifSearch(final Track<StrandedSequence> track,
                                                             final String motif,
                                                             final StrandSerializable strand) {
@@ -384,32 +399,9 @@ public class MotifSearchManager {
         final int start = request.getStartPosition() == null ? 0 : request.getStartPosition();
         final int end = request.getEndPosition() == null ? chromosome.getSize() : request.getEndPosition();
 
-        final Set<Motif> result = new LinkedHashSet<>();
-        int currentStart = start;
-        int currentEnd = Math.min(this.bufferSize, end - start) + start;
-
-        while (result.size() < pageSize && currentStart < end) {
-            result.addAll(searchRegionMotifs(MotifSearchRequest.builder()
-                            .motif(request.getMotif())
-                            .referenceId(request.getReferenceId())
-                            .chromosomeId(request.getChromosomeId())
-                            .startPosition(currentStart)
-                            .endPosition(currentEnd)
-                            .pageSize(pageSize)
-                            .includeSequence(request.getIncludeSequence())
-                            .strand(request.getStrandFilter())
-                            .slidingWindow(request.getSlidingWindow())
-                            .build(),
-                    reference,
-                    false
-            ).getResult());
-            checkSizeOfMotifSearchResult(result);
-            currentStart = currentStart + bufferSize;
-            currentEnd = Math.min(currentEnd + bufferSize, end);
-        }
-        final List<Motif> pageSizedResult = result.stream()
-                .limit(Math.min(result.size(), pageSize))
-                .collect(Collectors.toList());
+        final List<MotifSearchRequest> windows = new ArrayList<>();
+        addChromosomeWindows(windows, request, request.getChromosomeId(), start, end, pageSize);
+        final List<Motif> pageSizedResult = searchWindows(windows, reference, pageSize);
 
         if (loadGenes && CollectionUtils.isNotEmpty(pageSizedResult) && reference.getGeneFile() != null) {
             attachGenesFromFile(pageSizedResult, reference, chromosome);
@@ -473,44 +465,129 @@ public class MotifSearchManager {
         Chromosome chromosome = fetchChromosomeById(reference, request.getChromosomeId());
         long chrId = chromosome.getId();
         final List<Chromosome> chromosomes = reference.getChromosomes();
-        final List<Motif> motifs = new ArrayList<>();
-        while (chromosome != null && pageSize - motifs.size() > 0) {
+        // windows of all chromosomes are queued together, so that small chromosomes are searched in parallel as well
+        final List<MotifSearchRequest> windows = new ArrayList<>();
+        while (chromosome != null) {
             chrId = chromosome.getId();
             if (CollectionUtils.isNotEmpty(request.getChromosomeFilter()) &&
                     !request.getChromosomeFilter().contains(chrId)) {
                 log.debug("Requested chromosome {} doesn't match filter {}", chromosome.getId(),
                         request.getChromosomeFilter());
-                start = 0;
-                chromosome = getNextChromosome(chromosomes, chromosome);
-                continue;
+            } else {
+                addChromosomeWindows(windows, request, chrId, start, chromosome.getSize(), pageSize);
             }
-            motifs.addAll(searchChromosomeMotifs(
-                    request.toBuilder()
-                            .pageSize(pageSize - motifs.size())
-                            .searchType(MotifSearchType.CHROMOSOME)
-                            .chromosomeId(chrId)
-                            .startPosition(start)
-                            .endPosition(chromosome.getSize())
-                            .slidingWindow(request.getSlidingWindow())
-                            .build(),
-                    reference, loadGenes)
-                    .getResult()
-                    .stream()
-                    .limit(pageSize - motifs.size())
-                    .collect(Collectors.toList()));
             start = 0;
             chromosome = getNextChromosome(chromosomes, chromosome);
-            checkSizeOfMotifSearchResult(motifs);
+        }
+        final List<Motif> motifs = searchWindows(windows, reference, pageSize);
+        final boolean lastPage = motifs.size() < pageSize;
+        if (!lastPage) {
+            // page is filled on the chromosome of the last motif, the rest of the genome is searched by next pages
+            final String lastContig = motifs.get(motifs.size() - 1).getContig();
+            chrId = chromosomes.stream()
+                    .filter(chr -> chr.getName().equals(lastContig))
+                    .findFirst()
+                    .map(BaseEntity::getId)
+                    .orElse(chrId);
+        }
+        if (loadGenes && reference.getGeneFile() != null) {
+            final Map<String, Chromosome> chromosomesByName = chromosomes.stream()
+                    .collect(Collectors.toMap(Chromosome::getName, Function.identity(), (c1, c2) -> c1));
+            motifs.stream()
+                    .collect(Collectors.groupingBy(Motif::getContig, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((contig, contigMotifs) ->
+                            attachGenesFromFile(contigMotifs, reference, chromosomesByName.get(contig)));
         }
         return MotifSearchResult.builder()
                 .result(motifs)
                 .pageSize(pageSize)
                 .chromosomeId(chrId)
-                .position(chromosome == null && pageSize - motifs.size() > 0 ? null
-                        : motifs.get(motifs.size() - 1).getStart())
+                .position(lastPage ? null : motifs.get(motifs.size() - 1).getStart())
                 .build();
     }
 
+    private void addChromosomeWindows(final List<MotifSearchRequest> windows, final MotifSearchRequest request,
+                                      final Long chromosomeId, final int start, final int end, final int pageSize) {
+        int currentStart = start;
+        int currentEnd = Math.min(this.bufferSize, end - start) + start;
+        while (currentStart < end) {
+            windows.add(MotifSearchRequest.builder()
+                    .motif(request.getMotif())
+                    .referenceId(request.getReferenceId())
+                    .chromosomeId(chromosomeId)
+                    .startPosition(currentStart)
+                    .endPosition(currentEnd)
+                    .pageSize(pageSize)
+                    .includeSequence(request.getIncludeSequence())
+                    .strand(request.getStrandFilter())
+                    .slidingWindow(request.getSlidingWindow())
+                    .build());
+            currentStart = currentStart + bufferSize;
+            currentEnd = Math.min(currentEnd + bufferSize, end);
+        }
+    }
+
+    /**
+     * Searches motifs in a sequence of overlapping windows and returns the first page of results in order
+     * of windows. Windows are searched ahead on a thread pool, but their results are consumed one by one,
+     * so a page doesn't depend on the number of threads. Windows, that aren't required to fill the page,
+     * are cancelled.
+     */
+    private List<Motif> searchWindows(final List<MotifSearchRequest> windows, final Reference reference,
+                                      final int pageSize) {
+        final int threads = Math.max(1,
+                searchThreads > 0 ? searchThreads : taskExecutorService.getTaskNumberOfThreads());
+        final Deque<Future<List<Motif>>> running = new ArrayDeque<>();
+        final Set<Motif> result = new LinkedHashSet<>();
+        int next = 0;
+        try {
+            while (result.size() < pageSize && (next < windows.size() || !running.isEmpty())) {
+                while (next < windows.size() && running.size() < threads) {
+                    running.add(submitWindow(windows.get(next), reference, threads > 1));
+                    next++;
+                }
+                result.addAll(getWindowResult(running.poll()));
+                checkSizeOfMotifSearchResult(result);
+            }
+        } finally {
+            running.forEach(future -> future.cancel(true));
+        }
+        return result.stream()
+                .limit(pageSize)
+                .collect(Collectors.toList());
+    }
+
+    private Future<List<Motif>> submitWindow(final MotifSearchRequest window, final Reference reference,
+                                             final boolean async) {
+        final FutureTask<List<Motif>> task = new FutureTask<>(
+            () -> searchRegionMotifs(window, reference, false).getResult());
+        if (async) {
+            try {
+                taskExecutorService.getExecutorService().execute(task);
+                return task;
+            } catch (RejectedExecutionException e) {
+                // pool is saturated, the window is searched by the calling thread
+                log.debug(e.getMessage(), e);
+            }
+        }
+        task.run();
+        return task;
+    }
+
+    private static List<Motif> getWindowResult(final Future<List<Motif>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     private Chromosome getNextChromosome(final List<Chromosome> chromosomes, final Chromosome chromosome) {
         for (int i = 0; i < chromosomes.size() - 1; i++) {
             if (chromosomes.get(i).getName().equals(chromosome.getName())) {
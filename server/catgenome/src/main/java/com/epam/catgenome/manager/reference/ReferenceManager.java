@@ -56,6 +56,7 @@ import com.epam.catgenome.manager.reference.io.FastaSequenceFile;
 import com.epam.catgenome.manager.reference.io.FastaUtils;
 import com.epam.catgenome.manager.genbank.GenbankUtils;
 import com.epam.catgenome.manager.reference.io.NibDataReader;
+import com.epam.catgenome.manager.reference.io.NibSequenceCache;
 import com.epam.catgenome.manager.reference.io.NibDataWriter;
 import com.epam.catgenome.util.BlockCompressedDataInputStream;
 import com.epam.catgenome.util.BlockCompressedDataOutputStream;
@@ -119,6 +120,8 @@ public class ReferenceManager {
 
     @Autowired private NibDataWriter nibDataWriter;
 
+    @Autowired private NibSequenceCache nibSequenceCache;
+
     @Autowired private GffManager gffManager;
 
     @Autowired private GeneFileManager geneFileManager;
@@ -288,13 +291,8 @@ public class ReferenceManager {
             final long referenceId, final String chromosomeName) throws IOException {
         final Reference reference = referenceGenomeManager.getOnlyReference(referenceId);
         if (isNibReference(reference.getPath())) {
-            try (BlockCompressedDataInputStream strm = fileManager
-                    .makeRefInputStream(referenceId, chromosomeName);
-                    DataInputStream indexStrm = fileManager
-                            .makeRefIndexInputStream(referenceId, chromosomeName)) {
-                return nibDataReader
-                        .getNucleotidesFromNibFile(startPosition, endPosition, strm, indexStrm);
-            }
+            return nibDataReader
+                    .getNucleotidesFromNibFile(startPosition, endPosition, referenceId, chromosomeName);
         } else {
             List<Sequence> sequencesList = new ArrayList<>();
 
@@ -365,6 +363,7 @@ public class ReferenceManager {
         Assert.notNull(reference, MessagesConstants.ERROR_NO_SUCH_FILE);
 
         referenceGenomeManager.delete(reference);
+        nibSequenceCache.evict(referenceId);
         fileManager.deleteReferenceDir(reference);
         return reference;
     }
@@ -383,12 +382,7 @@ public class ReferenceManager {
             final Long referenceId, final String chromosomeName) throws IOException {
         final Reference reference = referenceGenomeManager.getOnlyReference(referenceId);
         if (isNibReference(reference.getPath())) {
-            try (BlockCompressedDataInputStream strm = fileManager
-                    .makeRefInputStream(reference.getId(), chromosomeName);
-                    DataInputStream indexStrm = fileManager
-                            .makeRefIndexInputStream(reference.getId(), chromosomeName)) {
-                return nibDataReader.getStringFromNibFile(startIndex, endIndex, strm, indexStrm);
-            }
+            return nibDataReader.getStringFromNibFile(startIndex, endIndex, reference.getId(), chromosomeName);
         } else {
             FastaSequenceFile ref = new FastaSequenceFile(reference.getPath(), getIndexPath(reference));
             return new String(ref.getSequence(chromosomeName, startIndex, endIndex),
@@ -415,14 +409,8 @@ public class ReferenceManager {
     public byte[] getSequenceByteArray(final int startIndex, final int endIndex,
                                        final Reference reference, final String chromosomeName) throws IOException {
         if (isNibReference(reference.getPath())) {
-            try (BlockCompressedDataInputStream strm = fileManager
-                    .makeRefInputStream(reference.getId(), chromosomeName);
-                 DataInputStream indexStrm = fileManager
-                         .makeRefIndexInputStream(reference.getId(), chromosomeName)) {
-                return nibDataReader
-                        .getByteNucleotidesFromNibFile(startIndex, endIndex, strm, indexStrm);
-            }
-
+            return nibDataReader
+                    .getByteNucleotidesFromNibFile(startIndex, endIndex, reference.getId(), chromosomeName);
         } else {
             FastaSequenceFile ref = new FastaSequenceFile(reference.getPath(), getIndexPath(reference));
             return ref.getSequence(chromosomeName, startIndex, endIndex);
@@ -494,12 +482,7 @@ public class ReferenceManager {
         } else {
             if (isNibReference(reference.getPath())) {
                 log.debug(getMessage(MessagesConstants.DEBUG_FILE_READING));
-                try (BlockCompressedDataInputStream strm = fileManager
-                        .makeRefInputStream(trackID, chromosomeName);
-                        DataInputStream indexStrm = fileManager
-                                .makeRefIndexInputStream(trackID, chromosomeName)) {
-                    return getGCFromNibFile(startIndex, endIndex, scaleFactor, strm, indexStrm);
-                }
+                return getGCFromNibFile(startIndex, endIndex, scaleFactor, trackID, chromosomeName);
             } else {
                 log.debug(getMessage(MessagesConstants.DEBUG_FILE_READING));
                 String sequence =
@@ -576,11 +559,10 @@ public class ReferenceManager {
     }
 
     private List<Sequence> getGCFromNibFile(int startPosition, final int endPosition,
-            final double scaleFactor, final BlockCompressedDataInputStream gcContentStream,
-            final DataInputStream indexStream) throws IOException {
+            final double scaleFactor, final long referenceId, final String chromosomeName) throws IOException {
         //arrays started at zero position, but chromosome started ad first position
         return nibDataReader.fillSequenceOfGCFromNibFile(startPosition, endPosition, scaleFactor,
-                gcContentStream, indexStream);
+                referenceId, chromosomeName);
     }
 
     private long registerReference(Long referenceId, Reference reference, boolean createGC)
@@ -68,6 +68,9 @@ public class NibDataReader {
     @Autowired
     private HttpDataManager httpDataManager;
 
+    @Autowired
+    private NibSequenceCache nibSequenceCache;
+
     private static final Logger LOG = LoggerFactory.getLogger(NibDataWriter.class);
 
     public NibDataReader() {
@@ -78,17 +81,16 @@ public class NibDataReader {
      * Loads sequence string from the input stream in the Nib format
      * @param startPosition {@code int} start position at chromosome
      * @param endPosition   {@code int} end position at chromosome
-     * @param nibStream     {@code InputStream} InputStream from nib-format file
-     * @return {@code String} return String of nucleotides, at nibStream started at startPosition
+     * @param referenceId   {@code long} ID of the reference
+     * @param chromosomeName {@code String} name of the chromosome
+     * @return {@code String} return String of nucleotides, at the chromosome sequence started at startPosition
      * and length sequenceLength
      */
     public String getStringFromNibFile(final int startPosition, final int endPosition,
-            BlockCompressedDataInputStream nibStream,
-            DataInputStream indexStream)
+            final long referenceId, final String chromosomeName)
             throws IOException {
         final int newStartPosition = startPosition - 1;
         final int sequenceLength = endPosition - newStartPosition;
-        Assert.notNull(nibStream, getMessage(MessagesConstants.ERROR_NO_SUCH_FILE));
         Assert.isTrue(sequenceLength >= 0, getMessage(MessagesConstants.ERROR_LENGTH_ABOVE_ZERO));
         Assert.isTrue(newStartPosition >= 0, getMessage(MessagesConstants.ERROR_START_POSITION_ABOVE_ZERO));
 
@@ -99,7 +101,7 @@ public class NibDataReader {
         // 2 nib-format at byte
         final int realLength = sequenceLength / 2 + Math.max(positionFactor, realLengthFactor);
         byte[] buffer = new byte[realLength];
-        buffer = readFromNib(nibStream, indexStream, newStartPosition, sequenceLength, seekPosition, buffer);
+        buffer = readFromNib(referenceId, chromosomeName, newStartPosition, sequenceLength, seekPosition, buffer);
         return nibByteArrayToString(positionFactor, sequenceLength, buffer);
     }
 
@@ -107,17 +109,16 @@ public class NibDataReader {
      * Loads a byte array with nucleotides byte values from the input stream in the Nib format
      * @param startPosition {@code int} start position at chromosome
      * @param endPosition   {@code int} end position at chromosome
-     * @param nibStream     {@code InputStream} InputStream from nib-format file
-     * @return {@code String} byte array with of nucleotides, at nibStream started at startPosition
+     * @param referenceId   {@code long} ID of the reference
+     * @param chromosomeName {@code String} name of the chromosome
+     * @return {@code String} byte array with of nucleotides, at the chromosome sequence started at startPosition
      * and length sequenceLength
      */
     public byte[] getByteNucleotidesFromNibFile(final int startPosition, final int endPosition,
-            BlockCompressedDataInputStream nibStream,
-            DataInputStream indexStream)
+            final long referenceId, final String chromosomeName)
             throws IOException {
         final int newStartPosition = startPosition - 1;
         final int sequenceLength = endPosition - newStartPosition;
-        Assert.notNull(nibStream, getMessage(MessagesConstants.ERROR_NO_SUCH_FILE));
         Assert.isTrue(sequenceLength >= 0, getMessage(MessagesConstants.ERROR_LENGTH_ABOVE_ZERO));
         Assert.isTrue(newStartPosition >= 0, getMessage(MessagesConstants.ERROR_START_POSITION_ABOVE_ZERO));
 
@@ -128,7 +129,7 @@ public class NibDataReader {
         // 2 nib-format at byte
         final int realLength = sequenceLength / 2 + Math.max(positionFactor, realLengthFactor);
         byte[] buffer = new byte[realLength];
-        buffer = readFromNib(nibStream, indexStream, newStartPosition, sequenceLength, seekPosition, buffer);
+        buffer = readFromNib(referenceId, chromosomeName, newStartPosition, sequenceLength, seekPosition, buffer);
         return nibByteArrayToNucleotideBytes(positionFactor, sequenceLength, buffer);
     }
 
@@ -136,19 +137,18 @@ public class NibDataReader {
      * Loads a {@code List} of reference sequences from the stream (file) in a Nib format
      * @param startPosition {@code int} start position at chromosome
      * @param endPosition   {@code int} end position at chromosome
-     * @param nibStream     {@code InputStream} InputStream from nib-format file
-     * @return {@code List} return List of nucleotides sequences, at nibStream started at startPosition
+     * @param referenceId   {@code long} ID of the reference
+     * @param chromosomeName {@code String} name of the chromosome
+     * @return {@code List} return List of nucleotides sequences, at the chromosome sequence started at startPosition
      * and length sequenceLength
      */
     public List<Sequence> getNucleotidesFromNibFile(final int startPosition, final int endPosition,
-            final BlockCompressedDataInputStream nibStream,
-            final DataInputStream indexStream)
+            final long referenceId, final String chromosomeName)
             throws IOException {
         //arrays started at zero position, but chromosome started ad first position
         final int newStartPosition = startPosition - 1;
         //sequenceLength it (endPosition) - (old startPosition) + 1 or (endPosition) - (new startPosition)
         final int sequenceLength = endPosition - newStartPosition;
-        Assert.notNull(nibStream, getMessage(MessagesConstants.ERROR_NO_SUCH_FILE));
         Assert.isTrue(sequenceLength >= 0, getMessage(MessagesConstants.ERROR_LENGTH_ABOVE_ZERO));
         Assert.isTrue(newStartPosition >= 0, getMessage(MessagesConstants.ERROR_START_POSITION_ABOVE_ZERO));
 
@@ -159,7 +159,7 @@ public class NibDataReader {
         // 2 nib-format at byte
         final int realLength = sequenceLength / 2 + Math.max(positionFactor, realLengthFactor);
         byte[] buffer = new byte[realLength];
-        buffer = readFromNib(nibStream, indexStream, newStartPosition, sequenceLength, seekPosition, buffer);
+        buffer = readFromNib(referenceId, chromosomeName, newStartPosition, sequenceLength, seekPosition, buffer);
         return NibByteFormat
                 .nibByteArrayToNucleotidesList(newStartPosition, positionFactor, sequenceLength, buffer);
     }
@@ -199,16 +199,14 @@ public class NibDataReader {
      * @param startPosition {@code int} start position at chromosome
      * @param endPosition   {@code int} end position at chromosome
      * @param scaleFactor   track scale in the client
-     * @param nibStream     {@code InputStream} InputStream from nib-format file
-     * @param indexStream   {@code DataInputStream} InputStream from the reference index file
+     * @param referenceId   {@code long} ID of the reference
+     * @param chromosomeName {@code String} name of the chromosome
      * @return {@code List} of sequences filled with GC-content data
      */
     public List<Sequence> fillSequenceOfGCFromNibFile(final int startPosition, final int endPosition,
             final double scaleFactor,
-            final BlockCompressedDataInputStream nibStream,
-            final DataInputStream indexStream)
+            final long referenceId, final String chromosomeName)
             throws IOException {
-        Assert.notNull(nibStream, getMessage(MessagesConstants.ERROR_NO_SUCH_FILE));
 
         List<Sequence> template = createGCList(startPosition, endPosition, scaleFactor);
         //because index in array started at 0
@@ -226,7 +224,7 @@ public class NibDataReader {
         final int realLength = sequenceLength / 2 + Math.max(positionFactor, reallengthFactor);
         byte[] buffer = new byte[realLength];
         int nibCode;
-        buffer = readFromNib(nibStream, indexStream, newStartPosition, sequenceLength, seekPosition, buffer);
+        buffer = readFromNib(referenceId, chromosomeName, newStartPosition, sequenceLength, seekPosition, buffer);
 
         //index for gcContentArray
         for (Sequence sequence : template) {
@@ -389,22 +387,13 @@ public class NibDataReader {
     }
 
 
-    private byte[] readFromNib(final BlockCompressedDataInputStream nibStream, final DataInputStream indexStream,
+    private byte[] readFromNib(final long referenceId, final String chromosomeName,
             final int startPosition, final int sequenceLength, long seekPosition,
             byte[] buffer) throws IOException {
-
-        int signature = nibStream.readInt();
-        int lengthNibSequence = nibStream.readInt();
-        Assert.isTrue(signature == Signature.NIB_SIGNATURE.getSignature(),
-                getMessage(MessagesConstants.ERROR_WRONG_SIGNATURE));
+        final int lengthNibSequence = nibSequenceCache.getSequenceLength(referenceId, chromosomeName);
         Assert.isTrue(lengthNibSequence >= startPosition + sequenceLength,
                 getMessage(MessagesConstants.ERROR_LOGIC_LENGTH));
-        seekBCDISWithIndexFile(nibStream, indexStream, seekPosition);
-
-        readInBuff(buffer, nibStream);
-
-        IOUtils.closeQuietly(nibStream);
-        IOUtils.closeQuietly(indexStream);
+        nibSequenceCache.read(referenceId, chromosomeName, seekPosition, buffer);
         return buffer;
     }
 
@@ -0,0 +1,328 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.reference.io;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Data;
+import lombok.Getter;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.entity.nucleotid.Signature;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.util.BlockCompressedDataInputStream;
+
+/**
+ * Provides random access to Nib sequences of registered references. Block indexes of chromosome files are read
+ * once and kept resident, decompressed BGZF blocks are kept in an LRU cache limited by their total size. If
+ * mapping is enabled, a chromosome is unpacked to an uncompressed Nib file on the first access, which is
+ * memory-mapped, so that further reads are plain copies from the page cache.
+ */
+@Component
+public class NibSequenceCache {
+
+    /**
+     * Nib signature and sequence length
+     */
+    private static final int HEADER_SIZE = 8;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int COPY_BUFFER_SIZE = 65536;
+
+    @Value("${reference.nib.cache.max.size:67108864}")
+    private long maxSizeInBytes;
+
+    @Value("${reference.nib.mapped:false}")
+    private boolean mapped;
+
+    @Autowired
+    private FileManager fileManager;
+
+    private final Map<ChromosomeKey, NibChromosome> chromosomes = new ConcurrentHashMap<>();
+    private final Map<BlockKey, byte[]> blocks = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private long sizeInBytes;
+
+    /**
+     * @param referenceId reference ID
+     * @param chromosomeName chromosome name
+     * @return count of bases in the chromosome sequence
+     * @throws IOException if the chromosome index can't be read
+     */
+    public int getSequenceLength(final long referenceId, final String chromosomeName) throws IOException {
+        return getChromosome(referenceId, chromosomeName).getSequenceLength();
+    }
+
+    /**
+     * Reads packed Nib bytes of a chromosome sequence, each byte holds two bases
+     * @param referenceId reference ID
+     * @param chromosomeName chromosome name
+     * @param offset offset of the first byte in the packed sequence
+     * @param buffer where to read bytes, it is filled completely
+     * @throws IOException if the sequence can't be read
+     */
+    public void read(final long referenceId, final String chromosomeName, final long offset,
+                     final byte[] buffer) throws IOException {
+        final NibChromosome chromosome = getChromosome(referenceId, chromosomeName);
+        // messages are resolved only on failure, since reads are frequent
+        if (offset < 0 || offset + buffer.length > chromosome.getPackedLength()) {
+            throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_READ_FILE));
+        }
+        if (mapped) {
+            final ByteBuffer sequence = getMappedSequence(chromosome).duplicate();
+            sequence.position((int) offset);
+            sequence.get(buffer);
+            return;
+        }
+        readBlocks(chromosome, HEADER_SIZE + offset, buffer);
+    }
+
+    /**
+     * Drops cached data of a reference, e.g. if it is unregistered
+     * @param referenceId reference ID
+     */
+    public void evict(final long referenceId) {
+        chromosomes.keySet().removeIf(key -> key.getReferenceId() == referenceId);
+        synchronized (this) {
+            final Iterator<Map.Entry<BlockKey, byte[]>> iterator = blocks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<BlockKey, byte[]> entry = iterator.next();
+                if (entry.getKey().getChromosome().getReferenceId() == referenceId) {
+                    sizeInBytes -= entry.getValue().length;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private NibChromosome getChromosome(final long referenceId, final String chromosomeName) throws IOException {
+        final ChromosomeKey key = new ChromosomeKey(referenceId, chromosomeName);
+        final NibChromosome cached = chromosomes.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final NibChromosome loaded = loadChromosome(key);
+        final NibChromosome existing = chromosomes.putIfAbsent(key, loaded);
+        return existing == null ? loaded : existing;
+    }
+
+    private NibChromosome loadChromosome(final ChromosomeKey key) throws IOException {
+        long[] pointers = new long[INITIAL_CAPACITY];
+        long[] starts = new long[INITIAL_CAPACITY + 1];
+        int count = 0;
+        try (DataInputStream index = fileManager.makeRefIndexInputStream(key.getReferenceId(), key.getName())) {
+            while (true) {
+                final long pointer;
+                try {
+                    pointer = index.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (count == pointers.length) {
+                    pointers = Arrays.copyOf(pointers, count * 2);
+                    starts = Arrays.copyOf(starts, count * 2 + 1);
+                }
+                pointers[count] = pointer;
+                starts[count + 1] = starts[count] + index.readLong();
+                count++;
+            }
+        }
+        final int signature;
+        final int sequenceLength;
+        try (BlockCompressedDataInputStream stream = fileManager.makeRefInputStream(key.getReferenceId(),
+                key.getName())) {
+            signature = stream.readInt();
+            sequenceLength = stream.readInt();
+        }
+        Assert.isTrue(signature == Signature.NIB_SIGNATURE.getSignature(),
+                getMessage(MessagesConstants.ERROR_WRONG_SIGNATURE));
+        return new NibChromosome(key, sequenceLength, Arrays.copyOf(pointers, count),
+                Arrays.copyOf(starts, count + 1));
+    }
+
+    private void readBlocks(final NibChromosome chromosome, final long position, final byte[] buffer)
+            throws IOException {
+        BlockCompressedDataInputStream stream = null;
+        try {
+            int block = chromosome.findBlock(position);
+            int copied = 0;
+            while (copied < buffer.length) {
+                if (block >= chromosome.getBlockCount()) {
+                    throw new IllegalArgumentException(getMessage(MessagesConstants.ERROR_READ_FILE));
+                }
+                final BlockKey key = new BlockKey(chromosome.getKey(), block);
+                byte[] data = getBlock(key);
+                if (data == null) {
+                    if (stream == null) {
+                        stream = fileManager.makeRefInputStream(chromosome.getKey().getReferenceId(),
+                                chromosome.getKey().getName());
+                    }
+                    data = readBlock(stream, chromosome, block);
+                    putBlock(key, data);
+                }
+                final int from = (int) Math.max(0, position + copied - chromosome.getBlockStart(block));
+                final int length = Math.min(data.length - from, buffer.length - copied);
+                System.arraycopy(data, from, buffer, copied, length);
+                copied += length;
+                block++;
+            }
+        } finally {
+            IOUtils.closeQuietly(stream);
+        }
+    }
+
+    private static byte[] readBlock(final BlockCompressedDataInputStream stream, final NibChromosome chromosome,
+                                    final int block) throws IOException {
+        final byte[] data = new byte[(int) (chromosome.getBlockStart(block + 1) - chromosome.getBlockStart(block))];
+        stream.seek(chromosome.getPointer(block));
+        IOUtils.readFully(stream, data);
+        return data;
+    }
+
+    private synchronized byte[] getBlock(final BlockKey key) {
+        return blocks.get(key);
+    }
+
+    private synchronized void putBlock(final BlockKey key, final byte[] data) {
+        if (data.length > maxSizeInBytes || blocks.containsKey(key)) {
+            return;
+        }
+        final Iterator<byte[]> eldest = blocks.values().iterator();
+        while (sizeInBytes + data.length > maxSizeInBytes && eldest.hasNext()) {
+            sizeInBytes -= eldest.next().length;
+            eldest.remove();
+        }
+        blocks.put(key, data);
+        sizeInBytes += data.length;
+    }
+
+    private ByteBuffer getMappedSequence(final NibChromosome chromosome) throws IOException {
+        synchronized (chromosome) {
+            if (chromosome.getMappedSequence() == null) {
+                final ChromosomeKey key = chromosome.getKey();
+                final File file = fileManager.makeRefUncompressedFile(key.getReferenceId(), key.getName());
+                if (!file.exists()) {
+                    unpack(chromosome, file);
+                }
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    Assert.isTrue(channel.size() == chromosome.getPackedLength(),
+                            getMessage(MessagesConstants.ERROR_READ_FILE));
+                    chromosome.setMappedSequence(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+            return chromosome.getMappedSequence();
+        }
+    }
+
+    private void unpack(final NibChromosome chromosome, final File file) throws IOException {
+        final File tmp = new File(file.getPath() + TMP_SUFFIX);
+        final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        try (BlockCompressedDataInputStream stream = fileManager.makeRefInputStream(
+                chromosome.getKey().getReferenceId(), chromosome.getKey().getName());
+             OutputStream output = Files.newOutputStream(tmp.toPath())) {
+            IOUtils.skipFully(stream, HEADER_SIZE);
+            IOUtils.copyLarge(stream, output, 0, chromosome.getPackedLength(), buffer);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Data
+    private static class ChromosomeKey {
+        private final long referenceId;
+        private final String name;
+    }
+
+    @Data
+    private static class BlockKey {
+        private final ChromosomeKey chromosome;
+        private final int block;
+    }
+
+    @Getter
+    private static class NibChromosome {
+        private final ChromosomeKey key;
+        private final int sequenceLength;
+        private final long[] pointers;
+        /**
+         * Offsets of blocks in the uncompressed file, the last item is the file size
+         */
+        private final long[] blockStarts;
+        private MappedByteBuffer mappedSequence;
+
+        NibChromosome(final ChromosomeKey key, final int sequenceLength, final long[] pointers,
+                      final long[] blockStarts) {
+            this.key = key;
+            this.sequenceLength = sequenceLength;
+            this.pointers = pointers;
+            this.blockStarts = blockStarts;
+        }
+
+        long getPackedLength() {
+            return (sequenceLength + 1) / 2;
+        }
+
+        int getBlockCount() {
+            return pointers.length;
+        }
+
+        long getPointer(final int block) {
+            return pointers[block];
+        }
+
+        long getBlockStart(final int block) {
+            return blockStarts[block];
+        }
+
+        int findBlock(final long position) {
+            final int found = Arrays.binarySearch(blockStarts, position);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        void setMappedSequence(final MappedByteBuffer mappedSequence) {
+            this.mappedSequence = mappedSequence;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.target;
+
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.queryparser.classic.ParseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent target identification lookups concurrently. Each lookup is given its own
+ * timeout counted from the moment it was submitted, a lookup that doesn't fit into it is
+ * cancelled and reported as missing instead of delaying the whole summary.
+ */
+@Slf4j
+final class IdentificationTasks implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final long timeout;
+    private final List<FutureTask<?>> tasks = new ArrayList<>();
+    private boolean complete = true;
+
+    /**
+     * @param executor to run lookups, if it is null or saturated lookups are run by the calling thread
+     * @param timeout per lookup timeout in milliseconds
+     */
+    IdentificationTasks(final ExecutorService executor, final long timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    <T> Task<T> submit(final String source, final Callable<T> callable) {
+        final Task<T> task = new Task<>(source, callable);
+        tasks.add(task);
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return task;
+            } catch (RejectedExecutionException e) {
+                // pool is saturated, the lookup is run by the calling thread
+                log.debug(e.getMessage(), e);
+            }
+        }
+        task.run();
+        return task;
+    }
+
+    /**
+     * Waits for a lookup result.
+     * @return lookup result or null if the lookup didn't finish in time
+     */
+    <T> T get(final Task<T> task) throws ExternalDbUnavailableException, IOException, ParseException {
+        try {
+            final long remaining = task.submitted + timeout - System.currentTimeMillis();
+            return task.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Target identification lookup {} didn't finish in {} ms", task.source, timeout);
+            task.cancel(true);
+            complete = false;
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ExternalDbUnavailableException) {
+                throw (ExternalDbUnavailableException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof ParseException) {
+                throw (ParseException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * @return true if all the lookups requested so far finished in time
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public void close() {
+        tasks.forEach(task -> task.cancel(true));
+    }
+
+    static final class Task<T> extends FutureTask<T> {
+
+        private final String source;
+        private final long submitted = System.currentTimeMillis();
+
+        private Task(final String source, final Callable<T> callable) {
+            super(callable);
+            this.source = source;
+        }
+    }
+}
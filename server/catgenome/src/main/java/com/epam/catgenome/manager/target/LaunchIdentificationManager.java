@@ -71,20 +71,27 @@ import com.epam.catgenome.manager.externaldb.target.pharmgkb.PharmGKBDrugAssocia
 import com.epam.catgenome.manager.externaldb.target.pharmgkb.PharmGKBDrugFieldValues;
 import com.epam.catgenome.manager.externaldb.target.pharmgkb.PharmGKBDrugManager;
 import com.epam.catgenome.manager.externaldb.target.pharmgkb.PharmGKBGeneManager;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
 import com.epam.catgenome.manager.pdb.PdbFileManager;
 import com.epam.catgenome.manager.sequence.SequencesManager;
+import com.epam.catgenome.manager.target.IdentificationTasks.Task;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.apache.commons.collections4.CollectionUtils;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -122,6 +129,7 @@ public class LaunchIdentificationManager {
     private final NCBIEnsemblIdsManager ncbiEnsemblIdsManager;
     private final SequencesManager sequencesManager;
     private final TTDDatabaseManager ttdDatabaseManager;
+    private final TaskExecutorService taskExecutorService;
 
     @Value("${targets.parasites.include.additional:false}")
     private boolean includeAdditionalGenes;
@@ -129,29 +137,86 @@ public class LaunchIdentificationManager {
     @Value("${targets.parasites.include.additional.sequences:true}")
     private boolean includeAdditionalGenesSequences;
 
+    @Value("${targets.identification.timeout:60}")
+    private int identificationTimeout;
 
+    @Value("${targets.identification.cache.size:1000}")
+    private int identificationCacheSize;
+
+    @Value("${targets.identification.cache.period:600}")
+    private int identificationCachePeriod;
+
+    private Cache<Pair<Long, List<String>>, TargetIdentificationResult> identificationResults;
+
+    @PostConstruct
+    public void init() {
+        identificationResults = CacheBuilder.newBuilder()
+                .maximumSize(identificationCacheSize)
+                .expireAfterWrite(identificationCachePeriod, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Collects target identification summary. Independent sources are queried concurrently,
+     * a source that doesn't respond in targets.identification.timeout seconds is reported
+     * with a null count. Complete summaries are cached per target and gene set.
+     */
     public TargetIdentificationResult launchIdentification(final IdentificationRequest request)
             throws ExternalDbUnavailableException, IOException, ParseException {
 
+        final Long targetId = request.getTargetId();
         final List<String> geneIds = getGeneIds(request.getGenesOfInterest(), request.getTranslationalGenes());
-        final List<String> expandedGeneIds = getExpandedGeneIds(request.getTargetId(), geneIds, includeAdditionalGenes);
+        final Pair<Long, List<String>> key = Pair.of(targetId,
+                geneIds.stream().sorted().collect(Collectors.toList()));
+        final TargetIdentificationResult cached = identificationResults.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final List<String> expandedGeneIds = getExpandedGeneIds(targetId, geneIds, includeAdditionalGenes);
         final List<GeneId> ncbiGeneIds = ncbiGeneIdsManager.getNcbiGeneIds(expandedGeneIds);
 
-        final Map<String, String> description = getDescriptions(ncbiGeneIds);
-        final DrugsCount drugsCount = getDrugsCount(request.getTargetId(), expandedGeneIds);
-        final long diseasesCount = getDiseasesCount(request.getTargetId(), expandedGeneIds);
-        final long publicationsCount = getPublicationsCount(request.getTargetId(), geneIds, ncbiGeneIds);
-        final SequencesSummary sequencesCount = getGeneSequencesCount(request.getTargetId(), geneIds);
-        final long structuresCount = getStructuresCount(request.getTargetId(), expandedGeneIds);
-        return TargetIdentificationResult.builder()
-                .description(description)
-                .diseasesCount(diseasesCount)
-                .knownDrugsRecordsCount(drugsCount.getTotalCount())
-                .knownDrugsCount(drugsCount.getDistinctCount())
-                .publicationsCount(publicationsCount)
-                .sequencesCount(sequencesCount)
-                .structuresCount(structuresCount)
-                .build();
+        try (IdentificationTasks tasks = new IdentificationTasks(taskExecutorService.getExecutorService(),
+                TimeUnit.SECONDS.toMillis(identificationTimeout))) {
+            final Task<Map<String, String>> description = tasks.submit("descriptions",
+                    () -> getDescriptions(ncbiGeneIds));
+            final Task<List<String>> pharmGKBDrugs = tasks.submit("PharmGKB drugs",
+                    () -> pharmGKBDrugAssociationManager.searchDrugNames(expandedGeneIds));
+            final Task<List<String>> dgidbDrugs = tasks.submit("DGIdb drugs",
+                    () -> dgidbDrugAssociationManager.searchDrugNames(expandedGeneIds));
+            final Task<List<String>> openTargetsDrugs = tasks.submit("Open Targets drugs",
+                    () -> drugAssociationManager.searchDrugNames(expandedGeneIds));
+            final Task<List<String>> ttdDrugs = tasks.submit("TTD drugs",
+                    () -> getTTDDrugNames(targetId, expandedGeneIds));
+            final Task<Long> openTargetsDiseases = tasks.submit("Open Targets diseases",
+                    () -> diseaseAssociationManager.totalCount(expandedGeneIds));
+            final Task<Long> pharmGKBDiseases = tasks.submit("PharmGKB diseases",
+                    () -> pharmGKBDiseaseAssociationManager.totalCount(expandedGeneIds));
+            final Task<Long> ttdDiseases = tasks.submit("TTD diseases",
+                    () -> getTTDDiseasesCount(targetId, expandedGeneIds));
+            final Task<Long> publications = tasks.submit("publications",
+                    () -> getPublicationsCount(targetId, geneIds, ncbiGeneIds));
+            final Task<SequencesSummary> sequences = tasks.submit("sequences",
+                    () -> getGeneSequencesCount(targetId, geneIds));
+            final Task<Long> structures = tasks.submit("structures",
+                    () -> getStructuresCount(targetId, expandedGeneIds));
+
+            final DrugsCount drugsCount = getDrugsCount(Arrays.asList(tasks.get(pharmGKBDrugs),
+                    tasks.get(dgidbDrugs), tasks.get(openTargetsDrugs), tasks.get(ttdDrugs)));
+            final TargetIdentificationResult result = TargetIdentificationResult.builder()
+                    .description(tasks.get(description))
+                    .diseasesCount(sum(tasks.get(openTargetsDiseases), tasks.get(pharmGKBDiseases),
+                            tasks.get(ttdDiseases)))
+                    .knownDrugsRecordsCount(drugsCount.getTotalCount())
+                    .knownDrugsCount(drugsCount.getDistinctCount())
+                    .publicationsCount(tasks.get(publications))
+                    .sequencesCount(tasks.get(sequences))
+                    .structuresCount(tasks.get(structures))
+                    .build();
+            if (tasks.isComplete()) {
+                identificationResults.put(key, result);
+            }
+            return result;
+        }
     }
 
     public List<String> getExpandedGeneIds(final Long targetId,
@@ -428,29 +493,10 @@ public class LaunchIdentificationManager {
 
     public DrugsCount getDrugsCount(final Long targetId, final List<String> geneIds)
             throws IOException, ParseException {
-        final List<PharmGKBDrug> pharmGKBDrugs = pharmGKBDrugAssociationManager.searchByGeneIds(geneIds);
-        final List<DGIDBDrugAssociation> dgidbDrugs = dgidbDrugAssociationManager.searchByGeneIds(geneIds);
-        final List<DrugAssociation> drugAssociations = drugAssociationManager.searchByGeneIds(geneIds);
-        final List<TTDDrugAssociation> ttdDrugs = getTTDDrugs(targetId, geneIds);
-
-        final List<String> pharmGKBDrugNames = pharmGKBDrugs.stream().map(UrlEntity::getName)
-                .collect(Collectors.toList());
-        final List<String> dgidbDrugsNames = dgidbDrugs.stream().map(UrlEntity::getName).collect(Collectors.toList());
-        final List<String> drugNames = drugAssociations.stream().map(UrlEntity::getName).collect(Collectors.toList());
-        drugNames.addAll(pharmGKBDrugNames);
-        drugNames.addAll(dgidbDrugsNames);
-        drugNames.addAll(ttdDrugs.stream().map(UrlEntity::getName).collect(Collectors.toList()));
-        final long distinctCount = drugNames.stream().map(String::toLowerCase).distinct().count();
-
-        final long pharmGKBDrugsCount = pharmGKBDrugs.size();
-        final long dgidbDrugsCount = dgidbDrugs.size();
-        final long openTargetDrugs = drugAssociations.size();
-        final long ttdDrugsCount = ttdDrugs.size();
-
-        return DrugsCount.builder()
-                .distinctCount(distinctCount)
-                .totalCount(pharmGKBDrugsCount + dgidbDrugsCount + openTargetDrugs + ttdDrugsCount)
-                .build();
+        return getDrugsCount(Arrays.asList(pharmGKBDrugAssociationManager.searchDrugNames(geneIds),
+                dgidbDrugAssociationManager.searchDrugNames(geneIds),
+                drugAssociationManager.searchDrugNames(geneIds),
+                getTTDDrugNames(targetId, geneIds)));
     }
 
     public List<String> getDrugs(final Long targetId, final List<String> geneIds) throws IOException, ParseException {
@@ -474,7 +520,7 @@ public class LaunchIdentificationManager {
     public long getDiseasesCount(final Long targetId, final List<String> geneIds) throws ParseException, IOException {
         final long openTargetsDiseasesCount = diseaseAssociationManager.totalCount(geneIds);
         final long pharmGKBDiseasesCount = pharmGKBDiseaseAssociationManager.totalCount(geneIds);
-        final long ttdCount = getTTDDiseases(targetId, geneIds).size();
+        final long ttdCount = getTTDDiseasesCount(targetId, geneIds);
         return openTargetsDiseasesCount + pharmGKBDiseasesCount + ttdCount;
     }
 
@@ -561,6 +607,45 @@ public class LaunchIdentificationManager {
         return ttdDatabaseManager.getDiseaseFieldValues(genes);
     }
 
+    private List<String> getTTDDrugNames(final Long targetId, final List<String> geneIds)
+            throws ParseException, IOException {
+        final List<TargetGene> genes = targetManager.getTargetGenes(targetId, geneIds);
+        return ttdDatabaseManager.fetchTTDDrugNames(genes);
+    }
+
+    private long getTTDDiseasesCount(final Long targetId, final List<String> geneIds)
+            throws ParseException, IOException {
+        final List<TargetGene> genes = targetManager.getTargetGenes(targetId, geneIds);
+        return ttdDatabaseManager.countTTDDiseases(genes);
+    }
+
+    private static DrugsCount getDrugsCount(final List<List<String>> drugNames) {
+        if (drugNames.contains(null)) {
+            return DrugsCount.builder().build();
+        }
+        final Set<String> distinctNames = new HashSet<>();
+        long totalCount = 0;
+        for (List<String> names : drugNames) {
+            totalCount += names.size();
+            names.forEach(name -> distinctNames.add(name.toLowerCase()));
+        }
+        return DrugsCount.builder()
+                .distinctCount((long) distinctNames.size())
+                .totalCount(totalCount)
+                .build();
+    }
+
+    private static Long sum(final Long... counts) {
+        long sum = 0;
+        for (Long count : counts) {
+            if (count == null) {
+                return null;
+            }
+            sum += count;
+        }
+        return sum;
+    }
+
     private String getPublicationsQuery(final Long targetId, final List<String> geneIds)
             throws ParseException, IOException {
         final List<String> terms = new ArrayList<>();
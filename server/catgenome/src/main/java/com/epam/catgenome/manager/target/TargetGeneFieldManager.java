@@ -94,6 +94,7 @@ public class TargetGeneFieldManager extends AbstractIndexManager<TargetGeneField
                 addDoc(writer, g);
             }
         }
+        refreshSearcher();
     }
 
     @Override
@@ -49,11 +49,12 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.util.TextUtils;
 import org.apache.lucene.document.*;
-import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexNotFoundException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiFields;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.BooleanClause;
@@ -66,6 +67,7 @@ import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.SimpleFSDirectory;
+import org.apache.lucene.util.Bits;
 import org.apache.lucene.util.BytesRef;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -77,6 +79,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -115,6 +118,10 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
     private static final int FIELD_VALUES_TOP_HITS = 200;
     private static final String EXCEL_EXTENSION = "xlsx";
     private static final float OPTIONS_RATIO = 0.5F;
+    private static final Set<String> NGRAM_FIELDS = Arrays.stream(IndexField.values())
+            .filter(f -> f.getType() == FilterType.PHRASE)
+            .map(IndexField::getValue)
+            .collect(Collectors.toSet());
     public static final String ADDITIONAL_GENES_PREFIX = "AG";
     private int keywordMaxLength;
     private final TargetGeneFieldManager targetGeneFieldManager;
@@ -142,12 +149,13 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
         setIds(targetId, entries);
         try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
              IndexWriter writer = new IndexWriter(
-                     index, new IndexWriterConfig(new CaseInsensitiveWhitespaceAnalyzer())
+                     index, new IndexWriterConfig(new NgramFieldAnalyzer())
                      .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
             for (TargetGene entry: entries) {
                 addDoc(writer, entry, targetGeneFields);
             }
         }
+        refreshSearcher();
     }
 
     public List<TargetGene> loadByIds(final List<Long> targetGeneIds) throws ParseException, IOException {
@@ -208,9 +216,8 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
         }
         final Set<String> values = new LinkedHashSet<>();
         final Query query = getByTermQuery(targetId.toString(), IndexField.TARGET_ID.getValue());
-        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
-             IndexReader indexReader = DirectoryReader.open(index)) {
-            IndexSearcher searcher = new IndexSearcher(indexReader);
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            IndexSearcher searcher = acquired.getSearcher();
             final OrderInfo orderInfo = OrderInfo.builder()
                     .orderBy(field)
                     .reverse(false)
@@ -252,12 +259,13 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
         setIds(targetId, targetGenes);
         try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
              IndexWriter writer = new IndexWriter(
-                     index, new IndexWriterConfig(new CaseInsensitiveWhitespaceAnalyzer())
+                     index, new IndexWriterConfig(new NgramFieldAnalyzer())
                      .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
             for (TargetGene g : targetGenes) {
                 addDoc(writer, g, targetGeneFields);
             }
         }
+        refreshSearcher();
     }
 
     public void update(final List<TargetGene> targetGenes) throws IOException, ParseException, TargetGenesException {
@@ -265,13 +273,59 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
                 targetGenes.get(0).getTargetId());
         try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
              IndexWriter writer = new IndexWriter(
-                     index, new IndexWriterConfig(new CaseInsensitiveWhitespaceAnalyzer())
+                     index, new IndexWriterConfig(new NgramFieldAnalyzer())
                      .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
             for (TargetGene g : targetGenes) {
                 Term term = new Term(IndexField.TARGET_GENE_ID.getValue(), g.getTargetGeneId().toString());
                 writer.updateDocument(term, docFromEntry(g, targetGeneFields));
             }
         }
+        refreshSearcher();
+    }
+
+    /**
+     * Rewrites genes indexed before n-gram companion fields were introduced, so that substring filters
+     * of all targets are served by the n-gram fields.
+     */
+    @PostConstruct
+    public void reindexNgramFields() throws IOException, ParseException, TargetGenesException {
+        final List<TargetGene> targetGenes = new ArrayList<>();
+        try (AcquiredSearcher acquired = acquireSearcher()) {
+            final IndexReader reader = acquired.getSearcher().getIndexReader();
+            if (reader.numDocs() == 0 || MultiFields.getTerms(reader,
+                    NgramFieldAnalyzer.getNgramField(IndexField.GENE_NAME.getValue())) != null) {
+                return;
+            }
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            for (int docId = 0; docId < reader.maxDoc(); docId++) {
+                if (liveDocs == null || liveDocs.get(docId)) {
+                    targetGenes.add(entryFromDoc(reader.document(docId)));
+                }
+            }
+        } catch (IndexNotFoundException e) {
+            return;
+        }
+        log.info("Indexing n-gram fields of {} target genes", targetGenes.size());
+        final Map<Long, List<TargetGene>> genesByTarget = targetGenes.stream()
+                .collect(Collectors.groupingBy(TargetGene::getTargetId));
+        try (Directory index = new SimpleFSDirectory(Paths.get(indexDirectory));
+             IndexWriter writer = new IndexWriter(
+                     index, new IndexWriterConfig(new NgramFieldAnalyzer())
+                     .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND))) {
+            try {
+                for (Map.Entry<Long, List<TargetGene>> entry : genesByTarget.entrySet()) {
+                    final Map<String, TargetGeneField> targetGeneFields = getFieldsMap(entry.getKey());
+                    for (TargetGene g : entry.getValue()) {
+                        Term term = new Term(IndexField.TARGET_GENE_ID.getValue(), g.getTargetGeneId().toString());
+                        writer.updateDocument(term, docFromEntry(g, targetGeneFields));
+                    }
+                }
+            } catch (IOException | ParseException | TargetGenesException | RuntimeException e) {
+                writer.rollback();
+                throw e;
+            }
+        }
+        refreshSearcher();
     }
 
     public SearchResult<TargetGene> filter(final long targetId, final SearchRequest request)
@@ -418,7 +472,8 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
                     }
                     break;
                 case METADATA:
-                    metadata.put(field.name(), field.stringValue());
+                    metadata.put(field.name(), field.numericValue() != null ?
+                            field.numericValue().toString() : field.stringValue());
                     break;
                 default:
                     break;
@@ -536,8 +591,8 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
         }
     }
 
-    private static Document docFromEntry(final TargetGene entry,
-                                         final Map<String, TargetGeneField> targetGeneFields)
+    private Document docFromEntry(final TargetGene entry,
+                                  final Map<String, TargetGeneField> targetGeneFields)
             throws TargetGenesException {
         final Document doc = new Document();
         doc.add(new StringField(IndexField.TARGET_GENE_ID.getValue(),
@@ -601,6 +656,7 @@ public class TargetGeneManager extends AbstractIndexManager<TargetGene> {
                 }
             }
         }
+        addNgramFields(doc);
         return doc;
     }
 
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.vcf;
+
+import static com.epam.catgenome.component.MessageHelper.getMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import com.epam.catgenome.constant.MessagesConstants;
+import com.epam.catgenome.dao.index.indexer.BigVcfFeatureIndexBuilder;
+import com.epam.catgenome.entity.gene.GeneFile;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.entity.vcf.VcfFilterInfo;
+import com.epam.catgenome.manager.FeatureIndexManager;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.util.Utils;
+import com.epam.catgenome.util.feature.reader.AbstractEnhancedFeatureReader;
+import com.epam.catgenome.util.feature.reader.TabixFeatureReader;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.lucene.index.IndexWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds a feature index of a tabix indexed VCF file in parallel: contigs of the file are taken from a shared queue
+ * by several workers, each of them queries a contig through the tabix index with its own reader, annotates
+ * variations and adds documents to a single {@link IndexWriter}, which is committed once all contigs are indexed.
+ */
+@Slf4j
+@Component
+public class VcfContigIndexer {
+
+    /**
+     * Max position, that can be addressed by tabix bins
+     */
+    private static final int MAX_TABIX_POSITION = 1 << 29;
+
+    @Value("${vcf.index.threads:0}")
+    private int indexThreads;
+
+    @Value("#{catgenome['search.indexer.buffer.size'] ?: 256}")
+    private int indexBufferSize;
+
+    @Autowired
+    private TaskExecutorService taskExecutorService;
+
+    @Autowired
+    private FeatureIndexManager featureIndexManager;
+
+    @Autowired
+    private FileManager fileManager;
+
+    /**
+     * @return true if the file, opened by the reader, can be indexed by contig, i.e. it has a tabix index and
+     * parallel indexing isn't disabled
+     */
+    public boolean isApplicable(final FeatureReader<VariantContext> reader) {
+        return reader instanceof TabixFeatureReader && getWorkers() > 1;
+    }
+
+    /**
+     * Writes a feature index for all contigs of the file, that are present in the reference
+     *
+     * @return a map of contig names to positions of the first and the last variation on it
+     */
+    public Map<String, Pair<Integer, Integer>> index(final VcfFile file, final TabixFeatureReader<?, ?> reader,
+                                                     final Map<String, Chromosome> chromosomeMap,
+                                                     final VcfFilterInfo info, final List<GeneFile> geneFiles)
+            throws IOException {
+        final List<String> contigs = reader.getSequenceNames().stream()
+                .filter(contig -> Utils.chromosomeMapContains(chromosomeMap, contig))
+                .collect(Collectors.toList());
+        final IndexWriter writer = BigVcfFeatureIndexBuilder.createIndexWriter(file, fileManager, indexBufferSize);
+        final ContigIndexing indexing = new ContigIndexing(file, reader.getIndexFile(), chromosomeMap, info,
+                geneFiles, writer, new ConcurrentLinkedQueue<>(contigs));
+        boolean committed = false;
+        try {
+            runWorkers(indexing, Math.min(getWorkers(), contigs.size()));
+            writer.close();
+            committed = true;
+        } finally {
+            if (!committed) {
+                writer.rollback();
+            }
+        }
+        return indexing.metaMap;
+    }
+
+    private int getWorkers() {
+        return Math.max(1, indexThreads > 0 ? indexThreads : taskExecutorService.getTaskNumberOfThreads());
+    }
+
+    private void runWorkers(final ContigIndexing indexing, final int workers) throws IOException {
+        final ExecutorService executor = taskExecutorService.getExecutorService();
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            // the calling thread is a worker as well, so indexing progresses even if the pool is saturated
+            for (int i = 1; i < workers; i++) {
+                try {
+                    futures.add(executor.submit(() -> {
+                        indexContigs(indexing);
+                        return null;
+                    }));
+                } catch (RejectedExecutionException e) {
+                    log.debug(e.getMessage(), e);
+                    break;
+                }
+            }
+            indexContigs(indexing);
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            indexing.failed.set(true);
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            indexing.failed.set(true);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (IOException | RuntimeException e) {
+            indexing.failed.set(true);
+            throw e;
+        } finally {
+            waitForWorkers(futures);
+        }
+    }
+
+    private void indexContigs(final ContigIndexing indexing) throws IOException {
+        // index cache is not used here, since cached tabix entries share a codec, that is not thread safe
+        try (FeatureReader<VariantContext> reader = AbstractEnhancedFeatureReader.getFeatureReader(
+                indexing.file.getPath(), indexing.indexPath, new VCFCodec(), true, null)) {
+            final BigVcfFeatureIndexBuilder indexer = new BigVcfFeatureIndexBuilder(indexing.info,
+                    (VCFHeader) reader.getHeader(), featureIndexManager, indexing.file, indexing.writer,
+                    indexing.geneFiles);
+            String contig = indexing.contigs.poll();
+            while (contig != null && !indexing.failed.get()) {
+                indexContig(indexing, reader, indexer, contig);
+                indexer.clear();
+                log.info(getMessage(MessagesConstants.INFO_FEATURE_INDEX_CHROMOSOME_WROTE, contig));
+                contig = indexing.contigs.poll();
+            }
+        } catch (IOException | RuntimeException e) {
+            indexing.failed.set(true);
+            throw e;
+        }
+    }
+
+    private void indexContig(final ContigIndexing indexing, final FeatureReader<VariantContext> reader,
+                             final BigVcfFeatureIndexBuilder indexer, final String contig) throws IOException {
+        VariantContext firstFeature = null;
+        VariantContext lastFeature = null;
+        try (CloseableIterator<VariantContext> iterator = reader.query(contig, 1, MAX_TABIX_POSITION)) {
+            while (iterator.hasNext() && !indexing.failed.get()) {
+                final VariantContext variantContext = iterator.next();
+                VcfManager.checkSorted(indexing.file, variantContext, lastFeature);
+                indexer.add(variantContext, indexing.chromosomeMap);
+                if (firstFeature == null) {
+                    firstFeature = variantContext;
+                }
+                lastFeature = variantContext;
+            }
+        }
+        if (firstFeature != null) {
+            indexing.metaMap.put(contig, new ImmutablePair<>(firstFeature.getStart(), lastFeature.getStart()));
+        }
+    }
+
+    private static void waitForWorkers(final List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ContigIndexing {
+        private final VcfFile file;
+        private final String indexPath;
+        private final Map<String, Chromosome> chromosomeMap;
+        private final VcfFilterInfo info;
+        private final List<GeneFile> geneFiles;
+        private final IndexWriter writer;
+        private final Queue<String> contigs;
+        private final Map<String, Pair<Integer, Integer>> metaMap = new ConcurrentHashMap<>();
+        private final AtomicBoolean failed = new AtomicBoolean();
+    }
+}
@@ -73,6 +73,7 @@ import com.epam.catgenome.util.InfoFieldParser;
 import com.epam.catgenome.util.Utils;
 import com.epam.catgenome.util.feature.reader.AbstractEnhancedFeatureReader;
 import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
+import com.epam.catgenome.util.feature.reader.TabixFeatureReader;
 import htsjdk.tribble.index.IndexFactory;
 import htsjdk.tribble.index.interval.IntervalTreeIndex;
 import htsjdk.tribble.index.tabix.TabixFormat;
@@ -113,6 +114,7 @@ import com.epam.catgenome.entity.vcf.Variation;
 import com.epam.catgenome.entity.vcf.VariationQuery;
 import com.epam.catgenome.entity.vcf.VcfFile;
 import com.epam.catgenome.entity.vcf.VcfFilterInfo;
+import com.epam.catgenome.entity.vcf.VcfReaderPoolStatistics;
 import com.epam.catgenome.entity.vcf.VcfSample;
 import com.epam.catgenome.manager.BiologicalDataItemManager;
 import com.epam.catgenome.manager.DownloadFileManager;
@@ -122,6 +124,7 @@ import com.epam.catgenome.manager.externaldb.HttpDataManager;
 import com.epam.catgenome.manager.reference.ReferenceGenomeManager;
 import com.epam.catgenome.manager.vcf.reader.AbstractVcfReader;
 import com.epam.catgenome.manager.vcf.reader.VcfReader;
+import com.epam.catgenome.manager.vcf.reader.VcfReaderPool;
 import htsjdk.samtools.util.CloseableIterator;
 import htsjdk.tribble.FeatureReader;
 import htsjdk.tribble.TribbleException;
@@ -167,6 +170,12 @@ public class VcfManager {
     @Autowired(required = false)
     private EhCacheBasedIndexCache indexCache;
 
+    @Autowired
+    private VcfReaderPool vcfReaderPool;
+
+    @Autowired
+    private VcfContigIndexer vcfContigIndexer;
+
     public static final double HTSJDK_WRONG_QUALITY = -10.0;
 
     @Value("#{catgenome['vcf.filter.whitelist']}")
@@ -247,10 +256,15 @@ public class VcfManager {
         if (vcfFile.getType() == BiologicalDataItemResourceType.GA4GH) {
             return vcfFile;
         }
+        vcfReaderPool.evict(vcfFileId);
         fileManager.deleteFeatureFileDirectory(vcfFile);
         return vcfFile;
     }
 
+    public VcfReaderPoolStatistics getReaderPoolStatistics() {
+        return vcfReaderPool.getStatistics();
+    }
+
     /**
      * Loads variations for a specified track, for a specified sample
      *
@@ -274,7 +288,7 @@ public class VcfManager {
         }
 
         AbstractVcfReader.createVcfReader(vcfFile.getType(), httpDataManager, fileManager,
-                referenceGenomeManager).readVariations(vcfFile, track, chromosome, sampleIndex,
+                referenceGenomeManager, vcfReaderPool).readVariations(vcfFile, track, chromosome, sampleIndex,
                 loadInfo, collapse, indexCache);
 
         final double time2 = Utils.getSystemTimeMilliseconds();
@@ -308,9 +322,9 @@ public class VcfManager {
         }
 
         AbstractVcfReader.createVcfReader(BiologicalDataItemResourceType.URL, httpDataManager, fileManager,
-                                          referenceGenomeManager).readVariations(notRegisteredFile, track, chromosome,
-                                                                                 sampleIndex != null ? sampleIndex : 0,
-                                                                                    loadInfo, collapse, indexCache);
+                                          referenceGenomeManager, vcfReaderPool)
+                .readVariations(notRegisteredFile, track, chromosome, sampleIndex != null ? sampleIndex : 0,
+                        loadInfo, collapse, indexCache);
         final double time2 = Utils.getSystemTimeMilliseconds();
         log.debug("Track request took {} ms", time2 - time1);
         return track;
@@ -416,7 +430,7 @@ public class VcfManager {
             vcfFile = makeTemporaryVcfFileFromUrl(fileUrl, indexUrl, chromosome);
         }
         final VcfReader vcfReader = AbstractVcfReader.createVcfReader(vcfFile.getType(), httpDataManager, fileManager,
-                referenceGenomeManager);
+                referenceGenomeManager, vcfReaderPool);
         final Integer sampleIndex = getSampleIndex(sampleId, vcfFile);
         return vcfReader.getNextOrPreviousVariation(fromPosition, vcfFile, sampleIndex,
                 chromosome, forward, indexCache);
@@ -438,10 +452,8 @@ public class VcfManager {
             VcfFile vcfFile = vcfFileManager.load(fileId);
             Assert.notNull(vcfFile, getMessage(ERROR_VCF_ID_INVALID, fileId));
 
-            try (FeatureReader<VariantContext> reader =
-                    AbstractEnhancedFeatureReader.getFeatureReader(vcfFile.getPath(),
-                    new VCFCodec(), false, indexCache)) {
-                VCFHeader header = (VCFHeader) reader.getHeader();
+            try (VcfReaderPool.Lease lease = vcfReaderPool.lease(vcfFile, indexCache)) {
+                VCFHeader header = lease.getHeader();
                 Collection<VCFInfoHeaderLine> headerLines = header.getInfoHeaderLines();
                 infoItems.putAll(headerLines.stream()
                         .filter(l -> !isExtendedInfoLine(l.getDescription()))    // Exclude ANN from fields,
@@ -489,7 +501,7 @@ public class VcfManager {
         final Map<String, Chromosome> chromosomeMap = reference.getChromosomes().stream()
                 .collect(Collectors.toMap(BaseEntity::getName, chromosome -> chromosome));
         try {
-            fileManager.deleteFileFeatureIndex(vcfFile);
+            featureIndexManager.deleteFileFeatureIndex(vcfFile);
             if (rewriteTabixIndex) {
                 writeTabixIndex(vcfFile);
             }
@@ -682,7 +694,6 @@ public class VcfManager {
                                                             final Reference reference, final boolean doIndex)
             throws IOException {
         final Map<String, Pair<Integer, Integer>> metaMap = new HashMap<>();
-        final CloseableIterator<VariantContext> iterator = reader.iterator();
         int startPosition = 1;
         int endPosition = 1;
         String currentKey = null;
@@ -695,12 +706,17 @@ public class VcfManager {
         final List<GeneFile> geneFiles  = reference.getGeneFile() != null ?
                                     Collections.singletonList(reference.getGeneFile()) : Collections.emptyList();
 
+        if (doIndex && vcfContigIndexer.isApplicable(reader)) {
+            return vcfContigIndexer.index(file, (TabixFeatureReader<?, ?>) reader, chromosomeMap, info, geneFiles);
+        }
+
         BigVcfFeatureIndexBuilder indexer = null;
         if (doIndex) {
             indexer = new BigVcfFeatureIndexBuilder(info, vcfHeader, featureIndexManager, file,
                             fileManager, geneFiles, indexBufferSize);
         }
 
+        final CloseableIterator<VariantContext> iterator = reader.iterator();
         while (iterator.hasNext()) {
             variantContext = iterator.next();
             if (!variantContext.getContig().equals(currentKey)) {
@@ -886,7 +902,7 @@ public class VcfManager {
         return createVcfFromFile(request, chromosomeMap, reference, doIndex);
     }
 
-    private void checkSorted(final VcfFile vcfFile,
+    static void checkSorted(final VcfFile vcfFile,
                              final VariantContext variantContext,
                              final VariantContext lastFeature) {
         if (lastFeature != null && variantContext.getStart() < lastFeature.getStart() &&
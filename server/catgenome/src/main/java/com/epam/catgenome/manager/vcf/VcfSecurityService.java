@@ -30,6 +30,7 @@ import com.epam.catgenome.entity.vcf.VariationQuery;
 import com.epam.catgenome.entity.vcf.VcfFieldValues;
 import com.epam.catgenome.entity.vcf.VcfFile;
 import com.epam.catgenome.entity.vcf.VcfFilterInfo;
+import com.epam.catgenome.entity.vcf.VcfReaderPoolStatistics;
 import com.epam.catgenome.exception.FeatureFileReadingException;
 import com.epam.catgenome.exception.FeatureIndexException;
 import com.epam.catgenome.exception.VcfReadingException;
@@ -128,4 +129,9 @@ public class VcfSecurityService {
                                           final Integer maxSize) throws IOException {
         return vcfManager.loadFieldValues(vcfFileId, fieldName, maxSize);
     }
+
+    @PreAuthorize(ROLE_ADMIN)
+    public VcfReaderPoolStatistics getReaderPoolStatistics() {
+        return vcfManager.getReaderPoolStatistics();
+    }
 }
@@ -79,12 +79,14 @@ public abstract class AbstractVcfReader implements VcfReader {
      * @param httpDataManager for access to VCF data in the GA4GH service
      * @param fileManager for access to VCF file in the file system
      * @param referenceGenomeManager for loading reference data
+     * @param readerPool for reusing open readers of VCF files
      * @return a {@code VcfReader} instance for reading VCF data
      */
     public static VcfReader createVcfReader(final BiologicalDataItemResourceType resourceType, final HttpDataManager
-            httpDataManager, final FileManager fileManager, final ReferenceGenomeManager referenceGenomeManager) {
+            httpDataManager, final FileManager fileManager, final ReferenceGenomeManager referenceGenomeManager,
+                                            final VcfReaderPool readerPool) {
         return resourceType == GA4GH ? new VcfGa4ghReader(httpDataManager, referenceGenomeManager) :
-                new VcfFileReader(fileManager, referenceGenomeManager);
+                new VcfFileReader(fileManager, referenceGenomeManager, readerPool);
     }
 
     /**
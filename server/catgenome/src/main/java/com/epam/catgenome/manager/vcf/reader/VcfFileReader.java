@@ -36,7 +36,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import com.epam.catgenome.util.feature.reader.AbstractEnhancedFeatureReader;
 import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -66,7 +65,6 @@ import htsjdk.tribble.FeatureReader;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
-import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLine;
 import htsjdk.variant.vcf.VCFInfoHeaderLine;
@@ -82,6 +80,7 @@ import htsjdk.variant.vcf.VCFInfoHeaderLine;
 @Slf4j
 public class VcfFileReader extends AbstractVcfReader {
     private FileManager fileManager;
+    private VcfReaderPool readerPool;
 
     public static final double HTSJDK_WRONG_QUALITY = -10.0;
     public static final String NO_STRAIN_GENOTYPE_STRING = ".";
@@ -92,10 +91,13 @@ public class VcfFileReader extends AbstractVcfReader {
      * Creates a {@code VcfFileReader} instance
      * @param fileManager for file access
      * @param referenceGenomeManager for getting reference data
+     * @param readerPool for reusing open readers of VCF files
      */
-    public VcfFileReader(final FileManager fileManager, final ReferenceGenomeManager referenceGenomeManager) {
+    public VcfFileReader(final FileManager fileManager, final ReferenceGenomeManager referenceGenomeManager,
+                         final VcfReaderPool readerPool) {
         this.fileManager = fileManager;
         this.referenceGenomeManager = referenceGenomeManager;
+        this.readerPool = readerPool;
     }
 
     /**
@@ -114,14 +116,14 @@ public class VcfFileReader extends AbstractVcfReader {
                                            final Chromosome chromosome, final Integer sampleIndex,
                                            final boolean loadInfo, final boolean collapse,
                                            final EhCacheBasedIndexCache indexCache) throws VcfReadingException {
-        try (FeatureReader<VariantContext> reader = AbstractEnhancedFeatureReader.getFeatureReader(vcfFile.getPath(),
-                vcfFile.getIndex().getPath(), new VCFCodec(), true, indexCache)) {
+        try {
             if (checkBounds(vcfFile, track, chromosome, loadInfo)) {
                 return track;
             }
-            try (CloseableIterator<VariantContext> iterator = Utils.query(reader, chromosome.getName(), track
-                    .getStartIndex(), track.getEndIndex())) {
-                VCFHeader header = (VCFHeader) reader.getHeader();
+            try (VcfReaderPool.Lease lease = readerPool.lease(vcfFile, indexCache);
+                 CloseableIterator<VariantContext> iterator = Utils.query(lease.getReader(), chromosome.getName(),
+                         track.getStartIndex(), track.getEndIndex())) {
+                VCFHeader header = lease.getHeader();
                 track.setBlocks(doReadVariations(iterator, track, header, vcfFile, sampleIndex, loadInfo, collapse));
             }
         } catch (IOException e) {
@@ -138,10 +140,9 @@ public class VcfFileReader extends AbstractVcfReader {
         if (isOutOfBounds(fromPosition, forward, end)) { // no next features
             return null;
         }
-        try (FeatureReader<VariantContext> reader = AbstractEnhancedFeatureReader.getFeatureReader(vcfFile.getPath(),
-                vcfFile.getIndex().getPath(), new VCFCodec(), true, indexCache)) {
+        try (VcfReaderPool.Lease lease = readerPool.lease(vcfFile, indexCache)) {
             return readNextOrPreviousVariation(fromPosition, vcfFile, sampleIndex, chromosome,
-                    forward, end, reader);
+                    forward, end, lease.getReader());
         } catch (IOException e) {
             throw new VcfReadingException(vcfFile, e);
         }
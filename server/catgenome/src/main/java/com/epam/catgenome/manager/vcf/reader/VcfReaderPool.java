@@ -0,0 +1,340 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.vcf.reader;
+
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.entity.vcf.VcfReaderFileStatistics;
+import com.epam.catgenome.entity.vcf.VcfReaderPoolStatistics;
+import com.epam.catgenome.util.feature.reader.AbstractEnhancedFeatureReader;
+import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A pool of open readers of registered VCF files. Opening a reader parses the VCF header, which for cohort files
+ * with thousands of samples takes megabytes, so readers are returned to the pool after a request and reused by
+ * the next one instead. A reader is leased by a single request at a time, the header of a leased reader is never
+ * shared with other requests. Memory of idle readers is limited by the approximate heap size of their headers,
+ * readers of least recently used files are closed first, readers that were not used for a configured period of
+ * time are closed by a scheduled job.
+ */
+@Slf4j
+@Component
+public class VcfReaderPool {
+
+    private static final int HEADER_LINE_BYTES = 256;
+    private static final int SAMPLE_BYTES = 128;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    @Value("${vcf.reader.pool.max.size:134217728}")
+    private long maxSizeInBytes;
+
+    @Value("${vcf.reader.pool.max.idle.readers:4}")
+    private int maxIdleReaders;
+
+    @Value("${vcf.reader.pool.idle.timeout.sec:300}")
+    private long idleTimeout;
+
+    private final Map<Long, PooledFile> files = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    private long sizeInBytes;
+    private long evictions;
+
+    public boolean isEnabled() {
+        return maxSizeInBytes > 0 && maxIdleReaders > 0;
+    }
+
+    /**
+     * Leases a reader of a VCF file. The lease must be closed by the caller, closing it returns the reader
+     * to the pool. Files, that are not registered or have no index, are read by a new reader, which is closed
+     * with the lease.
+     * @param vcfFile a file to read
+     * @param indexCache cache of file indexes, may be null
+     * @return a lease of an open reader
+     */
+    public Lease lease(final VcfFile vcfFile, final EhCacheBasedIndexCache indexCache) {
+        if (!isEnabled() || vcfFile.getId() == null || vcfFile.getIndex() == null) {
+            return new Lease(open(vcfFile, indexCache), null);
+        }
+        final Key key = new Key(vcfFile.getPath(), vcfFile.getIndex().getPath(), getLastModified(vcfFile));
+        final PooledFile pooledFile;
+        final List<FeatureReader<VariantContext>> outdated = new ArrayList<>();
+        synchronized (this) {
+            PooledFile cached = files.get(vcfFile.getId());
+            if (cached != null && !cached.key.equals(key)) {
+                outdated.addAll(remove(vcfFile.getId()));
+                cached = null;
+            }
+            if (cached == null) {
+                cached = new PooledFile(vcfFile.getId(), key);
+                files.put(vcfFile.getId(), cached);
+            }
+            pooledFile = cached;
+            pooledFile.lastAccess = System.currentTimeMillis();
+            final IdleReader idle = pooledFile.idle.pollFirst();
+            if (idle != null) {
+                pooledFile.hits++;
+                sizeInBytes -= pooledFile.headerSizeInBytes;
+                return new Lease(idle.reader, pooledFile);
+            }
+            pooledFile.misses++;
+        }
+        closeQuietly(outdated);
+        final long start = System.nanoTime();
+        final FeatureReader<VariantContext> reader = open(vcfFile, indexCache);
+        final long parseTime = System.nanoTime() - start;
+        synchronized (this) {
+            pooledFile.headerParses++;
+            pooledFile.headerParseNanos += parseTime;
+            if (pooledFile.headerSizeInBytes == 0) {
+                pooledFile.headerSizeInBytes = estimateSize((VCFHeader) reader.getHeader());
+            }
+        }
+        return new Lease(reader, pooledFile);
+    }
+
+    /**
+     * Closes all pooled readers of a VCF file, e.g. when the file is unregistered
+     * @param vcfFileId VCF file ID
+     */
+    public void evict(final Long vcfFileId) {
+        final List<FeatureReader<VariantContext>> removed;
+        synchronized (this) {
+            removed = remove(vcfFileId);
+        }
+        closeQuietly(removed);
+    }
+
+    @Scheduled(fixedDelayString = "${vcf.reader.pool.eviction.period:60000}")
+    public void evictIdle() {
+        final long threshold = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleTimeout);
+        final List<FeatureReader<VariantContext>> expired = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<PooledFile> iterator = files.values().iterator();
+            while (iterator.hasNext()) {
+                final PooledFile pooledFile = iterator.next();
+                while (!pooledFile.idle.isEmpty() && pooledFile.idle.peekLast().releasedAt <= threshold) {
+                    expired.add(pooledFile.idle.pollLast().reader);
+                    sizeInBytes -= pooledFile.headerSizeInBytes;
+                    evictions++;
+                }
+                if (pooledFile.idle.isEmpty() && pooledFile.lastAccess <= threshold) {
+                    iterator.remove();
+                }
+            }
+        }
+        closeQuietly(expired);
+    }
+
+    public synchronized VcfReaderPoolStatistics getStatistics() {
+        final List<VcfReaderFileStatistics> fileStatistics = files.values().stream()
+                .map(PooledFile::getStatistics)
+                .collect(Collectors.toList());
+        return VcfReaderPoolStatistics.builder()
+                .files(files.size())
+                .idleReaders(fileStatistics.stream().mapToInt(VcfReaderFileStatistics::getIdleReaders).sum())
+                .sizeInBytes(sizeInBytes)
+                .maxSizeInBytes(maxSizeInBytes)
+                .hits(fileStatistics.stream().mapToLong(VcfReaderFileStatistics::getHits).sum())
+                .misses(fileStatistics.stream().mapToLong(VcfReaderFileStatistics::getMisses).sum())
+                .evictions(evictions)
+                .fileStatistics(fileStatistics)
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        final List<FeatureReader<VariantContext>> readers = new ArrayList<>();
+        synchronized (this) {
+            new ArrayList<>(files.keySet()).forEach(id -> readers.addAll(remove(id)));
+        }
+        closeQuietly(readers);
+    }
+
+    private void release(final PooledFile pooledFile, final FeatureReader<VariantContext> reader) {
+        final List<FeatureReader<VariantContext>> excessive = new ArrayList<>();
+        synchronized (this) {
+            if (files.get(pooledFile.vcfFileId) == pooledFile && pooledFile.idle.size() < maxIdleReaders
+                    && pooledFile.headerSizeInBytes <= maxSizeInBytes) {
+                pooledFile.idle.addFirst(new IdleReader(reader, System.currentTimeMillis()));
+                sizeInBytes += pooledFile.headerSizeInBytes;
+                evictExcessive(excessive);
+            } else {
+                excessive.add(reader);
+            }
+        }
+        closeQuietly(excessive);
+    }
+
+    private void evictExcessive(final List<FeatureReader<VariantContext>> excessive) {
+        final Iterator<PooledFile> eldest = files.values().iterator();
+        while (sizeInBytes > maxSizeInBytes && eldest.hasNext()) {
+            final PooledFile pooledFile = eldest.next();
+            while (sizeInBytes > maxSizeInBytes && !pooledFile.idle.isEmpty()) {
+                excessive.add(pooledFile.idle.pollLast().reader);
+                sizeInBytes -= pooledFile.headerSizeInBytes;
+                evictions++;
+            }
+        }
+    }
+
+    private List<FeatureReader<VariantContext>> remove(final Long vcfFileId) {
+        final PooledFile removed = files.remove(vcfFileId);
+        if (removed == null) {
+            return new ArrayList<>();
+        }
+        sizeInBytes -= removed.headerSizeInBytes * removed.idle.size();
+        return removed.idle.stream().map(idle -> idle.reader).collect(Collectors.toList());
+    }
+
+    private static FeatureReader<VariantContext> open(final VcfFile vcfFile,
+                                                      final EhCacheBasedIndexCache indexCache) {
+        final boolean indexed = vcfFile.getIndex() != null;
+        return AbstractEnhancedFeatureReader.getFeatureReader(vcfFile.getPath(),
+                indexed ? vcfFile.getIndex().getPath() : null, new VCFCodec(), indexed, indexCache);
+    }
+
+    private static long getLastModified(final VcfFile vcfFile) {
+        final File file = new File(vcfFile.getPath());
+        return file.exists() ? file.lastModified() : 0;
+    }
+
+    private static long estimateSize(final VCFHeader header) {
+        return (long) header.getMetaDataInInputOrder().size() * HEADER_LINE_BYTES
+                + (long) header.getNGenotypeSamples() * SAMPLE_BYTES;
+    }
+
+    private static void closeQuietly(final List<FeatureReader<VariantContext>> readers) {
+        for (FeatureReader<VariantContext> reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * An open reader, leased by a single request. Closing the lease returns the reader to the pool.
+     */
+    public final class Lease implements Closeable {
+        private final FeatureReader<VariantContext> reader;
+        private final PooledFile pooledFile;
+
+        private Lease(final FeatureReader<VariantContext> reader, final PooledFile pooledFile) {
+            this.reader = reader;
+            this.pooledFile = pooledFile;
+        }
+
+        public FeatureReader<VariantContext> getReader() {
+            return reader;
+        }
+
+        public VCFHeader getHeader() {
+            return (VCFHeader) reader.getHeader();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (pooledFile == null) {
+                reader.close();
+            } else {
+                release(pooledFile, reader);
+            }
+        }
+    }
+
+    /**
+     * Identity of a file version: modification time makes readers of a changed local file outdated
+     */
+    @Data
+    private static class Key {
+        private final String path;
+        private final String indexPath;
+        private final long lastModified;
+    }
+
+    private static final class IdleReader {
+        private final FeatureReader<VariantContext> reader;
+        private final long releasedAt;
+
+        private IdleReader(final FeatureReader<VariantContext> reader, final long releasedAt) {
+            this.reader = reader;
+            this.releasedAt = releasedAt;
+        }
+    }
+
+    private static final class PooledFile {
+        private final Long vcfFileId;
+        private final Key key;
+        private final Deque<IdleReader> idle = new ArrayDeque<>();
+        private long headerSizeInBytes;
+        private long lastAccess;
+        private long hits;
+        private long misses;
+        private long headerParses;
+        private long headerParseNanos;
+
+        private PooledFile(final Long vcfFileId, final Key key) {
+            this.vcfFileId = vcfFileId;
+            this.key = key;
+        }
+
+        private VcfReaderFileStatistics getStatistics() {
+            return VcfReaderFileStatistics.builder()
+                    .vcfFileId(vcfFileId)
+                    .idleReaders(idle.size())
+                    .headerSizeInBytes(headerSizeInBytes)
+                    .hits(hits)
+                    .misses(misses)
+                    .hitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                    .headerParses(headerParses)
+                    .averageHeaderParseMillis(headerParses == 0 ? 0 : headerParseNanos / NANOS_IN_MILLI
+                            / headerParses)
+                    .build();
+        }
+    }
+}
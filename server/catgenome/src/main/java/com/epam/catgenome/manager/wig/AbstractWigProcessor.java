@@ -34,7 +34,9 @@ import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -44,7 +46,6 @@ public abstract class AbstractWigProcessor {
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractWigProcessor.class);
 
-    static final int WIG_DOWNSAMPLING_WINDOW = 100_000;
     static final int WIG_MIN_DOWNSAMPLING_CHROMOSOME_SIZE = 10_000_000;
     static final float WIG_DOWNSAMPLING_SCALE_FACTOR = 0.00005F;
 
@@ -61,6 +62,33 @@ public abstract class AbstractWigProcessor {
                 WIG_MIN_DOWNSAMPLING_CHROMOSOME_SIZE;
     }
 
+    /**
+     * Fills track blocks from a precomputed zoom pyramid, if blocks are large enough to use it
+     * @param wigFile a file to load data from
+     * @param track a track with blocks to fill
+     * @param chromosome a chromosome of the track
+     * @return true if blocks were filled, false if the original file should be read
+     * @throws IOException if the zoom file can't be read
+     */
+    boolean fillBlocksFromZoomLevel(WigFile wigFile, Track<Wig> track, Chromosome chromosome) throws IOException {
+        final List<Wig> blocks = track.getBlocks();
+        if (blocks.isEmpty()) {
+            return false;
+        }
+        final File zoomFile = fileManager.makeWigZoomFile(wigFile, chromosome.getName());
+        if (!zoomFile.exists()) {
+            return false;
+        }
+        final Wig block = blocks.get(0);
+        final WigZoomPyramid.Level level = WigZoomPyramid.read(zoomFile,
+                block.getEndIndex() - block.getStartIndex() + 1);
+        if (level == null) {
+            return false;
+        }
+        level.fill(blocks);
+        return true;
+    }
+
     abstract void assertFile(String requestPath) throws IOException;
 
     abstract Track<Wig> getWigFromFile(WigFile wigFile, Track<Wig> track,
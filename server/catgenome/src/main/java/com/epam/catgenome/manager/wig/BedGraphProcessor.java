@@ -32,7 +32,6 @@ import com.epam.catgenome.entity.wig.WigFile;
 import com.epam.catgenome.manager.BiologicalDataItemManager;
 import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.TrackHelper;
-import com.epam.catgenome.manager.wig.reader.BedGraphCodec;
 import com.epam.catgenome.manager.wig.reader.BedGraphFeature;
 import com.epam.catgenome.manager.wig.reader.BedGraphReader;
 import com.epam.catgenome.util.IOHelper;
@@ -42,14 +41,10 @@ import com.epam.catgenome.util.Utils;
 import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
 import htsjdk.samtools.util.PeekableIterator;
 import htsjdk.tribble.index.Index;
-import htsjdk.tribble.index.IndexFactory;
-import htsjdk.tribble.index.interval.IntervalTreeIndex;
 import org.springframework.util.Assert;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 
 import static com.epam.catgenome.component.MessageHelper.getMessage;
@@ -71,6 +66,9 @@ public class BedGraphProcessor extends AbstractWigProcessor {
             throws IOException {
         Assert.notNull(wigFile, getMessage(MessagesConstants.ERROR_FILE_NOT_FOUND));
         TrackHelper.fillBlocks(track, indexes -> new Wig(indexes.getLeft(), indexes.getRight()));
+        if (fillBlocksFromZoomLevel(wigFile, track, chromosome)) {
+            return track;
+        }
         String downsamplePath = fileManager.getDownsampledBedGraphFilePath(wigFile);
         if (dontNeedToUseDownsampling(track, chromosome)) {
             fillBlocksFromFile(wigFile.getPath(), wigFile.getIndex().getPath(),
@@ -103,29 +101,19 @@ public class BedGraphProcessor extends AbstractWigProcessor {
     @Override
     protected void splitByChromosome(WigFile wigFile, Map<String, Chromosome> chromosomeMap,
                                      EhCacheBasedIndexCache indexCache) throws IOException {
-        List<BedGraphFeature> sectionList = new ArrayList<>();
         for (Chromosome chromosome : chromosomeMap.values()) {
             String realChrName = fetchRealChrName(wigFile.getIndex().getPath(), chromosome.getName());
-            try (PeekableIterator<BedGraphFeature> query = new PeekableIterator<>(
-                    new BedGraphReader(wigFile.getPath(), wigFile.getIndex().getPath(), indexCache).query(
-                            realChrName, 1, chromosome.getSize() - 1))) {
-                int start = 0;
-                int stop = chromosome.getSize();
-                int bp = start;
-                while (bp < stop) {
-                    int chunkStart = bp;
-                    int chunkStop = Math.min(bp + WIG_DOWNSAMPLING_WINDOW - 1, stop);
-                    float chunkScore = getScoreForBounds(query, chunkStart, chunkStop);
-                    bp = chunkStop + 1;
-                    sectionList.add(new BedGraphFeature(chromosome.getName(), chunkStart, chunkStop, chunkScore));
+            WigZoomPyramid pyramid = new WigZoomPyramid(chromosome.getSize());
+            try (BedGraphReader reader = new BedGraphReader(wigFile.getPath(), wigFile.getIndex().getPath(),
+                    indexCache)) {
+                Iterator<BedGraphFeature> query = reader.query(realChrName, 1, chromosome.getSize() - 1);
+                while (query.hasNext()) {
+                    BedGraphFeature feature = query.next();
+                    pyramid.add(feature.getStart(), feature.getEnd(), feature.getValue());
                 }
             }
+            pyramid.write(fileManager.makeWigZoomFile(wigFile, chromosome.getName()));
         }
-        File downsampled = fileManager.writeToBedGraphFile(wigFile, sectionList);
-        File indexFile = new File(getDownsampledBedGraphIndex(downsampled.getPath()));
-        LOGGER.debug("Writing BED_GRAPH index at {}", indexFile.getAbsolutePath());
-        IntervalTreeIndex intervalTreeIndex = IndexFactory.createIntervalIndex(downsampled, new BedGraphCodec());
-        IndexFactory.writeIndex(intervalTreeIndex, indexFile); // Write it to a file
     }
 
     @Override
@@ -10,21 +10,14 @@ import com.epam.catgenome.manager.FileManager;
 import com.epam.catgenome.manager.TrackHelper;
 import com.epam.catgenome.util.Utils;
 import com.epam.catgenome.util.feature.reader.EhCacheBasedIndexCache;
-import gnu.trove.list.TFloatList;
-import gnu.trove.list.array.TFloatArrayList;
-import kotlin.Pair;
 import org.jetbrains.bio.BetterSeekableBufferedStream;
 import org.jetbrains.bio.EndianSynchronizedBufferFactory;
 import org.jetbrains.bio.big.BigFile;
 import org.jetbrains.bio.big.BigSummary;
 import org.jetbrains.bio.big.BigWigFile;
-import org.jetbrains.bio.big.FixedStepSection;
-import org.jetbrains.bio.big.WigSection;
 import org.springframework.util.Assert;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -46,6 +39,9 @@ public class WigProcessor extends AbstractWigProcessor {
             throws IOException {
         Assert.notNull(wigFile, getMessage(MessagesConstants.ERROR_FILE_NOT_FOUND));
         TrackHelper.fillBlocks(track, indexes -> new Wig(indexes.getLeft(), indexes.getRight()));
+        if (fillBlocksFromZoomLevel(wigFile, track, chromosome)) {
+            return track;
+        }
         String downsamplePath = fileManager.getWigFilePath(wigFile, chromosome);
         if (dontNeedToUseDownsampling(track, chromosome)) {
             fillBlocksFromFile(wigFile.getPath(), track, chromosome.getName());
@@ -77,35 +73,14 @@ public class WigProcessor extends AbstractWigProcessor {
                     if (chromosomeMap.containsKey(Utils.changeChromosomeName(chr))) {
                         realChrName = Utils.changeChromosomeName(chr);
                     }
-                    Chromosome chromosome = chromosomeMap.get(realChrName);
-                    if (chromosome.getSize() < WIG_MIN_DOWNSAMPLING_CHROMOSOME_SIZE) {
-                        continue;
-                    }
-                    int start = 0;
-                    int stop = chromosomeMap.get(realChrName).getSize();
                     LOGGER.debug("Processing chromosome " + chr);
-                    int bp = start;
-                    List<WigSection> sectionList = new ArrayList<>();
-                    List<Pair<String, Integer>> chrSizes = Collections.singletonList(new Pair<>(chr, stop - start));
-
-                    while (bp < stop) {
-                        int chunkStart = bp;
-                        int chunkStop = Math.min(bp + WIG_DOWNSAMPLING_WINDOW - 1, stop);
-
-                        List<BigSummary> summaries = bigWigFile.summarize(chr, chunkStart, chunkStop, 1, true, null);
-                        TFloatList values = new TFloatArrayList();
-                        BigSummary bigSummary = summaries.get(0);
-                        double value = Math.abs(bigSummary.getMaxValue()) > Math.abs(bigSummary.getMinValue())
-                                ? bigSummary.getMaxValue()
-                                : bigSummary.getMinValue();
-                        values.add((float) value);
-                        WigSection wigSection = new FixedStepSection(chr, chunkStart, chunkStop, 1, values);
-                        sectionList.add(wigSection);
-
-                        bp = chunkStop + 1;
+                    final WigZoomPyramid pyramid = new WigZoomPyramid(chromosomeMap.get(realChrName).getSize());
+                    final List<BigSummary> summaries = bigWigFile.summarize(chr, 0, pyramid.getChromosomeSize(),
+                            pyramid.getBinCount(), true, null);
+                    for (int i = 0; i < Math.min(summaries.size(), pyramid.getBinCount()); i++) {
+                        pyramid.set(i, (float) getValue(summaries.get(i)));
                     }
-
-                    fileManager.writeToBigWigFile(wigFile, sectionList, chrSizes, realChrName);
+                    pyramid.write(fileManager.makeWigZoomFile(wigFile, realChrName));
                 }
             }
         }
@@ -149,42 +124,53 @@ public class WigProcessor extends AbstractWigProcessor {
         if (realName == null) {
             LOGGER.info("Chromosome not found in big wig file");
         }
-        for (Wig wigElement : track.getBlocks()) {
-            double score = getNewArrays(bigWigFile, realName, wigElement.getStartIndex() - 1,
-                    wigElement.getEndIndex());
-            wigElement.setValue((float) score);
+        final List<Wig> blocks = track.getBlocks();
+        if (realName == null || blocks.isEmpty()) {
+            blocks.forEach(block -> block.setValue(0F));
+            return;
         }
-    }
-
-    private double getNewArrays(final BigWigFile bigWigFile, final String chrName, final int start, final int end) {
-        try {
-            double res = 0.0;
-            res +=  queryWig(bigWigFile, chrName, start, end);
-            return res;
-        } catch (IOException e) {
-            LOGGER.debug(e.getMessage(), e);
-            return 0;
+        // blocks have equal size except the last one, so full blocks are summarized by a single query
+        final Wig first = blocks.get(0);
+        final Wig last = blocks.get(blocks.size() - 1);
+        final int blockSize = first.getEndIndex() - first.getStartIndex() + 1;
+        final int fullBlocks = last.getEndIndex() - last.getStartIndex() + 1 == blockSize
+                ? blocks.size() : blocks.size() - 1;
+        final double[] scores = queryWig(bigWigFile, realName, first.getStartIndex() - 1,
+                first.getStartIndex() - 1 + blockSize * fullBlocks, fullBlocks);
+        for (int i = 0; i < fullBlocks; i++) {
+            blocks.get(i).setValue((float) scores[i]);
+        }
+        if (fullBlocks < blocks.size()) {
+            last.setValue((float) queryWig(bigWigFile, realName, last.getStartIndex() - 1, last.getEndIndex(), 1)[0]);
         }
     }
 
-    private double queryWig(BigWigFile bigWigFile, String chrName, int start, int end)
-            throws IOException {
-        List<BigSummary> summarize;
+    private double[] queryWig(final BigWigFile bigWigFile, final String chrName, final int start, final int end,
+                              final int count) {
+        final double[] scores = new double[count];
+        if (count == 0) {
+            return scores;
+        }
+        final List<BigSummary> summarize;
         try {
-            summarize = bigWigFile.summarize(chrName, start, end, 1, true, null);
+            summarize = bigWigFile.summarize(chrName, start, end, count, true, null);
         } catch (NoSuchElementException e) {
             LOGGER.info(e.getMessage(), e);
-            return 0;
+            return scores;
+        } catch (IOException e) {
+            LOGGER.debug(e.getMessage(), e);
+            return scores;
         }
-        double res = 0.0;
-        for (BigSummary summary : summarize) {
-            double value = Math.abs(summary.getMaxValue()) > Math.abs(summary.getMinValue())
-                    ? summary.getMaxValue()
-                    : summary.getMinValue();
-            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
-                res += value;
-            }
+        for (int i = 0; i < Math.min(count, summarize.size()); i++) {
+            scores[i] = getValue(summarize.get(i));
         }
-        return res;
+        return scores;
+    }
+
+    private static double getValue(final BigSummary summary) {
+        final double value = Math.abs(summary.getMaxValue()) > Math.abs(summary.getMinValue())
+                ? summary.getMaxValue()
+                : summary.getMinValue();
+        return Double.isNaN(value) || Double.isInfinite(value) ? 0 : value;
     }
 }
@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.wig;
+
+import com.epam.catgenome.entity.wig.Wig;
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Precomputed values of a chromosome for zoomed out views. The first level splits a chromosome into windows of
+ * about {@link #BASE_WINDOW} bases, each next level merges {@link #LEVEL_FACTOR} windows of the previous one.
+ * A window keeps the value with the largest magnitude, the same way blocks are filled from the original file.
+ */
+final class WigZoomPyramid {
+
+    static final int BASE_WINDOW = 10_000;
+    static final int LEVEL_FACTOR = 5;
+    private static final int FLOAT_BYTES = 4;
+
+    private final int chromosomeSize;
+    private final double baseWindow;
+    private final float[] values;
+
+    /**
+     * Creates an empty first level for a chromosome
+     * @param chromosomeSize chromosome length
+     */
+    WigZoomPyramid(final int chromosomeSize) {
+        this.chromosomeSize = chromosomeSize;
+        this.values = new float[Math.max(1, (chromosomeSize + BASE_WINDOW - 1) / BASE_WINDOW)];
+        this.baseWindow = (double) Math.max(1, chromosomeSize) / values.length;
+    }
+
+    int getBinCount() {
+        return values.length;
+    }
+
+    int getChromosomeSize() {
+        return chromosomeSize;
+    }
+
+    void set(final int bin, final float value) {
+        values[bin] = value;
+    }
+
+    /**
+     * Merges a value into all first level windows, overlapping an interval
+     * @param start interval start, 0-based
+     * @param end interval end, exclusive
+     * @param value interval value
+     */
+    void add(final int start, final int end, final float value) {
+        final int first = Math.max(0, (int) (start / baseWindow));
+        final int last = Math.min(values.length - 1, (int) Math.ceil(end / baseWindow) - 1);
+        for (int bin = first; bin <= last; bin++) {
+            values[bin] = merge(values[bin], value);
+        }
+    }
+
+    /**
+     * Writes all levels of the pyramid, the last level consists of a single window
+     * @param file where to write
+     * @throws IOException if the file can't be written
+     */
+    void write(final File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(chromosomeSize);
+            output.writeDouble(baseWindow);
+            output.writeInt(getLevelCount(values.length));
+            float[] level = values;
+            while (true) {
+                output.writeInt(level.length);
+                for (float value : level) {
+                    output.writeFloat(value);
+                }
+                if (level.length == 1) {
+                    break;
+                }
+                level = mergeLevel(level);
+            }
+        }
+    }
+
+    /**
+     * Reads the coarsest level, which windows are not larger than a track block
+     * @param file pyramid file
+     * @param blockSize size of track blocks
+     * @return level or null, if blocks are smaller than windows of the first level
+     * @throws IOException if the file can't be read
+     */
+    static Level read(final File file, final double blockSize) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            input.readInt();
+            double window = input.readDouble();
+            final int levelCount = input.readInt();
+            if (blockSize < window) {
+                return null;
+            }
+            int level = 0;
+            while (level < levelCount - 1 && window * LEVEL_FACTOR <= blockSize) {
+                IOUtils.skipFully(input, (long) input.readInt() * FLOAT_BYTES);
+                window *= LEVEL_FACTOR;
+                level++;
+            }
+            final float[] levelValues = new float[input.readInt()];
+            for (int i = 0; i < levelValues.length; i++) {
+                levelValues[i] = input.readFloat();
+            }
+            return new Level(window, levelValues);
+        }
+    }
+
+    static float merge(final float first, final float second) {
+        return Math.abs(first) < Math.abs(second) ? second : first;
+    }
+
+    private static int getLevelCount(final int binCount) {
+        int count = 1;
+        for (int bins = binCount; bins > 1; bins = (bins + LEVEL_FACTOR - 1) / LEVEL_FACTOR) {
+            count++;
+        }
+        return count;
+    }
+
+    private static float[] mergeLevel(final float[] level) {
+        final float[] merged = new float[(level.length + LEVEL_FACTOR - 1) / LEVEL_FACTOR];
+        for (int i = 0; i < level.length; i++) {
+            merged[i / LEVEL_FACTOR] = merge(merged[i / LEVEL_FACTOR], level[i]);
+        }
+        return merged;
+    }
+
+    /**
+     * Windows of a single pyramid level
+     */
+    static final class Level {
+        private final double window;
+        private final float[] values;
+
+        private Level(final double window, final float[] values) {
+            this.window = window;
+            this.values = values;
+        }
+
+        /**
+         * Sets the value of each block from the windows it overlaps
+         * @param blocks track blocks, 1-based
+         */
+        void fill(final List<Wig> blocks) {
+            for (Wig block : blocks) {
+                final int first = Math.max(0, (int) ((block.getStartIndex() - 1) / window));
+                final int last = Math.min(values.length - 1, (int) Math.ceil(block.getEndIndex() / window) - 1);
+                float value = 0;
+                for (int bin = first; bin <= last; bin++) {
+                    value = merge(value, values[bin]);
+                }
+                block.setValue(value);
+            }
+        }
+    }
+}
@@ -96,6 +96,9 @@ public class GrantPermissionManager {
     @Autowired
     private BiologicalDataItemManager dataItemManager;
 
+    @Autowired
+    private TreeMaskResolver treeMaskResolver;
+
     @Transactional(propagation = Propagation.REQUIRED)
     public AclSecuredEntry setPermissions(AclClass aclClass, Long entityId, String userName, Boolean principal,
                                           Integer mask) {
@@ -197,6 +200,32 @@ public class GrantPermissionManager {
         return filterTree(permissionHelper.convertUserToSids(userName), entity, permission);
     }
 
+    /**
+     * Filters a list of trees, masks of all trees are resolved at once
+     * @param entities to filter, trees without granted permission and permitted items are removed from the list
+     * @param permission to check
+     */
+    public void filterTrees(List<? extends AbstractHierarchicalEntity> entities, Permission permission) {
+        if (CollectionUtils.isEmpty(entities)) {
+            return;
+        }
+        List<Sid> sids = permissionHelper.getSids();
+        if (permissionHelper.isAdmin(sids)) {
+            return;
+        }
+        TreeMaskResolver.TreeMasks masks = treeMaskResolver.resolve(sids, entities);
+        entities.removeIf(entity -> !processHierarchicalEntity(0, entity, new HashMap<>(), permission, true,
+                masks));
+    }
+
+    /**
+     * @return a tag, that changes when permissions of the current user might change: it consists of
+     * the ACL version and SIDs of the user
+     */
+    public String getPermissionsTag() {
+        return aclService.getAclVersion() + ":" + permissionHelper.getSids();
+    }
+
     public boolean isGroupRegistered(final List<String> groups) {
         Set<Long> sidIds = groups.stream()
                 .map(group ->  aclService.getSidId(group, false))
@@ -216,21 +245,21 @@ public class GrantPermissionManager {
         if (permissionHelper.isAdmin(sids)) {
             return true;
         }
-        return processHierarchicalEntity(0, entity, new HashMap<>(), permission, true, sids);
+        TreeMaskResolver.TreeMasks masks = treeMaskResolver.resolve(sids, Collections.singletonList(entity));
+        return processHierarchicalEntity(0, entity, new HashMap<>(), permission, true, masks);
     }
 
     // return true if permission granted or we have any feature file inside the project with granted permission
     private boolean processHierarchicalEntity(int parentMask, AbstractHierarchicalEntity entity,
                                               Map<AclClass, Set<Long>> entitiesToRemove, Permission permission,
-                                              boolean root, List<Sid> sids) {
+                                              boolean root, TreeMaskResolver.TreeMasks masks) {
         int defaultMask = 0;
         int currentMask = entity.getId() != null ?
-                PermissionUtils.mergeParentMask(permissionHelper.retrieveMaskForSid(entity, false, root, sids),
-                        parentMask) : defaultMask;
+                PermissionUtils.mergeParentMask(masks.getMask(entity, root), parentMask) : defaultMask;
 
         entity.getChildren().forEach(
-            leaf -> processHierarchicalEntity(currentMask, leaf, entitiesToRemove, permission, false, sids));
-        filterLeafs(currentMask, entity.getLeaves(), entitiesToRemove, permission, sids);
+            leaf -> processHierarchicalEntity(currentMask, leaf, entitiesToRemove, permission, false, masks));
+        filterLeafs(currentMask, entity.getLeaves(), entitiesToRemove, permission, masks);
         entity.filterLeaves(entitiesToRemove);
         entity.filterChildren(entitiesToRemove);
         boolean permissionGranted = PermissionUtils.isPermissionGranted(currentMask, permission);
@@ -251,10 +280,10 @@ public class GrantPermissionManager {
     }
 
     private void filterLeafs(int parentMask, List<? extends AbstractSecuredEntity> children,
-                             Map<AclClass, Set<Long>> entitiesToRemove, Permission permission, List<Sid> sids) {
+                             Map<AclClass, Set<Long>> entitiesToRemove, Permission permission,
+                             TreeMaskResolver.TreeMasks masks) {
         children.forEach(child -> {
-            int mask = PermissionUtils
-                    .mergeParentMask(permissionHelper.getPermissionsMask(child, false, false, sids), parentMask);
+            int mask = PermissionUtils.mergeParentMask(masks.getMask(child, false), parentMask);
             if (!PermissionUtils.isPermissionGranted(mask, permission)) {
                 entitiesToRemove.putIfAbsent(child.getAclClass(), new HashSet<>());
                 entitiesToRemove.get(child.getAclClass()).add(child.getId());
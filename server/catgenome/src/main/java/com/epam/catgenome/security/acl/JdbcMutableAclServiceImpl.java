@@ -25,9 +25,11 @@
 package com.epam.catgenome.security.acl;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
@@ -41,6 +43,8 @@ import org.springframework.security.acls.jdbc.LookupStrategy;
 import org.springframework.security.acls.model.*;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 import com.epam.catgenome.component.MessageHelper;
@@ -53,9 +57,14 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
     private String deleteEntriesBySidQuery;
     private String loadEntriesBySidsCountQuery;
 
+    private final LookupStrategy lookupStrategy;
+    // incremented on any ACL change, allows to invalidate permissions calculated from ACLs
+    private final AtomicLong aclVersion = new AtomicLong();
+
     public JdbcMutableAclServiceImpl(DataSource dataSource, LookupStrategy lookupStrategy,
                                      AclCache aclCache) {
         super(dataSource, lookupStrategy, aclCache);
+        this.lookupStrategy = lookupStrategy;
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -73,6 +82,7 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
 
         // Create the acl_object_identity row
         createObjectIdentity(objectIdentity, sid);
+        onAclChanged();
 
         // Retrieve the ACL via superclass (ensures cache registration, proper retrieval
         // etc)
@@ -109,10 +119,54 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
         return readAclsById(objectIdentities);
     }
 
+    /**
+     * Loads ACLs of the entities in batches, entities, that aren't registered in ACL, are missing in the result
+     * @param entities to load ACLs for
+     * @return loaded ACLs by object identities
+     */
+    public Map<ObjectIdentity, Acl> loadAcls(Collection<? extends AbstractSecuredEntity> entities) {
+        List<ObjectIdentity> objectIdentities = entities.stream()
+            .map(ObjectIdentityImpl::new)
+            .distinct()
+            .collect(Collectors.toList());
+        if (objectIdentities.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return lookupStrategy.readAclsById(objectIdentities, null);
+    }
+
+    /**
+     * @return a version of ACL data, that changes each time any ACL, ACL entry or SID is modified
+     */
+    public long getAclVersion() {
+        return aclVersion.get();
+    }
+
+    @Override
+    public MutableAcl createAcl(ObjectIdentity objectIdentity) {
+        MutableAcl acl = super.createAcl(objectIdentity);
+        onAclChanged();
+        return acl;
+    }
+
+    @Override
+    public MutableAcl updateAcl(MutableAcl acl) {
+        MutableAcl updatedAcl = super.updateAcl(acl);
+        onAclChanged();
+        return updatedAcl;
+    }
+
+    @Override
+    public void deleteAcl(ObjectIdentity objectIdentity, boolean deleteChildren) {
+        super.deleteAcl(objectIdentity, deleteChildren);
+        onAclChanged();
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     public void deleteSidById(Long sidId) {
         jdbcTemplate.update(deleteEntriesBySidQuery, sidId);
         jdbcTemplate.update(deleteSidByIdQuery, sidId);
+        onAclChanged();
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
@@ -174,6 +228,19 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
         return jdbcTemplate.queryForObject(query, sidIds.toArray(), Integer.class);
     }
 
+    private void onAclChanged() {
+        aclVersion.incrementAndGet();
+        // changes become visible to other transactions only after commit, so version is changed once again
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    aclVersion.incrementAndGet();
+                }
+            });
+        }
+    }
+
     @Required
     public void setDeleteSidByIdQuery(String deleteSidByIdQuery) {
         this.deleteSidByIdQuery = deleteSidByIdQuery;
@@ -76,6 +76,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static java.util.stream.Collectors.toList;
 
@@ -258,7 +259,16 @@ public class PermissionHelper {
 
     public Integer retrieveMaskForSid(AbstractSecuredEntity entity, boolean merge,
                                        boolean includeInherited, List<Sid> sids) {
-        Acl child = aclService.getAcl(entity);
+        return retrieveMaskForSid(entity, merge, includeInherited, sids, aclService::getAcl);
+    }
+
+    /**
+     * Calculates a mask of an entity using ACLs provided by {@code aclProvider}, e.g. loaded beforehand
+     * for a batch of entities
+     */
+    public Integer retrieveMaskForSid(AbstractSecuredEntity entity, boolean merge, boolean includeInherited,
+                                      List<Sid> sids, Function<AbstractSecuredEntity, ? extends Acl> aclProvider) {
+        Acl child = aclProvider.apply(entity);
         //check ownership
         if (child == null && isOwner(entity)) {
             return merge ?
@@ -271,7 +281,7 @@ public class PermissionHelper {
             return 0;
         }
         //get parent
-        Acl acl = child == null ? aclService.getAcl(entity.getParent()) : child;
+        Acl acl = child == null ? aclProvider.apply(entity.getParent()) : child;
         if (sids.stream().anyMatch(sid -> acl.getOwner().equals(sid))) {
             return merge ?
                     AbstractSecuredEntity.ALL_PERMISSIONS_MASK :
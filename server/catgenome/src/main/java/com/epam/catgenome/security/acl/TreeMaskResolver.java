@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.security.acl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+
+import com.epam.catgenome.entity.security.AbstractHierarchicalEntity;
+import com.epam.catgenome.entity.security.AbstractSecuredEntity;
+import com.epam.catgenome.manager.AuthManager;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves permission masks for all entities of project trees at once. ACLs of the tree entities are
+ * loaded with batched lookups instead of a separate lookup per entity, and the resolved masks are cached
+ * per user until any ACL is changed, see {@link JdbcMutableAclServiceImpl#getAclVersion()}.
+ */
+@Service
+@ConditionalOnProperty(value = "security.acl.enable", havingValue = "true")
+public class TreeMaskResolver {
+
+    @Value("${security.acl.tree.cache.users:1000}")
+    private int cachedUsers;
+
+    @Value("${security.acl.tree.cache.period:600}")
+    private int cachePeriod;
+
+    @Autowired
+    private JdbcMutableAclServiceImpl aclService;
+
+    @Autowired
+    private PermissionHelper permissionHelper;
+
+    @Autowired
+    private AuthManager authManager;
+
+    private Cache<Pair<String, List<Sid>>, UserMasks> userMasks;
+
+    @PostConstruct
+    public void init() {
+        userMasks = CacheBuilder.newBuilder()
+                .maximumSize(cachedUsers)
+                .expireAfterAccess(cachePeriod, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Resolves own, not merged with parents, masks of all entities of the trees. Root entities masks
+     * include permissions inherited by ACL, other entities masks don't.
+     * @param sids to resolve masks for
+     * @param trees to resolve masks for
+     * @return resolved masks of the trees entities
+     */
+    public TreeMasks resolve(final List<Sid> sids, final Collection<? extends AbstractHierarchicalEntity> trees) {
+        final long version = aclService.getAclVersion();
+        final Pair<String, List<Sid>> key = Pair.of(authManager.getAuthorizedUser(), new ArrayList<>(sids));
+        UserMasks masks = userMasks.getIfPresent(key);
+        if (masks == null || masks.version != version) {
+            masks = new UserMasks(version);
+            userMasks.put(key, masks);
+        }
+
+        final Map<Pair<ObjectIdentity, Boolean>, AbstractSecuredEntity> missing = new HashMap<>();
+        for (AbstractHierarchicalEntity tree : trees) {
+            collectMissing(tree, true, masks, missing);
+        }
+        if (!missing.isEmpty()) {
+            final List<AbstractSecuredEntity> toLoad = new ArrayList<>(missing.values());
+            missing.values().stream()
+                    .map(AbstractSecuredEntity::getParent)
+                    .filter(parent -> parent != null && parent.getId() != null)
+                    .forEach(toLoad::add);
+            final Map<ObjectIdentity, Acl> acls = aclService.loadAcls(toLoad);
+            for (Map.Entry<Pair<ObjectIdentity, Boolean>, AbstractSecuredEntity> entry : missing.entrySet()) {
+                final boolean root = entry.getKey().getRight();
+                masks.put(entry.getKey().getLeft(), root, permissionHelper.retrieveMaskForSid(entry.getValue(),
+                        false, root, sids, entity -> acls.get(new ObjectIdentityImpl(entity))));
+            }
+        }
+        return new TreeMasks(masks, sids);
+    }
+
+    private void collectMissing(final AbstractSecuredEntity entity, final boolean root, final UserMasks masks,
+                                final Map<Pair<ObjectIdentity, Boolean>, AbstractSecuredEntity> missing) {
+        if (entity.getId() != null) {
+            final ObjectIdentity identity = new ObjectIdentityImpl(entity);
+            if (masks.isMissing(identity, root)) {
+                missing.put(Pair.of(identity, root), entity);
+            }
+        }
+        if (entity instanceof AbstractHierarchicalEntity) {
+            final AbstractHierarchicalEntity hierarchicalEntity = (AbstractHierarchicalEntity) entity;
+            ListUtils.emptyIfNull(hierarchicalEntity.getChildren())
+                    .forEach(child -> collectMissing(child, false, masks, missing));
+            ListUtils.emptyIfNull(hierarchicalEntity.getLeaves())
+                    .forEach(leaf -> collectMissing(leaf, false, masks, missing));
+        }
+    }
+
+    /**
+     * Masks resolved for a user
+     */
+    public final class TreeMasks {
+
+        private final UserMasks masks;
+        private final List<Sid> sids;
+
+        private TreeMasks(final UserMasks masks, final List<Sid> sids) {
+            this.masks = masks;
+            this.sids = sids;
+        }
+
+        /**
+         * @param entity to get mask for
+         * @param root whether the entity is a root of a tree, the mask of a root includes permissions
+         *             inherited by ACL
+         * @return mask of the entity, not merged with the mask of the parent tree node
+         */
+        public int getMask(final AbstractSecuredEntity entity, final boolean root) {
+            final ObjectIdentity identity = new ObjectIdentityImpl(entity);
+            final Integer mask = masks.get(identity, root);
+            return mask != null ? mask : permissionHelper.retrieveMaskForSid(entity, false, root, sids);
+        }
+    }
+
+    private static class UserMasks {
+
+        private final long version;
+        private final Map<ObjectIdentity, Integer> ownMasks = new ConcurrentHashMap<>();
+        private final Map<ObjectIdentity, Integer> inheritedMasks = new ConcurrentHashMap<>();
+
+        UserMasks(final long version) {
+            this.version = version;
+        }
+
+        boolean isMissing(final ObjectIdentity identity, final boolean inherited) {
+            return !(inherited ? inheritedMasks : ownMasks).containsKey(identity);
+        }
+
+        Integer get(final ObjectIdentity identity, final boolean inherited) {
+            return (inherited ? inheritedMasks : ownMasks).get(identity);
+        }
+
+        void put(final ObjectIdentity identity, final boolean inherited, final Integer mask) {
+            (inherited ? inheritedMasks : ownMasks).put(identity, mask);
+        }
+    }
+}
@@ -145,7 +145,7 @@ public class AclAspect {
     @Transactional(propagation = Propagation.REQUIRED)
     public void filterListOfTrees(JoinPoint joinPoint, List<? extends AbstractHierarchicalEntity> list) {
         // filter projects and remove it from list if it empty and we haven't permission on it
-        ListUtils.emptyIfNull(list).removeIf(e -> !permissionManager.filterTree(e, AclPermission.READ));
+        permissionManager.filterTrees(list, AclPermission.READ);
     }
 
     @Before("@annotation(com.epam.catgenome.security.acl.aspect.AclFilter) && args(filterForm,..)")
@@ -37,6 +37,7 @@ import com.epam.catgenome.constant.Constants;
 import com.epam.catgenome.constant.MessagesConstants;
 import com.epam.catgenome.entity.bam.BamQueryOption;
 import com.epam.catgenome.entity.bam.BasePosition;
+import com.epam.catgenome.entity.bam.BasePositionBuffer;
 import com.epam.catgenome.entity.bam.NgbSamTagAndValue;
 import com.epam.catgenome.entity.bam.Read;
 import com.epam.catgenome.entity.bam.TrackDirectionType;
@@ -77,7 +78,7 @@ public final class BamUtil {
      * @param samRecord a SAMRecord from BAM file
      * @param start new start of a record, without softClip
      * @param end new end of a record, without softClip
-     * @param differentBase list of bases, where variation occurred
+     * @param differentBase list of bases, where variation occurred, a {@code BasePositionBuffer} is copied
      * @param head head sequence of a Record
      * @param tail tail sequence of a Record
      * @return
@@ -98,7 +99,8 @@ public final class BamUtil {
         read.setPNext(samRecord.getMateAlignmentStart());
         read.setPairedReadName(samRecord.getPairedReadName());
         read.setRName(samRecord.getReferenceName());
-        read.setDifferentBase(differentBase);
+        read.setDifferentBase(differentBase instanceof BasePositionBuffer ?
+                ((BasePositionBuffer) differentBase).copy() : differentBase);
         read.setHeadSequence(head);
         read.setTailSequence(tail);
 
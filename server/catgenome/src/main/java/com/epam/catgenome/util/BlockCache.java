@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared cache of fixed-size, aligned blocks of remote (S3, Azure) files. Missing adjacent blocks
+ * are fetched with a single ranged request, the total amount of cached bytes is bounded and the
+ * least recently used blocks are evicted first. Optionally the blocks following a sequential read
+ * are loaded in background. Blocks are keyed by the object version (e.g. ETag) as well, so that a
+ * remote file, overwritten with the same length, is never served from the blocks of the previous one.
+ */
+@Slf4j
+public final class BlockCache {
+
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    public static final int DEFAULT_MAX_REQUEST_BLOCKS = 16;
+    public static final int DEFAULT_READ_AHEAD_BLOCKS = 2;
+    public static final int DEFAULT_READ_AHEAD_THREADS = 4;
+    public static final int DEFAULT_EXPIRATION_SECONDS = 600;
+    private static final int READ_AHEAD_QUEUE_SIZE = 100;
+    private static final int READ_AHEAD_KEEP_ALIVE_SECONDS = 60;
+
+    private static BlockCache instance;
+
+    private final int blockSize;
+    private final int maxRequestBlocks;
+    private final int readAheadBlocks;
+    private final Executor readAheadExecutor;
+    private final Cache<BlockKey, byte[]> blocks;
+    private final ConcurrentMap<BlockKey, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Loads an inclusive byte range of a remote file
+     */
+    @FunctionalInterface
+    public interface RangeLoader {
+        InputStream load(long from, long to) throws IOException;
+    }
+
+    public BlockCache(final int blockSize, final long maxBytes, final int maxRequestBlocks,
+                      final int readAheadBlocks, final int expirationSeconds, final Executor readAheadExecutor) {
+        this.blockSize = blockSize;
+        this.maxRequestBlocks = Math.max(1, maxRequestBlocks);
+        this.readAheadBlocks = readAheadExecutor == null ? 0 : readAheadBlocks;
+        this.readAheadExecutor = readAheadExecutor;
+        this.blocks = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((BlockKey key, byte[] value) -> value.length)
+                .expireAfterAccess(expirationSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public static synchronized BlockCache configure(final int blockSize, final long maxBytes,
+                                                    final int maxRequestBlocks, final int readAheadBlocks,
+                                                    final int readAheadThreads, final int expirationSeconds) {
+        instance = new BlockCache(blockSize, maxBytes, maxRequestBlocks, readAheadBlocks, expirationSeconds,
+                readAheadBlocks > 0 && readAheadThreads > 0 ? createReadAheadExecutor(readAheadThreads) : null);
+        return instance;
+    }
+
+    public static synchronized BlockCache getInstance() {
+        if (instance == null) {
+            configure(DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BYTES, DEFAULT_MAX_REQUEST_BLOCKS, DEFAULT_READ_AHEAD_BLOCKS,
+                    DEFAULT_READ_AHEAD_THREADS, DEFAULT_EXPIRATION_SECONDS);
+        }
+        return instance;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns blocks from first to last (inclusive) of the specified version of a source, missing
+     * blocks are loaded with as few ranged requests as possible.
+     */
+    public byte[][] getBlocks(final String source, final String version, final long length,
+                              final RangeLoader loader, final long first, final long last) throws IOException {
+        final BlockSource blockSource = new BlockSource(source, version, length);
+        final int count = (int) (last - first + 1);
+        final byte[][] result = new byte[count][];
+        final List<Long> missing = new ArrayList<>();
+        for (long index = first; index <= last; index++) {
+            result[(int) (index - first)] = blocks.getIfPresent(new BlockKey(blockSource, index));
+            if (result[(int) (index - first)] == null) {
+                missing.add(index);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        final Map<Long, CompletableFuture<byte[]>> foreign = new LinkedHashMap<>();
+        final Map<Long, CompletableFuture<byte[]>> own = claim(blockSource, missing, foreign);
+        load(blockSource, loader, own);
+        for (Map.Entry<Long, CompletableFuture<byte[]>> entry : own.entrySet()) {
+            result[(int) (entry.getKey() - first)] = await(entry.getValue());
+        }
+        for (Map.Entry<Long, CompletableFuture<byte[]>> entry : foreign.entrySet()) {
+            result[(int) (entry.getKey() - first)] = await(entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Schedules background loading of the blocks following the specified one, does nothing
+     * if read-ahead is disabled or all these blocks are already cached or being loaded.
+     */
+    public void readAhead(final String source, final String version, final long length, final RangeLoader loader,
+                          final long from) {
+        final BlockSource blockSource = new BlockSource(source, version, length);
+        final long blockCount = (length + blockSize - 1) / blockSize;
+        final List<Long> missing = new ArrayList<>();
+        for (long index = from; index < Math.min(blockCount, from + readAheadBlocks); index++) {
+            final BlockKey key = new BlockKey(blockSource, index);
+            if (blocks.getIfPresent(key) == null && !loading.containsKey(key)) {
+                missing.add(index);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        readAheadExecutor.execute(() -> {
+            try {
+                load(blockSource, loader, claim(blockSource, missing, new LinkedHashMap<>()));
+            } catch (IOException e) {
+                log.debug("Failed to read ahead {}: {}", source, e.getMessage());
+            }
+        });
+    }
+
+    private Map<Long, CompletableFuture<byte[]>> claim(final BlockSource blockSource, final List<Long> indices,
+                                                       final Map<Long, CompletableFuture<byte[]>> foreign) {
+        final Map<Long, CompletableFuture<byte[]>> own = new LinkedHashMap<>();
+        for (Long index : indices) {
+            final CompletableFuture<byte[]> future = new CompletableFuture<>();
+            final CompletableFuture<byte[]> existing = loading.putIfAbsent(new BlockKey(blockSource, index), future);
+            if (existing == null) {
+                own.put(index, future);
+            } else {
+                foreign.put(index, existing);
+            }
+        }
+        return own;
+    }
+
+    private void load(final BlockSource blockSource, final RangeLoader loader,
+                      final Map<Long, CompletableFuture<byte[]>> claimed) throws IOException {
+        try {
+            final List<Long> run = new ArrayList<>();
+            for (Long index : claimed.keySet()) {
+                if (!run.isEmpty() && (index != run.get(run.size() - 1) + 1 || run.size() == maxRequestBlocks)) {
+                    loadRun(blockSource, loader, run, claimed);
+                    run.clear();
+                }
+                run.add(index);
+            }
+            if (!run.isEmpty()) {
+                loadRun(blockSource, loader, run, claimed);
+            }
+        } catch (IOException | RuntimeException e) {
+            claimed.forEach((index, future) -> {
+                if (!future.isDone()) {
+                    loading.remove(new BlockKey(blockSource, index));
+                    future.completeExceptionally(e);
+                }
+            });
+            throw e;
+        }
+    }
+
+    private void loadRun(final BlockSource blockSource, final RangeLoader loader, final List<Long> run,
+                         final Map<Long, CompletableFuture<byte[]>> claimed) throws IOException {
+        final long length = blockSource.getLength();
+        final long from = run.get(0) * blockSize;
+        final long to = Math.min(length, (run.get(run.size() - 1) + 1) * blockSize) - 1;
+        try (InputStream stream = loader.load(from, to)) {
+            for (Long index : run) {
+                final long start = index * blockSize;
+                final byte[] data = new byte[(int) (Math.min(length, start + blockSize) - start)];
+                IOUtils.readFully(stream, data);
+                final BlockKey key = new BlockKey(blockSource, index);
+                blocks.put(key, data);
+                loading.remove(key);
+                claimed.get(index).complete(data);
+            }
+        }
+    }
+
+    private static byte[] await(final CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static Executor createReadAheadExecutor(final int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                READ_AHEAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(READ_AHEAD_QUEUE_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("block-read-ahead-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.DiscardPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Value
+    private static class BlockSource {
+        String source;
+        String version;
+        long length;
+    }
+
+    @Value
+    private static class BlockKey {
+        BlockSource source;
+        long index;
+    }
+}
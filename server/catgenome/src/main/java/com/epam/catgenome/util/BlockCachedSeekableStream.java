@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util;
+
+import htsjdk.samtools.seekablestream.SeekableStream;
+
+import java.io.IOException;
+
+/**
+ * Seekable stream over a remote file that serves reads from the shared {@link BlockCache}:
+ * seeking is free, reads are copied from cached blocks and only missing blocks are requested
+ * from the storage. Sequential reads trigger read-ahead of the following blocks.
+ */
+public class BlockCachedSeekableStream extends SeekableStream {
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private final String source;
+    private final String version;
+    private final long contentLength;
+    private final BlockCache cache;
+    private final BlockCache.RangeLoader loader;
+    private long position;
+    private long lastReadEnd = -1;
+    private byte[] currentBlock;
+    private long currentBlockIndex = -1;
+
+    /**
+     * @param source a location of the remote file
+     * @param version a version of the remote file (e.g. ETag), the loader must read exactly this version
+     * @param contentLength a length of this version of the file
+     * @param cache a cache to serve blocks from
+     * @param loader loads byte ranges of the file
+     */
+    public BlockCachedSeekableStream(final String source, final String version, final long contentLength,
+                                     final BlockCache cache, final BlockCache.RangeLoader loader) {
+        this.source = source;
+        this.version = version;
+        this.contentLength = contentLength;
+        this.cache = cache;
+        this.loader = loader;
+    }
+
+    @Override
+    public long length() {
+        return contentLength;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void seek(final long targetPosition) {
+        this.position = targetPosition;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] buffer = new byte[1];
+        return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= contentLength) {
+            return -1;
+        }
+        final int blockSize = cache.getBlockSize();
+        final long end = Math.min(contentLength, position + length);
+        final long first = position / blockSize;
+        final long last = (end - 1) / blockSize;
+        final boolean sequential = position == lastReadEnd;
+        if (first != currentBlockIndex || last != currentBlockIndex) {
+            final byte[][] blocks = cache.getBlocks(source, version, contentLength, loader, first, last);
+            int copied = 0;
+            for (int i = 0; i < blocks.length; i++) {
+                final long blockStart = (first + i) * blockSize;
+                final int from = (int) (Math.max(position, blockStart) - blockStart);
+                final int to = (int) (Math.min(end, blockStart + blockSize) - blockStart);
+                System.arraycopy(blocks[i], from, buffer, offset + copied, to - from);
+                copied += to - from;
+            }
+            currentBlock = blocks[blocks.length - 1];
+            currentBlockIndex = last;
+            if (sequential) {
+                cache.readAhead(source, version, contentLength, loader, last + 1);
+            }
+        } else {
+            System.arraycopy(currentBlock, (int) (position - first * blockSize), buffer, offset,
+                    (int) (end - position));
+        }
+        final int read = (int) (end - position);
+        position = end;
+        lastReadEnd = end;
+        return read;
+    }
+
+    @Override
+    public void close() {
+        currentBlock = null;
+        currentBlockIndex = -1;
+    }
+
+    @Override
+    public boolean eof() {
+        return position >= contentLength;
+    }
+
+    @Override
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * BGZF output stream, that compresses blocks on the threads of a provided executor. The output
+ * is compatible with {@link BlockCompressedOutputStream}: blocks are written in order and the
+ * stream is terminated with an empty EOF block on close. The number of blocks being compressed
+ * at the same time is bounded to keep memory usage low.
+ */
+public class ParallelBlockCompressedOutputStream extends OutputStream {
+
+    private static final int UNCOMPRESSED_BLOCK_SIZE = BlockCompressedStreamConstants.DEFAULT_UNCOMPRESSED_BLOCK_SIZE;
+    private static final int COMPRESSED_BUFFER_SIZE = BlockCompressedStreamConstants.MAX_COMPRESSED_BLOCK_SIZE
+            - BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH;
+    private static final int GZIP_ID2 = BlockCompressedStreamConstants.GZIP_ID2;
+    private static final int GZIP_OS = BlockCompressedStreamConstants.GZIP_OS_UNKNOWN;
+
+    private final OutputStream output;
+    private final ExecutorService executor;
+    private final int compressionLevel;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] buffer = new byte[UNCOMPRESSED_BLOCK_SIZE];
+    private int count;
+    private boolean closed;
+
+    public ParallelBlockCompressedOutputStream(final OutputStream output, final ExecutorService executor,
+                                               final int maxPendingBlocks) {
+        this(output, executor, maxPendingBlocks, BlockCompressedOutputStream.getDefaultCompressionLevel());
+    }
+
+    public ParallelBlockCompressedOutputStream(final OutputStream output, final ExecutorService executor,
+                                               final int maxPendingBlocks, final int compressionLevel) {
+        this.output = output;
+        this.executor = executor;
+        this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        buffer[count++] = (byte) b;
+        if (count == buffer.length) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        int written = 0;
+        while (written < length) {
+            final int chunk = Math.min(length - written, buffer.length - count);
+            System.arraycopy(bytes, offset + written, buffer, count, chunk);
+            count += chunk;
+            written += chunk;
+            if (count == buffer.length) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses buffered data and writes all pending blocks to the underlying stream
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeBlock(pending.poll());
+        }
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            output.write(BlockCompressedStreamConstants.EMPTY_GZIP_BLOCK);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            output.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] block = buffer;
+        final int size = count;
+        pending.add(executor.submit(() -> compressBlock(block, size, compressionLevel)));
+        buffer = new byte[UNCOMPRESSED_BLOCK_SIZE];
+        count = 0;
+        while (pending.size() > maxPendingBlocks) {
+            writeBlock(pending.poll());
+        }
+    }
+
+    private void writeBlock(final Future<byte[]> block) throws IOException {
+        try {
+            output.write(block.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress a block", e.getCause());
+        }
+    }
+
+    /**
+     * Builds a single BGZF block: gzip header with the block size extra field, deflated data,
+     * CRC32 and size of the uncompressed data. Data that can't be compressed into a single block
+     * is stored without compression, the same way {@link BlockCompressedOutputStream} does it.
+     */
+    static byte[] compressBlock(final byte[] data, final int size, final int compressionLevel) {
+        final byte[] compressed = new byte[COMPRESSED_BUFFER_SIZE];
+        int compressedSize = deflate(data, size, compressed, compressionLevel);
+        if (compressedSize < 0) {
+            compressedSize = deflate(data, size, compressed, Deflater.NO_COMPRESSION);
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(data, 0, size);
+        final int blockSize = BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH + compressedSize
+                + BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH;
+        final ByteBuffer block = ByteBuffer.allocate(blockSize).order(ByteOrder.LITTLE_ENDIAN);
+        block.put(BlockCompressedStreamConstants.GZIP_ID1)
+                .put((byte) GZIP_ID2)
+                .put(BlockCompressedStreamConstants.GZIP_CM_DEFLATE)
+                .put((byte) BlockCompressedStreamConstants.GZIP_FLG)
+                .putInt(0)
+                .put((byte) BlockCompressedStreamConstants.GZIP_XFL)
+                .put((byte) GZIP_OS)
+                .putShort(BlockCompressedStreamConstants.GZIP_XLEN)
+                .put(BlockCompressedStreamConstants.BGZF_ID1)
+                .put(BlockCompressedStreamConstants.BGZF_ID2)
+                .putShort(BlockCompressedStreamConstants.BGZF_LEN)
+                .putShort((short) (blockSize - 1))
+                .put(compressed, 0, compressedSize)
+                .putInt((int) crc.getValue())
+                .putInt(size);
+        return block.array();
+    }
+
+    private static int deflate(final byte[] data, final int size, final byte[] compressed, final int level) {
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(data, 0, size);
+            deflater.finish();
+            final int compressedSize = deflater.deflate(compressed, 0, compressed.length);
+            return deflater.finished() ? compressedSize : -1;
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.amazonaws.services.s3.AmazonS3URI;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.ResponseHeaderOverrides;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
@@ -47,17 +48,16 @@ public final class S3Client {
 
     private static S3Client instance;
 
-    private final LoadingCache<String, Long> fileSizes = CacheBuilder.newBuilder()
+    private final LoadingCache<String, ObjectMetadata> objectMetadata = CacheBuilder.newBuilder()
             .maximumSize(CACHE_SIZE)
             .expireAfterWrite(1, TimeUnit.HOURS)
             .build(
-                    new CacheLoader<String, Long>() {
-                        public Long load(String key) {
+                    new CacheLoader<String, ObjectMetadata>() {
+                        public ObjectMetadata load(String key) {
                             CloudType cloudType = getCloudType(key);
                             AmazonS3URI obj = new AmazonS3URI(replaceSchema(key));
                             return getAws(cloudType)
-                                    .getObjectMetadata(obj.getBucket(), obj.getKey())
-                                    .getContentLength();
+                                    .getObjectMetadata(obj.getBucket(), obj.getKey());
                         }
                     });
 
@@ -143,7 +143,11 @@ public final class S3Client {
      * @return long value of the file size in bytes
      */
     public long getFileSize(String amazonURI){
-        return fileSizes.getUnchecked(amazonURI);
+        return objectMetadata.getUnchecked(amazonURI).getContentLength();
+    }
+
+    ObjectMetadata getObjectMetadata(String amazonURI) {
+        return objectMetadata.getUnchecked(amazonURI);
     }
 
     /**
@@ -156,10 +160,32 @@ public final class S3Client {
      * @return an InputStream object on the specific range of the file.
      */
     public InputStream loadFromTo(String url, long offset, long end) {
+        return loadFromTo(url, offset, end, null);
+    }
+
+    /**
+     * A method that creates an InputStream on a specific range of the specified version of the file.
+     *
+     * @param url    target file URI
+     * @param offset range start position
+     * @param end    range end position
+     * @param eTag   expected ETag of the file, any version is read if it is {@code null}
+     * @return an InputStream object on the specific range of the file.
+     * @throws IllegalStateException if the file was modified and has another ETag
+     */
+    public InputStream loadFromTo(String url, long offset, long end, String eTag) {
         AmazonS3URI obj = new AmazonS3URI(replaceSchema(url));
         GetObjectRequest rangeObjectRequest = new GetObjectRequest(obj.getBucket(), obj.getKey());
         rangeObjectRequest.setRange(offset, end);
+        if (eTag != null) {
+            rangeObjectRequest.withMatchingETagConstraint(eTag);
+        }
         S3Object s3Object = getAws(getCloudType(url)).getObject(rangeObjectRequest);
+        if (s3Object == null) {
+            // the ETag constraint is not met, the next stream should read the current version
+            objectMetadata.invalidate(url);
+            throw new IllegalStateException(String.format("S3 object %s was modified while reading", url));
+        }
         S3ObjectInputStream objectStream = s3Object.getObjectContent();
         return new BufferedInputStream(objectStream);
     }
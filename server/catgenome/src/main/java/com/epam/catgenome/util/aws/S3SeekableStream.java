@@ -24,48 +24,26 @@
 
 package com.epam.catgenome.util.aws;
 
-import java.io.IOException;
-import com.epam.catgenome.util.FeatureSeekableStream;
-import lombok.extern.slf4j.Slf4j;
-import htsjdk.samtools.util.RuntimeIOException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.epam.catgenome.util.BlockCache;
+import com.epam.catgenome.util.BlockCachedSeekableStream;
 
 /**
- * Wrapper class for S3ObjectChunkInputStream that supports @<code>seek()</code> method.
- * If position skip requested by seek() is small, just skips bytes. Otherwise, recreates stream.
+ * Seekable stream over an S3 object, reads are served from the shared {@link BlockCache}
+ * and missing blocks are loaded with ranged GET requests of the object version (ETag), the stream was opened for.
  */
-@Slf4j
-public class S3SeekableStream extends FeatureSeekableStream {
+public class S3SeekableStream extends BlockCachedSeekableStream {
 
     S3SeekableStream(String source) {
-        super(source);
-        contentLength = S3Client.getInstance().getFileSize(cloudUri);
-        recreateInnerStream();
+        this(source, BlockCache.getInstance());
     }
 
-    private void recreateInnerStream() {
-        if (null != currentDataStream) {
-            try {
-                currentDataStream.close();
-            } catch (IOException e) {
-                throw new RuntimeIOException(e.getMessage() + "failed to close the data stream", e);
-            }
-        }
-
-        this.currentDataStream = new CountingWithSkipInputStream(
-                new S3ObjectChunkInputStream(cloudUri, offset, length() - 1));
-        log.debug("A new data stream was launched on offset = {}", offset);
+    S3SeekableStream(String source, BlockCache cache) {
+        this(source, S3Client.getInstance().getObjectMetadata(source), cache);
     }
 
-    /**
-     * A method that jumps to a specific position in file.
-     *
-     * @param targetPosition target position in file.
-     */
-    @Override
-    public void seek(long targetPosition) throws IOException {
-        log.debug("Seeking from {} to {}", position(), targetPosition);
-        this.offset = targetPosition;
-        recreateInnerStream();
+    private S3SeekableStream(String source, ObjectMetadata metadata, BlockCache cache) {
+        super(source, metadata.getETag(), metadata.getContentLength(), cache,
+                (from, to) -> S3Client.getInstance().loadFromTo(source, from, to, metadata.getETag()));
     }
 }
-
@@ -30,7 +30,9 @@ import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobProperties;
 import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.sas.BlobSasPermission;
 import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
 import com.azure.storage.common.StorageSharedKeyCredential;
@@ -136,9 +138,16 @@ public class AzureBlobClient {
     }
 
     public InputStream loadFromTo(final String uri, final long offset, final long end) {
+        return loadFromTo(uri, offset, end, null);
+    }
+
+    /**
+     * Opens a range of the specified version of a blob, reading fails if the blob has another ETag
+     */
+    public InputStream loadFromTo(final String uri, final long offset, final long end, final String eTag) {
         final BlobClient client = getBlobURL(uri);
         final BlobRange blobRange = new BlobRange(offset, end - offset + 1);
-        return client.openInputStream(blobRange, null);
+        return client.openInputStream(blobRange, eTag == null ? null : new BlobRequestConditions().setIfMatch(eTag));
     }
 
     public boolean blobExists(String uri) {
@@ -149,6 +158,10 @@ public class AzureBlobClient {
         return getBlobURL(uri).getProperties().getBlobSize();
     }
 
+    public BlobProperties getProperties(final String uri) {
+        return getBlobURL(uri).getProperties();
+    }
+
     private BlobClient getBlobURL(final String uri) {
         final AzureBlobItem azureBlob = validateUri(uri);
         BlobContainerClient blobContainerClient = blobService.getBlobContainerClient(azureBlob.container);
@@ -24,47 +24,32 @@
 
 package com.epam.catgenome.util.azure;
 
-import com.epam.catgenome.util.FeatureSeekableStream;
-import htsjdk.samtools.util.RuntimeIOException;
-import lombok.extern.slf4j.Slf4j;
-import java.io.IOException;
+import com.azure.storage.blob.models.BlobProperties;
+import com.epam.catgenome.util.BlockCache;
+import com.epam.catgenome.util.BlockCachedSeekableStream;
 
-@Slf4j
-public class AzureBlobSeekableStream extends FeatureSeekableStream {
-
-    private final AzureBlobClient client;
+/**
+ * Seekable stream over an Azure blob, reads are served from the shared {@link BlockCache}
+ * and missing blocks are loaded with ranged requests of the blob version (ETag), the stream was opened for.
+ */
+public class AzureBlobSeekableStream extends BlockCachedSeekableStream {
 
     public AzureBlobSeekableStream(final String azureBlobUri,
                                    final AzureBlobClient client) {
-        super(azureBlobUri);
-        this.client = client;
-        this.contentLength = client.getFileSize(azureBlobUri);
-        recreateInnerStream();
+        this(azureBlobUri, client, BlockCache.getInstance());
     }
 
-    private void recreateInnerStream() {
-        if (null != currentDataStream) {
-            try {
-                currentDataStream.close();
-            } catch (IOException e) {
-                throw new RuntimeIOException(e.getMessage() + "failed to close the data stream", e);
-            }
-        }
-
-        this.currentDataStream = new CountingWithSkipInputStream(
-                new AzureBlobInputStream(cloudUri, offset, length() - 1, client));
-        log.debug("A new data stream was launched on offset = {}", offset);
+    public AzureBlobSeekableStream(final String azureBlobUri,
+                                   final AzureBlobClient client,
+                                   final BlockCache cache) {
+        this(azureBlobUri, client, client.getProperties(azureBlobUri), cache);
     }
 
-    /**
-     * A method that jumps to a specific position in file.
-     *
-     * @param targetPosition target position in file.
-     */
-    @Override
-    public void seek(long targetPosition) throws IOException {
-        log.debug("Seeking from {} to {}", position(), targetPosition);
-        this.offset = targetPosition;
-        recreateInnerStream();
+    private AzureBlobSeekableStream(final String azureBlobUri,
+                                    final AzureBlobClient client,
+                                    final BlobProperties properties,
+                                    final BlockCache cache) {
+        super(azureBlobUri, properties.getETag(), properties.getBlobSize(), cache,
+                (from, to) -> client.loadFromTo(azureBlobUri, from, to, properties.getETag()));
     }
 }
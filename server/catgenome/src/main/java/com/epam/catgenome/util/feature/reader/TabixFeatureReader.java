@@ -140,6 +140,14 @@ public class TabixFeatureReader<T extends Feature, S> extends AbstractFeatureRea
         return sequenceNames;
     }
 
+    /**
+     * @return path to the index file, the reader was created with, or null if the index was resolved from
+     * the feature file path
+     */
+    public String getIndexFile() {
+        return indexFile;
+    }
+
     /**
      * Return iterator over all features overlapping the given interval
      *
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util.motif;
+
+import com.epam.catgenome.entity.reference.motif.Motif;
+import com.epam.catgenome.manager.gene.parser.StrandSerializable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Searches a fixed length IUPAC motif (plain nucleotides and ambiguity codes) on both strands in a single pass
+ * over the sequence. The motif and its reverse complement are compiled into bit masks of a Shift-And automaton,
+ * that tracks all partial matches of both patterns at once, so each nucleotide of the sequence is examined
+ * only once regardless of the motif length. Matches are returned in order of their start,
+ * a positive strand match goes first, if both strands match at the same position.
+ */
+public class IupacMotifSearchIterator implements Iterator<Motif> {
+
+    /**
+     * Max length of a motif, that fits into a state of the automaton
+     */
+    public static final int MAX_MOTIF_LENGTH = Long.SIZE;
+
+    private static final int ALPHABET_SIZE = 256;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final long[] positiveMasks;
+    private final long[] negativeMasks;
+    private final long matchBit;
+    private final int motifLength;
+    private final byte[] sequence;
+    private final String contig;
+    private final int offset;
+    private final boolean includeSequence;
+
+    private long positiveState;
+    private long negativeState;
+    private int currentPosition;
+    private boolean positiveMatch;
+    private boolean negativeMatch;
+
+    public IupacMotifSearchIterator(final byte[] seq, final String motif, final StrandSerializable strand,
+                                    final String contig, final int start, final boolean includeSequence) {
+        if (motif.isEmpty() || motif.length() > MAX_MOTIF_LENGTH) {
+            throw new IllegalArgumentException("Motif length should be in range [1, " + MAX_MOTIF_LENGTH + "]");
+        }
+        this.motifLength = motif.length();
+        this.matchBit = 1L << (motifLength - 1);
+        this.sequence = seq;
+        this.contig = contig;
+        this.offset = start;
+        this.includeSequence = includeSequence;
+        this.positiveMasks = new long[ALPHABET_SIZE];
+        this.negativeMasks = new long[ALPHABET_SIZE];
+        if (strand != StrandSerializable.NEGATIVE) {
+            for (int i = 0; i < motifLength; i++) {
+                addToMasks(positiveMasks, IupacRegex.getRegexByIupacLetter(motif.substring(i, i + 1)), i);
+            }
+        }
+        if (strand != StrandSerializable.POSITIVE) {
+            // reverse complement is matched forward: the last letter of the motif goes first
+            for (int i = 0; i < motifLength; i++) {
+                final int letter = motifLength - i - 1;
+                addToMasks(negativeMasks,
+                        IupacRegex.getComplementRegexByIupacLetter(motif.substring(letter, letter + 1)), i);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (positiveMatch || negativeMatch) {
+            return true;
+        }
+        while (currentPosition < sequence.length) {
+            final int symbol = sequence[currentPosition++] & BYTE_MASK;
+            positiveState = ((positiveState << 1) | 1L) & positiveMasks[symbol];
+            negativeState = ((negativeState << 1) | 1L) & negativeMasks[symbol];
+            positiveMatch = (positiveState & matchBit) != 0;
+            negativeMatch = (negativeState & matchBit) != 0;
+            if (positiveMatch || negativeMatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Motif next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There is not next element!");
+        }
+        final StrandSerializable strand;
+        if (positiveMatch) {
+            strand = StrandSerializable.POSITIVE;
+            positiveMatch = false;
+        } else {
+            strand = StrandSerializable.NEGATIVE;
+            negativeMatch = false;
+        }
+        // currentPosition points to the next nucleotide after the end of the match
+        final int matchStart = currentPosition - motifLength;
+        return new Motif(contig, matchStart + offset, currentPosition - 1 + offset, strand,
+                includeSequence ? new String(Arrays.copyOfRange(sequence, matchStart, currentPosition)) : null);
+    }
+
+    /**
+     * Marks a motif position as matching for all symbols of a single letter or a character class regex,
+     * produced by {@link IupacRegex}. Any symbol, except line terminators, matches "."
+     */
+    private static void addToMasks(final long[] masks, final String regex, final int position) {
+        final long bit = 1L << position;
+        if (".".equals(regex)) {
+            for (int symbol = 0; symbol < masks.length; symbol++) {
+                if (symbol != '\n' && symbol != '\r') {
+                    masks[symbol] |= bit;
+                }
+            }
+            return;
+        }
+        final String letters = regex.replace("[", "").replace("]", "");
+        for (final char letter : (letters.toLowerCase(Locale.US) + letters.toUpperCase(Locale.US)).toCharArray()) {
+            masks[letter] |= bit;
+        }
+    }
+}
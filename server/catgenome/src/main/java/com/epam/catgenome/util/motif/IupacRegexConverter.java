@@ -27,7 +27,7 @@ package com.epam.catgenome.util.motif;
 public final class IupacRegexConverter {
 
     private static final String REVERSIBLE_MOTIF_REGEX = "^[\\w\\[\\]\\(\\)\\|\\.]+$";
-    private static final String PLAIN_MOTIF = "^[acgtACGT]+$";
+    private static final String IUPAC_MOTIF = "^[acgtrymkswhbvdnACGTRYMKSWHBVDN]+$";
 
     private IupacRegexConverter() {
     }
@@ -36,8 +36,12 @@ public final class IupacRegexConverter {
         return regex.matches(REVERSIBLE_MOTIF_REGEX);
     }
 
-    public static boolean validatePlainMotif(final String motif) {
-        return motif.matches(PLAIN_MOTIF);
+    /**
+     * Checks that a motif consists of IUPAC nucleotide codes only and is short enough
+     * to be searched by {@link IupacMotifSearchIterator}
+     */
+    public static boolean validateIupacMotif(final String motif) {
+        return motif.length() <= IupacMotifSearchIterator.MAX_MOTIF_LENGTH && motif.matches(IUPAC_MOTIF);
     }
 
     public static String combineIupacRegex(final String iupacRegex, final String posAlias, final String negAlias) {
@@ -25,20 +25,29 @@
 package com.epam.catgenome.util.sort;
 
 import com.epam.catgenome.util.NgbFileUtils;
+import com.epam.catgenome.util.ParallelBlockCompressedOutputStream;
 import htsjdk.samtools.util.BlockCompressedInputStream;
-import htsjdk.samtools.util.BlockCompressedOutputStream;
-import htsjdk.samtools.util.CloseableIterator;
-import htsjdk.samtools.util.SortingCollection;
 import htsjdk.tribble.readers.AsciiLineReader;
 
-import java.io.*;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public abstract class AbstractFeatureSorter {
 
-    private static final int ESTIMATED_RECORD_SIZE = 150;
+    private static final long MEGABYTE = 1024L * 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int PENDING_BLOCKS_PER_THREAD = 2;
     private static final String UTF_8 = "UTF-8";
 
     private File inputFile;
@@ -54,8 +63,6 @@ public abstract class AbstractFeatureSorter {
      */
     private File tmpDir;
 
-    protected Comparator<SortableRecord> comparator = getDefaultComparator();
-
     public AbstractFeatureSorter(File inputFile, File outputFile, File tmpDir) {
         this.inputFile = inputFile;
         this.outputFile = outputFile;
@@ -68,42 +75,43 @@ public abstract class AbstractFeatureSorter {
      *
      */
     public void run(int maxMemory) throws IOException {
+        run(maxMemory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sorts the input file: runs of records are parsed, sorted and spilled on several threads,
+     * then merged into the output. BGZF compression of the output is also done in parallel.
+     *
+     * @param maxMemory - in megabytes
+     * @param threads - number of threads used for sorting and compression
+     * @throws IOException
+     */
+    public void run(int maxMemory, int threads) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
         try (
-                PrintWriter writer = NgbFileUtils.isGzCompressed(outputFile.getName()) ?
-                        new PrintWriter(new OutputStreamWriter(new BlockCompressedOutputStream(outputFile), UTF_8)) :
-                        new PrintWriter(outputFile, UTF_8);
+                PrintWriter writer = new PrintWriter(new OutputStreamWriter(openOutput(executor, threads), UTF_8));
                 AsciiLineReader reader = NgbFileUtils.isGzCompressed(inputFile.getName()) ?
                         new AsciiLineReader(new BlockCompressedInputStream(inputFile)) :
                         new AsciiLineReader(new FileInputStream(inputFile))
         ) {
-
-            SortableRecordCodec codec = new SortableRecordCodec();
-
-            SortingCollection cltn = SortingCollection.newInstance(
-                    SortableRecord.class, codec, comparator, maxMemory * 1024 * 1024 / ESTIMATED_RECORD_SIZE, tmpDir);
-
-            Parser parser = getParser();
-
             String firstDataRow = writeHeader(reader, writer);
-            if (firstDataRow != null && !firstDataRow.isEmpty()) {
-                cltn.add(parser.createRecord(firstDataRow));
+            new ParallelFeatureSorter(getParser(), tmpDir, executor, threads, (long) maxMemory * MEGABYTE)
+                    .sort(firstDataRow != null && !firstDataRow.isEmpty() ? firstDataRow : null, reader, writer);
+            if (writer.checkError()) {
+                throw new IOException("Failed to write sorted file " + outputFile.getAbsolutePath());
             }
-
-            SortableRecord next;
-            while ((next = parser.readNextRecord(reader)) != null) {
-                cltn.add(next);
-            }
-
-            CloseableIterator<SortableRecord> iter = cltn.iterator();
-            while (iter.hasNext()) {
-                SortableRecord al = iter.next();
-                writer.println(al.getText());
-
-            }
-            iter.close();
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    private OutputStream openOutput(ExecutorService executor, int threads) throws IOException {
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(outputFile), OUTPUT_BUFFER_SIZE);
+        return NgbFileUtils.isGzCompressed(outputFile.getName()) ?
+                new ParallelBlockCompressedOutputStream(output, executor, threads * PENDING_BLOCKS_PER_THREAD) :
+                output;
+    }
+
     public static Comparator<SortableRecord> getDefaultComparator() {
         return (o1, o2) -> {
             int nameComp = o1.getChromosome().compareTo(o2.getChromosome());
@@ -0,0 +1,313 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util.sort;
+
+import com.epam.catgenome.exception.SortingException;
+import htsjdk.tribble.readers.LineReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * External sorter of feature file lines by chromosome and start position. Input lines are split
+ * into runs that fit the memory limit, each run is parsed, sorted by primitive keys and spilled
+ * to a temporary file on a separate thread, then the runs are merged into the output. Records
+ * with equal keys keep their input order.
+ */
+public class ParallelFeatureSorter {
+
+    private static final int BYTES_PER_CHAR = 2;
+    private static final int ESTIMATED_LINE_OVERHEAD = 64;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final int INDEX_BITS = 32;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+
+    private static final Comparator<RunCursor> CURSOR_COMPARATOR = Comparator
+            .comparing((RunCursor cursor) -> cursor.current.getChromosome())
+            .thenComparingInt(cursor -> cursor.current.getStart())
+            .thenComparingInt(cursor -> cursor.index);
+
+    private final Parser parser;
+    private final File tmpDir;
+    private final ExecutorService executor;
+    private final int threads;
+    private final long runSize;
+
+    /**
+     * @param parser parser of feature lines
+     * @param tmpDir directory for sorted runs
+     * @param executor executor for parsing, sorting and spilling runs
+     * @param threads number of runs processed at the same time
+     * @param maxMemory memory available for sorting in bytes
+     */
+    public ParallelFeatureSorter(final Parser parser, final File tmpDir, final ExecutorService executor,
+                                 final int threads, final long maxMemory) {
+        this.parser = parser;
+        this.tmpDir = tmpDir;
+        this.executor = executor;
+        this.threads = Math.max(1, threads);
+        this.runSize = maxMemory / (this.threads + 1);
+    }
+
+    /**
+     * Sorts all lines of the reader, skipping comments and empty lines, and writes them to the writer
+     * @param firstLine a line already read from the reader, may be null
+     * @param reader source of lines
+     * @param writer destination of the sorted lines
+     * @throws IOException if reading or writing fails
+     */
+    public void sort(final String firstLine, final LineReader reader, final PrintWriter writer) throws IOException {
+        final List<Future<SortedRun>> runs = new ArrayList<>();
+        final Semaphore permits = new Semaphore(threads);
+        try {
+            List<String> lines = new ArrayList<>();
+            long size = 0;
+            String line = firstLine;
+            if (line == null) {
+                line = reader.readLine();
+            }
+            while (line != null) {
+                lines.add(line);
+                size += ESTIMATED_LINE_OVERHEAD + (long) BYTES_PER_CHAR * line.length();
+                if (size >= runSize) {
+                    runs.add(submit(lines, true, permits));
+                    lines = new ArrayList<>();
+                    size = 0;
+                }
+                line = reader.readLine();
+            }
+            if (!lines.isEmpty() || runs.isEmpty()) {
+                runs.add(submit(lines, !runs.isEmpty(), permits));
+            }
+            merge(runs, writer);
+        } finally {
+            for (Future<SortedRun> run : runs) {
+                deleteRun(run);
+            }
+        }
+    }
+
+    private Future<SortedRun> submit(final List<String> lines, final boolean spill,
+                                     final Semaphore permits) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        return executor.submit(() -> {
+            try {
+                final SortedRun run = sortRun(lines);
+                return spill ? spill(run) : run;
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    private SortedRun sortRun(final List<String> lines) {
+        final int[] chromosomes = new int[lines.size()];
+        final long[] keys = new long[lines.size()];
+        final String[] texts = new String[lines.size()];
+        final Map<String, Integer> chromosomeIds = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+        int count = 0;
+        for (String line : lines) {
+            final SortableRecord record = parser.parseLine(line);
+            if (record == null) {
+                continue;
+            }
+            Integer id = chromosomeIds.get(record.getChromosome());
+            if (id == null) {
+                id = names.size();
+                chromosomeIds.put(record.getChromosome(), id);
+                names.add(record.getChromosome());
+            }
+            chromosomes[count] = id;
+            keys[count] = ((long) record.getStart() << INDEX_BITS) | count;
+            texts[count] = record.getText();
+            count++;
+        }
+        // order by start and input position, then stable counting sort by chromosome name rank
+        Arrays.sort(keys, 0, count);
+        final String[] sortedNames = names.toArray(new String[0]);
+        Arrays.sort(sortedNames);
+        final int[] ranks = new int[names.size()];
+        for (int rank = 0; rank < sortedNames.length; rank++) {
+            ranks[chromosomeIds.get(sortedNames[rank])] = rank;
+        }
+        final int[] offsets = new int[names.size() + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[ranks[chromosomes[i]] + 1]++;
+        }
+        for (int rank = 0; rank < ranks.length; rank++) {
+            offsets[rank + 1] += offsets[rank];
+        }
+        final SortableRecord[] records = new SortableRecord[count];
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (keys[i] & INDEX_MASK);
+            final int chromosome = chromosomes[index];
+            records[offsets[ranks[chromosome]]++] = new SortableRecord(names.get(chromosome),
+                    (int) (keys[i] >> INDEX_BITS), texts[index]);
+        }
+        return new SortedRun(records, null);
+    }
+
+    private SortedRun spill(final SortedRun run) throws IOException {
+        final File file = File.createTempFile("sort", ".run", tmpDir);
+        final SortableRecordCodec codec = new SortableRecordCodec();
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE)) {
+            codec.setOutputStream(output);
+            for (SortableRecord record : run.records) {
+                codec.encode(record);
+            }
+        } catch (IOException | SortingException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+        return new SortedRun(null, file);
+    }
+
+    private void merge(final List<Future<SortedRun>> runs, final PrintWriter writer) throws IOException {
+        final PriorityQueue<RunCursor> queue = new PriorityQueue<>(Math.max(1, runs.size()), CURSOR_COMPARATOR);
+        final List<RunCursor> cursors = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                final RunCursor cursor = new RunCursor(i, await(runs.get(i)));
+                cursors.add(cursor);
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+            while (!queue.isEmpty()) {
+                final RunCursor cursor = queue.poll();
+                writer.println(cursor.current.getText());
+                if (cursor.next()) {
+                    queue.add(cursor);
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private static SortedRun await(final Future<SortedRun> run) throws IOException {
+        try {
+            return run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SortingException(e.getCause());
+        }
+    }
+
+    private static void deleteRun(final Future<SortedRun> run) throws IOException {
+        try {
+            final SortedRun sortedRun = run.get();
+            if (sortedRun.file != null) {
+                Files.deleteIfExists(sortedRun.file.toPath());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // the run failed and has nothing to delete
+        }
+    }
+
+    private static final class SortedRun {
+        private final SortableRecord[] records;
+        private final File file;
+
+        private SortedRun(final SortableRecord[] records, final File file) {
+            this.records = records;
+            this.file = file;
+        }
+    }
+
+    private static final class RunCursor implements Closeable {
+        private final int index;
+        private final SortedRun run;
+        private final SortableRecordCodec codec;
+        private InputStream input;
+        private int position;
+        private SortableRecord current;
+
+        private RunCursor(final int index, final SortedRun run) throws IOException {
+            this.index = index;
+            this.run = run;
+            this.codec = new SortableRecordCodec();
+            if (run.file != null) {
+                input = new BufferedInputStream(new FileInputStream(run.file), IO_BUFFER_SIZE);
+                codec.setInputStream(input);
+            }
+        }
+
+        private boolean next() {
+            if (run.file != null) {
+                current = codec.decode();
+            } else {
+                current = position < run.records.length ? run.records[position++] : null;
+            }
+            return current != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (input != null) {
+                input.close();
+            }
+        }
+    }
+}
@@ -60,12 +60,23 @@ public class Parser {
         }
         if (nextLine == null) {
             return null;
-        } else if (isEmptyLine(nextLine) || nextLine.startsWith(commentPrefix)) {
-            return readNextRecord(reader);
+        }
+        final SortableRecord record = parseLine(nextLine);
+        return record == null ? readNextRecord(reader) : record;
+    }
+
+    /**
+     * Creates a record from a data line, returns null for empty and comment lines
+     * @param line a line to parse
+     * @return a record or null if the line doesn't contain a feature
+     */
+    public SortableRecord parseLine(String line) {
+        if (isEmptyLine(line) || line.startsWith(commentPrefix)) {
+            return null;
         }
 
         try {
-            return createRecord(nextLine);
+            return createRecord(line);
         } catch (ArrayIndexOutOfBoundsException e) {
             LOG.error("Error creating record: {}", e);
             throw e;
@@ -0,0 +1,16 @@
+ALTER TABLE CATGENOME.HEATMAP ADD COLUMN TILE_SIZE INTEGER;
+
+CREATE TABLE IF NOT EXISTS CATGENOME.HEATMAP_TILE (
+    HEATMAP_ID             BIGINT NOT NULL,
+    TILE_ROW               INTEGER NOT NULL,
+    TILE_COLUMN            INTEGER NOT NULL,
+    ROW_COUNT              INTEGER NOT NULL,
+    COLUMN_COUNT           INTEGER NOT NULL,
+    VALUE_COUNT            INTEGER NOT NULL,
+    MIN_VALUE              DOUBLE PRECISION,
+    MAX_VALUE              DOUBLE PRECISION,
+    SUM_VALUE              DOUBLE PRECISION,
+    CONTENT                BLOB NOT NULL,
+    CONSTRAINT hmp_tile_pkey PRIMARY KEY (HEATMAP_ID, TILE_ROW, TILE_COLUMN),
+    CONSTRAINT hmp_tile_heatmap_id_fkey FOREIGN KEY (HEATMAP_ID) REFERENCES CATGENOME.HEATMAP (HEATMAP_ID)
+);
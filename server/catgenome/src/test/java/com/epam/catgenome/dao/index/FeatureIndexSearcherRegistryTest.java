@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.dao.index;
+
+import com.epam.catgenome.entity.gene.GeneFile;
+import com.epam.catgenome.entity.index.IndexSearcherStatistics;
+import com.epam.catgenome.manager.FileManager;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.SimpleFSDirectory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+public class FeatureIndexSearcherRegistryTest {
+
+    private static final String FIELD = "featureId";
+    private static final long FILE_ID = 1L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FeatureIndexSearcherRegistry registry;
+    private List<GeneFile> files;
+    private File indexDir;
+
+    @Before
+    public void setUp() throws IOException {
+        indexDir = folder.newFolder();
+        final GeneFile geneFile = new GeneFile();
+        geneFile.setId(FILE_ID);
+        files = Collections.singletonList(geneFile);
+
+        final FileManager fileManager = Mockito.mock(FileManager.class);
+        Mockito.when(fileManager.getIndexDirForFile(geneFile)).thenReturn(indexDir);
+        registry = new FeatureIndexSearcherRegistry();
+        ReflectionTestUtils.setField(registry, "fileManager", fileManager);
+        ReflectionTestUtils.setField(registry, "maxSize", 2);
+        writeDocument("first");
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void shouldShareReaderBetweenRequests() throws IOException {
+        try (IndexReader first = registry.openReader(files);
+             IndexReader second = registry.openReader(files)) {
+            Assert.assertEquals(1, first.numDocs());
+            Assert.assertEquals(1, second.numDocs());
+        }
+        final IndexSearcherStatistics statistics = registry.getStatistics();
+        Assert.assertEquals(1, statistics.getOpenedSearchers());
+        Assert.assertEquals(1, statistics.getOpenedDirectories());
+        Assert.assertEquals(1, statistics.getOpens());
+        Assert.assertEquals(1, statistics.getMisses());
+        Assert.assertEquals(1, statistics.getHits());
+    }
+
+    @Test
+    public void shouldSeeCommittedChangesAfterRefresh() throws IOException {
+        try (IndexReader before = registry.openReader(files)) {
+            writeDocument("second");
+            registry.refresh(files.get(0));
+            try (IndexReader after = registry.openReader(files)) {
+                Assert.assertEquals(1, before.numDocs());
+                Assert.assertEquals(2, after.numDocs());
+            }
+        }
+        Assert.assertEquals(1, registry.getStatistics().getRefreshes());
+        Assert.assertEquals(1, registry.getStatistics().getOpens());
+    }
+
+    @Test
+    public void shouldCloseDirectoryAfterLastLeaseIsReleased() throws IOException {
+        final IndexReader leased = registry.openReader(files);
+        registry.evict(files.get(0));
+        Assert.assertEquals(0, registry.getStatistics().getOpenedSearchers());
+        Assert.assertEquals(1, registry.getStatistics().getOpenedDirectories());
+        Assert.assertEquals("first", leased.document(0).get(FIELD));
+
+        leased.close();
+        Assert.assertEquals(0, registry.getStatistics().getOpenedDirectories());
+
+        try (IndexReader reopened = registry.openReader(files)) {
+            Assert.assertEquals(1, reopened.numDocs());
+        }
+        Assert.assertEquals(2, registry.getStatistics().getOpens());
+    }
+
+    @Test
+    public void shouldCloseIdleSearchers() throws IOException {
+        registry.openReader(files).close();
+        // any searcher, accessed before the next second, is considered idle
+        ReflectionTestUtils.setField(registry, "idleTimeout", -1L);
+        registry.evictIdle();
+        Assert.assertEquals(0, registry.getStatistics().getOpenedSearchers());
+        Assert.assertEquals(0, registry.getStatistics().getOpenedDirectories());
+    }
+
+    private void writeDocument(final String featureId) throws IOException {
+        try (Directory directory = new SimpleFSDirectory(indexDir.toPath());
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            final Document document = new Document();
+            document.add(new StringField(FIELD, featureId, Field.Store.YES));
+            writer.addDocument(document);
+        }
+    }
+}
@@ -25,6 +25,7 @@
 package com.epam.catgenome.manager;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -1672,6 +1673,34 @@ public class FeatureIndexManagerTest extends AbstractManagerTest {
         assertNotNull(exportResult);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void testExportSortedVariationsInSearchOrder() throws IOException {
+        final FeatureIndexedFileRegistrationRequest request = new FeatureIndexedFileRegistrationRequest();
+        request.setReferenceId(referenceId);
+        final Resource resource = context.getResource("classpath:templates/samples.vcf");
+        request.setPath(resource.getFile().getAbsolutePath());
+
+        final VcfFile samplesVcf = vcfManager.registerVcfFile(request);
+
+        final VcfExportFilterForm form = new VcfExportFilterForm();
+        form.setVcfFileIdsByProject(Collections.singletonMap(testProject.getId(),
+                Collections.singletonList(samplesVcf.getId())));
+        form.setExportFields(Arrays.asList("featureId", "startIndex"));
+        form.setOrderBy(Collections.singletonList(new OrderBy(VcfIndexSortField.START_INDEX.name(), true)));
+
+        final String[] exported = new String(exportManager.exportVariations(form, FileFormat.TSV, false),
+                StandardCharsets.UTF_8).split("\n");
+
+        form.setPage(ONE);
+        form.setPageSize((int) TEST_AMOUNT);
+        final List<VcfIndexEntry> entries = featureIndexManager.filterVariations(form).getEntries();
+        assertEquals(entries.size(), exported.length);
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(entries.get(i).getFeatureId() + "\t" + entries.get(i).getStartIndex(), exported[i]);
+        }
+    }
+
     @Test
     @Ignore // TODO: remove this test before merging to master
     @Transactional(propagation = Propagation.REQUIRES_NEW)
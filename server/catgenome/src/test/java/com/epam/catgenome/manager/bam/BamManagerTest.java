@@ -34,6 +34,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import com.epam.catgenome.common.AbstractManagerTest;
+import com.epam.catgenome.controller.JsonMapper;
 import com.epam.catgenome.controller.util.MultipartFileSender;
 import com.epam.catgenome.controller.util.ResultReference;
 import com.epam.catgenome.controller.util.UrlTestingUtils;
@@ -46,6 +47,7 @@ import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.bam.BamFile;
 import com.epam.catgenome.entity.bam.BamQueryOption;
 import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BamTrackFormat;
 import com.epam.catgenome.entity.bam.BamTrackMode;
 import com.epam.catgenome.entity.bam.Read;
 import com.epam.catgenome.entity.bam.TrackDirectionType;
@@ -687,6 +689,30 @@ public class BamManagerTest extends AbstractManagerTest {
         assertNull(fullTrack.getDownsampleCoverage());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void testBinaryTrackMatchesJsonTrack() throws IOException {
+        BamFile bamFile = setUpTestFile();
+        for (BamTrackMode mode : BamTrackMode.values()) {
+            BamQueryOption jsonOption = getBaseBamQueryOption();
+            jsonOption.setMode(mode);
+            ResponseEmitterMock jsonEmitter = new ResponseEmitterMock();
+            bamManager.sendBamTrackToEmitter(getBaseReadTrack(bamFile), jsonOption, jsonEmitter);
+
+            BamQueryOption binaryOption = getBaseBamQueryOption();
+            binaryOption.setMode(mode);
+            binaryOption.setFormat(BamTrackFormat.BINARY);
+            ResponseEmitterMock binaryEmitter = new ResponseEmitterMock();
+            bamManager.sendBamTrackToEmitter(getBaseReadTrack(bamFile), binaryOption, binaryEmitter);
+
+            BinaryBamTrackDecoder decoder = binaryEmitter.getBinaryResult();
+            assertEquals(jsonEmitter.getResultStatus(), decoder.getStatus());
+            assertEquals(jsonEmitter.getPayload(),
+                    JsonMapper.getInstance().readTree(JsonMapper.getInstance()
+                            .writeValueAsString(decoder.getTrack())));
+        }
+    }
+
     private BamFile setUpTestFile() throws IOException {
         String path = resource.getFile().getAbsolutePath() + TEST_BAM_NAME;
         IndexedFileRegistrationRequest request = new IndexedFileRegistrationRequest();
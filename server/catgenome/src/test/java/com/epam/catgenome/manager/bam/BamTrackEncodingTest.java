@@ -0,0 +1,200 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam;
+
+import com.epam.catgenome.controller.JsonMapper;
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BamTrackFormat;
+import com.epam.catgenome.entity.bam.BaseCoverage;
+import com.epam.catgenome.entity.bam.BasePosition;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.entity.bam.SpliceJunctionsEntity;
+import com.epam.catgenome.entity.wig.Wig;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BamTrackEncodingTest {
+
+    private static final int READ_COUNT = 20_000;
+    private static final int READ_LENGTH = 100;
+    private static final int MAPPING_QUALITY = 60;
+    private static final int FLAG = 99;
+    private static final int INSERT_SIZE = 350;
+    private static final int COVERAGE_SIZE = 50;
+    private static final float COVERAGE_VALUE = 12.5F;
+    private static final String SEQUENCE = "ACGTNacgt";
+    private static final int FIXTURE_READ_COUNT = 10;
+    private static final String CLIENT_FIXTURES = "../../client/client/dataServices/bam/fixtures";
+
+    @Test
+    public void binaryTrackShouldMatchJsonTrack() throws IOException {
+        final BamTrack<Read> track = createTrack();
+        final List<Read> reads = createReads();
+
+        final ResponseEmitterMock jsonEmitter = new ResponseEmitterMock();
+        final ResponseEmitterMock binaryEmitter = new ResponseEmitterMock();
+        writeTrack(new BamTrackEmitter(jsonEmitter), reads, track);
+        writeTrack(new BamTrackEmitter(binaryEmitter, BamTrackFormat.BINARY), reads, track);
+
+        final BinaryBamTrackDecoder decoder = binaryEmitter.getBinaryResult();
+        Assert.assertEquals("OK", decoder.getStatus());
+        Assert.assertEquals(reads.size(), decoder.getTrack().getBlocks().size());
+        Assert.assertEquals(jsonEmitter.getPayload(), toJson(decoder.getTrack()));
+    }
+
+    @Test
+    public void binaryTrackShouldBeSmallerThanJson() throws IOException {
+        final BamTrack<Read> track = createTrack();
+        final List<Read> reads = createReads();
+
+        final ResponseEmitterMock jsonEmitter = new ResponseEmitterMock();
+        final ResponseEmitterMock binaryEmitter = new ResponseEmitterMock();
+        writeTrack(new BamTrackEmitter(jsonEmitter), reads, track);
+        writeTrack(new BamTrackEmitter(binaryEmitter, BamTrackFormat.BINARY), reads, track);
+
+        Assert.assertTrue(binaryEmitter.size() * 2 < jsonEmitter.size());
+    }
+
+    @Test
+    public void binaryTrackShouldContainError() throws IOException {
+        final ResponseEmitterMock binaryEmitter = new ResponseEmitterMock();
+        final BamTrackEmitter emitter = new BamTrackEmitter(binaryEmitter, BamTrackFormat.BINARY);
+        emitter.writeRecord(createReads().get(0));
+        emitter.finishWithException(new IllegalStateException("Failure"));
+
+        final BinaryBamTrackDecoder decoder = binaryEmitter.getBinaryResult();
+        Assert.assertEquals("ERROR", decoder.getStatus());
+        Assert.assertEquals("Failure", decoder.getMessage());
+    }
+
+    /**
+     * The client decoder is tested against these files, they have to be regenerated when the binary layout changes
+     */
+    @Test
+    public void binaryTrackShouldMatchClientFixtures() throws IOException {
+        final BamTrack<Read> track = createTrack();
+        final List<Read> reads = createReads(FIXTURE_READ_COUNT);
+
+        final ResponseEmitterMock jsonEmitter = new ResponseEmitterMock();
+        final ResponseEmitterMock binaryEmitter = new ResponseEmitterMock();
+        writeTrack(new BamTrackEmitter(jsonEmitter), reads, track);
+        writeTrack(new BamTrackEmitter(binaryEmitter, BamTrackFormat.BINARY), reads, track);
+
+        final ResponseEmitterMock errorEmitter = new ResponseEmitterMock();
+        final BamTrackEmitter emitter = new BamTrackEmitter(errorEmitter, BamTrackFormat.BINARY);
+        emitter.writeRecord(reads.get(0));
+        emitter.finishWithException(new IllegalStateException("Failure"));
+
+        final JsonMapper mapper = new JsonMapper();
+        Assert.assertEquals(mapper.readTree(readFixture("bam-track.json")), mapper.readTree(jsonEmitter.toByteArray()));
+        Assert.assertArrayEquals(readFixture("bam-track.bin"), binaryEmitter.toByteArray());
+        Assert.assertArrayEquals(readFixture("bam-track-error.bin"), errorEmitter.toByteArray());
+    }
+
+    private static byte[] readFixture(final String name) throws IOException {
+        return Files.readAllBytes(Paths.get(CLIENT_FIXTURES, name));
+    }
+
+    private static void writeTrack(final BamTrackEmitter emitter, final List<Read> reads,
+                                   final BamTrack<Read> track) throws IOException {
+        for (Read read : reads) {
+            emitter.writeRecord(read);
+        }
+        emitter.writeTrackAndFinish(track);
+    }
+
+    private static JsonNode toJson(final BamTrack<Read> track) throws IOException {
+        final JsonMapper mapper = new JsonMapper();
+        return mapper.readTree(mapper.writeValueAsString(track));
+    }
+
+    private static List<Read> createReads() {
+        return createReads(READ_COUNT);
+    }
+
+    private static List<Read> createReads(final int count) {
+        final List<Read> reads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Read read = new Read();
+            read.setStartIndex(i / 2 + 1);
+            read.setEndIndex(i / 2 + READ_LENGTH);
+            read.setName("read" + i / 2);
+            read.setPairedReadName("read" + i / 2);
+            read.setCigarString(i % 3 == 0 ? "10S80M1I9M" : READ_LENGTH + "M");
+            read.setStand(i % 2 == 0);
+            read.setFlagMask(FLAG);
+            read.setMappingQuality(MAPPING_QUALITY);
+            read.setTLen(i % 2 == 0 ? INSERT_SIZE : -INSERT_SIZE);
+            read.setRName("chr1");
+            read.setRNext("=");
+            read.setPNext(i / 2 + INSERT_SIZE);
+            read.setReadGroup(i % 5 == 0 ? "" : "group1");
+            read.setHeadSequence(i % 3 == 0 ? SEQUENCE.substring(0, i % SEQUENCE.length()) : null);
+            read.setTailSequence(SEQUENCE);
+            read.setDifferentBase(Arrays.asList(new BasePosition(i % READ_LENGTH, 'A'),
+                    new BasePosition(READ_LENGTH - 1, 'N')));
+            reads.add(read);
+        }
+        final Read unmapped = new Read();
+        unmapped.setName("рид");
+        unmapped.setCigarString("*");
+        unmapped.setSequence(SEQUENCE);
+        unmapped.setQualities("IIIII#####");
+        unmapped.setDifferentBase(Collections.singletonList(new BasePosition()));
+        reads.add(unmapped);
+        return reads;
+    }
+
+    private static BamTrack<Read> createTrack() {
+        final BamTrack<Read> track = new BamTrack<>();
+        track.setStartIndex(1);
+        track.setEndIndex(READ_COUNT);
+        track.setReferenceBuffer(SEQUENCE);
+        track.setMinPosition(1);
+        final List<BaseCoverage> coverage = new ArrayList<>(COVERAGE_SIZE);
+        for (int i = 0; i < COVERAGE_SIZE; i++) {
+            final BaseCoverage baseCoverage = new BaseCoverage(i + 1, COVERAGE_VALUE + i);
+            if (i % 2 == 0) {
+                baseCoverage.setCoverage(i, 0, 1, 2, 0, 3, 0);
+            }
+            coverage.add(baseCoverage);
+        }
+        track.setBaseCoverage(coverage);
+        track.setSpliceJunctions(Arrays.asList(new SpliceJunctionsEntity(10, 90, true),
+                new SpliceJunctionsEntity(5, 20, false)));
+        track.setDownsampleCoverage(Collections.singletonList(new Wig(1, READ_COUNT, COVERAGE_VALUE)));
+        track.setRegions(Collections.emptyList());
+        return track;
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam;
+
+import static com.epam.catgenome.manager.bam.encoders.BinaryBamTrackEncoder.*;
+
+import com.epam.catgenome.controller.JsonMapper;
+import com.epam.catgenome.entity.bam.BamTrack;
+import com.epam.catgenome.entity.bam.BaseCoverage;
+import com.epam.catgenome.entity.bam.BasePosition;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.entity.bam.SpliceJunctionsEntity;
+import com.epam.catgenome.entity.track.Block;
+import com.epam.catgenome.entity.wig.Wig;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reference decoder of the binary BAM track format, produced by
+ * {@link com.epam.catgenome.manager.bam.encoders.BinaryBamTrackEncoder}
+ */
+final class BinaryBamTrackDecoder {
+
+    private static final String BASES = "ACGT";
+    private static final int BASES_PER_BYTE = 4;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_SHIFT = 7;
+    private static final int COVERAGE_COLUMNS = 10;
+    private static final int JUNCTION_COLUMNS = 4;
+    private static final int WIG_COLUMNS = 3;
+
+    private final List<Read> reads = new ArrayList<>();
+    private BamTrack<Read> track;
+    private String status;
+    private String message;
+
+    BinaryBamTrackDecoder(final byte[] data) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(MAGIC, magic) || buffer.get() != VERSION) {
+            throw new IOException("Unexpected binary track header");
+        }
+        while (buffer.hasRemaining()) {
+            final int type = buffer.get();
+            final ByteBuffer frame = slice(buffer, buffer.getInt());
+            switch (type) {
+                case FRAME_READS:
+                    readBatch(frame);
+                    break;
+                case FRAME_TRACK:
+                    readTrack(frame);
+                    break;
+                case FRAME_ERROR:
+                    status = "ERROR";
+                    message = readString(frame);
+                    break;
+                default:
+                    throw new IOException("Unexpected frame type " + type);
+            }
+        }
+    }
+
+    BamTrack<Read> getTrack() {
+        return track;
+    }
+
+    String getStatus() {
+        return status;
+    }
+
+    String getMessage() {
+        return message;
+    }
+
+    private void readBatch(final ByteBuffer frame) {
+        final int count = (int) readVarLong(frame);
+        final int dictionarySize = (int) readVarLong(frame);
+        final ByteBuffer dictionaryBlock = readBlock(frame);
+        final List<String> dictionary = new ArrayList<>(dictionarySize);
+        for (int i = 0; i < dictionarySize; i++) {
+            dictionary.add(readString(dictionaryBlock));
+        }
+        final ByteBuffer[] columns = readColumns(frame, READ_COLUMNS);
+        long previousStart = 0;
+        for (int i = 0; i < count; i++) {
+            final Read read = new Read();
+            previousStart = readBlockBounds(read, columns, previousStart);
+            read.setFlagMask(readNullableInt(columns[COLUMN_FLAG]));
+            read.setMappingQuality(readNullableInt(columns[COLUMN_MAPPING_QUALITY]));
+            final int strand = columns[COLUMN_STRAND].get();
+            read.setStand(strand == 0 ? null : strand == 2);
+            read.setTLen(readNullableInt(columns[COLUMN_TLEN]));
+            read.setPNext(absolute(readNullableInt(columns[COLUMN_PNEXT]), read.getStartIndex()));
+            read.setName(readDictionaryValue(columns[COLUMN_NAME], dictionary));
+            read.setPairedReadName(readDictionaryValue(columns[COLUMN_PAIRED_NAME], dictionary));
+            read.setRName(readDictionaryValue(columns[COLUMN_RNAME], dictionary));
+            read.setRNext(readDictionaryValue(columns[COLUMN_RNEXT], dictionary));
+            read.setReadGroup(readDictionaryValue(columns[COLUMN_READ_GROUP], dictionary));
+            read.setCigarString(readCigar(columns[COLUMN_CIGAR]));
+            read.setSequence(readSequence(columns[COLUMN_SEQUENCE]));
+            read.setQualities(readString(columns[COLUMN_QUALITIES]));
+            read.setHeadSequence(readSequence(columns[COLUMN_HEAD]));
+            read.setTailSequence(readSequence(columns[COLUMN_TAIL]));
+            read.setDifferentBase(readDifferentBases(columns[COLUMN_DIFFERENT_BASE]));
+            reads.add(read);
+        }
+    }
+
+    private void readTrack(final ByteBuffer frame) throws IOException {
+        track = new JsonMapper().readValue(readString(frame), new TypeReference<BamTrack<Read>>() {});
+        track.setBlocks(reads);
+        track.setBaseCoverage(readBaseCoverage(frame));
+        track.setSpliceJunctions(readSpliceJunctions(frame));
+        track.setDownsampleCoverage(readWigs(frame));
+        track.setRegions(readWigs(frame));
+        status = "OK";
+    }
+
+    private List<BaseCoverage> readBaseCoverage(final ByteBuffer frame) {
+        final int size = (int) readVarLong(frame);
+        if (size == 0) {
+            return null;
+        }
+        final ByteBuffer[] columns = readColumns(frame, COVERAGE_COLUMNS);
+        final List<BaseCoverage> result = new ArrayList<>(size - 1);
+        long previous = 0;
+        for (int i = 0; i < size - 1; i++) {
+            final BaseCoverage coverage = new BaseCoverage();
+            previous = readBlockBounds(coverage, columns, previous);
+            coverage.setValue(readNullableFloat(columns[2]));
+            coverage.setaCov(readNullableInt(columns[3]));
+            coverage.setcCov(readNullableInt(columns[4]));
+            coverage.setgCov(readNullableInt(columns[5]));
+            coverage.settCov(readNullableInt(columns[6]));
+            coverage.setnCov(readNullableInt(columns[7]));
+            coverage.setDelCov(readNullableInt(columns[8]));
+            coverage.setInsCov(readNullableInt(columns[9]));
+            result.add(coverage);
+        }
+        return result;
+    }
+
+    private List<SpliceJunctionsEntity> readSpliceJunctions(final ByteBuffer frame) {
+        final int size = (int) readVarLong(frame);
+        if (size == 0) {
+            return null;
+        }
+        final ByteBuffer[] columns = readColumns(frame, JUNCTION_COLUMNS);
+        final List<SpliceJunctionsEntity> result = new ArrayList<>(size - 1);
+        long previous = 0;
+        for (int i = 0; i < size - 1; i++) {
+            final Block bounds = new Block();
+            previous = readBlockBounds(bounds, columns, previous);
+            final int count = (int) readVarLong(columns[2]);
+            final SpliceJunctionsEntity junction = new SpliceJunctionsEntity(bounds.getStartIndex(),
+                    bounds.getEndIndex(), columns[3].get() == 1);
+            junction.setCount(count);
+            result.add(junction);
+        }
+        return result;
+    }
+
+    private List<Wig> readWigs(final ByteBuffer frame) {
+        final int size = (int) readVarLong(frame);
+        if (size == 0) {
+            return null;
+        }
+        final ByteBuffer[] columns = readColumns(frame, WIG_COLUMNS);
+        final List<Wig> result = new ArrayList<>(size - 1);
+        long previous = 0;
+        for (int i = 0; i < size - 1; i++) {
+            final Wig wig = new Wig();
+            previous = readBlockBounds(wig, columns, previous);
+            wig.setValue(readNullableFloat(columns[2]));
+            result.add(wig);
+        }
+        return result;
+    }
+
+    private static long readBlockBounds(final Block block, final ByteBuffer[] columns, final long previous) {
+        final Integer startDelta = readNullableInt(columns[0]);
+        final Integer start = startDelta == null ? null : (int) (previous + startDelta);
+        block.setStartIndex(start);
+        block.setEndIndex(absolute(readNullableInt(columns[1]), start));
+        return start == null ? previous : start;
+    }
+
+    private static String readCigar(final ByteBuffer column) {
+        final int header = (int) readVarLong(column);
+        if (header == CIGAR_NULL) {
+            return null;
+        }
+        if (header == CIGAR_LITERAL) {
+            return readString(column);
+        }
+        final StringBuilder cigar = new StringBuilder();
+        for (int i = 0; i < header - CIGAR_OPS_OFFSET; i++) {
+            final long element = readVarLong(column);
+            cigar.append(element >>> CIGAR_OPERATOR_BITS)
+                    .append(CIGAR_OPERATORS.charAt((int) (element & ((1 << CIGAR_OPERATOR_BITS) - 1))));
+        }
+        return cigar.toString();
+    }
+
+    private static List<BasePosition> readDifferentBases(final ByteBuffer column) {
+        final int size = (int) readVarLong(column);
+        if (size == 0) {
+            return null;
+        }
+        final List<BasePosition> result = new ArrayList<>(size - 1);
+        for (int i = 0; i < size - 1; i++) {
+            final BasePosition position = new BasePosition();
+            position.setRelativePosition(readNullableInt(column));
+            result.add(position);
+        }
+        if (column.get() == BASES_PACKED) {
+            final String bases = readSequence(column);
+            for (int i = 0; i < result.size(); i++) {
+                result.get(i).setBase(String.valueOf(bases.charAt(i)));
+            }
+        } else {
+            for (BasePosition position : result) {
+                position.setBase(readString(column));
+            }
+        }
+        return result;
+    }
+
+    private static String readSequence(final ByteBuffer column) {
+        final int size = (int) readVarLong(column);
+        if (size == 0) {
+            return null;
+        }
+        final int length = size - 1;
+        final char[] sequence = new char[length];
+        final int offset = column.position();
+        for (int i = 0; i < length; i++) {
+            final int packed = column.get(offset + i / BASES_PER_BYTE);
+            final int shift = 2 * (BASES_PER_BYTE - 1 - i % BASES_PER_BYTE);
+            sequence[i] = BASES.charAt((packed >> shift) & (BASES_PER_BYTE - 1));
+        }
+        column.position(offset + (length + BASES_PER_BYTE - 1) / BASES_PER_BYTE);
+        final int exceptions = (int) readVarLong(column);
+        int position = 0;
+        for (int i = 0; i < exceptions; i++) {
+            position += (int) readVarLong(column);
+            sequence[position] = (char) readVarLong(column);
+        }
+        return new String(sequence);
+    }
+
+    private static String readDictionaryValue(final ByteBuffer column, final List<String> dictionary) {
+        final int index = (int) readVarLong(column);
+        return index == 0 ? null : dictionary.get(index - 1);
+    }
+
+    private static Integer absolute(final Integer value, final Integer start) {
+        if (value == null) {
+            return null;
+        }
+        return start == null ? value : value + start;
+    }
+
+    private static Integer readNullableInt(final ByteBuffer buffer) {
+        final long value = readVarLong(buffer);
+        if (value == 0) {
+            return null;
+        }
+        final long zigZag = value - 1;
+        return (int) ((zigZag >>> 1) ^ -(zigZag & 1));
+    }
+
+    private static Float readNullableFloat(final ByteBuffer buffer) {
+        return buffer.get() == 0 ? null : buffer.getFloat();
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int size = (int) readVarLong(buffer);
+        if (size == 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[size - 1];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(final ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            result |= (long) (current & VARINT_MASK) << shift;
+            shift += VARINT_SHIFT;
+        } while (current < 0);
+        return result;
+    }
+
+    private static ByteBuffer[] readColumns(final ByteBuffer frame, final int count) {
+        final ByteBuffer[] columns = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = readBlock(frame);
+        }
+        return columns;
+    }
+
+    private static ByteBuffer readBlock(final ByteBuffer buffer) {
+        return slice(buffer, (int) readVarLong(buffer));
+    }
+
+    private static ByteBuffer slice(final ByteBuffer buffer, final int length) {
+        final ByteBuffer result = buffer.slice();
+        result.limit(length);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.bam;
+
+import com.epam.catgenome.entity.wig.Wig;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.GenomicIndexUtil;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamInputResource;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+import htsjdk.samtools.seekablestream.SeekableFileStream;
+import htsjdk.samtools.seekablestream.SeekableMemoryStream;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class IndexRegionHistogramTest {
+
+    private static final String BAM = "templates/agnX1.09-28.trim.dm606.realign.bam";
+    private static final int SLOT_COUNT = 50;
+    private static final byte[] BAI_MAGIC = {'B', 'A', 'I', 1};
+    private static final int LEAF_BIN = 4681;
+    private static final int COARSE_BIN = 585;
+    private static final int COARSE_BIN_SPAN = 1 << 17;
+    private static final int COARSE_BIN_SLOTS = 8;
+    private static final long CHUNK_BLOCKS = 10;
+    private static final int BLOCK_OFFSET_BITS = 16;
+    private static final long RECORD_COUNT = 100;
+    private static final int BAI_SIZE = 1024;
+    private static final double DELTA = 0.01;
+
+    private SamReader reader;
+    private PreloadedBamIndex index;
+
+    @Before
+    public void setUp() throws IOException {
+        final File bam = new File(getClass().getClassLoader().getResource(BAM).getFile());
+        final File bai = new File(bam.getPath() + BAMIndex.BAMIndexSuffix);
+        reader = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT)
+                .open(SamInputResource.of(bam).index(bai));
+        index = PreloadedBamIndex.load(new SeekableFileStream(bai),
+                reader.getFileHeader().getSequenceDictionary());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+    }
+
+    @Test
+    public void shouldCoverAllReadsOfSequence() throws IOException {
+        for (SAMSequenceRecord sequence : reader.getFileHeader().getSequenceDictionary().getSequences()) {
+            final List<Wig> slots = IndexRegionHistogram.build(index, sequence.getSequenceIndex(), 1,
+                    sequence.getSequenceLength(), SLOT_COUNT);
+            int previousEnd = 0;
+            for (Wig slot : slots) {
+                Assert.assertTrue(slot.getStartIndex() > previousEnd);
+                Assert.assertTrue(slot.getEndIndex() >= slot.getStartIndex());
+                previousEnd = slot.getEndIndex();
+            }
+            Assert.assertTrue(previousEnd <= sequence.getSequenceLength());
+            try (SAMRecordIterator iterator = reader.queryOverlapping(sequence.getSequenceName(), 1,
+                    sequence.getSequenceLength())) {
+                while (iterator.hasNext()) {
+                    final SAMRecord record = iterator.next();
+                    Assert.assertTrue(record.getReadName(), slots.stream().anyMatch(slot ->
+                            slot.getStartIndex() <= record.getAlignmentStart()
+                                    && slot.getEndIndex() >= record.getAlignmentStart()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldEstimateRecordCount() {
+        final SAMSequenceRecord sequence = reader.getFileHeader().getSequenceDictionary().getSequences().stream()
+                .max((first, second) -> Long.compare(index.getRecordCount(first.getSequenceIndex()),
+                        index.getRecordCount(second.getSequenceIndex())))
+                .orElseThrow(IllegalStateException::new);
+        final long recordCount = index.getRecordCount(sequence.getSequenceIndex());
+        Assert.assertTrue(recordCount > 0);
+
+        final List<Wig> slots = IndexRegionHistogram.build(index, sequence.getSequenceIndex(), 1,
+                sequence.getSequenceLength(), SLOT_COUNT);
+        final double estimated = slots.stream().mapToDouble(Wig::getValue).sum();
+        Assert.assertEquals(recordCount, estimated, slots.size());
+    }
+
+    @Test
+    public void shouldSpreadCoarseBinsByLeafDensity() throws IOException {
+        final List<Wig> slots = IndexRegionHistogram.build(createIndex(LEAF_BIN, COARSE_BIN), 0, 1,
+                COARSE_BIN_SPAN, COARSE_BIN_SLOTS);
+        Assert.assertEquals(1, slots.size());
+        Assert.assertEquals(RECORD_COUNT, slots.get(0).getValue(), DELTA);
+
+        final List<Wig> evenSlots = IndexRegionHistogram.build(createIndex(COARSE_BIN), 0, 1,
+                COARSE_BIN_SPAN, COARSE_BIN_SLOTS);
+        Assert.assertEquals(COARSE_BIN_SLOTS, evenSlots.size());
+        for (Wig slot : evenSlots) {
+            Assert.assertEquals((double) RECORD_COUNT / COARSE_BIN_SLOTS, slot.getValue(), DELTA);
+        }
+    }
+
+    private PreloadedBamIndex createIndex(final int... binNumbers) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BAI_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(BAI_MAGIC).putInt(1).putInt(binNumbers.length + 1);
+        for (int binNumber : binNumbers) {
+            buffer.putInt(binNumber).putInt(1).putLong(0).putLong(CHUNK_BLOCKS << BLOCK_OFFSET_BITS);
+        }
+        // metadata pseudo bin: file offsets of unmapped reads, then mapped and unmapped record counts
+        buffer.putInt(GenomicIndexUtil.MAX_BINS).putInt(2).putLong(0).putLong(0).putLong(RECORD_COUNT).putLong(0);
+        buffer.putInt(0).putLong(0);
+        final SAMSequenceDictionary dictionary = new SAMSequenceDictionary(
+                Collections.singletonList(new SAMSequenceRecord("chr1", COARSE_BIN_SPAN)));
+        return PreloadedBamIndex.load(new SeekableMemoryStream(
+                Arrays.copyOf(buffer.array(), buffer.position()), BAMIndex.BAMIndexSuffix), dictionary);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.bam;
+
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamInputResource;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+import htsjdk.samtools.seekablestream.SeekableFileStream;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PreloadedBamIndexTest {
+
+    private static final String BAM = "templates/agnX1.09-28.trim.dm606.realign.bam";
+    private static final int QUERY_LENGTH = 100000;
+
+    @Test
+    public void shouldReturnSameReadsAsFileIndex() throws IOException {
+        final File bam = new File(getClass().getClassLoader().getResource(BAM).getFile());
+        final File bai = new File(bam.getPath() + BAMIndex.BAMIndexSuffix);
+        final SamReaderFactory factory = SamReaderFactory.makeDefault()
+                .validationStringency(ValidationStringency.SILENT);
+        try (SamReader expected = factory.open(SamInputResource.of(bam).index(bai));
+             SamReader actual = factory.open(SamInputResource.of(bam).index(bai))) {
+            final SAMSequenceDictionary dictionary = expected.getFileHeader().getSequenceDictionary();
+            final PreloadedBamIndex index = PreloadedBamIndex.load(new SeekableFileStream(bai), dictionary);
+            injectIndex(actual, index);
+
+            final BAMIndex fileIndex = expected.indexing().getIndex();
+            Assert.assertEquals(fileIndex.getStartOfLastLinearBin(), index.getStartOfLastLinearBin());
+            int totalReads = 0;
+            for (SAMSequenceRecord sequence : dictionary.getSequences()) {
+                final int reference = sequence.getSequenceIndex();
+                Assert.assertEquals(fileIndex.getMetaData(reference).getAlignedRecordCount(),
+                        index.getMetaData(reference).getAlignedRecordCount());
+                final int end = Math.min(sequence.getSequenceLength(), QUERY_LENGTH);
+                final List<String> reads = query(expected, sequence.getSequenceName(), end);
+                Assert.assertEquals(reads, query(actual, sequence.getSequenceName(), end));
+                totalReads += reads.size();
+            }
+            Assert.assertTrue(totalReads > 0);
+        }
+    }
+
+    private static void injectIndex(final SamReader reader, final BAMIndex index) {
+        final Field adapted = ReflectionUtils.findField(SamReader.PrimitiveSamReaderToSamReaderAdapter.class, "p");
+        ReflectionUtils.makeAccessible(adapted);
+        final Object implementation = ReflectionUtils.getField(adapted, reader);
+        final Field indexField = ReflectionUtils.findField(implementation.getClass(), "mIndex", BAMIndex.class);
+        ReflectionUtils.makeAccessible(indexField);
+        ReflectionUtils.setField(indexField, implementation, index);
+    }
+
+    private static List<String> query(final SamReader reader, final String chromosome, final int end) {
+        final List<String> reads = new ArrayList<>();
+        try (SAMRecordIterator iterator = reader.queryOverlapping(chromosome, 1, end)) {
+            iterator.forEachRemaining(record -> reads.add(record.getSAMString()));
+        }
+        return reads;
+    }
+}
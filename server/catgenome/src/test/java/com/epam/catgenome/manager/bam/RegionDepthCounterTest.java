@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.bam;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.TextCigarCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class RegionDepthCounterTest {
+
+    private static final String CHR = "chr1";
+    private static final int CHR_LENGTH = 95;
+    private static final int STEP = 10;
+
+    @Test
+    public void shouldCountAlignedBasesOnly() {
+        final RegionDepthCounter counter = new RegionDepthCounter();
+        counter.reset(new CoverageRegion(CHR, CHR_LENGTH, 1, 40, false));
+        // 5 aligned bases, 10 deleted, 5 aligned after 3 inserted ones
+        counter.add(record(3, "5M10D3I5M"));
+        counter.add(record(18, "5S8M"));
+
+        final List<long[]> intervals = collect(counter);
+        Assert.assertEquals(4, intervals.size());
+        assertInterval(intervals.get(0), 1, 10, 5);
+        assertInterval(intervals.get(1), 11, 20, 6);
+        assertInterval(intervals.get(2), 21, 30, 7);
+        assertInterval(intervals.get(3), 31, 40, 0);
+    }
+
+    @Test
+    public void shouldSkipFilteredReads() {
+        final RegionDepthCounter counter = new RegionDepthCounter();
+        counter.reset(new CoverageRegion(CHR, CHR_LENGTH, 1, STEP, false));
+        final SAMRecord duplicate = record(1, "10M");
+        duplicate.setDuplicateReadFlag(true);
+        final SAMRecord secondary = record(1, "10M");
+        secondary.setNotPrimaryAlignmentFlag(true);
+        final SAMRecord unmapped = record(1, "10M");
+        unmapped.setReadUnmappedFlag(true);
+        counter.add(duplicate);
+        counter.add(secondary);
+        counter.add(unmapped);
+
+        assertInterval(collect(counter).get(0), 1, STEP, 0);
+    }
+
+    @Test
+    public void shouldClipReadsToRegionAndSplitAtSequenceEnd() {
+        final RegionDepthCounter counter = new RegionDepthCounter();
+        counter.reset(new CoverageRegion(CHR, CHR_LENGTH, 81, CHR_LENGTH, false));
+        counter.add(record(76, "20M"));
+
+        final List<long[]> intervals = collect(counter);
+        Assert.assertEquals(2, intervals.size());
+        assertInterval(intervals.get(0), 81, 90, 10);
+        assertInterval(intervals.get(1), 91, CHR_LENGTH, 5);
+
+        // counter is reused for the next region and must not keep previous depth
+        counter.reset(new CoverageRegion(CHR, CHR_LENGTH, 1, STEP, true));
+        assertInterval(collect(counter).get(0), 1, STEP, 0);
+    }
+
+    private static List<long[]> collect(final RegionDepthCounter counter) {
+        final List<long[]> intervals = new ArrayList<>();
+        counter.collectIntervals(STEP, (start, end, totalDepth) ->
+                intervals.add(new long[]{start, end, totalDepth}));
+        return intervals;
+    }
+
+    private static void assertInterval(final long[] interval, final int start, final int end, final int depth) {
+        Assert.assertEquals(start, interval[0]);
+        Assert.assertEquals(end, interval[1]);
+        Assert.assertEquals(depth, interval[2]);
+    }
+
+    private static SAMRecord record(final int start, final String cigar) {
+        final SAMRecord record = new SAMRecord(new SAMFileHeader());
+        record.setReferenceName(CHR);
+        record.setAlignmentStart(start);
+        record.setCigar(TextCigarCodec.decode(cigar));
+        return record;
+    }
+}
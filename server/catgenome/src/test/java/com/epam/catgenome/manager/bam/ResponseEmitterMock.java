@@ -33,38 +33,59 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 class ResponseEmitterMock extends ResponseBodyEmitter {
 
     private static final ObjectMapper MAPPER = new JsonMapper();
 
-    @SuppressWarnings("PMD.AvoidStringBufferField")
-    private final StringBuilder buffer = new StringBuilder();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
     @Override
     public synchronized void send(Object object, MediaType mediaType) throws IOException {
-        if (mediaType != MediaType.TEXT_PLAIN || !(object instanceof String)) {
+        if (mediaType != MediaType.TEXT_PLAIN) {
+            throw new IllegalArgumentException("Only text values are available for testing");
+        }
+        if (object instanceof String) {
+            buffer.write(((String) object).getBytes(StandardCharsets.UTF_8));
+        } else if (object instanceof byte[]) {
+            buffer.write((byte[]) object);
+        } else {
             throw new IllegalArgumentException("Only text values are available for testing");
         }
-
-        String data = (String) object;
-        buffer.append(data);
     }
 
     public BamTrack<Read> getBamTrack() throws IOException {
-        JsonNode resultJson = MAPPER.readTree(buffer.toString());
+        JsonNode resultJson = MAPPER.readTree(buffer.toString(StandardCharsets.UTF_8.name()));
         JsonNode trackJson = resultJson.findValue("payload");
         return MAPPER.readValue(trackJson.toString(), new TypeReference<BamTrack<Read>>() {});
     }
 
     public String getResultStatus() throws IOException {
-        JsonNode resultJson = MAPPER.readTree(buffer.toString());
+        JsonNode resultJson = MAPPER.readTree(buffer.toString(StandardCharsets.UTF_8.name()));
         return resultJson.findValue("status").asText();
     }
 
     public String getMessage() throws IOException {
-        JsonNode resultJson = MAPPER.readTree(buffer.toString());
+        JsonNode resultJson = MAPPER.readTree(buffer.toString(StandardCharsets.UTF_8.name()));
         return resultJson.findValue("message").asText();
     }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    public JsonNode getPayload() throws IOException {
+        return MAPPER.readTree(buffer.toString(StandardCharsets.UTF_8.name())).get("payload");
+    }
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    public BinaryBamTrackDecoder getBinaryResult() throws IOException {
+        return new BinaryBamTrackDecoder(buffer.toByteArray());
+    }
 }
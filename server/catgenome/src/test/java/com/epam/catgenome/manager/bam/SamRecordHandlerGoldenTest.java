@@ -0,0 +1,290 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.bam;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import com.epam.catgenome.entity.bam.BamQueryOption;
+import com.epam.catgenome.entity.bam.BamTrackMode;
+import com.epam.catgenome.entity.bam.BaseCoverage;
+import com.epam.catgenome.entity.bam.BasePosition;
+import com.epam.catgenome.entity.bam.Read;
+import com.epam.catgenome.entity.bam.SpliceJunctionsEntity;
+import com.epam.catgenome.manager.bam.filters.Filter;
+import com.epam.catgenome.manager.bam.handlers.SAMRecordHandler;
+import com.epam.catgenome.manager.bam.sifters.DownsamplingSifter;
+import com.epam.catgenome.manager.reference.ReferenceManager;
+import com.epam.catgenome.util.BamUtil;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFlag;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * Compares the output of {@code SAMRecordHandler} for a fixed set of synthetic reads with a golden
+ * file, so that optimizations of the pileup and difference bases computation can't change the result.
+ */
+public class SamRecordHandlerGoldenTest {
+
+    private static final String GOLDEN_FILE = "/templates/sam_record_handler.golden";
+    private static final String CHROMOSOME_NAME = "X";
+    private static final long REFERENCE_ID = 1L;
+    private static final long SEED = 42L;
+    private static final int REFERENCE_LENGTH = 2000;
+    private static final int START_TRACK = 200;
+    private static final int END_TRACK = 700;
+    private static final int READS_COUNT = 250;
+    private static final int READS_START = 120;
+    private static final int READS_END = 760;
+    private static final int MAX_CIGAR_OPERATORS = 5;
+    private static final int MAX_OPERATOR_LENGTH = 40;
+    private static final int MISMATCH_PERCENT = 8;
+    private static final int PERCENT = 100;
+    private static final String CIGAR_OPERATORS = "MMMMIDN=X";
+    private static final String BASES = "ACGTN";
+    private static final double SUMMARIZED_SCALE_FACTOR = 0.2;
+
+    private String reference;
+    private List<SAMRecord> records;
+    private ReferenceManager referenceManager;
+
+    @Before
+    public void setUp() throws IOException {
+        final Random random = new Random(SEED);
+        reference = createReference(random);
+        records = createRecords(random);
+
+        referenceManager = Mockito.mock(ReferenceManager.class);
+        Mockito.when(referenceManager.getSequenceString(Matchers.anyInt(), Matchers.anyInt(), Matchers.anyLong(),
+                Matchers.anyString())).then(invocation -> {
+                    final int start = Math.max(1, (Integer) invocation.getArguments()[0]);
+                    final int end = Math.min(REFERENCE_LENGTH, (Integer) invocation.getArguments()[1]);
+                    return start > end ? "" : reference.substring(start - 1, end);
+                });
+    }
+
+    @Test
+    public void testHandlerOutputMatchesGolden() throws IOException {
+        final String expected;
+        try (InputStream stream = getClass().getResourceAsStream(GOLDEN_FILE)) {
+            expected = IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+        Assert.assertEquals(expected, render());
+    }
+
+    String render() throws IOException {
+        final StringBuilder builder = new StringBuilder();
+        renderHandler(builder, BamTrackMode.FULL, false, true, 1);
+        renderHandler(builder, BamTrackMode.FULL, true, false, 1);
+        renderHandler(builder, BamTrackMode.COVERAGE, true, true, 1);
+        renderHandler(builder, BamTrackMode.COVERAGE, false, false, SUMMARIZED_SCALE_FACTOR);
+
+        builder.append("# computeDifferentBase\n");
+        final SAMRecordHandler handler = new SAMRecordHandler(START_TRACK, END_TRACK, referenceManager, null,
+                createOptions(BamTrackMode.FULL, false, false));
+        for (SAMRecord record : records) {
+            if (BamUtil.validateReadParams(record.getFlags(), record.getCigar().getCigarElements(),
+                    record.getEnd(), record.getStart()) && record.getReadBases().length > 0) {
+                builder.append(record.getReadName()).append(' ')
+                        .append(formatBases(handler.computeDifferentBase(record))).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private void renderHandler(final StringBuilder builder, final BamTrackMode mode, final boolean showClipping,
+                               final boolean showSpliceJunction, final double scaleFactor) throws IOException {
+        builder.append("# mode=").append(mode).append(" clipping=").append(showClipping)
+                .append(" spliceJunctions=").append(showSpliceJunction).append(" scale=").append(scaleFactor)
+                .append('\n');
+        final CapturingFilter filter = new CapturingFilter();
+        final SAMRecordHandler handler = new SAMRecordHandler(START_TRACK, END_TRACK, referenceManager, filter,
+                createOptions(mode, showClipping, showSpliceJunction));
+        for (SAMRecord record : records) {
+            handler.add(record);
+        }
+        for (Read read : filter.reads) {
+            builder.append("read ").append(read.getName()).append(' ').append(read.getStartIndex()).append(' ')
+                    .append(read.getEndIndex()).append(' ').append(formatBases(read.getDifferentBase())).append(' ')
+                    .append(read.getHeadSequence()).append(' ').append(read.getTailSequence()).append('\n');
+        }
+        for (BaseCoverage coverage : handler.getBaseCoverage(scaleFactor)) {
+            builder.append("coverage ").append(coverage.getStartIndex()).append(' ').append(coverage.getEndIndex())
+                    .append(' ').append(coverage.getValue()).append(' ').append(coverage.getcCov()).append(' ')
+                    .append(coverage.getaCov()).append(' ').append(coverage.gettCov()).append(' ')
+                    .append(coverage.getgCov()).append(' ').append(coverage.getnCov()).append(' ')
+                    .append(coverage.getDelCov()).append(' ').append(coverage.getInsCov()).append('\n');
+        }
+        final List<SpliceJunctionsEntity> junctions = new ArrayList<>(handler.getSpliceJunctions());
+        junctions.sort(Comparator.comparingInt(SpliceJunctionsEntity::getStart)
+                .thenComparingInt(SpliceJunctionsEntity::getEnd)
+                .thenComparing(SpliceJunctionsEntity::isStrand));
+        for (SpliceJunctionsEntity junction : junctions) {
+            builder.append("junction ").append(junction.getStart()).append(' ').append(junction.getEnd())
+                    .append(' ').append(junction.isStrand()).append(' ').append(junction.getCount()).append('\n');
+        }
+        builder.append("min ").append(handler.getMinPosition()).append(" reference ")
+                .append(handler.getReferenceBuff()).append('\n');
+    }
+
+    private BamQueryOption createOptions(final BamTrackMode mode, final boolean showClipping,
+                                         final boolean showSpliceJunction) {
+        final BamQueryOption options = new BamQueryOption();
+        options.setMode(mode);
+        options.setRefID(REFERENCE_ID);
+        options.setChromosomeName(CHROMOSOME_NAME);
+        options.setShowClipping(showClipping);
+        options.setShowSpliceJunction(showSpliceJunction);
+        return options;
+    }
+
+    private String formatBases(final List<BasePosition> bases) {
+        if (bases == null) {
+            return "null";
+        }
+        final StringBuilder builder = new StringBuilder("[");
+        for (BasePosition base : bases) {
+            builder.append(base.getRelativePosition()).append(':').append(base.getBase()).append(',');
+        }
+        return builder.append(']').toString();
+    }
+
+    private String createReference(final Random random) {
+        final StringBuilder builder = new StringBuilder(REFERENCE_LENGTH);
+        for (int i = 0; i < REFERENCE_LENGTH; i++) {
+            final char base = BASES.charAt(random.nextInt(BASES.length() - 1));
+            builder.append(random.nextInt(PERCENT) < MISMATCH_PERCENT ? Character.toLowerCase(base) : base);
+        }
+        return builder.toString();
+    }
+
+    private List<SAMRecord> createRecords(final Random random) {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.addSequence(new SAMSequenceRecord(CHROMOSOME_NAME, REFERENCE_LENGTH));
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        final List<SAMRecord> result = new ArrayList<>(READS_COUNT);
+        for (int i = 0; i < READS_COUNT; i++) {
+            result.add(createRecord(header, "read" + i, random));
+        }
+        result.sort(Comparator.comparingInt(SAMRecord::getAlignmentStart));
+        return result;
+    }
+
+    private SAMRecord createRecord(final SAMFileHeader header, final String name, final Random random) {
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(name);
+        record.setReferenceName(CHROMOSOME_NAME);
+        final int start = READS_START + random.nextInt(READS_END - READS_START);
+        record.setAlignmentStart(start);
+        final StringBuilder cigar = new StringBuilder();
+        final StringBuilder bases = new StringBuilder();
+        int referencePosition = start;
+        if (random.nextBoolean()) {
+            appendSoftClip(cigar, bases, random);
+        }
+        final int operatorsCount = 1 + random.nextInt(MAX_CIGAR_OPERATORS);
+        for (int i = 0; i < operatorsCount; i++) {
+            final char operator = i == 0 || i == operatorsCount - 1 ? 'M'
+                    : CIGAR_OPERATORS.charAt(random.nextInt(CIGAR_OPERATORS.length()));
+            final int length = 1 + random.nextInt(MAX_OPERATOR_LENGTH);
+            cigar.append(length).append(operator);
+            if (operator == 'D' || operator == 'N') {
+                referencePosition += length;
+                continue;
+            }
+            for (int j = 0; j < length; j++) {
+                bases.append(operator == 'I' ? randomBase(random) : readBase(referencePosition + j, random));
+            }
+            if (operator != 'I') {
+                referencePosition += length;
+            }
+        }
+        if (random.nextBoolean()) {
+            appendSoftClip(cigar, bases, random);
+        }
+        record.setCigarString(cigar.toString());
+        final int kind = random.nextInt(PERCENT);
+        // bases are set directly, as setReadString() would convert them to upper case
+        record.setReadBases(kind < 2 ? SAMRecord.NULL_SEQUENCE
+                : bases.toString().getBytes(StandardCharsets.US_ASCII));
+        record.setReadNegativeStrandFlag(random.nextBoolean());
+        if (kind >= 2 && kind < 4) {
+            record.setFlags(record.getFlags() | SAMFlag.READ_UNMAPPED.intValue());
+        }
+        if (random.nextBoolean()) {
+            record.setAttribute("XS", random.nextBoolean() ? "+" : "-");
+        }
+        return record;
+    }
+
+    private void appendSoftClip(final StringBuilder cigar, final StringBuilder bases, final Random random) {
+        final int length = 1 + random.nextInt(MAX_OPERATOR_LENGTH / 2);
+        cigar.append(length).append('S');
+        for (int i = 0; i < length; i++) {
+            bases.append(randomBase(random));
+        }
+    }
+
+    private char readBase(final int position, final Random random) {
+        if (position < 1 || position > REFERENCE_LENGTH || random.nextInt(PERCENT) < MISMATCH_PERCENT) {
+            return randomBase(random);
+        }
+        final char base = reference.charAt(position - 1);
+        return random.nextBoolean() ? Character.toLowerCase(base) : Character.toUpperCase(base);
+    }
+
+    private char randomBase(final Random random) {
+        final char base = BASES.charAt(random.nextInt(BASES.length()));
+        return random.nextInt(PERCENT) < MISMATCH_PERCENT ? Character.toLowerCase(base) : base;
+    }
+
+    private static class CapturingFilter implements Filter<SAMRecord> {
+
+        private final List<Read> reads = new ArrayList<>();
+
+        @Override
+        public DownsamplingSifter<SAMRecord> getSifter() {
+            return null;
+        }
+
+        @Override
+        public void add(final SAMRecord record, final int start, final int end,
+                        final List<BasePosition> differentBase, final String headStr, final String tailStr) {
+            reads.add(BamUtil.createReadFromRecord(record, start, end, differentBase, headStr, tailStr));
+        }
+    }
+}
@@ -28,7 +28,13 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.codehaus.jettison.json.JSONObject;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -154,6 +160,57 @@ public class EnsemblDataManagerTest {
         Assert.assertEquals("LIM domain kinase 1 [Source:HGNC Symbol;Acc:HGNC:6613]", limk1Gene.getDescription());
     }
 
+    @Test
+    public void testFetchEnsemblEntriesWithBatchLookup()
+            throws IOException, ExternalDbUnavailableException, InterruptedException, ExecutionException {
+
+        // arrange
+        String fetchRes = String.format("{\"ENSG00000106683\": %s, \"UNKNOWN\": null}",
+                readFile("ensembl_lookup_id_ENSG00000106683.json"));
+
+        Mockito.when(
+                httpDataManager.fetchData(Mockito.any(), Mockito.any(JSONObject.class))
+        ).thenReturn(fetchRes);
+        Mockito.when(httpDataManager.fetchAll(Mockito.any(), Mockito.any())).thenCallRealMethod();
+
+        // act
+        Map<String, CompletableFuture<EnsemblEntryVO>> entries = ensemblDataManager.fetchEnsemblEntries(
+                Arrays.asList("ENSG00000106683", "UNKNOWN", "ENSG00000106683"));
+
+        // assert
+        Assert.assertEquals(2, entries.size());
+        EnsemblEntryVO limk1Gene = entries.get("ENSG00000106683").get();
+        Assert.assertNotNull(limk1Gene);
+        Assert.assertEquals("LIMK1", limk1Gene.getDisplayName());
+        Assert.assertNull(entries.get("UNKNOWN").get());
+        Mockito.verify(httpDataManager, Mockito.times(1)).fetchData(Mockito.any(), Mockito.any(JSONObject.class));
+    }
+
+    @Test
+    public void testFetchEnsemblEntriesFallsBackToSingleLookup()
+            throws IOException, ExternalDbUnavailableException, InterruptedException, ExecutionException {
+
+        // arrange
+        String fetchRes = readFile("ensembl_lookup_id_ENSG00000106683.json");
+
+        Mockito.when(
+                httpDataManager.fetchData(Mockito.any(), Mockito.any(JSONObject.class))
+        ).thenThrow(new ExternalDbUnavailableException("Batch lookup is unavailable"));
+        Mockito.when(
+                httpDataManager.fetchData(Mockito.any(), Mockito.any(ParameterNameValue[].class))
+        ).thenReturn(fetchRes);
+        Mockito.when(httpDataManager.fetchAll(Mockito.any(), Mockito.any())).thenCallRealMethod();
+
+        // act
+        Map<String, CompletableFuture<EnsemblEntryVO>> entries = ensemblDataManager.fetchEnsemblEntries(
+                Arrays.asList("ENSG00000106683"));
+
+        // assert
+        EnsemblEntryVO limk1Gene = entries.get("ENSG00000106683").get();
+        Assert.assertNotNull(limk1Gene);
+        Assert.assertEquals("ENSG00000106683", limk1Gene.getId());
+    }
+
     private String readFile(String filename) throws IOException {
         Resource resource = context.getResource("classpath:externaldb//data//" + filename);
         String pathStr = resource.getFile().getPath();
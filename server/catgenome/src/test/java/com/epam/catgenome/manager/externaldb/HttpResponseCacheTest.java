@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.externaldb;
+
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks {@link HttpResponseCache} under {@link HttpDataManager} against a local HTTP stub
+ */
+public class HttpResponseCacheTest {
+
+    private static final long MAX_BYTES = 1024L * 1024;
+    private static final long TTL = 600;
+    private static final int FETCH_THREADS = 2;
+    private static final int CLIENTS = 8;
+    private static final int LOOKUPS = 10;
+    private static final long WAIT_SECONDS = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private HttpServer server;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/entry", exchange -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await(WAIT_SECONDS, TimeUnit.SECONDS);
+                final byte[] body = ("entry " + exchange.getRequestURI().getQuery())
+                        .getBytes(StandardCharsets.UTF_8);
+                final boolean fail = failures.getAndUpdate(left -> Math.max(left - 1, 0)) > 0;
+                exchange.sendResponseHeaders(fail ? HttpURLConnection.HTTP_UNAVAILABLE : HttpURLConnection.HTTP_OK,
+                        body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/entry?";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldServeRepeatedRequestsFromCache() throws ExternalDbUnavailableException {
+        final HttpDataManager manager = createManager(new HttpResponseCache(MAX_BYTES, TTL, "", "", FETCH_THREADS));
+        assertEquals("entry id=1\n", manager.fetchData(url, params("1")));
+        assertEquals("entry id=1\n", manager.fetchData(url, params("1")));
+        assertEquals("entry id=2\n", manager.fetchData(url, params("2")));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentRequests() throws Exception {
+        final HttpDataManager manager = createManager(new HttpResponseCache(MAX_BYTES, TTL, "", "", FETCH_THREADS));
+        release = new CountDownLatch(1);
+        final ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                results.add(clients.submit(() -> manager.fetchData(url, params("1"))));
+            }
+            while (requests.get() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("entry id=1\n", result.get(WAIT_SECONDS, TimeUnit.SECONDS));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void shouldKeepResponsesOnDiskAndRespectSourceTtl() throws ExternalDbUnavailableException, IOException {
+        final File directory = folder.newFolder();
+        createManager(new HttpResponseCache(MAX_BYTES, TTL, "", directory.getAbsolutePath(), FETCH_THREADS))
+                .fetchData(url, params("1"));
+        final HttpDataManager restarted = createManager(
+                new HttpResponseCache(MAX_BYTES, TTL, "", directory.getAbsolutePath(), FETCH_THREADS));
+        assertEquals("entry id=1\n", restarted.fetchData(url, params("1")));
+        assertEquals(1, requests.get());
+
+        final HttpDataManager uncached = createManager(
+                new HttpResponseCache(MAX_BYTES, TTL, "localhost:0", directory.getAbsolutePath(), FETCH_THREADS));
+        uncached.fetchData(url, params("1"));
+        uncached.fetchData(url, params("1"));
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void shouldNotCacheFailures() throws ExternalDbUnavailableException {
+        final HttpDataManager manager = createManager(new HttpResponseCache(MAX_BYTES, TTL, "", "", FETCH_THREADS));
+        failures.set(1);
+        try {
+            manager.fetchData(url, params("1"));
+            fail("Failed request should throw an exception");
+        } catch (ExternalDbUnavailableException e) {
+            assertEquals(1, requests.get());
+        }
+        assertEquals("entry id=1\n", manager.fetchData(url, params("1")));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldNotCacheHistorySessionRequests() throws ExternalDbUnavailableException {
+        final HttpDataManager manager = createManager(new HttpResponseCache(MAX_BYTES, TTL, "", "", FETCH_THREADS));
+        final ParameterNameValue[] params = new ParameterNameValue[]{new ParameterNameValue("query_key", "1"),
+            new ParameterNameValue("WebEnv", "session")};
+        manager.fetchData(url, params);
+        manager.fetchData(url, params);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldNotCacheErrorPayloads() throws ExternalDbUnavailableException {
+        final HttpDataManager manager = createManager(new HttpResponseCache(MAX_BYTES, TTL, "", "", FETCH_THREADS));
+        assertEquals("entry id=<ERROR>\n", manager.fetchData(url, params("<ERROR>")));
+        manager.fetchData(url, params("<ERROR>"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void shouldFetchDistinctKeysWithBoundedConcurrency() throws Exception {
+        final HttpDataManager manager = createManager(new HttpResponseCache(MAX_BYTES, TTL, "", "", FETCH_THREADS));
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < LOOKUPS; i++) {
+            keys.add(String.valueOf(i % (LOOKUPS / 2)));
+        }
+        final Map<String, CompletableFuture<String>> results =
+                manager.fetchAll(keys, key -> manager.fetchData(url, params(key)));
+        assertEquals(LOOKUPS / 2, results.size());
+        for (Map.Entry<String, CompletableFuture<String>> result : results.entrySet()) {
+            assertEquals("entry id=" + result.getKey() + "\n",
+                    result.getValue().get(WAIT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(LOOKUPS / 2, requests.get());
+        assertTrue(maxInFlight.get() <= FETCH_THREADS);
+    }
+
+    private static HttpDataManager createManager(final HttpResponseCache cache) {
+        final HttpDataManager manager = new HttpDataManager();
+        ReflectionTestUtils.setField(manager, "responseCache", cache);
+        return manager;
+    }
+
+    private static ParameterNameValue[] params(final String id) {
+        return new ParameterNameValue[]{new ParameterNameValue("id", id)};
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.gene.store;
+
+import com.epam.catgenome.entity.gene.GeneFileType;
+import com.epam.catgenome.manager.gene.GeneUtils;
+import com.epam.catgenome.manager.gene.parser.GeneFeature;
+import com.epam.catgenome.manager.gene.parser.GffFeature;
+import com.epam.catgenome.manager.gene.parser.GtfFeature;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeneModelStoreTest {
+
+    private static final String GTF_FILE = "/templates/genes_sorted.gtf";
+    private static final String GFF_FILE = "/templates/genes_sorted.gff3";
+    private static final int QUERIES = 200;
+    private static final int MAX_QUERY_LENGTH = 20000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldReturnSameFeaturesAsSourceFile() throws IOException {
+        checkQueries(readFeatures(GTF_FILE, GtfFeature::new), true);
+        checkQueries(readFeatures(GFF_FILE, GffFeature::new), false);
+    }
+
+    @Test
+    public void shouldServeScaleLevels() throws IOException {
+        final List<GeneFeature> features = readFeatures(GTF_FILE, GtfFeature::new);
+        final GeneModelStore store = writeStore(features, true);
+        final String contig = features.get(0).getContig();
+
+        final List<GeneFeature> genes = store.query(GeneFileType.LARGE_SCALE, contig, 1, Integer.MAX_VALUE);
+        assertEquals(features.stream().filter(GeneUtils::isGene).count(), genes.size());
+        assertTrue(genes.stream().allMatch(GeneUtils::isGene));
+
+        final List<GeneFeature> transcripts = store.query(GeneFileType.TRANSCRIPT, contig, 1, Integer.MAX_VALUE);
+        assertEquals(features.stream().filter(GeneUtils::isTranscript).count(), transcripts.size());
+    }
+
+    @Test
+    public void shouldResolveAlternativeChromosomeName() throws IOException {
+        final List<GeneFeature> features = readFeatures(GFF_FILE, GffFeature::new);
+        final GeneModelStore store = writeStore(features, false);
+
+        assertEquals(features.size(), store.query(GeneFileType.ORIGINAL, "chr" + features.get(0).getContig(),
+                1, Integer.MAX_VALUE).size());
+        assertTrue(store.query(GeneFileType.ORIGINAL, "unknown", 1, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void shouldRemoveUnfinishedStore() throws IOException {
+        final File file = folder.newFile();
+        try (GeneModelStoreWriter writer = new GeneModelStoreWriter(file, true)) {
+            writer.add(readFeatures(GTF_FILE, GtfFeature::new).get(0), GeneFileType.ORIGINAL);
+        }
+        assertFalse(file.exists());
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void shouldReplaceMappedStoreAtomically() throws IOException {
+        final List<GeneFeature> features = readFeatures(GTF_FILE, GtfFeature::new);
+        final File file = folder.newFile();
+        writeStore(file, features, true);
+        final GeneModelStore mapped = GeneModelStore.open(file);
+        final String contig = features.get(0).getContig();
+
+        writeStore(file, features.subList(0, 1), true);
+
+        assertEquals(features.size(), mapped.query(GeneFileType.ORIGINAL, contig, 1, Integer.MAX_VALUE).size());
+        assertEquals(1, GeneModelStore.open(file).query(GeneFileType.ORIGINAL, contig, 1, Integer.MAX_VALUE).size());
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    private void checkQueries(final List<GeneFeature> features, final boolean gtf) throws IOException {
+        final GeneModelStore store = writeStore(features, gtf);
+        final String contig = features.get(0).getContig();
+        final int maxEnd = features.stream().mapToInt(GeneFeature::getEnd).max().orElse(0);
+        final Random random = new Random(1);
+        for (int i = 0; i < QUERIES; i++) {
+            final int start = 1 + random.nextInt(maxEnd);
+            final int end = start + random.nextInt(MAX_QUERY_LENGTH);
+            final List<String> expected = features.stream()
+                    .filter(f -> f.getStart() <= end && f.getEnd() >= start)
+                    .map(this::describe)
+                    .collect(Collectors.toList());
+            final List<String> actual = store.query(GeneFileType.ORIGINAL, contig, start, end).stream()
+                    .map(this::describe)
+                    .collect(Collectors.toList());
+            assertEquals(contig + ":" + start + "-" + end, expected, actual);
+        }
+    }
+
+    private GeneModelStore writeStore(final List<GeneFeature> features, final boolean gtf) throws IOException {
+        final File file = folder.newFile();
+        writeStore(file, features, gtf);
+        return GeneModelStore.open(file);
+    }
+
+    private void writeStore(final File file, final List<GeneFeature> features, final boolean gtf)
+            throws IOException {
+        try (GeneModelStoreWriter writer = new GeneModelStoreWriter(file, gtf)) {
+            for (GeneFeature feature : features) {
+                writer.add(feature, GeneFileType.ORIGINAL);
+                if (GeneUtils.isGene(feature)) {
+                    writer.add(feature, GeneFileType.LARGE_SCALE);
+                }
+                if (GeneUtils.isTranscript(feature)) {
+                    writer.add(feature, GeneFileType.TRANSCRIPT);
+                }
+            }
+            writer.finish();
+        }
+    }
+
+    private List<GeneFeature> readFeatures(final String resource, final Function<String, GeneFeature> parser)
+            throws IOException {
+        final File file = new File(getClass().getResource(resource).getFile());
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(parser)
+                .collect(Collectors.toList());
+    }
+
+    private String describe(final GeneFeature feature) {
+        return feature.getClass().getSimpleName() + ' ' + feature + ' ' + feature.getGroupId()
+                + ' ' + feature.getAttributes();
+    }
+}
@@ -26,9 +26,11 @@ package com.epam.catgenome.manager.heatmap;
 import com.epam.catgenome.controller.vo.registration.HeatmapRegistrationRequest;
 import com.epam.catgenome.entity.BiologicalDataItemResourceType;
 import com.epam.catgenome.entity.heatmap.Heatmap;
+import com.epam.catgenome.entity.heatmap.HeatmapAggregationType;
 import com.epam.catgenome.entity.heatmap.HeatmapAnnotationType;
 import com.epam.catgenome.entity.heatmap.HeatmapDataType;
 import com.epam.catgenome.entity.heatmap.HeatmapTree;
+import com.epam.catgenome.entity.heatmap.HeatmapViewport;
 import junit.framework.TestCase;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.jetbrains.annotations.NotNull;
@@ -53,6 +55,9 @@ public class HeatmapManagerTest extends TestCase {
     private static final double MIN_CELL_VALUE = 0.0;
     private static final String GENE_1_LABEL = "gene1";
     private static final String GENE_1_ANNOTATION = "test1";
+    private static final int VIEWPORT_SIZE = 2;
+    private static final int VIEWPORT_STEP = 3;
+    private static final double DELTA = 1e-7;
 
     @Autowired
     private HeatmapManager heatmapManager;
@@ -139,6 +144,30 @@ public class HeatmapManagerTest extends TestCase {
         assertEquals("a", content.get(0).get(0).get(1));
     }
 
+    @Test
+    public void getViewportTest() throws IOException {
+        Heatmap heatmap = registerHeatmap("getViewportTest");
+        assertNotNull(heatmapManager.loadHeatmap(heatmap.getHeatmapId()).getTileSize());
+        HeatmapViewport viewport = heatmapManager.getViewport(heatmap.getHeatmapId(),
+                null, null, null, null, null, null, null);
+        assertEquals(CONTENT_SIZE, viewport.getValues().size());
+        assertEquals(CONTENT_SIZE, viewport.getValues().get(0).size());
+        assertEquals(MAX_CELL_VALUE, viewport.getValues().get(0).get(1), DELTA);
+
+        viewport = heatmapManager.getViewport(heatmap.getHeatmapId(), null, null, null, null,
+                VIEWPORT_SIZE, VIEWPORT_SIZE, HeatmapAggregationType.MAX);
+        assertEquals(VIEWPORT_STEP, viewport.getRowStep());
+        assertEquals(VIEWPORT_STEP, viewport.getColumnStep());
+        assertEquals(VIEWPORT_SIZE, viewport.getValues().size());
+        assertEquals(VIEWPORT_SIZE, viewport.getValues().get(0).size());
+        assertEquals(MAX_CELL_VALUE, viewport.getValues().get(0).get(0), DELTA);
+
+        viewport = heatmapManager.getViewport(heatmap.getHeatmapId(), 1, CONTENT_SIZE, 1, CONTENT_SIZE,
+                1, 1, HeatmapAggregationType.MIN);
+        assertEquals(1, viewport.getValues().size());
+        assertEquals(MIN_CELL_VALUE, viewport.getValues().get(0).get(0), DELTA);
+    }
+
     @Test
     public void loadHeatmapTest() throws IOException {
         Heatmap heatmap = registerHeatmap("loadHeatmapTest");
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.manager.heatmap;
+
+import com.epam.catgenome.entity.heatmap.HeatmapAggregationType;
+import com.epam.catgenome.entity.heatmap.HeatmapTile;
+import com.epam.catgenome.entity.heatmap.HeatmapViewport;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class HeatmapViewportAggregatorTest {
+
+    private static final int ROWS = 37;
+    private static final int COLUMNS = 23;
+    private static final int[] TILE_SIZES = {1, 4, 5, 64};
+    private static final int[] STEPS = {1, 2, 3, 8, 40};
+    private static final float DELTA = 1e-5f;
+    private static final long SEED = 42;
+    private static final int SPLIT_TILE_SIZE = 5;
+    private static final int MISSING_VALUE_RATE = 10;
+    private static final int MAX_VALUE = 1000;
+    private static final double VALUE_SCALE = 10.0;
+    private static final int VIEWPORT_SHIFT = 3;
+
+    @Test
+    public void splitShouldCoverAllCellsTest() {
+        final List<List<String>> content = createContent();
+        final List<HeatmapTile> tiles = split(content, SPLIT_TILE_SIZE);
+        final int tileRows = (ROWS + SPLIT_TILE_SIZE - 1) / SPLIT_TILE_SIZE;
+        final int tileColumns = (COLUMNS + SPLIT_TILE_SIZE - 1) / SPLIT_TILE_SIZE;
+        Assert.assertEquals(tileRows * tileColumns, tiles.size());
+        int cells = 0;
+        for (final HeatmapTile tile : tiles) {
+            cells += tile.getRowCount() * tile.getColumnCount();
+            for (int row = 0; row < tile.getRowCount(); row++) {
+                for (int column = 0; column < tile.getColumnCount(); column++) {
+                    final String expected = content.get(tile.getTileRow() * SPLIT_TILE_SIZE + row)
+                            .get(tile.getTileColumn() * SPLIT_TILE_SIZE + column);
+                    final float actual = tile.getValue(row, column);
+                    if (expected == null) {
+                        Assert.assertTrue(Float.isNaN(actual));
+                    } else {
+                        Assert.assertEquals(Float.parseFloat(expected), actual, DELTA);
+                    }
+                }
+            }
+        }
+        Assert.assertEquals(ROWS * COLUMNS, cells);
+    }
+
+    @Test
+    public void aggregateTilesShouldMatchCellsTest() {
+        final List<List<String>> content = createContent();
+        for (final int tileSize : TILE_SIZES) {
+            final List<HeatmapTile> tiles = split(content, tileSize);
+            for (final int step : STEPS) {
+                for (final HeatmapAggregationType type : HeatmapAggregationType.values()) {
+                    assertViewport(content, tiles, tileSize, VIEWPORT_SHIFT, ROWS - 1, 1, COLUMNS, step, type);
+                    assertViewport(content, tiles, tileSize, 0, ROWS, 0, COLUMNS, step, type);
+                }
+            }
+        }
+    }
+
+    private void assertViewport(final List<List<String>> content, final List<HeatmapTile> tiles, final int tileSize,
+                                final int startRow, final int endRow, final int startColumn, final int endColumn,
+                                final int step, final HeatmapAggregationType type) {
+        final HeatmapViewportAggregator aggregator = new HeatmapViewportAggregator(startRow, endRow, step,
+                startColumn, endColumn, step);
+        // the same way as the manager does: summaries for whole tiles, cells for the others
+        for (final HeatmapTile tile : tiles) {
+            if (aggregator.isWholeRow(tile, tileSize) && aggregator.isWholeColumn(tile, tileSize)) {
+                aggregator.addSummary(tile, tileSize);
+            } else {
+                aggregator.addCells(tile, tileSize);
+            }
+        }
+        final HeatmapViewport viewport = aggregator.build(type);
+        final int binRows = (endRow - startRow + step - 1) / step;
+        final int binColumns = (endColumn - startColumn + step - 1) / step;
+        Assert.assertEquals(binRows, viewport.getValues().size());
+        for (int binRow = 0; binRow < binRows; binRow++) {
+            Assert.assertEquals(binColumns, viewport.getValues().get(binRow).size());
+            for (int binColumn = 0; binColumn < binColumns; binColumn++) {
+                final Float expected = aggregate(content, startRow + binRow * step,
+                        Math.min(endRow, startRow + (binRow + 1) * step), startColumn + binColumn * step,
+                        Math.min(endColumn, startColumn + (binColumn + 1) * step), type);
+                final Float actual = viewport.getValues().get(binRow).get(binColumn);
+                if (expected == null) {
+                    Assert.assertNull(actual);
+                } else {
+                    Assert.assertEquals(expected, actual, DELTA);
+                }
+            }
+        }
+    }
+
+    private static Float aggregate(final List<List<String>> content, final int fromRow, final int toRow,
+                                   final int fromColumn, final int toColumn, final HeatmapAggregationType type) {
+        final List<Float> values = new ArrayList<>();
+        for (int row = fromRow; row < toRow; row++) {
+            for (int column = fromColumn; column < toColumn; column++) {
+                final String value = content.get(row).get(column);
+                if (value != null) {
+                    values.add(Float.parseFloat(value));
+                }
+            }
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+        switch (type) {
+            case MIN:
+                return values.stream().min(Float::compare).get();
+            case MAX:
+                return values.stream().max(Float::compare).get();
+            default:
+                return (float) values.stream().mapToDouble(Float::doubleValue).average().getAsDouble();
+        }
+    }
+
+    private static List<HeatmapTile> split(final List<List<String>> content, final int tileSize) {
+        final List<HeatmapTile> tiles = new ArrayList<>();
+        HeatmapTiles.split(content, COLUMNS, tileSize, tiles::addAll);
+        return tiles;
+    }
+
+    private static List<List<String>> createContent() {
+        final Random random = new Random(SEED);
+        final List<List<String>> content = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            final List<String> cells = new ArrayList<>();
+            for (int column = 0; column < COLUMNS; column++) {
+                cells.add(random.nextInt(MISSING_VALUE_RATE) == 0 ? null
+                        : String.valueOf(random.nextInt(MAX_VALUE) / VALUE_SCALE));
+            }
+            content.add(cells);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.index;
+
+import com.epam.catgenome.entity.index.FilterType;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SortField;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AbstractIndexManagerTest {
+
+    private static final String VALUE = "VALUE";
+    private static final int BATCH_SIZE = 2;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TestIndexManager manager;
+
+    @Before
+    public void setUp() throws IOException {
+        manager = new TestIndexManager(temporaryFolder.newFolder("index").getPath());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        manager.closeSearcher();
+    }
+
+    @Test
+    public void importShouldProcessEntriesInBatches() throws Exception {
+        manager.importData(source("a", "b", "c", "d", "e"));
+        assertEquals(Arrays.asList(2, 2, 1), manager.batches);
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), searchAll());
+    }
+
+    @Test
+    public void importShouldReplaceIndexContent() throws Exception {
+        manager.importData(source("a", "b"));
+        assertEquals(Arrays.asList("a", "b"), searchAll());
+        manager.importData(source("c"));
+        assertEquals(Collections.singletonList("c"), searchAll());
+    }
+
+    @Test
+    public void failedImportShouldKeepIndexContent() throws Exception {
+        manager.importData(source("a", "b"));
+        manager.failOn = "d";
+        try {
+            manager.importData(source("c", "d", "e"));
+            fail("Import should fail");
+        } catch (IllegalStateException e) {
+            assertEquals(Arrays.asList("a", "b"), searchAll());
+        }
+    }
+
+    @Test
+    public void acquiredSearcherShouldKeepIndexContentOnImport() throws Exception {
+        manager.importData(source("a"));
+        try (AbstractIndexManager.AcquiredSearcher acquired = manager.acquireSearcher()) {
+            manager.importData(source("b", "c"));
+            assertEquals(1, acquired.getSearcher().count(new MatchAllDocsQuery()));
+        }
+        assertEquals(Arrays.asList("b", "c"), searchAll());
+    }
+
+    @Test
+    public void phraseQueryShouldMatchSubstringsByNgrams() throws Exception {
+        manager.ngramFields = Collections.singleton(VALUE);
+        manager.importData(source("Alpha Beta", "gamma", "abcdefghij xyz", "abcdefgh bcdefghij"));
+        final Query query = manager.getByPhraseQuery("PH", VALUE);
+        assertFalse(query.toString().contains("*"));
+        assertEquals(Collections.singletonList("Alpha Beta"), search(query));
+        assertEquals(Collections.singletonList("Alpha Beta"), search(manager.getByPhraseQuery("lph et", VALUE)));
+        assertEquals(Collections.singletonList("abcdefghij xyz"),
+                search(manager.getByPhraseQuery("abcdefghij", VALUE)));
+        assertEquals(Collections.emptyList(), search(manager.getByPhraseQuery("ax", VALUE)));
+    }
+
+    @Test
+    public void phraseQueryShouldSkipBlankTerms() throws Exception {
+        manager.ngramFields = Collections.singleton(VALUE);
+        manager.importData(source("Alpha Beta", "gamma"));
+        assertEquals(Collections.singletonList("Alpha Beta"), search(manager.getByPhraseQuery(" lph  et ", VALUE)));
+        assertEquals(Arrays.asList("Alpha Beta", "gamma"), search(manager.getByPhraseQuery("  ", VALUE)));
+    }
+
+    @Test
+    public void phraseQueryShouldUseWildcardsUntilNgramsAreIndexed() throws Exception {
+        manager.importData(source("Alpha Beta", "gamma"));
+        manager.ngramFields = Collections.singleton(VALUE);
+        final Query query = manager.getByPhraseQuery("ph", VALUE);
+        assertTrue(query.toString().contains("*"));
+        assertEquals(Collections.singletonList("Alpha Beta"), search(query));
+    }
+
+    private List<String> searchAll() throws Exception {
+        return search(new MatchAllDocsQuery());
+    }
+
+    private List<String> search(final Query query) throws Exception {
+        final List<String> values = manager.search(query, null);
+        Collections.sort(values);
+        return values;
+    }
+
+    private String source(final String... values) throws IOException {
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), Arrays.asList(values), StandardCharsets.UTF_8);
+        return file.getPath();
+    }
+
+    private static final class TestIndexManager extends AbstractIndexManager<String> {
+
+        private final List<Integer> batches = new ArrayList<>();
+        private String failOn;
+        private Set<String> ngramFields = Collections.emptySet();
+
+        private TestIndexManager(final String indexDirectory) {
+            super(indexDirectory, 100);
+        }
+
+        @Override
+        public List<String> readEntries(final String path) throws IOException {
+            return Files.readAllLines(new File(path).toPath(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public <E extends Exception> void readEntries(final String path, final EntryConsumer<String, E> consumer)
+                throws IOException, E {
+            for (String line : readEntries(path)) {
+                if (line.equals(failOn)) {
+                    throw new IllegalStateException(line);
+                }
+                consumer.accept(line);
+            }
+        }
+
+        @Override
+        protected Set<String> getNgramFields() {
+            return ngramFields;
+        }
+
+        @Override
+        protected int getImportBatchSize() {
+            return BATCH_SIZE;
+        }
+
+        @Override
+        public List<String> processEntries(final List<String> entries) {
+            batches.add(entries.size());
+            return entries;
+        }
+
+        @Override
+        public void addDoc(final IndexWriter writer, final String entry) throws IOException {
+            final Document doc = new Document();
+            doc.add(new StringField(VALUE, entry, Field.Store.YES));
+            addNgramFields(doc);
+            writer.addDocument(doc);
+        }
+
+        @Override
+        public String entryFromDoc(final Document doc) {
+            return doc.get(VALUE);
+        }
+
+        @Override
+        public SortField getDefaultSortField() {
+            return null;
+        }
+
+        @Override
+        public FilterType getFilterType(final String fieldName) {
+            return null;
+        }
+    }
+}
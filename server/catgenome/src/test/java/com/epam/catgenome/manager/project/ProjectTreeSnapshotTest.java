@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.project;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.epam.catgenome.dao.metadata.MetadataDao;
+import com.epam.catgenome.dao.project.ProjectDao;
+import com.epam.catgenome.dao.project.ProjectDescriptionDao;
+import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.entity.project.ProjectItem;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.entity.security.AclClass;
+import com.epam.catgenome.entity.vcf.VcfFile;
+
+public class ProjectTreeSnapshotTest {
+
+    private static final long PROJECT_ID = 1L;
+    private static final long OTHER_PROJECT_ID = 2L;
+    private static final long REFERENCE_ID = 10L;
+    private static final long REFERENCE_ITEM_ID = 11L;
+    private static final long VCF_ID = 20L;
+    private static final long VCF_ITEM_ID = 21L;
+    private static final int MASK = 1;
+
+    private ProjectDao projectDao;
+    private ProjectTreeSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        projectDao = Mockito.mock(ProjectDao.class);
+        final ProjectDescriptionDao projectDescriptionDao = Mockito.mock(ProjectDescriptionDao.class);
+        final MetadataDao metadataDao = Mockito.mock(MetadataDao.class);
+
+        Mockito.when(projectDao.loadAllProjects())
+                .thenAnswer(invocation -> Arrays.asList(project(PROJECT_ID), project(OTHER_PROJECT_ID)));
+        Mockito.when(projectDao.loadProject(Mockito.anyLong()))
+                .thenAnswer(invocation -> project((Long) invocation.getArguments()[0]));
+        Mockito.when(projectDao.loadAllProjectItems()).thenAnswer(invocation -> {
+            final Map<Long, Set<ProjectItem>> items = new HashMap<>();
+            items.put(PROJECT_ID, new HashSet<>(Arrays.asList(new ProjectItem(reference()),
+                    new ProjectItem(vcfFile()))));
+            items.put(OTHER_PROJECT_ID, Collections.singleton(new ProjectItem(vcfFile())));
+            return items;
+        });
+        Mockito.when(projectDao.loadProjectItemsByProjectIds(Mockito.anyListOf(Long.class)))
+                .thenAnswer(invocation -> Collections.singletonMap(PROJECT_ID,
+                        Collections.singleton(new ProjectItem(reference()))));
+        Mockito.when(projectDao.loadAllProjectNotes(Mockito.anyListOf(Project.class)))
+                .thenReturn(Collections.emptyMap());
+        Mockito.when(projectDescriptionDao.findAll()).thenReturn(Collections.emptyMap());
+        Mockito.when(projectDescriptionDao.findByProjectIdIn(Mockito.anyListOf(Long.class)))
+                .thenReturn(Collections.emptyMap());
+        Mockito.when(metadataDao.getItems(Mockito.anyList())).thenReturn(Collections.emptyList());
+
+        snapshot = new ProjectTreeSnapshot(projectDao, projectDescriptionDao, metadataDao, true, 0);
+    }
+
+    @Test
+    public void shouldLoadProjectsOnceAndReturnCopies() {
+        final List<Project> projects = snapshot.loadProjects(null);
+        Assert.assertEquals(2, projects.size());
+        projects.get(0).getItems().forEach(item -> item.getBioDataItem().setMask(MASK));
+        projects.get(0).getItems().clear();
+
+        final List<Project> reloaded = snapshot.loadProjects(null);
+        Assert.assertEquals(2, reloaded.get(0).getItems().size());
+        reloaded.get(0).getItems().forEach(item -> Assert.assertNotEquals(MASK,
+                (int) item.getBioDataItem().getMask()));
+        Mockito.verify(projectDao, Mockito.times(1)).loadAllProjects();
+    }
+
+    @Test
+    public void shouldReloadOnlyInvalidatedProjects() {
+        snapshot.loadProjects(null);
+        final long version = snapshot.getVersion();
+
+        snapshot.invalidate(PROJECT_ID);
+
+        Assert.assertNotEquals(version, snapshot.getVersion());
+        final List<Project> projects = snapshot.loadProjects(null);
+        Assert.assertEquals(2, projects.size());
+        Assert.assertEquals(1, projects.get(0).getItems().size());
+        Mockito.verify(projectDao, Mockito.times(1)).loadAllProjects();
+        Mockito.verify(projectDao).loadProject(PROJECT_ID);
+        Mockito.verify(projectDao, Mockito.never()).loadProject(OTHER_PROJECT_ID);
+    }
+
+    @Test
+    public void shouldInvalidateProjectsContainingChangedItem() {
+        snapshot.loadProjects(null);
+
+        snapshot.invalidate(VCF_ID, AclClass.VCF);
+        snapshot.loadProjects(null);
+
+        Mockito.verify(projectDao).loadProject(PROJECT_ID);
+        Mockito.verify(projectDao).loadProject(OTHER_PROJECT_ID);
+    }
+
+    @Test
+    public void shouldFilterProjectsByItem() {
+        final List<Project> projects = snapshot.loadProjects(REFERENCE_ITEM_ID);
+        Assert.assertEquals(1, projects.size());
+        Assert.assertEquals(PROJECT_ID, (long) projects.get(0).getId());
+        Assert.assertEquals(2, snapshot.loadProjects(VCF_ITEM_ID).size());
+    }
+
+    private static Project project(final long id) {
+        final Project project = new Project(id);
+        project.setName("project" + id);
+        return project;
+    }
+
+    private static Reference reference() {
+        final Reference reference = new Reference(REFERENCE_ID, "reference");
+        reference.setBioDataItemId(REFERENCE_ITEM_ID);
+        return reference;
+    }
+
+    private static VcfFile vcfFile() {
+        final VcfFile vcfFile = new VcfFile();
+        vcfFile.setId(VCF_ID);
+        vcfFile.setBioDataItemId(VCF_ITEM_ID);
+        return vcfFile;
+    }
+}
@@ -41,6 +41,7 @@ import java.util.List;
 import com.epam.catgenome.dao.BiologicalDataItemDao;
 import com.epam.catgenome.entity.reference.Species;
 import com.epam.catgenome.manager.reference.io.FastaUtils;
+import com.epam.catgenome.manager.reference.io.NibSequenceCache;
 import com.epam.catgenome.manager.genbank.GenbankUtils;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -53,6 +54,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -117,6 +119,8 @@ import htsjdk.samtools.reference.ReferenceSequenceFileFactory;
 
     @Autowired private BiologicalDataItemDao biologicalDataItemDao;
 
+    @Autowired private NibSequenceCache nibSequenceCache;
+
     @Before public void fastaToNibFileTest() throws IOException {
         resource = context.getResource(A3_FA_PATH);
 
@@ -213,6 +217,29 @@ import htsjdk.samtools.reference.ReferenceSequenceFileFactory;
         assertNotNull(track);
     }
 
+    @Test
+    public void nibSequenceShouldMatchFasta() throws IOException {
+        final Chromosome chromosome = reference.getChromosomes().get(0);
+        final ReferenceSequenceFile fasta = ReferenceSequenceFileFactory.getReferenceSequenceFile(resource.getFile());
+        final int[][] ranges = {{1, 1}, {2, 2}, {START_INDEX, END_INDEX}, {END_INDEX + 1, END_INDEX * 2},
+            {END_INDEX - 1, chromosome.getSize() - 1}, {1, chromosome.getSize()}};
+        try {
+            for (boolean mapped : new boolean[] {false, true}) {
+                ReflectionTestUtils.setField(nibSequenceCache, "mapped", mapped);
+                for (int[] range : ranges) {
+                    final String expected = fasta.getSubsequenceAt(chromosome.getName(), range[0], range[1])
+                            .getBaseString();
+                    assertEquals(expected, referenceManager.getSequenceString(range[0], range[1], idRef,
+                            chromosome.getName()));
+                    assertEquals(expected, new String(referenceManager.getSequenceByteArray(range[0], range[1],
+                            idRef, chromosome.getName())));
+                }
+            }
+        } finally {
+            ReflectionTestUtils.setField(nibSequenceCache, "mapped", false);
+        }
+    }
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Throwable.class)
     public void testUnregister() throws IOException {
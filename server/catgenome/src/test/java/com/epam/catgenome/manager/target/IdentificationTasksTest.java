@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.target;
+
+import com.epam.catgenome.exception.ExternalDbUnavailableException;
+import com.epam.catgenome.manager.target.IdentificationTasks.Task;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class IdentificationTasksTest {
+
+    private static final long TIMEOUT = 200;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowSourceIsReportedAsMissing()
+            throws ExternalDbUnavailableException, IOException, ParseException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        try (IdentificationTasks tasks = new IdentificationTasks(executor, TIMEOUT)) {
+            final Task<Long> slow = tasks.submit("slow", () -> {
+                latch.await();
+                return 1L;
+            });
+            final Task<Long> fast = tasks.submit("fast", () -> 2L);
+            Assert.assertNull(tasks.get(slow));
+            Assert.assertEquals(Long.valueOf(2L), tasks.get(fast));
+            Assert.assertFalse(tasks.isComplete());
+            Assert.assertTrue(slow.isCancelled());
+        }
+    }
+
+    @Test
+    public void testSourceFailureIsRethrown() throws ExternalDbUnavailableException, ParseException {
+        try (IdentificationTasks tasks = new IdentificationTasks(executor, TIMEOUT)) {
+            final Task<Long> failed = tasks.submit("failed", () -> {
+                throw new IOException("unavailable");
+            });
+            tasks.get(failed);
+            Assert.fail("Source failure should be rethrown");
+        } catch (IOException e) {
+            Assert.assertEquals("unavailable", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSourcesRunInlineWithoutExecutor()
+            throws ExternalDbUnavailableException, IOException, ParseException {
+        try (IdentificationTasks tasks = new IdentificationTasks(null, TIMEOUT)) {
+            final Task<String> task = tasks.submit("inline", () -> Thread.currentThread().getName());
+            Assert.assertTrue(task.isDone());
+            Assert.assertEquals(Thread.currentThread().getName(), tasks.get(task));
+            Assert.assertTrue(tasks.isComplete());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.vcf;
+
+import com.epam.catgenome.component.MessageHelper;
+import com.epam.catgenome.dao.index.FeatureIndexDao;
+import com.epam.catgenome.dao.index.indexer.BigVcfFeatureIndexBuilder;
+import com.epam.catgenome.entity.gene.GeneFile;
+import com.epam.catgenome.entity.reference.Chromosome;
+import com.epam.catgenome.entity.vcf.InfoItem;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.entity.vcf.VcfFilterInfo;
+import com.epam.catgenome.manager.FeatureIndexManager;
+import com.epam.catgenome.manager.FileManager;
+import com.epam.catgenome.manager.parallel.TaskExecutorService;
+import com.epam.catgenome.util.NggbIntervalTreeMap;
+import com.epam.catgenome.util.Utils;
+import com.epam.catgenome.util.feature.reader.AbstractEnhancedFeatureReader;
+import com.epam.catgenome.util.feature.reader.TabixFeatureReader;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.SimpleFSDirectory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class VcfContigIndexerTest {
+
+    private static final String VCF_PATH = "templates/Felis_catus_contigs.vcf.gz";
+    private static final String FAILED_CONTIG = "chrA2";
+    private static final String MISSING_CONTIG = "chrB1";
+    private static final int THREADS = 3;
+    private static final int MAX_THREADS = 4;
+    private static final int CHROMOSOME_SIZE = 1_000_000;
+    private static final int INDEX_BUFFER_SIZE = 16;
+    private static final long FILE_ID = 1L;
+    private static final String SEQUENTIAL_INDEX = "sequential";
+    private static final String PARALLEL_INDEX = "parallel";
+    private static final String GENES_ERROR = "Failed to load genes";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private VcfContigIndexer contigIndexer;
+    private FileManager fileManager;
+    private FeatureIndexManager featureIndexManager;
+    private TaskExecutorService taskExecutorService;
+    private Map<String, Chromosome> chromosomeMap;
+    private String vcfPath;
+
+    @Before
+    public void setUp() throws IOException {
+        // registers the message source, used for indexing progress logs
+        new MessageHelper(Mockito.mock(MessageSource.class));
+        vcfPath = new ClassPathResource(VCF_PATH).getFile().getAbsolutePath();
+        fileManager = Mockito.mock(FileManager.class);
+        Mockito.when(fileManager.createIndexForFile(Matchers.any(VcfFile.class))).thenAnswer(invocation ->
+                new SimpleFSDirectory(getIndexDir((VcfFile) invocation.getArguments()[0]).toPath()));
+        featureIndexManager = Mockito.mock(FeatureIndexManager.class);
+
+        taskExecutorService = new TaskExecutorService();
+        ReflectionTestUtils.setField(taskExecutorService, "maxThreadCount", MAX_THREADS);
+        ReflectionTestUtils.setField(taskExecutorService, "keepAliveTime", 1);
+
+        contigIndexer = new VcfContigIndexer();
+        ReflectionTestUtils.setField(contigIndexer, "indexThreads", THREADS);
+        ReflectionTestUtils.setField(contigIndexer, "indexBufferSize", INDEX_BUFFER_SIZE);
+        ReflectionTestUtils.setField(contigIndexer, "taskExecutorService", taskExecutorService);
+        ReflectionTestUtils.setField(contigIndexer, "featureIndexManager", featureIndexManager);
+        ReflectionTestUtils.setField(contigIndexer, "fileManager", fileManager);
+
+        chromosomeMap = new HashMap<>();
+        try (FeatureReader<VariantContext> reader = openReader()) {
+            for (String contig : reader.getSequenceNames()) {
+                if (MISSING_CONTIG.equals(contig)) {
+                    continue;
+                }
+                final Chromosome chromosome = new Chromosome(contig, CHROMOSOME_SIZE);
+                chromosome.setId((long) chromosomeMap.size());
+                chromosomeMap.put(contig, chromosome);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        taskExecutorService.getExecutorService().shutdownNow();
+    }
+
+    @Test
+    public void parallelIndexShouldMatchSequentialIndex() throws IOException {
+        final VcfFile sequentialFile = createFile(SEQUENTIAL_INDEX);
+        final VcfFile parallelFile = createFile(PARALLEL_INDEX);
+        final Map<String, Pair<Integer, Integer>> expectedMetaMap;
+        final Map<String, Pair<Integer, Integer>> actualMetaMap;
+        try (FeatureReader<VariantContext> reader = openReader()) {
+            Assert.assertTrue(contigIndexer.isApplicable(reader));
+            expectedMetaMap = indexSequentially(sequentialFile, reader, Collections.emptyList());
+            actualMetaMap = contigIndexer.index(parallelFile, (TabixFeatureReader<?, ?>) reader, chromosomeMap,
+                    getFilterInfo(reader), Collections.emptyList());
+        }
+
+        Assert.assertEquals(chromosomeMap.keySet(), actualMetaMap.keySet());
+        Assert.assertEquals(expectedMetaMap, actualMetaMap);
+        final List<String> expectedDocuments = readDocuments(sequentialFile);
+        Assert.assertFalse(expectedDocuments.isEmpty());
+        Assert.assertEquals(expectedDocuments, readDocuments(parallelFile));
+    }
+
+    @Test
+    public void failedWorkerShouldRollbackIndex() throws IOException {
+        final GeneFile geneFile = new GeneFile();
+        geneFile.setId(FILE_ID);
+        Mockito.when(featureIndexManager.loadGenesIntervalMap(Matchers.anyListOf(GeneFile.class),
+                Matchers.anyInt(), Matchers.anyInt(), Matchers.any(Chromosome.class))).thenAnswer(invocation -> {
+                    final Chromosome chromosome = (Chromosome) invocation.getArguments()[3];
+                    if (FAILED_CONTIG.equals(chromosome.getName())) {
+                        throw new IllegalStateException(GENES_ERROR);
+                    }
+                    return new NggbIntervalTreeMap<>();
+                });
+
+        final VcfFile file = createFile(PARALLEL_INDEX);
+        try (FeatureReader<VariantContext> reader = openReader()) {
+            contigIndexer.index(file, (TabixFeatureReader<?, ?>) reader, chromosomeMap, getFilterInfo(reader),
+                    Collections.singletonList(geneFile));
+            Assert.fail("Indexing should fail");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(GENES_ERROR, e.getMessage());
+        }
+
+        try (Directory directory = fileManager.createIndexForFile(file)) {
+            Assert.assertFalse(DirectoryReader.indexExists(directory));
+        }
+    }
+
+    /**
+     * Indexes a file the same way as {@link VcfManager} does for files, that can't be indexed by contig
+     */
+    private Map<String, Pair<Integer, Integer>> indexSequentially(final VcfFile file,
+                                                                  final FeatureReader<VariantContext> reader,
+                                                                  final List<GeneFile> geneFiles)
+            throws IOException {
+        final Map<String, Pair<Integer, Integer>> metaMap = new HashMap<>();
+        final BigVcfFeatureIndexBuilder indexer = new BigVcfFeatureIndexBuilder(getFilterInfo(reader),
+                (VCFHeader) reader.getHeader(), featureIndexManager, file, fileManager, geneFiles,
+                INDEX_BUFFER_SIZE);
+        String currentKey = null;
+        int startPosition = 0;
+        try (CloseableIterator<VariantContext> iterator = reader.iterator()) {
+            while (iterator.hasNext()) {
+                final VariantContext variantContext = iterator.next();
+                if (!variantContext.getContig().equals(currentKey)) {
+                    indexer.clear();
+                    currentKey = variantContext.getContig();
+                    startPosition = variantContext.getStart();
+                }
+                indexer.add(variantContext, chromosomeMap);
+                if (Utils.chromosomeMapContains(chromosomeMap, currentKey)) {
+                    metaMap.put(currentKey, new ImmutablePair<>(startPosition, variantContext.getStart()));
+                }
+            }
+        }
+        indexer.clear();
+        indexer.close();
+        return metaMap;
+    }
+
+    private List<String> readDocuments(final VcfFile file) throws IOException {
+        final List<String> documents = new ArrayList<>();
+        try (Directory directory = fileManager.createIndexForFile(file);
+             IndexReader reader = DirectoryReader.open(directory)) {
+            for (int i = 0; i < reader.maxDoc(); i++) {
+                documents.add(toString(reader.document(i)));
+            }
+        }
+        Collections.sort(documents);
+        return documents;
+    }
+
+    private static String toString(final Document document) {
+        // uid is random for each variation
+        return document.getFields().stream()
+                .filter(field -> !FeatureIndexDao.FeatureIndexFields.UID.getFieldName().equals(field.name()))
+                .map(VcfContigIndexerTest::toString)
+                .sorted()
+                .collect(Collectors.joining(";"));
+    }
+
+    private static String toString(final IndexableField field) {
+        return field.name() + "=" + (field.stringValue() != null ? field.stringValue() : field.numericValue());
+    }
+
+    private static VcfFilterInfo getFilterInfo(final FeatureReader<VariantContext> reader) {
+        final VcfFilterInfo filterInfo = new VcfFilterInfo();
+        filterInfo.setInfoItemMap(((VCFHeader) reader.getHeader()).getInfoHeaderLines().stream()
+                .map(InfoItem::new)
+                .collect(Collectors.toMap(InfoItem::getName, item -> item)));
+        return filterInfo;
+    }
+
+    private FeatureReader<VariantContext> openReader() {
+        return AbstractEnhancedFeatureReader.getFeatureReader(vcfPath, vcfPath + ".tbi", new VCFCodec(), true,
+                null);
+    }
+
+    private VcfFile createFile(final String name) {
+        final VcfFile file = new VcfFile();
+        file.setId(FILE_ID);
+        file.setName(name);
+        file.setPath(vcfPath);
+        return file;
+    }
+
+    private File getIndexDir(final VcfFile file) {
+        final File indexDir = new File(folder.getRoot(), file.getName());
+        Assert.assertTrue(indexDir.exists() || indexDir.mkdirs());
+        return indexDir;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.vcf.reader;
+
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.vcf.VcfFile;
+import com.epam.catgenome.entity.vcf.VcfReaderFileStatistics;
+import com.epam.catgenome.entity.vcf.VcfReaderPoolStatistics;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+
+public class VcfReaderPoolTest {
+
+    private static final String VCF = "templates/CantonS.vcf.gz";
+    private static final String TBI_EXTENSION = ".tbi";
+    private static final long VCF_FILE_ID = 1L;
+    private static final String CHROMOSOME = "X";
+    private static final int START = 1;
+    private static final int END = 1_000_000;
+
+    private VcfReaderPool pool;
+    private VcfFile vcfFile;
+
+    @Before
+    public void setUp() {
+        pool = new VcfReaderPool();
+        ReflectionTestUtils.setField(pool, "maxSizeInBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(pool, "maxIdleReaders", 2);
+        ReflectionTestUtils.setField(pool, "idleTimeout", 0L);
+
+        final File file = new File(getClass().getClassLoader().getResource(VCF).getFile());
+        final BiologicalDataItem index = new BiologicalDataItem();
+        index.setPath(file.getPath() + TBI_EXTENSION);
+        vcfFile = new VcfFile();
+        vcfFile.setId(VCF_FILE_ID);
+        vcfFile.setPath(file.getPath());
+        vcfFile.setIndex(index);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void shouldReuseReleasedReader() throws IOException {
+        final FeatureReader<VariantContext> first;
+        final int count;
+        try (VcfReaderPool.Lease lease = pool.lease(vcfFile, null)) {
+            first = lease.getReader();
+            count = countVariations(lease);
+        }
+        Assert.assertTrue(count > 0);
+        try (VcfReaderPool.Lease lease = pool.lease(vcfFile, null);
+             VcfReaderPool.Lease concurrent = pool.lease(vcfFile, null)) {
+            Assert.assertSame(first, lease.getReader());
+            Assert.assertNotSame(first, concurrent.getReader());
+            Assert.assertEquals(count, countVariations(lease));
+            Assert.assertEquals(count, countVariations(concurrent));
+        }
+
+        final VcfReaderPoolStatistics statistics = pool.getStatistics();
+        Assert.assertEquals(1, statistics.getFiles());
+        Assert.assertEquals(2, statistics.getIdleReaders());
+        final VcfReaderFileStatistics fileStatistics = statistics.getFileStatistics().get(0);
+        Assert.assertEquals(1, fileStatistics.getHits());
+        Assert.assertEquals(2, fileStatistics.getMisses());
+        Assert.assertEquals(2, fileStatistics.getHeaderParses());
+        Assert.assertTrue(fileStatistics.getHeaderSizeInBytes() > 0);
+        Assert.assertEquals(statistics.getSizeInBytes(), fileStatistics.getHeaderSizeInBytes() * 2);
+    }
+
+    @Test
+    public void shouldCloseEvictedAndIdleReaders() throws IOException {
+        pool.lease(vcfFile, null).close();
+        pool.evict(VCF_FILE_ID);
+        Assert.assertEquals(0, pool.getStatistics().getFiles());
+        Assert.assertEquals(0, pool.getStatistics().getSizeInBytes());
+
+        pool.lease(vcfFile, null).close();
+        Assert.assertEquals(1, pool.getStatistics().getIdleReaders());
+        pool.evictIdle();
+        Assert.assertEquals(0, pool.getStatistics().getIdleReaders());
+        Assert.assertEquals(0, pool.getStatistics().getSizeInBytes());
+    }
+
+    @Test
+    public void shouldNotPoolUnregisteredFiles() throws IOException {
+        vcfFile.setId(null);
+        pool.lease(vcfFile, null).close();
+        Assert.assertEquals(0, pool.getStatistics().getFiles());
+    }
+
+    private int countVariations(final VcfReaderPool.Lease lease) throws IOException {
+        int count = 0;
+        try (CloseableIterator<VariantContext> iterator = lease.getReader().query(CHROMOSOME, START, END)) {
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.epam.catgenome.manager.wig;
+
+import com.epam.catgenome.entity.wig.Wig;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class WigZoomPyramidTest {
+
+    private static final int CHROMOSOME_SIZE = 1_000_000;
+    private static final float DELTA = 0.0001F;
+    private static final float PEAK = 7.5F;
+    private static final float DIP = -9.5F;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldKeepLargestMagnitudeOnAllLevels() throws IOException {
+        final WigZoomPyramid pyramid = new WigZoomPyramid(CHROMOSOME_SIZE);
+        Assert.assertEquals(100, pyramid.getBinCount());
+        pyramid.add(15_000, 15_100, PEAK);
+        pyramid.add(15_050, 15_060, 1F);
+        pyramid.add(512_000, 530_000, DIP);
+        final File file = folder.newFile();
+        pyramid.write(file);
+
+        Assert.assertNull(WigZoomPyramid.read(file, 1_000));
+
+        final List<Wig> fine = makeBlocks(10_000);
+        WigZoomPyramid.read(file, 10_000).fill(fine);
+        Assert.assertEquals(0F, fine.get(0).getValue(), DELTA);
+        Assert.assertEquals(PEAK, fine.get(1).getValue(), DELTA);
+        Assert.assertEquals(DIP, fine.get(51).getValue(), DELTA);
+        Assert.assertEquals(DIP, fine.get(52).getValue(), DELTA);
+        Assert.assertEquals(0F, fine.get(53).getValue(), DELTA);
+
+        final List<Wig> coarse = makeBlocks(CHROMOSOME_SIZE);
+        WigZoomPyramid.read(file, CHROMOSOME_SIZE).fill(coarse);
+        Assert.assertEquals(1, coarse.size());
+        Assert.assertEquals(DIP, coarse.get(0).getValue(), DELTA);
+    }
+
+    @Test
+    public void shouldSelectCoarsestLevelNotLargerThanBlock() throws IOException {
+        final WigZoomPyramid pyramid = new WigZoomPyramid(CHROMOSOME_SIZE);
+        for (int i = 0; i < pyramid.getBinCount(); i++) {
+            pyramid.set(i, i % 2 == 0 ? 1F : -2F);
+        }
+        final File file = folder.newFile();
+        pyramid.write(file);
+
+        // 60 kb blocks are served from the 50 kb level, so each block sees every other window
+        final List<Wig> blocks = makeBlocks(60_000);
+        WigZoomPyramid.read(file, 60_000).fill(blocks);
+        for (Wig block : blocks) {
+            Assert.assertEquals(-2F, block.getValue(), DELTA);
+        }
+    }
+
+    private static List<Wig> makeBlocks(final int size) {
+        final List<Wig> blocks = new ArrayList<>();
+        for (int start = 1; start <= CHROMOSOME_SIZE; start += size) {
+            blocks.add(new Wig(start, Math.min(CHROMOSOME_SIZE, start + size - 1)));
+        }
+        return blocks;
+    }
+}
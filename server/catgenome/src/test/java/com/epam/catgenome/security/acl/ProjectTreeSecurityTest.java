@@ -0,0 +1,170 @@
+/*
+ *
+ *  * MIT License
+ *  *
+ *  * Copyright (c) 2024 EPAM Systems
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package com.epam.catgenome.security.acl;
+
+import com.epam.catgenome.common.AbstractACLSecurityTest;
+import com.epam.catgenome.dao.BiologicalDataItemDao;
+import com.epam.catgenome.entity.BiologicalDataItem;
+import com.epam.catgenome.entity.bam.BamFile;
+import com.epam.catgenome.entity.project.Project;
+import com.epam.catgenome.entity.reference.Reference;
+import com.epam.catgenome.manager.project.ProjectSecurityService;
+import com.epam.catgenome.manager.user.UserManager;
+import com.epam.catgenome.util.AclTestDao;
+import com.epam.catgenome.util.NGBRegistrationUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ProjectTreeSecurityTest extends AbstractACLSecurityTest {
+
+    private static final String TEST_USER = "TEST_ADMIN";
+    private static final String TEST_USER_2 = "TEST_USER";
+    private static final String TEST_REF_NAME = "//dm606.X.fa";
+    private static final String TEST_BAM_NAME = "//agnX1.09-28.trim.dm606.realign.bam";
+
+    @Autowired
+    private BiologicalDataItemDao biologicalDataItemDao;
+
+    @Autowired
+    private NGBRegistrationUtils registrationUtils;
+
+    @Autowired
+    private AclTestDao aclTestDao;
+
+    @Autowired
+    private UserManager userManager;
+
+    @Autowired
+    private ProjectSecurityService projectSecurityService;
+
+    private BamFile permittedBam;
+    private BamFile deniedBam;
+    private Project project;
+    private AclTestDao.AclSid userSid;
+    private AclTestDao.AclObjectIdentity permittedBamIdentity;
+    private AclTestDao.AclObjectIdentity projectIdentity;
+
+    @Before
+    public void setup() throws IOException {
+        userManager.createUser(TEST_USER, new ArrayList<>(Arrays.asList(1L, 3L)),
+                new ArrayList<>(), Collections.emptyMap());
+        userManager.createUser(TEST_USER_2, new ArrayList<>(Arrays.asList(1L, 3L)),
+                new ArrayList<>(), Collections.emptyMap());
+        final Reference reference = registrationUtils.registerReference(TEST_REF_NAME,
+                TEST_REF_NAME + biologicalDataItemDao.createBioItemId(), TEST_USER);
+        permittedBam = registrationUtils.registerBam(reference, TEST_BAM_NAME, "permitted", TEST_USER);
+        deniedBam = registrationUtils.registerBam(reference, TEST_BAM_NAME, "denied", TEST_USER);
+        project = registrationUtils.registerProject("tree", TEST_USER, null, reference,
+                Arrays.asList(permittedBam, deniedBam));
+
+        final AclTestDao.AclSid ownerSid = new AclTestDao.AclSid(true, TEST_USER);
+        ownerSid.setId(1L);
+        aclTestDao.createAclSid(ownerSid);
+
+        userSid = new AclTestDao.AclSid(true, TEST_USER_2);
+        userSid.setId(2L);
+        aclTestDao.createAclSid(userSid);
+
+        final AclTestDao.AclClass refAclClass = new AclTestDao.AclClass(Reference.class.getCanonicalName());
+        refAclClass.setId(1L);
+        aclTestDao.createAclClassIfNotPresent(refAclClass);
+        final AclTestDao.AclObjectIdentity refIdentity = new AclTestDao.AclObjectIdentity(ownerSid,
+                reference.getId(), refAclClass.getId(), null, true);
+        refIdentity.setId(1L);
+        aclTestDao.createObjectIdentity(refIdentity);
+
+        final AclTestDao.AclClass projectAclClass = new AclTestDao.AclClass(Project.class.getCanonicalName());
+        projectAclClass.setId(2L);
+        aclTestDao.createAclClassIfNotPresent(projectAclClass);
+        projectIdentity = new AclTestDao.AclObjectIdentity(ownerSid, project.getId(),
+                projectAclClass.getId(), null, true);
+        projectIdentity.setId(2L);
+        aclTestDao.createObjectIdentity(projectIdentity);
+
+        final AclTestDao.AclClass bamAclClass = new AclTestDao.AclClass(BamFile.class.getCanonicalName());
+        bamAclClass.setId(3L);
+        aclTestDao.createAclClassIfNotPresent(bamAclClass);
+        permittedBamIdentity = new AclTestDao.AclObjectIdentity(ownerSid, permittedBam.getId(),
+                bamAclClass.getId(), null, true);
+        permittedBamIdentity.setId(3L);
+        aclTestDao.createObjectIdentity(permittedBamIdentity);
+        final AclTestDao.AclObjectIdentity deniedBamIdentity = new AclTestDao.AclObjectIdentity(ownerSid,
+                deniedBam.getId(), bamAclClass.getId(), null, true);
+        deniedBamIdentity.setId(4L);
+        aclTestDao.createObjectIdentity(deniedBamIdentity);
+    }
+
+    @Test
+    @WithMockUser(username = TEST_USER_2)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void filterTreeLeavesTest() {
+        grantRead(permittedBamIdentity, 1L);
+
+        final Project loaded = projectSecurityService.load(project.getId());
+        Assert.assertEquals(Collections.singletonList(permittedBam.getId()), getLeavesIds(loaded));
+    }
+
+    @Test
+    @WithMockUser(username = TEST_USER_2)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void filterListOfTreesTest() {
+        grantRead(projectIdentity, 2L);
+
+        final List<Project> loaded = projectSecurityService.loadTopLevelProjects().stream()
+                .filter(p -> p.getId().equals(project.getId()))
+                .collect(Collectors.toList());
+        Assert.assertEquals(1, loaded.size());
+        Assert.assertTrue(getLeavesIds(loaded.get(0)).containsAll(
+                Arrays.asList(permittedBam.getId(), deniedBam.getId())));
+    }
+
+    private void grantRead(final AclTestDao.AclObjectIdentity identity, final Long entryId) {
+        final AclTestDao.AclEntry entry = new AclTestDao.AclEntry(identity, 1, userSid,
+                AclPermission.READ.getMask(), true);
+        entry.setId(entryId);
+        aclTestDao.createAclEntry(entry);
+    }
+
+    private List<Long> getLeavesIds(final Project loaded) {
+        return loaded.getLeaves().stream()
+                .filter(leaf -> leaf instanceof BamFile)
+                .map(BiologicalDataItem::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks {@link BlockCachedSeekableStream} against a local HTTP server serving ranged requests
+ * the same way S3 and Azure storages do.
+ */
+public class BlockCachedSeekableStreamTest {
+
+    private static final int BLOCK_SIZE = 1024;
+    private static final int FILE_SIZE = 10 * BLOCK_SIZE + 100;
+    private static final long MAX_BYTES = 1024L * 1024;
+    private static final int MAX_REQUEST_BLOCKS = 4;
+    private static final int READ_AHEAD_BLOCKS = 2;
+    private static final int EXPIRATION_SECONDS = 60;
+    private static final int SEEKS = 200;
+    private static final int MAX_READ = 3000;
+    private static final String RANGE_PREFIX = "bytes=";
+    private static final String VERSION = "1";
+    private static final String NEXT_VERSION = "2";
+
+    private final byte[] data = new byte[FILE_SIZE];
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        new Random(1).nextBytes(data);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/file", exchange -> {
+            requests.incrementAndGet();
+            final String[] range = exchange.getRequestHeaders().getFirst("Range")
+                    .substring(RANGE_PREFIX.length()).split("-");
+            final int from = Integer.parseInt(range[0]);
+            final int to = Integer.parseInt(range[1]);
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_PARTIAL, to - from + 1);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(data, from, to - from + 1);
+            }
+        });
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/file";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldReturnSameBytesAfterRandomSeeks() throws IOException {
+        final BlockCachedSeekableStream stream = createStream(createCache(0));
+        final Random random = new Random(2);
+        for (int i = 0; i < SEEKS; i++) {
+            final int position = random.nextInt(FILE_SIZE);
+            final byte[] buffer = new byte[1 + random.nextInt(MAX_READ)];
+            stream.seek(position);
+            final int read = stream.read(buffer, 0, buffer.length);
+            assertEquals(Math.min(buffer.length, FILE_SIZE - position), read);
+            assertArrayEquals(Arrays.copyOfRange(data, position, position + read),
+                    Arrays.copyOf(buffer, read));
+            assertEquals(position + read, stream.position());
+        }
+        assertTrue(requests.get() <= FILE_SIZE / BLOCK_SIZE + 1);
+        stream.seek(FILE_SIZE);
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    public void shouldCoalesceAdjacentBlocksAndServeRepeatedReadsFromCache() throws IOException {
+        final BlockCache cache = createCache(0);
+        final BlockCachedSeekableStream stream = createStream(cache);
+        final byte[] buffer = new byte[3 * BLOCK_SIZE];
+        stream.seek(BLOCK_SIZE / 2);
+        stream.read(buffer, 0, buffer.length);
+        assertEquals(1, requests.get());
+
+        final BlockCachedSeekableStream another = createStream(cache);
+        another.seek(BLOCK_SIZE);
+        another.read(buffer, 0, 2 * BLOCK_SIZE);
+        another.seek(0);
+        assertEquals(data[0], (byte) another.read());
+        assertEquals(1, requests.get());
+
+        stream.seek(0);
+        stream.read(new byte[FILE_SIZE], 0, FILE_SIZE);
+        assertEquals(1 + 2, requests.get());
+    }
+
+    @Test
+    public void shouldReadAheadOnSequentialReads() throws IOException {
+        final BlockCachedSeekableStream stream = createStream(createCache(READ_AHEAD_BLOCKS));
+        final byte[] buffer = new byte[BLOCK_SIZE];
+        stream.read(buffer, 0, buffer.length);
+        assertEquals(1, requests.get());
+        stream.read(buffer, 0, buffer.length);
+        assertEquals(1 + 1 + 1, requests.get());
+        stream.read(buffer, 0, buffer.length);
+        assertArrayEquals(Arrays.copyOfRange(data, 2 * BLOCK_SIZE, 3 * BLOCK_SIZE), buffer);
+        assertEquals(1 + 1 + 1 + 1, requests.get());
+    }
+
+    @Test
+    public void shouldNotServeBlocksOfPreviousVersion() throws IOException {
+        final BlockCache cache = createCache(0);
+        final byte[] buffer = new byte[BLOCK_SIZE];
+        createStream(cache).read(buffer, 0, buffer.length);
+        assertArrayEquals(Arrays.copyOf(data, BLOCK_SIZE), buffer);
+
+        new Random(3).nextBytes(data);
+        createStream(cache, NEXT_VERSION).read(buffer, 0, buffer.length);
+        assertArrayEquals(Arrays.copyOf(data, BLOCK_SIZE), buffer);
+        assertEquals(2, requests.get());
+    }
+
+    private BlockCache createCache(final int readAheadBlocks) {
+        return new BlockCache(BLOCK_SIZE, MAX_BYTES, MAX_REQUEST_BLOCKS, readAheadBlocks, EXPIRATION_SECONDS,
+                Runnable::run);
+    }
+
+    private BlockCachedSeekableStream createStream(final BlockCache cache) {
+        return createStream(cache, VERSION);
+    }
+
+    private BlockCachedSeekableStream createStream(final BlockCache cache, final String version) {
+        return new BlockCachedSeekableStream(url, version, FILE_SIZE, cache, this::load);
+    }
+
+    private InputStream load(final long from, final long to) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestProperty("Range", RANGE_PREFIX + from + "-" + to);
+        return connection.getInputStream();
+    }
+}
@@ -26,6 +26,7 @@ package com.epam.catgenome.util;
 
 import com.epam.catgenome.entity.reference.motif.Motif;
 import com.epam.catgenome.manager.gene.parser.StrandSerializable;
+import com.epam.catgenome.util.motif.IupacMotifSearchIterator;
 import com.epam.catgenome.util.motif.IupacRegexConverter;
 import com.epam.catgenome.util.motif.MotifSearchIterator;
 import com.epam.catgenome.util.motif.MotifSearcher;
@@ -35,8 +36,13 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class MotifSearcherTest {
@@ -49,6 +55,8 @@ public class MotifSearcherTest {
     public static final String TEST_REFERENCE_SOURCE = "/templates/dm606.X.fa";
     public static final int MAX_SIZE_SEARCH_RESULT_LIMIT = 2000000;
     public static final int SIZE_SEARCH_RESULT_LOW_LIMIT = 20000;
+    public static final int RANDOM_SEQUENCE_LENGTH = 200000;
+    public static final long RANDOM_SEED = 42;
 
     @Test
     public void searchTest() {
@@ -278,6 +286,31 @@ public class MotifSearcherTest {
         Assert.assertEquals(expectedSize, sumResult);
     }
 
+    @Test
+    public void searchInLargeBufferWhenGivenIupacMotifMatchesRegexSearch() {
+        final byte[] largeTestSequence = getRandomTestSequence();
+        final String[] iupacMotifs = {"tacyrw", "GATC", "gcNNngc", "ACGTRYMKSWHBVDN", "ssw", "t"};
+        for (final String motif : iupacMotifs) {
+            for (final StrandSerializable strand : Arrays.asList(null, StrandSerializable.POSITIVE,
+                    StrandSerializable.NEGATIVE)) {
+                final List<Motif> expected = toList(new MotifSearchIterator(largeTestSequence, motif, strand,
+                        "X", 1, true, MAX_SIZE_SEARCH_RESULT_LIMIT));
+                final List<Motif> actual = toList(new IupacMotifSearchIterator(largeTestSequence, motif, strand,
+                        "X", 1, true));
+                Assert.assertEquals(motif + " " + strand, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void searchPalindromeWhenGivenIupacMotifReturnsPositiveStrandFirst() {
+        final List<Motif> motifs = MotifSearcher.search("aaGCtt".getBytes(StandardCharsets.UTF_8), "gs", "", 0,
+                true, MAX_SIZE_SEARCH_RESULT_LIMIT).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList(
+                new Motif("", 2, 3, StrandSerializable.POSITIVE, "GC"),
+                new Motif("", 2, 3, StrandSerializable.NEGATIVE, "GC")), motifs);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void searchInLargeBufferOnPositiveStrandWhenGivenShortestTestRegexAndSetModestResultSizeLimitShouldFail()
             throws IOException {
@@ -292,6 +325,22 @@ public class MotifSearcherTest {
                StrandSerializable.NEGATIVE, "", 0, true, SIZE_SEARCH_RESULT_LOW_LIMIT);
     }
 
+    private static byte[] getRandomTestSequence() {
+        final byte[] nucleotides = "ACGTNacgtn".getBytes(StandardCharsets.UTF_8);
+        final Random random = new Random(RANDOM_SEED);
+        final byte[] sequence = new byte[RANDOM_SEQUENCE_LENGTH];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = nucleotides[random.nextInt(nucleotides.length)];
+        }
+        return sequence;
+    }
+
+    private static List<Motif> toList(final Iterator<Motif> iterator) {
+        final List<Motif> motifs = new ArrayList<>();
+        iterator.forEachRemaining(motifs::add);
+        return motifs;
+    }
+
     private byte[] getTestSequenceFromResource(final String path) throws IOException {
         final InputStream resourceAsStream = getClass().getResourceAsStream(path);
         byte[] buf = new byte[resourceAsStream.available()];
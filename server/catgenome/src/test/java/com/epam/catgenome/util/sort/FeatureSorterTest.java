@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 EPAM Systems
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.epam.catgenome.util.sort;
+
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class FeatureSorterTest {
+
+    private static final int RECORDS_COUNT = 40000;
+    private static final int CHROMOSOMES_COUNT = 12;
+    private static final int MAX_START = 5000;
+    private static final int MAX_MEMORY = 1;
+    private static final int THREADS = 3;
+    private static final List<String> HEADER = Arrays.asList(
+            "##fileformat=VCFv4.2", "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File input;
+    private List<String> expected;
+
+    @Before
+    public void setUp() throws IOException {
+        final Random random = new Random(1);
+        final List<String> records = new ArrayList<>();
+        for (int i = 0; i < RECORDS_COUNT; i++) {
+            records.add(String.format("chr%d\t%d\tid%d\tA\tG\t.\tPASS\t.",
+                    random.nextInt(CHROMOSOMES_COUNT), random.nextInt(MAX_START), i));
+        }
+        input = folder.newFile("input.vcf");
+        final List<String> lines = new ArrayList<>(HEADER);
+        lines.addAll(records);
+        Files.write(input.toPath(), lines, StandardCharsets.UTF_8);
+        expected = new ArrayList<>(HEADER);
+        expected.addAll(records.stream()
+                .sorted(Comparator.comparing((String line) -> line.split("\t")[0])
+                        .thenComparingInt(line -> Integer.parseInt(line.split("\t")[1])))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldSortWithSpilledRunsPreservingInputOrderOfEqualRecords() throws IOException {
+        final File output = new File(folder.getRoot(), "output.vcf");
+        new VCFSorter(input, output, folder.newFolder()).run(MAX_MEMORY, THREADS);
+        assertEquals(expected, Files.readAllLines(output.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldWriteValidBgzfOutput() throws IOException {
+        final File output = new File(folder.getRoot(), "output.vcf.gz");
+        new VCFSorter(input, output, folder.newFolder()).run(MAX_MEMORY, THREADS);
+        assertEquals(BlockCompressedInputStream.FileTermination.HAS_TERMINATOR_BLOCK,
+                BlockCompressedInputStream.checkTermination(output));
+        try (InputStream stream = new BlockCompressedInputStream(new FileInputStream(output));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            assertEquals(expected, reader.lines().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void shouldSortSmallFileInMemory() throws IOException {
+        final File small = folder.newFile("small.bed");
+        Files.write(small.toPath(), "track name=test\nchr2\t10\t20\nchr1\t30\t40\n\nchr1\t5\t9\n"
+                .getBytes(StandardCharsets.UTF_8));
+        final File output = new File(folder.getRoot(), "small.sorted.bed");
+        new BedSorter(small, output, folder.newFolder()).run(MAX_MEMORY);
+        final List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+        assertEquals("track name=test", lines.get(0));
+        assertEquals("chr1\t5\t9", lines.get(1));
+        assertEquals("chr1\t30\t40", lines.get(2));
+        assertEquals("chr2\t10\t20", lines.get(lines.size() - 1));
+    }
+}